@@ -0,0 +1,125 @@
+package com.SAFE_Rescue.API_Registros.benchmark;
+
+import com.SAFE_Rescue.API_Registros.ApiConfiguracionesApplication;
+import com.SAFE_Rescue.API_Registros.modelo.Estado;
+import com.SAFE_Rescue.API_Registros.repository.EstadoRepository;
+import com.SAFE_Rescue.API_Registros.service.EstadoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas del catálogo de estados: instantánea en memoria de {@link EstadoService} frente a la consulta
+ * a la BD que hacía antes cada lectura (ahora solo {@link EstadoRepository}).
+ * <p>
+ * Usa una base H2 en memoria con 20 estados, por lo que el costo de la BD es una cota inferior del de MySQL
+ * por red. El grupo {@code mixto} mide 7 hilos leyendo mientras uno actualiza y recarga el catálogo sin pausa,
+ * para comprobar que los reemplazos de la instantánea no frenan a los lectores.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx512m"})
+public class CatalogoEstadoBenchmark {
+
+    private static final int CANTIDAD_ESTADOS = 20;
+
+    private ConfigurableApplicationContext contexto;
+    private EstadoService estadoService;
+    private EstadoRepository estadoRepository;
+    private List<Estado> estados;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        DatosBenchmark.silenciarSalida();
+        contexto = new SpringApplicationBuilder(ApiConfiguracionesApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-estados;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        // Tareas programadas fuera de la ventana de medición
+                        "--fotos.migracion.retraso-inicial-ms=86400000",
+                        "--fotos.limpieza.retraso-inicial-ms=86400000",
+                        "--estados.catalogo.recarga-ms=86400000");
+        estadoService = contexto.getBean(EstadoService.class);
+        estadoRepository = contexto.getBean(EstadoRepository.class);
+        for (int i = 1; i <= CANTIDAD_ESTADOS; i++) {
+            estadoService.save(new Estado(0, "Estado " + i, "Estado de prueba " + i));
+        }
+        estados = estadoService.findAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+
+    private Estado alAzar() {
+        return estados.get(ThreadLocalRandom.current().nextInt(estados.size()));
+    }
+
+    @Benchmark
+    public Estado porIdCatalogo() {
+        return estadoService.findById(alAzar().getIdEstado());
+    }
+
+    @Benchmark
+    public Estado porIdBd() {
+        return estadoRepository.findById(alAzar().getIdEstado()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Estado> porNombreCatalogo() {
+        return estadoService.findByNombre(alAzar().getNombre().toUpperCase());
+    }
+
+    @Benchmark
+    public List<Estado> porNombreBd() {
+        return estadoRepository.findByNombre(alAzar().getNombre());
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(7)
+    public Estado mixtoLeer() {
+        return estadoService.findById(alAzar().getIdEstado());
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(1)
+    public Estado mixtoEscribir() {
+        Estado estado = alAzar();
+        estadoService.update(new Estado(0, estado.getNombre(), "Actualizado " + System.nanoTime() % 1000), estado.getIdEstado());
+        return estado;
+    }
+}
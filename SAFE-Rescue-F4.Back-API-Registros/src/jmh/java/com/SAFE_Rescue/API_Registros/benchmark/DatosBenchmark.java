@@ -0,0 +1,70 @@
+package com.SAFE_Rescue.API_Registros.benchmark;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+final class DatosBenchmark {
+
+    private DatosBenchmark() {
+    }
+
+    /**
+     * Genera una foto sintética con degradados y ruido, para que el tamaño comprimido se parezca al de una
+     * foto real de la misma resolución (una imagen plana comprime demasiado bien).
+     *
+     * @param formato "jpeg" o "png".
+     * @param ancho   Ancho en píxeles.
+     * @param alto    Alto en píxeles.
+     */
+    static byte[] foto(String formato, int ancho, int alto) {
+        Random random = new Random(ancho * 31L + alto);
+        BufferedImage imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < alto; y++) {
+            for (int x = 0; x < ancho; x++) {
+                int r = (255 * x / ancho + random.nextInt(24)) & 0xFF;
+                int g = (255 * y / alto + random.nextInt(24)) & 0xFF;
+                int b = (128 + random.nextInt(24)) & 0xFF;
+                imagen.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        try {
+            ImageWriter escritor = ImageIO.getImageWritersByFormatName(formato).next();
+            ByteArrayOutputStream salida = new ByteArrayOutputStream();
+            try (ImageOutputStream ios = ImageIO.createImageOutputStream(salida)) {
+                escritor.setOutput(ios);
+                ImageWriteParam parametros = escritor.getDefaultWriteParam();
+                if ("jpeg".equals(formato)) {
+                    parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    parametros.setCompressionQuality(0.9f);
+                }
+                escritor.write(null, new IIOImage(imagen, null, null), parametros);
+            } finally {
+                escritor.dispose();
+            }
+            return salida.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo generar la foto de prueba", e);
+        }
+    }
+
+    /**
+     * Descarta lo que se escribe en {@code System.out}. Los servicios registran cada subida por consola y,
+     * a millones de operaciones, la escritura a la terminal dominaría la medición; el formateo de los
+     * mensajes se sigue midiendo.
+     */
+    static void silenciarSalida() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
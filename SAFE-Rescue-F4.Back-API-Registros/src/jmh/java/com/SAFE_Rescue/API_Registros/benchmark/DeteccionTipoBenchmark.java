@@ -0,0 +1,54 @@
+package com.SAFE_Rescue.API_Registros.benchmark;
+
+import com.SAFE_Rescue.API_Registros.service.FotoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detección del tipo MIME de una subida: Tika (lee la firma de los bytes) frente a la extensión del nombre.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeteccionTipoBenchmark {
+
+    @Param({"jpeg", "png"})
+    private String formato;
+
+    // Solo se usan métodos que no dependen de los beans inyectados
+    private final FotoService fotoService = new FotoService();
+
+    private byte[] foto;
+    private String nombre;
+
+    @Setup
+    public void preparar() {
+        DatosBenchmark.silenciarSalida();
+        foto = DatosBenchmark.foto(formato, 1920, 1080);
+        nombre = "incidente." + ("jpeg".equals(formato) ? "jpg" : "png");
+    }
+
+    @Benchmark
+    public String tika() {
+        return fotoService.determinarTipoContenido(foto, nombre);
+    }
+
+    @Benchmark
+    public String extension() {
+        return fotoService.determinarTipoPorExtension(nombre);
+    }
+}
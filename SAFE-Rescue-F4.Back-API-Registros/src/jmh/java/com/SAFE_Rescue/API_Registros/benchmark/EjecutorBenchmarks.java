@@ -0,0 +1,36 @@
+package com.SAFE_Rescue.API_Registros.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de los benchmarks JMH de API_Registros.
+ * <p>
+ * Cada benchmark mide en modo throughput y en modo muestreo (que entrega los percentiles, incluido p99);
+ * el perfilador de GC agrega la tasa de asignación ({@code gc.alloc.rate} y {@code gc.alloc.rate.norm}).
+ * Los resultados quedan en {@code target/jmh-resultados.json} para compararlos entre versiones.
+ * </p>
+ * <p>
+ * Uso: {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.filtro=DeteccionTipo}
+ * </p>
+ */
+public final class EjecutorBenchmarks {
+
+    private EjecutorBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String filtro = args.length > 0 ? args[0] : ".*Benchmark.*";
+        Options opciones = new OptionsBuilder()
+                .include(filtro)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-resultados.json")
+                .build();
+        new Runner(opciones).run();
+    }
+}
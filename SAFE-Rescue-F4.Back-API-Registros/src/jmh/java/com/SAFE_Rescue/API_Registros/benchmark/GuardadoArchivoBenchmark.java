@@ -0,0 +1,102 @@
+package com.SAFE_Rescue.API_Registros.benchmark;
+
+import com.SAFE_Rescue.API_Registros.service.FotoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estrategias para escribir en disco el archivo de una foto subida.
+ * <p>
+ * {@code guardarArchivoFisico} es la implementación actual (FileOutputStream); las demás son alternativas
+ * con NIO, con y sin {@code fsync}. Todas escriben en {@code uploads/fotos} y borran el archivo al final
+ * de la operación, para no llenar el disco; el borrado pesa lo mismo en todas.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuardadoArchivoBenchmark {
+
+    // Tamaños típicos: foto comprimida por la app (~250 KB) y foto original de un teléfono (~2,5 MB)
+    @Param({"262144", "2621440"})
+    private int tamanio;
+
+    private final FotoService fotoService = new FotoService();
+
+    private byte[] datos;
+    private Path directorio;
+
+    @Setup
+    public void preparar() throws IOException {
+        DatosBenchmark.silenciarSalida();
+        datos = new byte[tamanio];
+        new Random(tamanio).nextBytes(datos);
+        directorio = Files.createDirectories(Paths.get(FotoService.UPLOAD_DIR));
+    }
+
+    @Benchmark
+    public String guardarArchivoFisico() throws IOException {
+        String ruta = fotoService.guardarArchivoFisico(datos, "incidente.jpg");
+        Files.delete(Paths.get(ruta));
+        return ruta;
+    }
+
+    @Benchmark
+    public Path filesWrite() throws IOException {
+        Path archivo = Files.write(nuevoArchivo(), datos, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        Files.delete(archivo);
+        return archivo;
+    }
+
+    @Benchmark
+    public Path fileChannel() throws IOException {
+        return escribirConCanal(false);
+    }
+
+    @Benchmark
+    public Path fileChannelConFsync() throws IOException {
+        return escribirConCanal(true);
+    }
+
+    private Path escribirConCanal(boolean sincronizar) throws IOException {
+        Path archivo = nuevoArchivo();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(datos);
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            if (sincronizar) {
+                canal.force(false);
+            }
+        }
+        Files.delete(archivo);
+        return archivo;
+    }
+
+    private Path nuevoArchivo() {
+        return directorio.resolve("bench_" + UUID.randomUUID() + ".jpg");
+    }
+}
@@ -0,0 +1,79 @@
+package com.SAFE_Rescue.API_Registros.benchmark;
+
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de las respuestas de fotos: una {@link Foto} completa (respuesta de {@code /upload}
+ * y {@code /{id}}) y una página de 50 {@link FotoResumenDTO} (respuesta de {@code GET /fotos}).
+ * El {@code ObjectMapper} se configura como el de Spring Boot (módulos registrados, fechas como texto).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionFotoBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Foto foto;
+    private List<FotoResumenDTO> pagina;
+
+    @Setup
+    public void preparar() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime fecha = LocalDateTime.of(2025, 11, 23, 16, 40, 23);
+        foto = new Foto();
+        foto.setIdFoto(1024);
+        foto.setUrl("uploads/fotos/20251123_164023_1bc66e4c.jpg");
+        foto.setTipo("image/jpeg");
+        foto.setTamanio(2_457_600);
+        foto.setHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        foto.setArchivoFaltante(false);
+        foto.setLatitud(-33.4489);
+        foto.setLongitud(-70.6693);
+        foto.setFechaCaptura(fecha.minusMinutes(5));
+        foto.setFechaSubida(fecha);
+        foto.setDescripcion("Incendio estructural, acceso por calle lateral");
+
+        pagina = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pagina.add(new FotoResumenDTO(i, "uploads/fotos/20251123_164023_" + i + ".jpg", "image/jpeg",
+                    2_000_000 + i, fecha.plusSeconds(i), "Foto " + i));
+        }
+    }
+
+    @Benchmark
+    public byte[] foto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(foto);
+    }
+
+    @Benchmark
+    public byte[] paginaResumen() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,142 @@
+package com.SAFE_Rescue.API_Registros.benchmark;
+
+import com.SAFE_Rescue.API_Registros.ApiConfiguracionesApplication;
+import com.SAFE_Rescue.API_Registros.service.FotoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Subidas concurrentes de fotos de extremo a extremo contra la aplicación completa.
+ * <p>
+ * Levanta API_Registros con Tomcat en un puerto libre y una base H2 en memoria, y 8 hilos envían
+ * {@code POST /api-registros/v1/fotos/upload} en paralelo: detección de tipo, escritura a disco, EXIF,
+ * hash perceptual, inserción en la BD y serialización de la respuesta. Como el servidor corre en la misma
+ * JVM, la tasa de asignación del perfilador de GC incluye el trabajo del servidor.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+public class SubidaFotoBenchmark {
+
+    private static final String LIMITE = "----benchmark-safe-rescue";
+
+    // Resolución de la foto: cámara reducida por la app (1280x960) y original de teléfono (3264x2448)
+    @Param({"1280x960", "3264x2448"})
+    private String resolucion;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private URI uri;
+    private byte[] cuerpo;
+    private Set<Path> archivosPrevios;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        DatosBenchmark.silenciarSalida();
+        archivosPrevios = listarSubidas();
+
+        contexto = new SpringApplicationBuilder(ApiConfiguracionesApplication.class).run(
+                "--spring.profiles.active=benchmark",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                // Tareas programadas fuera de la ventana de medición
+                "--fotos.migracion.retraso-inicial-ms=86400000",
+                "--fotos.limpieza.retraso-inicial-ms=86400000",
+                "--fotos.normalizacion.habilitada=false");
+        String puerto = contexto.getEnvironment().getProperty("local.server.port");
+        uri = URI.create("http://localhost:" + puerto + "/api-registros/v1/fotos/upload");
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String[] dimensiones = resolucion.split("x");
+        cuerpo = multipart(DatosBenchmark.foto("jpeg", Integer.parseInt(dimensiones[0]), Integer.parseInt(dimensiones[1])));
+    }
+
+    @Benchmark
+    public int subir() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "multipart/form-data; boundary=" + LIMITE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo))
+                .build();
+        HttpResponse<Void> respuesta = cliente.send(request, HttpResponse.BodyHandlers.discarding());
+        if (respuesta.statusCode() != 201) {
+            throw new IllegalStateException("Respuesta inesperada: " + respuesta.statusCode());
+        }
+        return respuesta.statusCode();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() throws IOException {
+        if (contexto != null) {
+            contexto.close();
+        }
+        // Se eliminan solo los archivos creados por esta ejecución
+        for (Path archivo : listarSubidas()) {
+            if (!archivosPrevios.contains(archivo)) {
+                Files.deleteIfExists(archivo);
+            }
+        }
+    }
+
+    private static Set<Path> listarSubidas() throws IOException {
+        Path directorio = Paths.get(FotoService.UPLOAD_DIR);
+        if (!Files.isDirectory(directorio)) {
+            return Set.of();
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return new HashSet<>(archivos.toList());
+        }
+    }
+
+    private static byte[] multipart(byte[] foto) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(foto.length + 512);
+        for (String linea : List.of(
+                "--" + LIMITE,
+                "Content-Disposition: form-data; name=\"file\"; filename=\"incidente.jpg\"",
+                "Content-Type: image/jpeg",
+                "")) {
+            salida.writeBytes((linea + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        salida.writeBytes(foto);
+        salida.writeBytes(("\r\n--" + LIMITE + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return salida.toByteArray();
+    }
+}
@@ -2,8 +2,10 @@ package com.SAFE_Rescue.API_Registros;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ApiConfiguracionesApplication {
 
 	public static void main(String[] args) {
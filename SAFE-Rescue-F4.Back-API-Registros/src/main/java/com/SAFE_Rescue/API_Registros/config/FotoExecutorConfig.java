@@ -0,0 +1,55 @@
+package com.SAFE_Rescue.API_Registros.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pools de hilos acotados para el procesamiento de fotos.
+ * <p>
+ * Los pools tienen un número fijo de hilos y una cola limitada, de modo que el trabajo pendiente
+ * nunca crece sin límite. Cada pool define qué hacer cuando su cola se llena.
+ * </p>
+ */
+@Configuration
+public class FotoExecutorConfig {
+
+    /**
+     * Pool usado para guardar en paralelo los archivos de {@code /fotos/upload-lote}.
+     */
+    @Bean(name = "fotoLoteExecutor", destroyMethod = "shutdown")
+    public ExecutorService fotoLoteExecutor(@Value("${fotos.lote.hilos:4}") int hilos,
+                                            @Value("${fotos.lote.cola:64}") int cola) {
+        return crearPoolAcotado("foto-lote-", hilos, cola, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Pool usado para recomprimir fotos después de subirlas. Es una etapa opcional:
+     * si la cola está llena la foto se deja sin normalizar en lugar de frenar la subida.
+     */
+    @Bean(name = "fotoNormalizacionExecutor", destroyMethod = "shutdown")
+    public ExecutorService fotoNormalizacionExecutor(@Value("${fotos.normalizacion.hilos:2}") int hilos,
+                                                     @Value("${fotos.normalizacion.cola:100}") int cola) {
+        return crearPoolAcotado("foto-normalizacion-", hilos, cola, (tarea, pool) ->
+                System.err.println(" [FotoExecutorConfig] Cola de normalización llena, se omite una foto"));
+    }
+
+    static ExecutorService crearPoolAcotado(String prefijo, int hilos, int cola, RejectedExecutionHandler alRechazar) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, prefijo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(hilos, hilos, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(cola), threadFactory, alRechazar);
+    }
+}
@@ -10,9 +10,11 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -31,23 +33,59 @@ public class EstadoController {
     // OPERACIONES CRUD BÁSICAS
 
     /**
-     * Obtiene todos los estados registrados en el sistema.
+     * Obtiene todos los estados registrados en el sistema, o solo los indicados en {@code ids}.
+     * <p>
+     * La respuesta lleva un {@code ETag} con la versión del catálogo; si el cliente envía
+     * {@code If-None-Match} con la versión vigente, se responde 304 sin cuerpo.
+     * </p>
+     * @param ids IDs a buscar (opcional, separados por coma).
      * @return ResponseEntity con lista de estados o estado NO_CONTENT si no hay registros.
      */
     @GetMapping
-    @Operation(summary = "Obtener todos los estados", description = "Obtiene una lista con todos los estados.")
+    @Operation(summary = "Obtener todos los estados", description = "Obtiene una lista con todos los estados o con los estados de los IDs indicados.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de estados obtenida exitosamente.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Estado.class))),
-            @ApiResponse(responseCode = "204", description = "No hay estados registrados.")
+            @ApiResponse(responseCode = "204", description = "No hay estados registrados."),
+            @ApiResponse(responseCode = "304", description = "El catálogo no ha cambiado desde la versión indicada en If-None-Match."),
+            @ApiResponse(responseCode = "400", description = "Se pidieron demasiados IDs.")
     })
-    public ResponseEntity<List<Estado>> listar() {
-        List<Estado> estados = estadoService.findAll();
+    public ResponseEntity<?> listar(@Parameter(description = "IDs de los estados a buscar (ej. 1,2,3)")
+                                    @RequestParam(required = false) List<Integer> ids,
+                                    WebRequest request) {
+        String etag = etagCatalogo();
+        if (request.checkNotModified(etag)) {
+            // Spring ya preparó la respuesta 304
+            return null;
+        }
+
+        List<Estado> estados;
+        try {
+            estados = ids == null ? estadoService.findAll() : estadoService.findAllById(ids);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
         if (estados.isEmpty()) {
-            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            return ResponseEntity.noContent().eTag(etag).build();
         }
-        return ResponseEntity.ok(estados);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(estados);
+    }
+
+    /**
+     * Obtiene la versión actual del catálogo de estados.
+     * @return ResponseEntity con la versión del catálogo.
+     */
+    @GetMapping("/version")
+    @Operation(summary = "Obtener la versión del catálogo", description = "Obtiene la versión del catálogo de estados: un hash de su contenido, igual en todas las instancias, que cambia cuando cambia algún estado.")
+    @ApiResponse(responseCode = "200", description = "Versión del catálogo.")
+    public ResponseEntity<Long> obtenerVersion() {
+        return ResponseEntity.ok()
+                .eTag(etagCatalogo())
+                .body(estadoService.getVersionCatalogo());
     }
 
     /**
@@ -175,4 +213,8 @@ public class EstadoController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
         }
     }
-}
\ No newline at end of file
+
+    private String etagCatalogo() {
+        return "\"estados-" + estadoService.getVersionCatalogo() + "\"";
+    }
+}
@@ -1,7 +1,16 @@
 package com.SAFE_Rescue.API_Registros.controller;
 
+import com.SAFE_Rescue.API_Registros.dto.ContenidoFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FiltroFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoSimilarDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoUbicacionDTO;
+import com.SAFE_Rescue.API_Registros.dto.PaginaFotosDTO;
+import com.SAFE_Rescue.API_Registros.dto.ResultadoSubidaDTO;
 import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.service.FotoLoteService;
 import com.SAFE_Rescue.API_Registros.service.FotoService;
+import com.SAFE_Rescue.API_Registros.service.SimilitudFotoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,13 +18,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
-import org.apache.tika.Tika;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -29,9 +47,17 @@ import java.util.NoSuchElementException;
 @Tag(name = "Fotos", description = "Operaciones de CRUD relacionadas con Fotos")
 public class FotoController {
 
+    private static final int MAX_TAMANIO_PAGINA = 200;
+
     @Autowired
     private FotoService fotoService;
 
+    @Autowired
+    private FotoLoteService fotoLoteService;
+
+    @Autowired
+    private SimilitudFotoService similitudFotoService;
+
     @PostMapping("/upload")
     @Operation(summary = "Subir una foto", description = "Sube una foto en formato multipart/form-data")
     @ApiResponses(value = {
@@ -48,50 +74,15 @@ public class FotoController {
             System.out.println(" [FotoController] Recibiendo upload de foto: " + file.getOriginalFilename());
             System.out.println("   Tamaño: " + file.getSize() + " bytes");
 
-            if (file.isEmpty()) {
-                System.err.println(" Archivo vacío");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("El archivo está vacío");
-            }
-
-            //  Validar tamaño (máximo 5MB)
-            long maxSize = 5 * 1024 * 1024; // 5MB
-            if (file.getSize() > maxSize) {
+            //  Validar tamaño antes de leer el archivo en memoria (máximo 5MB)
+            if (file.getSize() > FotoService.TAMANIO_MAXIMO) {
                 System.err.println(" Archivo demasiado grande: " + file.getSize() + " bytes");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body("El archivo no debe superar 5MB. Tamaño actual: " + (file.getSize() / 1024 / 1024) + "MB");
             }
 
-            // Convertir archivo a bytes
-            byte[] fotoBytes = file.getBytes();
-            String filename = file.getOriginalFilename();
-
-            //  Determinar el tipo MIME
-            String contentType = determineContentTypeWithTika(fotoBytes, filename);
-
-            System.out.println("   Content-Type determinado: " + contentType);
-
-            if (contentType == null) {
-                System.err.println(" Tipo de archivo no soportado: " + filename);
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("Solo se aceptan imágenes (JPG, PNG, GIF, WebP, BMP, SVG)");
-            }
-
-            //  Guardar archivo en el sistema de archivos
-            String savedFilePath = fotoService.guardarArchivoFisico(fotoBytes, filename);
-            System.out.println("   Archivo guardado en: " + savedFilePath);
-
-            //  Crear objeto Foto SIN los bytes (solo metadatos y URL)
-            Foto foto = new Foto();
-            foto.setUrl(savedFilePath);                // Ruta del archivo
-            foto.setDatos(null);                       // NO guardar bytes en BD
-            foto.setTipo(contentType);
-            foto.setTamanio((int) file.getSize());
-            foto.setFechaSubida(LocalDateTime.now());
-            foto.setDescripcion("Foto de perfil");
-
-            // Guardar metadatos en la BD
-            Foto fotoGuardada = fotoService.save(foto);
+            // Validar, guardar archivo y metadatos en la BD
+            Foto fotoGuardada = fotoService.subirFoto(file.getBytes(), file.getOriginalFilename(), "Foto de perfil");
 
             System.out.println(" [FotoController] Foto guardada - ID: " + fotoGuardada.getIdFoto());
             System.out.println("   URL: " + fotoGuardada.getUrl());
@@ -100,6 +91,9 @@ public class FotoController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(fotoGuardada);
 
+        } catch (IllegalArgumentException e) {
+            System.err.println(" Archivo rechazado: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (IOException e) {
             System.err.println(" Error al leer archivo: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -112,70 +106,136 @@ public class FotoController {
         }
     }
 
-    //  Método mejorado: Usa Tika primero, luego fallback a extensión
-    private String determineContentTypeWithTika(byte[] fileBytes, String filename) {
-        try {
-            Tika tika = new Tika();
-            String detectedType = tika.detect(fileBytes);
-
-            System.out.println("   MIME type detectado por Tika: " + detectedType);
-
-            // Validar que sea una imagen
-            if (detectedType != null && detectedType.startsWith("image/")) {
-                return detectedType;
-            }
-        } catch (Exception e) {
-            System.out.println(" Tika no disponible, usando detección por extensión");
+    @PostMapping("/upload-lote")
+    @Operation(summary = "Subir varias fotos", description = "Sube varias fotos en una sola petición multipart/form-data. " +
+            "Cada archivo se procesa en paralelo y de forma independiente: un archivo inválido no hace fallar el lote.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Todas las fotos se subieron exitosamente.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResultadoSubidaDTO.class))),
+            @ApiResponse(responseCode = "207", description = "Algunas fotos no se pudieron subir; ver el resultado de cada archivo."),
+            @ApiResponse(responseCode = "400", description = "No se enviaron archivos o se superó el máximo por lote.")
+    })
+    public ResponseEntity<?> uploadLote(
+            @RequestParam("files") @Parameter(description = "Archivos de foto", required = true)
+            List<MultipartFile> files,
+            @RequestParam(value = "descripcion", required = false) @Parameter(description = "Descripción común para las fotos")
+            String descripcion) {
+        if (files == null || files.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Debe enviar al menos un archivo");
         }
-
-        // Fallback: Determinar por extensión
-        return determineContentTypeByExtension(filename);
-    }
-
-    //  Método auxiliar: Determinar tipo MIME desde extensión
-    private String determineContentTypeByExtension(String filename) {
-        if (filename == null) {
-            return null;
+        if (files.size() > fotoLoteService.getMaxArchivos()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("No se pueden subir más de " + fotoLoteService.getMaxArchivos() + " archivos por lote");
         }
 
-        String lowerFilename = filename.toLowerCase();
-
-        if (lowerFilename.endsWith(".jpg") || lowerFilename.endsWith(".jpeg")) {
-            return "image/jpeg";
-        } else if (lowerFilename.endsWith(".png")) {
-            return "image/png";
-        } else if (lowerFilename.endsWith(".gif")) {
-            return "image/gif";
-        } else if (lowerFilename.endsWith(".webp")) {
-            return "image/webp";
-        } else if (lowerFilename.endsWith(".bmp")) {
-            return "image/bmp";
-        } else if (lowerFilename.endsWith(".svg")) {
-            return "image/svg+xml";
-        }
+        System.out.println(" [FotoController] Recibiendo lote de " + files.size() + " fotos");
+        List<ResultadoSubidaDTO> resultados = fotoLoteService.subirLote(files, descripcion);
 
-        return null;
+        boolean todasExitosas = resultados.stream().allMatch(ResultadoSubidaDTO::isExito);
+        return ResponseEntity.status(todasExitosas ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(resultados);
     }
 
     // ================== OPERACIONES CRUD BÁSICAS ==================
 
     /**
-     * Obtiene todas las fotos registradas en el sistema.
+     * Obtiene una página de fotos registradas en el sistema (solo metadatos).
+     * El total de registros se informa en la cabecera {@code X-Total-Count}.
      */
     @GetMapping
-    @Operation(summary = "Obtener todas las fotos", description = "Obtiene una lista con todas las fotos.")
+    @Operation(summary = "Obtener las fotos paginadas", description = "Obtiene una página de fotos con sus metadatos, sin los bytes de la imagen.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de fotos obtenida exitosamente.",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Foto.class))),
+                            schema = @Schema(implementation = FotoResumenDTO.class))),
             @ApiResponse(responseCode = "204", description = "No hay fotos registradas.")
     })
-    public ResponseEntity<List<Foto>> listar() {
-        List<Foto> fotos = fotoService.findAll();
+    public ResponseEntity<List<FotoResumenDTO>> listar(
+            @Parameter(description = "Número de página (desde 0)") @RequestParam(defaultValue = "0") int pagina,
+            @Parameter(description = "Cantidad de fotos por página (máximo " + MAX_TAMANIO_PAGINA + ")")
+            @RequestParam(defaultValue = "50") int tamanio) {
+        PageRequest pageRequest = PageRequest.of(Math.max(pagina, 0),
+                Math.min(Math.max(tamanio, 1), MAX_TAMANIO_PAGINA), Sort.by("idFoto"));
+        Page<FotoResumenDTO> fotos = fotoService.findAllResumen(pageRequest);
         if (fotos.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
-        return ResponseEntity.ok(fotos);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(fotos.getTotalElements()))
+                .body(fotos.getContent());
+    }
+
+    /**
+     * Busca fotos por rango de fecha de subida, tipo MIME y tamaño, paginando por cursor.
+     */
+    @GetMapping("/buscar")
+    @Operation(summary = "Buscar fotos por metadatos", description = "Filtra las fotos por fecha de subida, tipo y tamaño. "
+            + "Los resultados se ordenan por fecha de subida; para la página siguiente se envía el cursor recibido.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de resultados.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaFotosDTO.class))),
+            @ApiResponse(responseCode = "204", description = "No hay fotos que coincidan."),
+            @ApiResponse(responseCode = "400", description = "Filtros o cursor inválidos.")
+    })
+    public ResponseEntity<?> buscar(
+            @Parameter(description = "Fecha de subida mínima (inclusive)", example = "2025-11-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "Fecha de subida máxima (exclusive)", example = "2025-12-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @Parameter(description = "Tipo MIME", example = "image/jpeg")
+            @RequestParam(required = false) String tipo,
+            @Parameter(description = "Tamaño mínimo en bytes")
+            @RequestParam(required = false) Integer tamanioMin,
+            @Parameter(description = "Tamaño máximo en bytes")
+            @RequestParam(required = false) Integer tamanioMax,
+            @Parameter(description = "Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de fotos por página (máximo " + MAX_TAMANIO_PAGINA + ")")
+            @RequestParam(defaultValue = "50") int tamanio) {
+        try {
+            FiltroFotoDTO filtro = new FiltroFotoDTO(desde, hasta, tipo, tamanioMin, tamanioMax);
+            PaginaFotosDTO pagina = fotoService.buscar(filtro, cursor, Math.min(Math.max(tamanio, 1), MAX_TAMANIO_PAGINA));
+            if (pagina.getFotos().isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Busca las fotos tomadas cerca de un punto según la ubicación GPS de su EXIF.
+     */
+    @GetMapping("/cercanas")
+    @Operation(summary = "Buscar fotos cercanas", description = "Obtiene las fotos tomadas dentro de un radio alrededor de un punto, "
+            + "ordenadas de la más cercana a la más lejana. Solo incluye fotos con ubicación GPS en su EXIF.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fotos encontradas.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FotoUbicacionDTO.class))),
+            @ApiResponse(responseCode = "204", description = "No hay fotos en el radio indicado."),
+            @ApiResponse(responseCode = "400", description = "Coordenadas o radio inválidos.")
+    })
+    public ResponseEntity<?> buscarCercanas(
+            @Parameter(description = "Latitud del punto", example = "-33.4489", required = true)
+            @RequestParam double lat,
+            @Parameter(description = "Longitud del punto", example = "-70.6693", required = true)
+            @RequestParam double lon,
+            @Parameter(description = "Radio de búsqueda en metros (máximo 50000)")
+            @RequestParam(defaultValue = "500") double radio,
+            @Parameter(description = "Cantidad máxima de fotos (máximo " + MAX_TAMANIO_PAGINA + ")")
+            @RequestParam(defaultValue = "50") int limite) {
+        try {
+            List<FotoUbicacionDTO> fotos = fotoService.buscarCercanas(lat, lon, radio, Math.min(Math.max(limite, 1), MAX_TAMANIO_PAGINA));
+            if (fotos.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(fotos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
@@ -199,6 +259,96 @@ public class FotoController {
         }
     }
 
+    /**
+     * Busca fotos casi duplicadas de una foto según su hash perceptual.
+     */
+    @GetMapping("/{id}/similares")
+    @Operation(summary = "Buscar fotos similares", description = "Obtiene las fotos visualmente casi idénticas a una foto "
+            + "(redimensionadas, recomprimidas o en otro formato), ordenadas de la más a la menos parecida.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fotos similares encontradas.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FotoSimilarDTO.class))),
+            @ApiResponse(responseCode = "204", description = "No hay fotos similares."),
+            @ApiResponse(responseCode = "400", description = "Distancia inválida."),
+            @ApiResponse(responseCode = "404", description = "Foto no encontrada o sin hash perceptual.")
+    })
+    public ResponseEntity<?> buscarSimilares(
+            @Parameter(description = "ID de la foto de referencia", required = true)
+            @PathVariable int id,
+            @Parameter(description = "Bits distintos permitidos entre hashes (máximo " + SimilitudFotoService.DISTANCIA_MAXIMA + ")")
+            @RequestParam(defaultValue = "10") int distancia,
+            @Parameter(description = "Cantidad máxima de fotos (máximo " + MAX_TAMANIO_PAGINA + ")")
+            @RequestParam(defaultValue = "20") int limite) {
+        try {
+            List<FotoSimilarDTO> similares = similitudFotoService.buscarSimilares(id, distancia,
+                    Math.min(Math.max(limite, 1), MAX_TAMANIO_PAGINA));
+            if (similares.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(similares);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Entrega los bytes de una foto o de una miniatura, servidos desde la caché de contenido cuando es posible.
+     * <p>
+     * El tipo de retorno debe ser {@code ResponseEntity<StreamingResponseBody>}: con {@code ResponseEntity<?>}
+     * Spring no reconoce el cuerpo como streaming. Por eso los errores también se escriben como texto en streaming.
+     * </p>
+     */
+    @GetMapping("/{id}/contenido")
+    @Operation(summary = "Obtener el contenido de una foto", description = "Entrega los bytes de la imagen original o de una miniatura del ancho indicado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Contenido de la foto."),
+            @ApiResponse(responseCode = "400", description = "Ancho no soportado."),
+            @ApiResponse(responseCode = "404", description = "Foto o archivo no encontrado."),
+            @ApiResponse(responseCode = "500", description = "Error al leer el archivo.")
+    })
+    public ResponseEntity<StreamingResponseBody> obtenerContenido(@Parameter(description = "ID de la foto", required = true)
+                                              @PathVariable int id,
+                                              @Parameter(description = "Ancho de la miniatura (0 = original)")
+                                              @RequestParam(defaultValue = "0") int ancho) {
+        try {
+            ContenidoFotoDTO contenido = fotoService.obtenerContenido(id, ancho);
+            MediaType tipo = contenido.getTipo() != null
+                    ? MediaType.parseMediaType(contenido.getTipo()) : MediaType.APPLICATION_OCTET_STREAM;
+            StreamingResponseBody cuerpo = salida -> {
+                // Copia directa desde el buffer (posiblemente fuera del heap) hacia la respuesta
+                ByteBuffer datos = contenido.getDatos().duplicate();
+                WritableByteChannel canal = Channels.newChannel(salida);
+                while (datos.hasRemaining()) {
+                    canal.write(datos);
+                }
+            };
+            return ResponseEntity.ok()
+                    .contentType(tipo)
+                    .contentLength(contenido.getTamanio())
+                    .body(cuerpo);
+        } catch (NoSuchElementException e) {
+            return texto(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return texto(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            return texto(HttpStatus.INTERNAL_SERVER_ERROR, "Error al leer la foto.");
+        }
+    }
+
+    /**
+     * Respuesta de error en texto plano para los endpoints que responden en streaming.
+     */
+    private static ResponseEntity<StreamingResponseBody> texto(HttpStatus estado, String mensaje) {
+        byte[] datos = mensaje.getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(estado)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(datos.length)
+                .body(salida -> salida.write(datos));
+    }
+
     /**
      * Crea una nueva foto (JSON).
      */
@@ -253,7 +403,8 @@ public class FotoController {
      * Elimina una foto del sistema.
      */
     @DeleteMapping("/{id}")
-    @Operation(summary = "Eliminar una foto", description = "Elimina una foto del sistema por su ID.")
+    @Operation(summary = "Eliminar una foto", description = "Elimina una foto del sistema por su ID. " +
+            "Deja de aparecer de inmediato; sus archivos se borran después en segundo plano.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Foto eliminada con éxito."),
             @ApiResponse(responseCode = "404", description = "Foto no encontrada."),
@@ -0,0 +1,169 @@
+package com.SAFE_Rescue.API_Registros.controller;
+
+import com.SAFE_Rescue.API_Registros.dto.SesionSubidaDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.service.SubidaReanudableService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.NoSuchElementException;
+
+/**
+ * Controlador REST para subidas de fotos reanudables por fragmentos.
+ * <p>
+ * Flujo: {@code POST /subidas} crea la sesión, {@code PUT /subidas/{id}?offset=N} envía cada fragmento,
+ * {@code GET /subidas/{id}} informa el offset actual tras un corte y {@code POST /subidas/{id}/finalizar}
+ * registra la foto.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api-registros/v1/fotos/subidas")
+@Tag(name = "Fotos", description = "Operaciones de CRUD relacionadas con Fotos")
+public class SubidaFotoController {
+
+    @Autowired
+    private SubidaReanudableService subidaReanudableService;
+
+    @PostMapping
+    @Operation(summary = "Crear una subida reanudable", description = "Crea una sesión para subir una foto en fragmentos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Sesión creada.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SesionSubidaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Nombre o tamaño inválido."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    public ResponseEntity<?> crear(@Parameter(description = "Nombre original del archivo", required = true)
+                                   @RequestParam String nombreArchivo,
+                                   @Parameter(description = "Tamaño total del archivo, en bytes", required = true)
+                                   @RequestParam long tamanio,
+                                   @Parameter(description = "Descripción de la foto")
+                                   @RequestParam(required = false) String descripcion,
+                                   @Parameter(description = "SHA-256 del archivo completo, en hexadecimal (opcional)")
+                                   @RequestParam(required = false) String sha256) {
+        try {
+            SesionSubidaDTO sesion = subidaReanudableService.crear(nombreArchivo, tamanio, descripcion, sha256);
+            return ResponseEntity.created(URI.create("/api-registros/v1/fotos/subidas/" + sesion.getId())).body(sesion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar una subida reanudable", description = "Informa el offset desde el que se debe reanudar la subida.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado de la sesión.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SesionSubidaDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada o expirada.")
+    })
+    public ResponseEntity<?> consultar(@Parameter(description = "ID de la sesión", required = true)
+                                       @PathVariable String id) {
+        try {
+            return ResponseEntity.ok(subidaReanudableService.consultar(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
+        }
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Enviar un fragmento", description = "Agrega un fragmento (bytes crudos) en el offset indicado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fragmento recibido; se informa el nuevo offset.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SesionSubidaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "El fragmento supera el tamaño declarado."),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada o expirada."),
+            @ApiResponse(responseCode = "409", description = "El offset no coincide; se informa el offset actual.")
+    })
+    public ResponseEntity<?> escribir(@Parameter(description = "ID de la sesión", required = true)
+                                      @PathVariable String id,
+                                      @Parameter(description = "Posición del fragmento", required = true)
+                                      @RequestParam long offset,
+                                      HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(subidaReanudableService.escribir(id, offset, request.getInputStream()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return conflicto(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
+        }
+    }
+
+    @PostMapping("/{id}/finalizar")
+    @Operation(summary = "Finalizar una subida reanudable", description = "Registra la foto una vez recibidos todos los bytes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Foto subida exitosamente.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Foto.class))),
+            @ApiResponse(responseCode = "400", description = "El archivo no es una imagen válida o el hash no coincide."),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada o expirada."),
+            @ApiResponse(responseCode = "409", description = "Aún faltan bytes; se informa el offset actual.")
+    })
+    public ResponseEntity<?> finalizar(@Parameter(description = "ID de la sesión", required = true)
+                                       @PathVariable String id) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(subidaReanudableService.finalizar(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return conflicto(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancelar una subida reanudable", description = "Elimina la sesión y los bytes recibidos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sesión cancelada."),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada o expirada.")
+    })
+    public ResponseEntity<String> cancelar(@Parameter(description = "ID de la sesión", required = true)
+                                           @PathVariable String id) {
+        try {
+            subidaReanudableService.cancelar(id);
+            return ResponseEntity.ok("Subida cancelada.");
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
+        }
+    }
+
+    /**
+     * Respuesta 409 con el estado actual, para que el cliente reanude desde el offset correcto.
+     */
+    private ResponseEntity<?> conflicto(String id) {
+        try {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(subidaReanudableService.consultar(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.SAFE_Rescue.API_Registros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bytes de una foto (o de un derivado de un ancho dado) listos para enviarse al cliente.
+ * <p>
+ * {@code datos} es una vista de solo lectura; puede apuntar a memoria fuera del heap compartida
+ * con la caché, por lo que cada consumidor debe usar su propio {@code duplicate()}.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+public class ContenidoFotoDTO {
+
+    private String tipo;
+
+    private ByteBuffer datos;
+
+    public int getTamanio() {
+        return datos.remaining();
+    }
+}
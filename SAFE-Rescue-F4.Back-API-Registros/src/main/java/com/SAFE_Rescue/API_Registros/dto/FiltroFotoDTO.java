@@ -0,0 +1,32 @@
+package com.SAFE_Rescue.API_Registros.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros de la búsqueda de fotos por metadatos. Los filtros nulos no se aplican.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroFotoDTO {
+
+    @Schema(description = "Fecha de subida mínima (inclusive)", example = "2025-11-01T00:00:00")
+    private LocalDateTime desde;
+
+    @Schema(description = "Fecha de subida máxima (exclusive)", example = "2025-12-01T00:00:00")
+    private LocalDateTime hasta;
+
+    @Schema(description = "Tipo MIME exacto", example = "image/jpeg")
+    private String tipo;
+
+    @Schema(description = "Tamaño mínimo en bytes (inclusive)", example = "1048576")
+    private Integer tamanioMin;
+
+    @Schema(description = "Tamaño máximo en bytes (inclusive)", example = "5242880")
+    private Integer tamanioMax;
+}
@@ -0,0 +1,56 @@
+package com.SAFE_Rescue.API_Registros.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.SAFE_Rescue.API_Registros.util.ReferenciaFoto;
+import com.SAFE_Rescue.API_Registros.util.UrlFirmadaSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo metadatos de una {@link com.SAFE_Rescue.API_Registros.modelo.Foto}.
+ * <p>
+ * Se utiliza en el listado de fotos para no leer nunca la columna binaria {@code datos} desde la base de datos.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FotoResumenDTO implements ReferenciaFoto {
+
+    @Schema(description = "Identificador único de la foto", example = "1")
+    private int idFoto;
+
+    @JsonSerialize(using = UrlFirmadaSerializer.class)
+    @Schema(description = "URL de la foto (firmada si está almacenada localmente; /fotos/{id}/contenido si está en frío)", example = "uploads/fotos/20251123_164023_1bc66e4c.png")
+    private String url;
+
+    @Schema(description = "Tipo MIME de la foto", example = "image/jpeg")
+    private String tipo;
+
+    @Schema(description = "Tamaño de la foto en bytes", example = "204800")
+    private Integer tamanio;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Fecha y hora en que se subió la Foto", example = "2025-09-09T10:30:00")
+    private LocalDateTime fechaSubida;
+
+    @Schema(description = "Descripción de la foto", example = "Fotografía de incidente.")
+    private String descripcion;
+
+    /**
+     * Ubicación en el almacenamiento frío; solo decide qué URL se publica.
+     */
+    @JsonIgnore
+    private String ubicacionFrio;
+
+    public FotoResumenDTO(int idFoto, String url, String tipo, Integer tamanio, LocalDateTime fechaSubida,
+                          String descripcion) {
+        this(idFoto, url, tipo, tamanio, fechaSubida, descripcion, null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.SAFE_Rescue.API_Registros.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Foto casi duplicada de otra según su hash perceptual.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FotoSimilarDTO {
+
+    @Schema(description = "Identificador de la foto similar", example = "7")
+    private int idFoto;
+
+    @Schema(description = "Bits distintos entre los hashes perceptuales (0 = visualmente idénticas, máximo 64)", example = "3")
+    private int distancia;
+}
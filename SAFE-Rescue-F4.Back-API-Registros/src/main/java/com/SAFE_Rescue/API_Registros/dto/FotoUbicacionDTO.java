@@ -0,0 +1,65 @@
+package com.SAFE_Rescue.API_Registros.dto;
+
+import com.SAFE_Rescue.API_Registros.util.ReferenciaFoto;
+import com.SAFE_Rescue.API_Registros.util.UrlFirmadaSerializer;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Foto con la ubicación y la fecha de captura leídas de su EXIF, y su distancia a un punto de búsqueda.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FotoUbicacionDTO implements ReferenciaFoto {
+
+    @Schema(description = "Identificador único de la foto", example = "1")
+    private int idFoto;
+
+    @JsonSerialize(using = UrlFirmadaSerializer.class)
+    @Schema(description = "URL de la foto (firmada si está almacenada localmente; /fotos/{id}/contenido si está en frío)", example = "uploads/fotos/20251123_164023_1bc66e4c.jpg")
+    private String url;
+
+    @Schema(description = "Latitud donde se tomó la foto", example = "-33.4489")
+    private Double latitud;
+
+    @Schema(description = "Longitud donde se tomó la foto", example = "-70.6693")
+    private Double longitud;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Fecha y hora de captura según la cámara", example = "2025-11-23T16:35:10")
+    private LocalDateTime fechaCaptura;
+
+    @Schema(description = "Distancia al punto de búsqueda, en metros", example = "125.4")
+    private double distanciaMetros;
+
+    /**
+     * Ubicación en el almacenamiento frío; solo decide qué URL se publica.
+     */
+    @JsonIgnore
+    private String ubicacionFrio;
+
+    public FotoUbicacionDTO(int idFoto, String url, Double latitud, Double longitud, LocalDateTime fechaCaptura) {
+        this(idFoto, url, latitud, longitud, fechaCaptura, 0, null);
+    }
+
+    public FotoUbicacionDTO(int idFoto, String url, Double latitud, Double longitud, LocalDateTime fechaCaptura,
+                            double distanciaMetros) {
+        this(idFoto, url, latitud, longitud, fechaCaptura, distanciaMetros, null);
+    }
+
+    /**
+     * Constructor usado por la proyección JPQL (la distancia se calcula después).
+     */
+    public FotoUbicacionDTO(int idFoto, String url, String ubicacionFrio, Double latitud, Double longitud,
+                            LocalDateTime fechaCaptura) {
+        this(idFoto, url, latitud, longitud, fechaCaptura, 0, ubicacionFrio);
+    }
+}
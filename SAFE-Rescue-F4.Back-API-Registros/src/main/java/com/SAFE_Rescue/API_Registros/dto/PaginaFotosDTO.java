@@ -0,0 +1,24 @@
+package com.SAFE_Rescue.API_Registros.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una búsqueda de fotos paginada por cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaFotosDTO {
+
+    @Schema(description = "Fotos de la página, ordenadas por fecha de subida e ID")
+    private List<FotoResumenDTO> fotos;
+
+    @Schema(description = "Cursor para pedir la página siguiente (nulo si no hay más resultados)",
+            example = "MjAyNS0xMS0yM1QxNjo0MDoyM3w0NQ")
+    private String siguienteCursor;
+}
@@ -0,0 +1,39 @@
+package com.SAFE_Rescue.API_Registros.dto;
+
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de la subida de un archivo dentro de un lote de fotos.
+ * <p>
+ * Si la subida fue exitosa contiene la {@link Foto} registrada; en caso contrario contiene el motivo del error.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoSubidaDTO {
+
+    @Schema(description = "Nombre original del archivo enviado", example = "incendio_01.jpg")
+    private String nombreArchivo;
+
+    @Schema(description = "Indica si el archivo se guardó correctamente", example = "true")
+    private boolean exito;
+
+    @Schema(description = "Foto registrada (solo si la subida fue exitosa)")
+    private Foto foto;
+
+    @Schema(description = "Motivo del error (solo si la subida falló)", example = "El archivo está vacío")
+    private String error;
+
+    public static ResultadoSubidaDTO exitoso(String nombreArchivo, Foto foto) {
+        return new ResultadoSubidaDTO(nombreArchivo, true, foto, null);
+    }
+
+    public static ResultadoSubidaDTO fallido(String nombreArchivo, String error) {
+        return new ResultadoSubidaDTO(nombreArchivo, false, null, error);
+    }
+}
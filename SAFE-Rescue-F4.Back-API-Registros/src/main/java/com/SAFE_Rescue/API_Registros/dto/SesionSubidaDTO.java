@@ -0,0 +1,38 @@
+package com.SAFE_Rescue.API_Registros.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de una sesión de subida reanudable.
+ * <p>
+ * El cliente envía el siguiente fragmento a partir de {@code offset}; cuando {@code offset == tamanio}
+ * puede finalizar la subida.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SesionSubidaDTO {
+
+    @Schema(description = "Identificador de la sesión", example = "3f0c2a4e-8d1b-4c55-9a57-0b7f1e2d6c90")
+    private String id;
+
+    @Schema(description = "Nombre original del archivo", example = "incendio_01.jpg")
+    private String nombreArchivo;
+
+    @Schema(description = "Tamaño total declarado del archivo, en bytes", example = "4718592")
+    private long tamanio;
+
+    @Schema(description = "Bytes recibidos hasta ahora (posición del siguiente fragmento)", example = "1048576")
+    private long offset;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Fecha en que la sesión expira si no recibe más fragmentos", example = "2025-11-23T17:40:23")
+    private LocalDateTime expira;
+}
@@ -0,0 +1,44 @@
+package com.SAFE_Rescue.API_Registros.modelo;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Columnas de la tabla "foto" que solo usa la migración de bytes heredados a disco.
+ * <p>
+ * Los clientes antiguos guardaban la imagen en la columna {@code datos}. Se mapea aparte de {@link Foto}
+ * para que ninguna lectura de fotos (por ID, listados o tareas en segundo plano) traiga el blob: sin
+ * enhancement de bytecode, Hibernate ignora {@code @Basic(fetch = LAZY)} y lo cargaría siempre.
+ * Esta entidad solo se consulta y actualiza con JPQL; las filas las crea {@link Foto}.
+ * </p>
+ */
+@Entity
+@Table(name = "foto")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class DatosFoto {
+
+    /**
+     * ID de la foto (el mismo de {@link Foto}).
+     */
+    @Id
+    @Column(name = "id_foto")
+    private int idFoto;
+
+    /**
+     * Bytes de la imagen heredada; nulo una vez migrada a disco.
+     */
+    @Lob
+    @Column(name = "datos")
+    private byte[] datos;
+
+    /**
+     * Intentos fallidos de migrar los bytes a disco. Las filas que agotan los reintentos dejan de
+     * seleccionarse y quedan para revisión manual.
+     */
+    @Column(name = "intentos_migracion")
+    private Integer intentosMigracion;
+}
@@ -1,6 +1,11 @@
 package com.SAFE_Rescue.API_Registros.modelo;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.SAFE_Rescue.API_Registros.util.ReferenciaFoto;
+import com.SAFE_Rescue.API_Registros.util.UrlFirmadaSerializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -19,11 +24,22 @@ import java.time.LocalDateTime;
  *
  */
 @Entity
-@Table(name = "foto")
+@Table(name = "foto", indexes = {
+        @Index(name = "idx_foto_hash", columnList = "hash"),
+        // Índices de /fotos/buscar: rango por fecha (con el ID como desempate del cursor), tipo y tamaño
+        @Index(name = "idx_foto_fecha_subida", columnList = "fecha_subida, id_foto"),
+        @Index(name = "idx_foto_tipo_fecha", columnList = "tipo, fecha_subida, id_foto"),
+        @Index(name = "idx_foto_tamanio", columnList = "tamanio"),
+        // Búsqueda de fotos cercanas: rango de latitud y luego de longitud
+        @Index(name = "idx_foto_ubicacion", columnList = "latitud, longitud"),
+        @Index(name = "idx_foto_fecha_captura", columnList = "fecha_captura"),
+        // Cola de eliminación: lápidas pendientes, de la más antigua a la más reciente
+        @Index(name = "idx_foto_fecha_eliminacion", columnList = "fecha_eliminacion")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
-public class Foto {
+public class Foto implements ReferenciaFoto {
 
     /**
      * Identificador único de la foto. Es la clave primaria (Primary Key).
@@ -44,13 +60,26 @@ public class Foto {
      * Este valor es **obligatorio** (no nulo) y tiene una longitud máxima de 255 caracteres,
      * adecuada para una URL de almacenamiento en la nube o CDN.
      * </p>
+     * <p>
+     * Para las fotos almacenadas en {@code uploads/fotos}, el JSON expone una URL firmada y con expiración
+     * del servidor estático en lugar de la ruta interna.
+     * </p>
      */
     @Column(name = "url", length = 255, nullable = false)
+    @JsonSerialize(using = UrlFirmadaSerializer.class)
     @Schema(description = "URL de la foto del usuario", example = "http://api-fotos.com/fotos/user123.jpg")
     private String url;
 
-    @Lob
-    @Column(name = "datos")
+    /**
+     * Bytes de la imagen enviados por clientes antiguos a través de {@code POST /fotos}.
+     * <p>
+     * No se persisten: {@code FotoService.save} los vuelca a disco antes de guardar. La columna heredada
+     * {@code datos} se mapea solo en {@link DatosFoto}, así que leer una foto nunca trae el blob desde MySQL.
+     * El campo nunca se serializa en las respuestas JSON.
+     * </p>
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private byte[] datos;
 
     @Column(name = "tipo")
@@ -59,6 +88,79 @@ public class Foto {
     @Column(name = "tamanio")
     private Integer tamanio;
 
+    /**
+     * Hash SHA-256 del contenido del archivo, en hexadecimal.
+     * <p>
+     * Se calcula al subir la foto y permite verificar la integridad del archivo o detectar duplicados exactos.
+     * </p>
+     */
+    @Column(name = "hash", length = 64)
+    @Schema(description = "Hash SHA-256 del archivo", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String hash;
+
+    /**
+     * Indica que el registro apunta a un archivo que ya no existe en {@code uploads/fotos}.
+     * <p>
+     * Lo marca la tarea de limpieza de fotos huérfanas; no se elimina el registro para que pueda revisarse.
+     * </p>
+     */
+    @Column(name = "archivo_faltante")
+    @Schema(description = "El archivo de la foto no existe en el almacenamiento", example = "false")
+    private Boolean archivoFaltante;
+
+    /**
+     * Lápida: fecha en que se pidió eliminar la foto. Desde ese momento las lecturas la tratan como
+     * inexistente; los archivos y la fila se borran después en segundo plano. Nula si la foto está vigente.
+     */
+    @Column(name = "fecha_eliminacion")
+    @JsonIgnore
+    private LocalDateTime fechaEliminacion;
+
+    /**
+     * Intentos fallidos de borrar los archivos de una foto eliminada.
+     */
+    @Column(name = "intentos_eliminacion")
+    @JsonIgnore
+    private Integer intentosEliminacion;
+
+    /**
+     * Ubicación de la foto en el almacenamiento frío ({@code nombre} o {@code paquete.zip!nombre}).
+     * Nula mientras el archivo está en {@code uploads/fotos}. No se expone en el JSON.
+     */
+    @Column(name = "ubicacion_frio", length = 255)
+    @JsonIgnore
+    private String ubicacionFrio;
+
+    /**
+     * Hash perceptual (dHash de 64 bits) calculado al subir la foto, para detectar casi duplicadas.
+     * Nulo si la imagen no se pudo decodificar. No se expone en el JSON.
+     */
+    @Column(name = "hash_perceptual")
+    @JsonIgnore
+    private Long hashPerceptual;
+
+    /**
+     * Latitud donde se tomó la foto, leída del EXIF (GPS) al subirla. Nula si la foto no la trae.
+     */
+    @Column(name = "latitud")
+    @Schema(description = "Latitud donde se tomó la foto (EXIF)", example = "-33.4489")
+    private Double latitud;
+
+    /**
+     * Longitud donde se tomó la foto, leída del EXIF (GPS) al subirla. Nula si la foto no la trae.
+     */
+    @Column(name = "longitud")
+    @Schema(description = "Longitud donde se tomó la foto (EXIF)", example = "-70.6693")
+    private Double longitud;
+
+    /**
+     * Fecha y hora de captura según la cámara ({@code DateTimeOriginal} del EXIF). Nula si la foto no la trae.
+     */
+    @Column(name = "fecha_captura")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Fecha y hora de captura (EXIF)", example = "2025-09-09T10:25:00")
+    private LocalDateTime fechaCaptura;
+
     /**
      * Fecha y hora exacta en la que se subió o se registró la foto.
      * <p>
@@ -1,9 +1,19 @@
 package com.SAFE_Rescue.API_Registros.repository;
 
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoUbicacionDTO;
 import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,6 +26,240 @@ import java.util.List;
  * @see Foto
  */
 @Repository
-public interface FotoRepository extends JpaRepository<Foto, Integer> {
+public interface FotoRepository extends JpaRepository<Foto, Integer>, FotoRepositoryCustom {
 
-}
\ No newline at end of file
+    /**
+     * Obtiene una página de fotos con solo sus metadatos.
+     * <p>
+     * La consulta proyecta directamente a {@link FotoResumenDTO}, por lo que la columna
+     * binaria {@code datos} nunca se lee desde la base de datos.
+     * </p>
+     *
+     * @param pageable Página y orden solicitados.
+     * @return Una {@code Page} de {@link FotoResumenDTO}.
+     */
+    @Query(value = "SELECT new com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO(" +
+            "f.idFoto, f.url, f.tipo, f.tamanio, f.fechaSubida, f.descripcion, f.ubicacionFrio) FROM Foto f " +
+            "WHERE f.fechaEliminacion IS NULL",
+            countQuery = "SELECT COUNT(f) FROM Foto f WHERE f.fechaEliminacion IS NULL")
+    Page<FotoResumenDTO> findAllResumen(Pageable pageable);
+
+    /**
+     * Obtiene los IDs de las fotos que todavía guardan bytes en la columna {@code datos}, omitiendo las que
+     * agotaron los reintentos de migración.
+     *
+     * @param maxIntentos Cantidad de intentos fallidos a partir de la cual una foto deja de reintentarse.
+     * @param pageable    Tamaño del lote a migrar.
+     * @return Lista de IDs ordenados de forma ascendente.
+     */
+    @Query("SELECT d.idFoto FROM DatosFoto d WHERE d.datos IS NOT NULL " +
+            "AND (d.intentosMigracion IS NULL OR d.intentosMigracion < :maxIntentos) ORDER BY d.idFoto")
+    List<Integer> findIdsConDatos(@Param("maxIntentos") int maxIntentos, Pageable pageable);
+
+    /**
+     * Lee únicamente la columna binaria {@code datos} de una foto.
+     *
+     * @param id ID de la foto.
+     * @return Los bytes almacenados o {@code null} si ya fueron migrados.
+     */
+    @Query("SELECT d.datos FROM DatosFoto d WHERE d.idFoto = :id")
+    byte[] findDatosById(@Param("id") int id);
+
+    /**
+     * Reemplaza los bytes de una foto por la ruta del archivo en disco y deja la columna {@code datos} en nulo.
+     * Es una sola sentencia SQL porque la ruta y los bytes se mapean en entidades distintas.
+     *
+     * @param id      ID de la foto.
+     * @param url     Ruta relativa del archivo guardado.
+     * @param tamanio Tamaño del archivo en bytes.
+     * @param tipo    Tipo MIME detectado en los bytes; si es nulo se conserva el registrado.
+     * @return Cantidad de filas actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE foto SET datos = NULL, url = :url, tamanio = :tamanio, tipo = COALESCE(:tipo, tipo) " +
+            "WHERE id_foto = :id", nativeQuery = true)
+    int moverDatosADisco(@Param("id") int id, @Param("url") String url, @Param("tamanio") Integer tamanio,
+                         @Param("tipo") String tipo);
+
+    /**
+     * Suma un intento fallido de migración a una foto con bytes heredados.
+     *
+     * @param id ID de la foto.
+     * @return Cantidad de filas actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DatosFoto d SET d.intentosMigracion = COALESCE(d.intentosMigracion, 0) + 1 WHERE d.idFoto = :id")
+    int registrarIntentoMigracion(@Param("id") int id);
+
+    /**
+     * Recorre las fotos por ID (paginación por clave) a partir de un ID dado, sin leer la columna binaria.
+     *
+     * @param desde    Último ID procesado; se retornan los IDs estrictamente mayores.
+     * @param pageable Tamaño del lote.
+     * @return Lista de {@link FotoResumenDTO} ordenada por ID.
+     */
+    @Query("SELECT new com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO(" +
+            "f.idFoto, f.url, f.tipo, f.tamanio, f.fechaSubida, f.descripcion, f.ubicacionFrio) " +
+            "FROM Foto f WHERE f.idFoto > :desde AND f.fechaEliminacion IS NULL ORDER BY f.idFoto")
+    List<FotoResumenDTO> findResumenDesde(@Param("desde") int desde, Pageable pageable);
+
+    /**
+     * Filtra, de un conjunto de URLs, las que tienen un registro en la tabla {@code foto}.
+     *
+     * @param urls URLs a verificar.
+     * @return Las URLs que existen en la base de datos.
+     */
+    @Query("SELECT f.url FROM Foto f WHERE f.url IN :urls")
+    List<String> findUrlsExistentes(@Param("urls") Collection<String> urls);
+
+    /**
+     * Marca o desmarca un conjunto de fotos como registros sin archivo físico.
+     *
+     * @param ids      IDs de las fotos.
+     * @param faltante {@code true} si el archivo no existe.
+     * @return Cantidad de filas actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Foto f SET f.archivoFaltante = :faltante WHERE f.idFoto IN :ids")
+    int marcarArchivoFaltante(@Param("ids") Collection<Integer> ids, @Param("faltante") Boolean faltante);
+
+    /**
+     * Actualiza el tamaño y el hash de una foto cuyo archivo fue reemplazado (por ejemplo, al recomprimirlo).
+     *
+     * @param id      ID de la foto.
+     * @param tamanio Nuevo tamaño del archivo en bytes.
+     * @param hash    Nuevo hash SHA-256 del archivo.
+     * @return Cantidad de filas actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Foto f SET f.tamanio = :tamanio, f.hash = :hash WHERE f.idFoto = :id")
+    int actualizarArchivo(@Param("id") int id, @Param("tamanio") Integer tamanio, @Param("hash") String hash);
+
+    /**
+     * Busca las fotos con ubicación EXIF dentro de un rectángulo de latitud y longitud.
+     * <p>
+     * Es el primer filtro de la búsqueda por cercanía (usa el índice sobre latitud y longitud);
+     * la distancia exacta se calcula después.
+     * </p>
+     *
+     * @param latMin   Latitud mínima.
+     * @param latMax   Latitud máxima.
+     * @param lonMin   Longitud mínima.
+     * @param lonMax   Longitud máxima.
+     * @param pageable Límite de resultados.
+     * @return Las fotos dentro del rectángulo, con distancia 0.
+     */
+    @Query("SELECT new com.SAFE_Rescue.API_Registros.dto.FotoUbicacionDTO(" +
+            "f.idFoto, f.url, f.ubicacionFrio, f.latitud, f.longitud, f.fechaCaptura) FROM Foto f " +
+            "WHERE f.latitud BETWEEN :latMin AND :latMax AND f.longitud BETWEEN :lonMin AND :lonMax " +
+            "AND f.fechaEliminacion IS NULL")
+    List<FotoUbicacionDTO> findEnRectangulo(@Param("latMin") double latMin, @Param("latMax") double latMax,
+                                            @Param("lonMin") double lonMin, @Param("lonMax") double lonMax,
+                                            Pageable pageable);
+
+    /**
+     * Obtiene pares (ID, hash perceptual) de las fotos que lo tienen, con ID mayor al indicado.
+     * Se usa para cargar por lotes el índice de similitud.
+     *
+     * @param desde    ID desde el cual continuar (exclusivo).
+     * @param pageable Tamaño del lote.
+     * @return Arreglos {@code [Integer idFoto, Long hashPerceptual]} ordenados por ID.
+     */
+    @Query("SELECT f.idFoto, f.hashPerceptual FROM Foto f WHERE f.hashPerceptual IS NOT NULL " +
+            "AND f.fechaEliminacion IS NULL AND f.idFoto > :desde ORDER BY f.idFoto")
+    List<Object[]> findHashesPerceptualesDesde(@Param("desde") int desde, Pageable pageable);
+
+    /**
+     * Busca las fotos locales subidas antes de una fecha que aún no están en el almacenamiento frío,
+     * de la más antigua a la más reciente.
+     *
+     * @param limite   Fecha de subida máxima (exclusiva).
+     * @param pageable Tamaño del lote.
+     * @return Lista de {@link FotoResumenDTO} candidatas a trasladarse a frío.
+     */
+    @Query("SELECT new com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO(" +
+            "f.idFoto, f.url, f.tipo, f.tamanio, f.fechaSubida, f.descripcion, f.ubicacionFrio) FROM Foto f " +
+            "WHERE f.fechaSubida < :limite AND f.ubicacionFrio IS NULL AND f.fechaEliminacion IS NULL " +
+            "AND f.url LIKE 'uploads/fotos/%' " +
+            "ORDER BY f.fechaSubida, f.idFoto")
+    List<FotoResumenDTO> findCandidatasFrio(@Param("limite") LocalDateTime limite, Pageable pageable);
+
+    /**
+     * Registra la ubicación de una foto en el almacenamiento frío.
+     *
+     * @param id        ID de la foto.
+     * @param ubicacion Nombre del archivo o {@code paquete.zip!nombre}.
+     * @return Cantidad de filas actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Foto f SET f.ubicacionFrio = :ubicacion WHERE f.idFoto = :id")
+    int marcarEnFrio(@Param("id") int id, @Param("ubicacion") String ubicacion);
+
+    /**
+     * Obtiene la ubicación en frío de las fotos indicadas que están en el almacenamiento frío.
+     *
+     * @param ids IDs a consultar.
+     * @return Arreglos {@code [Integer idFoto, String ubicacionFrio]}.
+     */
+    @Query("SELECT f.idFoto, f.ubicacionFrio FROM Foto f WHERE f.idFoto IN :ids AND f.ubicacionFrio IS NOT NULL")
+    List<Object[]> findUbicacionesFrio(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Obtiene las ubicaciones en frío de las fotos vigentes que apuntan a un paquete ZIP.
+     * Las fotos con lápida se omiten: su entrada puede quitarse aunque la fila aún no se purgue.
+     *
+     * @param prefijo Patrón LIKE {@code paquete.zip!%}, con {@code #} como carácter de escape.
+     * @return Ubicaciones {@code paquete.zip!nombre} todavía referenciadas.
+     */
+    @Query("SELECT f.ubicacionFrio FROM Foto f WHERE f.ubicacionFrio LIKE :prefijo ESCAPE '#' " +
+            "AND f.fechaEliminacion IS NULL")
+    List<String> findUbicacionesEnPaquete(@Param("prefijo") String prefijo);
+
+    /**
+     * Obtiene las fotos vigentes (sin lápida).
+     *
+     * @return Lista de fotos no eliminadas.
+     */
+    List<Foto> findByFechaEliminacionIsNull();
+
+    /**
+     * Marca una foto como eliminada (lápida), si aún está vigente.
+     *
+     * @param id    ID de la foto.
+     * @param fecha Fecha de la eliminación.
+     * @return 1 si se marcó; 0 si no existe o ya estaba eliminada.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Foto f SET f.fechaEliminacion = :fecha, f.intentosEliminacion = 0 " +
+            "WHERE f.idFoto = :id AND f.fechaEliminacion IS NULL")
+    int marcarEliminada(@Param("id") int id, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Obtiene las fotos con lápida cuyos archivos aún no se borran, de la más antigua a la más reciente,
+     * omitiendo las que agotaron los reintentos.
+     *
+     * @param maxIntentos Cantidad de intentos a partir de la cual una foto deja de reintentarse.
+     * @param pageable    Tamaño del lote.
+     * @return Lista de fotos eliminadas pendientes.
+     */
+    @Query("SELECT f FROM Foto f WHERE f.fechaEliminacion IS NOT NULL AND f.intentosEliminacion < :maxIntentos " +
+            "ORDER BY f.fechaEliminacion, f.idFoto")
+    List<Foto> findPendientesEliminacion(@Param("maxIntentos") int maxIntentos, Pageable pageable);
+
+    /**
+     * Suma un intento fallido de borrado a las fotos indicadas.
+     *
+     * @param ids IDs de las fotos.
+     * @return Cantidad de filas actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Foto f SET f.intentosEliminacion = f.intentosEliminacion + 1 WHERE f.idFoto IN :ids")
+    int registrarIntentoEliminacion(@Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,26 @@
+package com.SAFE_Rescue.API_Registros.repository;
+
+import com.SAFE_Rescue.API_Registros.dto.FiltroFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas de {@link FotoRepository} que se arman dinámicamente con la API Criteria.
+ */
+public interface FotoRepositoryCustom {
+
+    /**
+     * Busca fotos por metadatos, ordenadas por {@code fechaSubida} e {@code idFoto}, continuando
+     * después del cursor (paginación por clave). Solo se aplican los filtros no nulos, de modo que
+     * cada consulta sea un recorrido por rango sobre los índices de la tabla.
+     *
+     * @param filtro      Filtros de fecha, tipo y tamaño.
+     * @param cursorFecha Fecha de subida de la última foto de la página anterior (nula en la primera página).
+     * @param cursorId    ID de la última foto de la página anterior (nulo en la primera página).
+     * @param limite      Cantidad máxima de resultados.
+     * @return Los metadatos de las fotos encontradas (sin leer la columna binaria).
+     */
+    List<FotoResumenDTO> buscar(FiltroFotoDTO filtro, LocalDateTime cursorFecha, Integer cursorId, int limite);
+}
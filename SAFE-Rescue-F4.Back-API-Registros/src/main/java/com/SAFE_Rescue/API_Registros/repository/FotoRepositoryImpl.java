@@ -0,0 +1,71 @@
+package com.SAFE_Rescue.API_Registros.repository;
+
+import com.SAFE_Rescue.API_Registros.dto.FiltroFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementación de {@link FotoRepositoryCustom}, combinada por Spring Data con {@link FotoRepository}.
+ */
+public class FotoRepositoryImpl implements FotoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FotoResumenDTO> buscar(FiltroFotoDTO filtro, LocalDateTime cursorFecha, Integer cursorId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FotoResumenDTO> query = cb.createQuery(FotoResumenDTO.class);
+        Root<Foto> foto = query.from(Foto.class);
+        Path<LocalDateTime> fechaSubida = foto.get("fechaSubida");
+        Path<Integer> idFoto = foto.get("idFoto");
+        Path<Integer> tamanio = foto.get("tamanio");
+
+        List<Predicate> condiciones = new ArrayList<>();
+        // Las fotos con lápida ya no se listan
+        condiciones.add(cb.isNull(foto.get("fechaEliminacion")));
+        if (filtro.getDesde() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(fechaSubida, filtro.getDesde()));
+        }
+        if (filtro.getHasta() != null) {
+            condiciones.add(cb.lessThan(fechaSubida, filtro.getHasta()));
+        }
+        if (filtro.getTipo() != null) {
+            condiciones.add(cb.equal(foto.get("tipo"), filtro.getTipo()));
+        }
+        if (filtro.getTamanioMin() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(tamanio, filtro.getTamanioMin()));
+        }
+        if (filtro.getTamanioMax() != null) {
+            condiciones.add(cb.lessThanOrEqualTo(tamanio, filtro.getTamanioMax()));
+        }
+        if (cursorFecha != null && cursorId != null) {
+            // (fechaSubida, idFoto) > (cursorFecha, cursorId)
+            condiciones.add(cb.or(
+                    cb.greaterThan(fechaSubida, cursorFecha),
+                    cb.and(cb.equal(fechaSubida, cursorFecha), cb.greaterThan(idFoto, cursorId))));
+        }
+
+        // ubicacionFrio decide si se publica la URL firmada o la ruta de contenido
+        query.select(cb.construct(FotoResumenDTO.class,
+                        idFoto, foto.get("url"), foto.get("tipo"), tamanio, fechaSubida, foto.get("descripcion"),
+                        foto.get("ubicacionFrio")))
+                .where(condiciones.toArray(new Predicate[0]))
+                .orderBy(cb.asc(fechaSubida), cb.asc(idFoto));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
@@ -0,0 +1,436 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Almacenamiento en frío de las fotos antiguas.
+ * <p>
+ * Una tarea programada mueve las fotos subidas hace más de la antigüedad configurada desde
+ * {@code uploads/fotos} a un directorio frío (que puede estar en otro volumen), de modo que el directorio
+ * caliente quede pequeño y sus metadatos se mantengan en la caché del sistema de archivos. Opcionalmente,
+ * cada lote se empaqueta en un único archivo ZIP.
+ * </p>
+ * <p>
+ * La URL de la foto no cambia; su ubicación en frío se guarda en {@code foto.ubicacion_frio}, con la forma
+ * {@code nombre.jpg} (archivo suelto) o {@code lote.zip!nombre.jpg} (entrada de un paquete).
+ * {@code GET /fotos/{id}/contenido} las lee desde aquí de forma transparente.
+ * </p>
+ * <p>
+ * Orden de cada movimiento: se escribe la copia fría, se actualiza la BD y recién entonces se borra el
+ * archivo caliente, así que una interrupción nunca deja una foto sin archivo.
+ * Publica las métricas {@code fotos.frio.*}.
+ * </p>
+ * <p>
+ * Una entrada de un paquete no se puede borrar sin reescribirlo: {@link #eliminar} solo anota el paquete y
+ * {@link #compactarPaquetes()} lo reescribe después con las entradas que siguen referenciadas (o lo borra
+ * si no queda ninguna). La primera compactación tras el arranque revisa todos los paquetes, así que las
+ * anotaciones perdidas en un reinicio no dejan entradas huérfanas.
+ * </p>
+ */
+@Service
+public class AlmacenamientoFrioService {
+
+    /** Separador entre el paquete y la entrada en una ubicación empaquetada. */
+    static final String SEPARADOR_PAQUETE = "!";
+
+    private static final DateTimeFormatter FORMATO_PAQUETE = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private final FotoRepository fotoRepository;
+    private final boolean habilitado;
+    private final Path directorioCaliente;
+    private final Path directorio;
+    private final long antiguedadDias;
+    private final int tamanioLote;
+    private final boolean empaquetar;
+
+    // Paquetes con entradas eliminadas, pendientes de compactar
+    private final Set<String> paquetesPendientes = ConcurrentHashMap.newKeySet();
+    private boolean revisarTodos = true;
+
+    private final Counter fotosMovidas;
+    private final Counter bytesMovidos;
+    private final Counter lecturas;
+    private final Counter errores;
+    private final Counter entradasCompactadas;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param fotoRepository     Repositorio de fotos.
+     * @param meterRegistry      Registro de métricas.
+     * @param habilitado         Activa o desactiva la tarea de traslado (las lecturas en frío funcionan siempre).
+     * @param directorioCaliente Directorio que publica {@code uploads/fotos}.
+     * @param directorio         Directorio del almacenamiento frío.
+     * @param antiguedadDias     Días desde la subida a partir de los cuales una foto pasa a frío.
+     * @param tamanioLote        Cantidad de fotos movidas por ejecución (y por paquete).
+     * @param empaquetar         Empaqueta cada lote en un archivo ZIP en lugar de mover archivos sueltos.
+     */
+    public AlmacenamientoFrioService(FotoRepository fotoRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${fotos.frio.habilitado:false}") boolean habilitado,
+                                     @Value("${fotos.directorio:" + FotoService.UPLOAD_DIR + "}") String directorioCaliente,
+                                     @Value("${fotos.frio.directorio:uploads/fotos-frio}") String directorio,
+                                     @Value("${fotos.frio.antiguedad-dias:120}") long antiguedadDias,
+                                     @Value("${fotos.frio.lote:100}") int tamanioLote,
+                                     @Value("${fotos.frio.empaquetar:false}") boolean empaquetar) {
+        this.fotoRepository = fotoRepository;
+        this.habilitado = habilitado;
+        this.directorioCaliente = Paths.get(directorioCaliente);
+        this.directorio = Paths.get(directorio);
+        this.antiguedadDias = antiguedadDias;
+        this.tamanioLote = tamanioLote;
+        this.empaquetar = empaquetar;
+
+        this.fotosMovidas = Counter.builder("fotos.frio.movidas")
+                .description("Fotos trasladadas al almacenamiento frío").register(meterRegistry);
+        this.bytesMovidos = Counter.builder("fotos.frio.bytes_movidos")
+                .baseUnit("bytes").description("Bytes trasladados al almacenamiento frío").register(meterRegistry);
+        this.lecturas = Counter.builder("fotos.frio.lecturas")
+                .description("Lecturas de contenido servidas desde el almacenamiento frío").register(meterRegistry);
+        this.errores = Counter.builder("fotos.frio.errores")
+                .description("Fotos que no se pudieron trasladar").register(meterRegistry);
+        this.entradasCompactadas = Counter.builder("fotos.frio.entradas_compactadas")
+                .description("Entradas de fotos eliminadas quitadas de los paquetes ZIP").register(meterRegistry);
+    }
+
+    /**
+     * Traslada a frío un lote de las fotos más antiguas que aún están en el directorio caliente.
+     *
+     * @return Cantidad de fotos trasladadas.
+     */
+    @Scheduled(initialDelayString = "${fotos.frio.retraso-inicial-ms:300000}",
+            fixedDelayString = "${fotos.frio.intervalo-ms:3600000}")
+    public synchronized int trasladarLote() {
+        if (!habilitado) {
+            return 0;
+        }
+        LocalDateTime limite = LocalDateTime.now().minusDays(antiguedadDias);
+        List<FotoResumenDTO> candidatas = fotoRepository.findCandidatasFrio(limite, PageRequest.of(0, tamanioLote));
+        List<FotoResumenDTO> lote = new ArrayList<>();
+        for (FotoResumenDTO foto : candidatas) {
+            // Una URL que sale del directorio caliente no se mueve ni se borra
+            Path origen = resolverCaliente(foto.getUrl());
+            if (origen != null && Files.isRegularFile(origen)) {
+                lote.add(foto);
+            }
+        }
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            Files.createDirectories(directorio);
+            int movidas = empaquetar ? empaquetarLote(lote) : moverLote(lote);
+            System.out.println(" [AlmacenamientoFrio] Fotos trasladadas a frío: " + movidas + "/" + lote.size());
+            return movidas;
+        } catch (IOException e) {
+            errores.increment(lote.size());
+            System.err.println(" [AlmacenamientoFrio] Error al trasladar el lote: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Lee el contenido de una foto almacenada en frío.
+     *
+     * @param ubicacion Valor de {@code foto.ubicacion_frio}.
+     * @return Los bytes de la foto.
+     * @throws NoSuchElementException si el archivo o la entrada no existen.
+     * @throws IOException            si no se puede leer.
+     */
+    public byte[] leer(String ubicacion) throws IOException {
+        int separador = ubicacion.indexOf(SEPARADOR_PAQUETE);
+        byte[] datos;
+        if (separador < 0) {
+            Path archivo = resolver(ubicacion);
+            if (!Files.isRegularFile(archivo)) {
+                throw new NoSuchElementException("El archivo de la foto no está disponible");
+            }
+            datos = Files.readAllBytes(archivo);
+        } else {
+            Path paquete = resolver(ubicacion.substring(0, separador));
+            if (!Files.isRegularFile(paquete)) {
+                throw new NoSuchElementException("El archivo de la foto no está disponible");
+            }
+            try (ZipFile zip = new ZipFile(paquete.toFile())) {
+                ZipEntry entrada = zip.getEntry(ubicacion.substring(separador + 1));
+                if (entrada == null) {
+                    throw new NoSuchElementException("El archivo de la foto no está disponible");
+                }
+                try (InputStream in = zip.getInputStream(entrada)) {
+                    datos = in.readAllBytes();
+                }
+            }
+        }
+        lecturas.increment();
+        return datos;
+    }
+
+    /**
+     * Indica si la copia fría de una foto existe (usado por la limpieza de registros).
+     */
+    public boolean existe(String ubicacion) {
+        int separador = ubicacion.indexOf(SEPARADOR_PAQUETE);
+        if (separador < 0) {
+            return Files.isRegularFile(resolver(ubicacion));
+        }
+        Path paquete = resolver(ubicacion.substring(0, separador));
+        if (!Files.isRegularFile(paquete)) {
+            return false;
+        }
+        try (ZipFile zip = new ZipFile(paquete.toFile())) {
+            return zip.getEntry(ubicacion.substring(separador + 1)) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Elimina la copia fría de una foto. Si es la entrada de un paquete, el paquete queda anotado y la
+     * entrada se quita en la siguiente {@link #compactarPaquetes() compactación}.
+     *
+     * @return {@code true} si se eliminó un archivo.
+     */
+    public boolean eliminar(String ubicacion) throws IOException {
+        int separador = ubicacion.indexOf(SEPARADOR_PAQUETE);
+        if (separador >= 0) {
+            paquetesPendientes.add(ubicacion.substring(0, separador));
+            return false;
+        }
+        return Files.deleteIfExists(resolver(ubicacion));
+    }
+
+    /**
+     * Reescribe los paquetes anotados quitando las entradas que ya ninguna foto vigente referencia.
+     * La primera ejecución revisa todos los paquetes del directorio frío.
+     *
+     * @return Cantidad de entradas quitadas.
+     */
+    @Scheduled(initialDelayString = "${fotos.frio.compactacion.retraso-inicial-ms:600000}",
+            fixedDelayString = "${fotos.frio.compactacion.intervalo-ms:3600000}")
+    public synchronized int compactarPaquetes() {
+        List<String> paquetes = new ArrayList<>(paquetesPendientes);
+        paquetesPendientes.removeAll(paquetes);
+        if (revisarTodos) {
+            try {
+                paquetes = listarPaquetes();
+                revisarTodos = false;
+            } catch (IOException e) {
+                System.err.println(" [AlmacenamientoFrio] No se pudieron listar los paquetes: " + e.getMessage());
+            }
+        }
+
+        int quitadas = 0;
+        for (String paquete : paquetes) {
+            try {
+                quitadas += compactar(paquete);
+            } catch (IOException | RuntimeException e) {
+                paquetesPendientes.add(paquete);
+                System.err.println(" [AlmacenamientoFrio] Error al compactar " + paquete + ": " + e.getMessage());
+            }
+        }
+        if (quitadas > 0) {
+            entradasCompactadas.increment(quitadas);
+            System.out.println(" [AlmacenamientoFrio] Entradas quitadas de los paquetes: " + quitadas);
+        }
+        return quitadas;
+    }
+
+    /**
+     * Mueve cada archivo del lote al directorio frío (copia + borrado si está en otro volumen).
+     */
+    private int moverLote(List<FotoResumenDTO> lote) {
+        int movidas = 0;
+        for (FotoResumenDTO foto : lote) {
+            Path origen = resolverCaliente(foto.getUrl());
+            String nombre = origen.getFileName().toString();
+            Path destino = directorio.resolve(nombre);
+            Path temporal = directorio.resolve(nombre + ".tmp");
+            try {
+                long tamanio = Files.size(origen);
+                Files.copy(origen, temporal, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                fotoRepository.marcarEnFrio(foto.getIdFoto(), nombre);
+                borrarCaliente(origen);
+                fotosMovidas.increment();
+                bytesMovidos.increment(tamanio);
+                movidas++;
+            } catch (IOException | RuntimeException e) {
+                errores.increment();
+                System.err.println(" [AlmacenamientoFrio] Error al trasladar foto " + foto.getIdFoto() + ": " + e.getMessage());
+            }
+        }
+        return movidas;
+    }
+
+    /**
+     * Escribe todo el lote en un único ZIP y luego actualiza la BD y borra los archivos calientes.
+     */
+    private int empaquetarLote(List<FotoResumenDTO> lote) throws IOException {
+        String nombrePaquete = "lote_" + LocalDateTime.now().format(FORMATO_PAQUETE) + "_"
+                + UUID.randomUUID().toString().substring(0, 8) + ".zip";
+        Path paquete = directorio.resolve(nombrePaquete);
+        Path temporal = directorio.resolve(nombrePaquete + ".tmp");
+
+        List<FotoResumenDTO> empaquetadas = new ArrayList<>();
+        long bytes = 0;
+        try (OutputStream out = Files.newOutputStream(temporal); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (FotoResumenDTO foto : lote) {
+                Path origen = resolverCaliente(foto.getUrl());
+                try {
+                    byte[] datos = Files.readAllBytes(origen);
+                    zip.putNextEntry(new ZipEntry(origen.getFileName().toString()));
+                    zip.write(datos);
+                    zip.closeEntry();
+                    empaquetadas.add(foto);
+                    bytes += datos.length;
+                } catch (IOException e) {
+                    errores.increment();
+                    System.err.println(" [AlmacenamientoFrio] Error al empaquetar foto " + foto.getIdFoto() + ": " + e.getMessage());
+                }
+            }
+        }
+        if (empaquetadas.isEmpty()) {
+            Files.deleteIfExists(temporal);
+            return 0;
+        }
+        Files.move(temporal, paquete, StandardCopyOption.ATOMIC_MOVE);
+
+        for (FotoResumenDTO foto : empaquetadas) {
+            Path origen = resolverCaliente(foto.getUrl());
+            fotoRepository.marcarEnFrio(foto.getIdFoto(), nombrePaquete + SEPARADOR_PAQUETE + origen.getFileName());
+            borrarCaliente(origen);
+        }
+        fotosMovidas.increment(empaquetadas.size());
+        bytesMovidos.increment(bytes);
+        return empaquetadas.size();
+    }
+
+    /**
+     * Reescribe un paquete con sus entradas vigentes, o lo borra si no queda ninguna. La copia se escribe
+     * en un temporal y reemplaza al paquete con un movimiento atómico, así que las lecturas nunca ven un
+     * ZIP a medias.
+     *
+     * @return Cantidad de entradas quitadas.
+     */
+    private int compactar(String nombrePaquete) throws IOException {
+        Path paquete = resolver(nombrePaquete);
+        if (!Files.isRegularFile(paquete)) {
+            return 0;
+        }
+        String prefijo = nombrePaquete + SEPARADOR_PAQUETE;
+        Set<String> vigentes = new HashSet<>();
+        for (String ubicacion : fotoRepository.findUbicacionesEnPaquete(escaparLike(prefijo) + "%")) {
+            vigentes.add(ubicacion.substring(prefijo.length()));
+        }
+
+        Path temporal = directorio.resolve(nombrePaquete + ".tmp");
+        int conservadas = 0;
+        int quitadas = 0;
+        try (ZipFile zip = new ZipFile(paquete.toFile())) {
+            for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements(); ) {
+                if (vigentes.contains(it.nextElement().getName())) {
+                    conservadas++;
+                } else {
+                    quitadas++;
+                }
+            }
+            // Solo se reescribe si sobran entradas y queda alguna; si no queda ninguna se borra el paquete
+            if (quitadas > 0 && conservadas > 0) {
+                try (OutputStream out = Files.newOutputStream(temporal); ZipOutputStream copia = new ZipOutputStream(out)) {
+                    for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements(); ) {
+                        ZipEntry entrada = it.nextElement();
+                        if (vigentes.contains(entrada.getName())) {
+                            copia.putNextEntry(new ZipEntry(entrada.getName()));
+                            try (InputStream in = zip.getInputStream(entrada)) {
+                                in.transferTo(copia);
+                            }
+                            copia.closeEntry();
+                        }
+                    }
+                }
+            }
+        }
+
+        if (quitadas == 0) {
+            return 0;
+        }
+        if (conservadas == 0) {
+            Files.deleteIfExists(paquete);
+        } else {
+            Files.move(temporal, paquete, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return quitadas;
+    }
+
+    private List<String> listarPaquetes() throws IOException {
+        if (!Files.isDirectory(directorio)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.map(archivo -> archivo.getFileName().toString())
+                    .filter(nombre -> nombre.endsWith(".zip"))
+                    .toList();
+        }
+    }
+
+    private static String escaparLike(String valor) {
+        return valor.replace("#", "##").replace("%", "#%").replace("_", "#_");
+    }
+
+    private void borrarCaliente(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            // La BD ya apunta a la copia fría: el archivo caliente sobrante no afecta las lecturas
+            System.err.println(" [AlmacenamientoFrio] No se pudo borrar " + archivo + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resuelve la URL de una foto dentro del directorio caliente, o {@code null} si sale de él.
+     */
+    private Path resolverCaliente(String url) {
+        return FotoService.resolverArchivoLocal(directorioCaliente, url);
+    }
+
+    /**
+     * Resuelve un nombre dentro del directorio frío, rechazando rutas que salgan de él.
+     */
+    private Path resolver(String nombre) {
+        Path ruta = directorio.resolve(nombre).normalize();
+        if (!ruta.startsWith(directorio.normalize())) {
+            throw new NoSuchElementException("Ubicación en frío inválida");
+        }
+        return ruta;
+    }
+}
@@ -0,0 +1,177 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.ContenidoFotoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché LRU, acotada por bytes, del contenido de las fotos más leídas.
+ * <p>
+ * La clave es el ID de la foto y el ancho del derivado (0 = original). Los bytes se guardan en
+ * {@code ByteBuffer} directos (fuera del heap), así que servir una foto caliente solo cuesta copias
+ * de memoria y no presiona al GC. Las entradas se invalidan al actualizar, eliminar o recomprimir la foto.
+ * </p>
+ * <p>
+ * Para que un lector que leyó el archivo antes de una invalidación no vuelva a insertar bytes obsoletos,
+ * cada invalidación incrementa una generación por foto. El lector captura {@link #generacion(int)} antes de
+ * ir a disco y {@link #guardar} descarta la inserción si la generación cambió entretanto. Las generaciones
+ * se agrupan en {@value #GRUPOS_GENERACION} contadores (por ID módulo ese valor) para no crecer con la
+ * cantidad de fotos; una colisión solo provoca que una lectura no quede en caché.
+ * </p>
+ * <p>
+ * Publica las métricas {@code fotos.cache.aciertos}, {@code fotos.cache.fallos}, {@code fotos.cache.desalojos},
+ * {@code fotos.cache.bytes} y {@code fotos.cache.entradas}.
+ * </p>
+ */
+@Service
+public class CacheFotoService {
+
+    private static final int GRUPOS_GENERACION = 1024;
+
+    private final long bytesMaximo;
+    private final long bytesMaximoEntrada;
+
+    // Orden de acceso: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<Long, ContenidoFotoDTO> entradas = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytesOcupados;
+    private final long[] generaciones = new long[GRUPOS_GENERACION];
+
+    private final Counter aciertos;
+    private final Counter fallos;
+    private final Counter desalojos;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param meterRegistry Registro de métricas.
+     * @param bytesMaximo   Presupuesto total de bytes de la caché (0 = caché desactivada).
+     */
+    public CacheFotoService(MeterRegistry meterRegistry,
+                            @Value("${fotos.cache.bytes-maximo:67108864}") long bytesMaximo) {
+        this.bytesMaximo = Math.max(0, bytesMaximo);
+        // Una sola foto no puede desplazar a más de un octavo de la caché
+        this.bytesMaximoEntrada = this.bytesMaximo / 8;
+
+        this.aciertos = Counter.builder("fotos.cache.aciertos")
+                .description("Lecturas de contenido servidas desde la caché").register(meterRegistry);
+        this.fallos = Counter.builder("fotos.cache.fallos")
+                .description("Lecturas de contenido que tuvieron que ir a disco").register(meterRegistry);
+        this.desalojos = Counter.builder("fotos.cache.desalojos")
+                .description("Entradas desalojadas para respetar el presupuesto de bytes").register(meterRegistry);
+        Gauge.builder("fotos.cache.bytes", this, CacheFotoService::getBytesOcupados)
+                .baseUnit("bytes").description("Bytes ocupados por la caché (fuera del heap)").register(meterRegistry);
+        Gauge.builder("fotos.cache.entradas", this, CacheFotoService::getCantidadEntradas)
+                .description("Entradas en la caché").register(meterRegistry);
+    }
+
+    /**
+     * Busca el contenido de una foto en la caché.
+     *
+     * @param idFoto ID de la foto.
+     * @param ancho  Ancho del derivado (0 = original).
+     * @return Una vista de solo lectura del contenido, o {@code null} si no está en la caché.
+     */
+    public synchronized ContenidoFotoDTO buscar(int idFoto, int ancho) {
+        ContenidoFotoDTO contenido = entradas.get(clave(idFoto, ancho));
+        if (contenido == null) {
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        return new ContenidoFotoDTO(contenido.getTipo(), contenido.getDatos().duplicate());
+    }
+
+    /**
+     * Generación actual de la foto. Debe leerse antes de cargar el contenido y pasarse a {@link #guardar}.
+     *
+     * @param idFoto ID de la foto.
+     * @return Valor que cambia cada vez que se invalida la foto.
+     */
+    public synchronized long generacion(int idFoto) {
+        return generaciones[grupo(idFoto)];
+    }
+
+    /**
+     * Copia el contenido a memoria fuera del heap y lo guarda en la caché si cabe en el presupuesto,
+     * desalojando las entradas menos usadas recientemente. Si la foto se invalidó después de capturar
+     * {@code generacion}, el contenido se entrega pero no se guarda.
+     *
+     * @param idFoto     ID de la foto.
+     * @param ancho      Ancho del derivado (0 = original).
+     * @param generacion Generación capturada con {@link #generacion(int)} antes de leer los bytes.
+     * @param tipo       Tipo MIME del contenido.
+     * @param datos      Bytes leídos de disco.
+     * @return Una vista de solo lectura del contenido (en caché o no).
+     */
+    public ContenidoFotoDTO guardar(int idFoto, int ancho, long generacion, String tipo, byte[] datos) {
+        if (datos.length == 0 || datos.length > bytesMaximoEntrada) {
+            return new ContenidoFotoDTO(tipo, ByteBuffer.wrap(datos).asReadOnlyBuffer());
+        }
+
+        // La copia fuera del heap se hace sin bloquear la caché
+        ByteBuffer directo = ByteBuffer.allocateDirect(datos.length);
+        directo.put(datos).flip();
+        ContenidoFotoDTO contenido = new ContenidoFotoDTO(tipo, directo.asReadOnlyBuffer());
+
+        synchronized (this) {
+            if (generaciones[grupo(idFoto)] != generacion) {
+                return new ContenidoFotoDTO(tipo, contenido.getDatos().duplicate());
+            }
+            ContenidoFotoDTO anterior = entradas.put(clave(idFoto, ancho), contenido);
+            if (anterior != null) {
+                bytesOcupados -= anterior.getTamanio();
+            }
+            bytesOcupados += datos.length;
+
+            Iterator<Map.Entry<Long, ContenidoFotoDTO>> it = entradas.entrySet().iterator();
+            while (bytesOcupados > bytesMaximo && it.hasNext()) {
+                ContenidoFotoDTO desalojado = it.next().getValue();
+                it.remove();
+                bytesOcupados -= desalojado.getTamanio();
+                desalojos.increment();
+            }
+        }
+        return new ContenidoFotoDTO(tipo, contenido.getDatos().duplicate());
+    }
+
+    /**
+     * Elimina de la caché el original y todos los derivados de una foto.
+     *
+     * @param idFoto ID de la foto.
+     */
+    public synchronized void invalidar(int idFoto) {
+        generaciones[grupo(idFoto)]++;
+        Iterator<Map.Entry<Long, ContenidoFotoDTO>> it = entradas.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, ContenidoFotoDTO> entrada = it.next();
+            if ((int) (entrada.getKey() >>> 32) == idFoto) {
+                bytesOcupados -= entrada.getValue().getTamanio();
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized long getBytesOcupados() {
+        return bytesOcupados;
+    }
+
+    public synchronized int getCantidadEntradas() {
+        return entradas.size();
+    }
+
+    private static int grupo(int idFoto) {
+        return Math.floorMod(idFoto, GRUPOS_GENERACION);
+    }
+
+    private static long clave(int idFoto, int ancho) {
+        return ((long) idFoto << 32) | (ancho & 0xFFFFFFFFL);
+    }
+}
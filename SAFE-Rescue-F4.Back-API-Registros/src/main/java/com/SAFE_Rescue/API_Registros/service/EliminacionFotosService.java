@@ -0,0 +1,132 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Borrado en segundo plano de las fotos eliminadas.
+ * <p>
+ * {@code DELETE /fotos/{id}} solo deja una lápida ({@code foto.fecha_eliminacion}) y responde de inmediato.
+ * Esta tarea toma las lápidas por lotes, borra el archivo caliente y la copia fría de cada foto y, recién
+ * cuando ambos ya no existen, elimina las filas de una vez. Si un borrado falla la lápida se conserva y se
+ * reintenta en la siguiente ejecución, hasta el máximo de intentos configurado; las que lo agotan quedan
+ * ocultas para las lecturas y se pueden revisar a mano.
+ * </p>
+ * Publica las métricas {@code fotos.eliminacion.*}.
+ */
+@Service
+public class EliminacionFotosService {
+
+    private final FotoRepository fotoRepository;
+    private final AlmacenamientoFrioService almacenamientoFrioService;
+    private final CacheFotoService cacheFotoService;
+    private final int tamanioLote;
+    private final int maxIntentos;
+
+    private final Counter fotosPurgadas;
+    private final Counter errores;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param fotoRepository            Repositorio de fotos.
+     * @param almacenamientoFrioService Almacenamiento frío, para borrar las copias trasladadas.
+     * @param cacheFotoService          Caché de contenido, que se invalida al purgar.
+     * @param meterRegistry             Registro de métricas.
+     * @param tamanioLote               Cantidad de lápidas procesadas por ejecución.
+     * @param maxIntentos               Intentos fallidos tras los cuales una foto deja de reintentarse.
+     */
+    public EliminacionFotosService(FotoRepository fotoRepository,
+                                   AlmacenamientoFrioService almacenamientoFrioService,
+                                   CacheFotoService cacheFotoService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${fotos.eliminacion.lote:100}") int tamanioLote,
+                                   @Value("${fotos.eliminacion.max-intentos:10}") int maxIntentos) {
+        this.fotoRepository = fotoRepository;
+        this.almacenamientoFrioService = almacenamientoFrioService;
+        this.cacheFotoService = cacheFotoService;
+        this.tamanioLote = tamanioLote;
+        this.maxIntentos = maxIntentos;
+
+        this.fotosPurgadas = Counter.builder("fotos.eliminacion.purgadas")
+                .description("Fotos eliminadas cuyos archivos y fila ya se borraron").register(meterRegistry);
+        this.errores = Counter.builder("fotos.eliminacion.errores")
+                .description("Intentos fallidos de borrar los archivos de una foto eliminada").register(meterRegistry);
+    }
+
+    /**
+     * Procesa un lote de lápidas: borra sus archivos y purga las filas de las que se borraron por completo.
+     *
+     * @return Cantidad de fotos purgadas.
+     */
+    @Scheduled(initialDelayString = "${fotos.eliminacion.retraso-inicial-ms:60000}",
+            fixedDelayString = "${fotos.eliminacion.intervalo-ms:30000}")
+    public synchronized int procesarLote() {
+        List<Foto> pendientes = fotoRepository.findPendientesEliminacion(maxIntentos, PageRequest.of(0, tamanioLote));
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+
+        List<Integer> borradas = new ArrayList<>();
+        List<Integer> fallidas = new ArrayList<>();
+        for (Foto foto : pendientes) {
+            try {
+                borrarArchivos(foto);
+                borradas.add(foto.getIdFoto());
+            } catch (IOException | RuntimeException e) {
+                fallidas.add(foto.getIdFoto());
+                System.err.println(" [EliminacionFotos] No se pudieron borrar los archivos de la foto "
+                        + foto.getIdFoto() + ": " + e.getMessage());
+            }
+        }
+
+        if (!borradas.isEmpty()) {
+            try {
+                fotoRepository.deleteAllByIdInBatch(borradas);
+            } catch (RuntimeException e) {
+                // Los archivos ya no están; la fila se vuelve a intentar en la siguiente ejecución
+                System.err.println(" [EliminacionFotos] Error al purgar el lote: " + e.getMessage());
+                fallidas.addAll(borradas);
+                borradas.clear();
+            }
+        }
+        if (!fallidas.isEmpty()) {
+            fotoRepository.registrarIntentoEliminacion(fallidas);
+            errores.increment(fallidas.size());
+        }
+        if (!borradas.isEmpty()) {
+            // Una lectura que empezó antes de la lápida pudo volver a cachear el contenido
+            borradas.forEach(cacheFotoService::invalidar);
+            fotosPurgadas.increment(borradas.size());
+            System.out.println(" [EliminacionFotos] Fotos purgadas: " + borradas.size() + "/" + pendientes.size());
+        }
+        return borradas.size();
+    }
+
+    /**
+     * Borra el archivo caliente (solo si, normalizada su ruta, queda dentro del directorio de subidas) y la copia
+     * fría de una foto.
+     * Que un archivo ya no exista no es un error, así que un reintento tras un borrado parcial es seguro.
+     */
+    private void borrarArchivos(Foto foto) throws IOException {
+        Path archivo = FotoService.resolverArchivoLocal(foto.getUrl());
+        if (archivo != null) {
+            Files.deleteIfExists(archivo);
+        }
+        if (foto.getUbicacionFrio() != null) {
+            almacenamientoFrioService.eliminar(foto.getUbicacionFrio());
+        }
+    }
+}
@@ -3,9 +3,21 @@ package com.SAFE_Rescue.API_Registros.service;
 import com.SAFE_Rescue.API_Registros.modelo.Estado;
 import com.SAFE_Rescue.API_Registros.repository.EstadoRepository;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -14,13 +26,31 @@ import java.util.NoSuchElementException;
  * Gestiona las operaciones CRUD y las validaciones de negocio, actuando como
  * intermediario entre la capa de controlador y el repositorio de datos.
  * </p>
+ * <p>
+ * Mantiene una versión del catálogo, calculada como un hash de su contenido, para que los clientes puedan
+ * guardar el catálogo en caché y revalidarlo con un {@code ETag}. Al depender solo del contenido, todas las
+ * instancias entregan la misma versión para los mismos datos y cambia también cuando la recarga periódica
+ * trae cambios hechos por otra instancia.
+ * </p>
+ * <p>
+ * La tabla es pequeña y casi solo de lectura, así que las lecturas se sirven desde una instantánea
+ * inmutable en memoria, indexada por ID y por nombre sin distinguir mayúsculas. Cada escritura recarga
+ * la tabla y reemplaza la instantánea de una vez, de modo que una lectura ve el catálogo anterior o el
+ * nuevo, nunca uno a medias. Una recarga periódica recoge los cambios hechos por otras instancias.
+ * </p>
  *
  */
 @Service
 public class EstadoService {
 
+    // Máximo de IDs aceptados en una consulta por lote
+    public static final int MAX_IDS_POR_LOTE = 200;
+
     private final EstadoRepository estadoRepository;
 
+    // Instantánea vigente; se carga con la primera lectura
+    private volatile Catalogo catalogo;
+
     /**
      * Constructor para la inyección de dependencias (Inyección por Constructor).
      *
@@ -40,7 +70,7 @@ public class EstadoService {
      * @return Una {@code List} de todos los objetos {@link Estado}.
      */
     public List<Estado> findAll() {
-        return estadoRepository.findAll();
+        return catalogo().todos().stream().map(EstadoService::copiar).toList();
     }
 
     /**
@@ -51,18 +81,73 @@ public class EstadoService {
      * @throws NoSuchElementException Si el estado no es encontrado con el ID proporcionado.
      */
     public Estado findById(Integer id) {
-        return estadoRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Estado no encontrado con ID: " + id));
+        Estado estado = catalogo().porId().get(id);
+        if (estado == null) {
+            throw new NoSuchElementException("Estado no encontrado con ID: " + id);
+        }
+        return copiar(estado);
+    }
+
+    /**
+     * Recupera varios estados a la vez.
+     *
+     * @param ids Los IDs a buscar (se ignoran los repetidos).
+     * @return Los estados encontrados, en el orden de {@code ids}; los IDs inexistentes se omiten.
+     * @throws IllegalArgumentException Si se piden más de {@link #MAX_IDS_POR_LOTE} IDs.
+     */
+    public List<Estado> findAllById(Collection<Integer> ids) {
+        LinkedHashSet<Integer> unicos = new LinkedHashSet<>(ids);
+        if (unicos.size() > MAX_IDS_POR_LOTE) {
+            throw new IllegalArgumentException("No se pueden consultar más de " + MAX_IDS_POR_LOTE + " estados a la vez.");
+        }
+        Map<Integer, Estado> porId = catalogo().porId();
+
+        List<Estado> resultado = new ArrayList<>(unicos.size());
+        for (Integer id : unicos) {
+            Estado estado = porId.get(id);
+            if (estado != null) {
+                resultado.add(copiar(estado));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Versión actual del catálogo de estados: un hash de su contenido, que cambia cuando cambia algún estado.
+     *
+     * @return La versión del catálogo.
+     */
+    public long getVersionCatalogo() {
+        return catalogo().version();
     }
 
     /**
-     * Busca y recupera estados que coinciden con el nombre.
+     * Busca y recupera estados que coinciden con el nombre, sin distinguir mayúsculas ni espacios
+     * en los extremos.
      *
      * @param nombre El nombre del estado a buscar.
      * @return Una lista de {@code Estado}s.
      */
     public List<Estado> findByNombre(String nombre) {
-        return estadoRepository.findByNombre(nombre);
+        if (nombre == null) {
+            return List.of();
+        }
+        return catalogo().porNombre().getOrDefault(claveNombre(nombre), List.of()).stream()
+                .map(EstadoService::copiar)
+                .toList();
+    }
+
+    /**
+     * Vuelve a leer la tabla de estados y reemplaza la instantánea en memoria.
+     * <p>
+     * Se ejecuta tras cada escritura y periódicamente. Es {@code synchronized} para que las instantáneas
+     * se publiquen en el mismo orden en que se leyeron: una recarga lenta nunca pisa a una más reciente.
+     * </p>
+     */
+    @Scheduled(initialDelayString = "${estados.catalogo.recarga-ms:300000}",
+            fixedDelayString = "${estados.catalogo.recarga-ms:300000}")
+    public synchronized void recargarCatalogo() {
+        catalogo = Catalogo.de(estadoRepository.findAll());
     }
 
     /**
@@ -79,7 +164,9 @@ public class EstadoService {
     public Estado save(Estado estado) {
         validarAtributosEstado(estado);
         try {
-            return estadoRepository.save(estado);
+            Estado estadoGuardado = estadoRepository.save(estado);
+            recargarCatalogo();
+            return estadoGuardado;
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Error de integridad de datos. El nombre del estado ya existe o los datos son inválidos.");
         }
@@ -108,6 +195,7 @@ public class EstadoService {
 
         try {
             estadoRepository.save(estadoExistente);
+            recargarCatalogo();
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Error de integridad de datos. El nombre del estado ya existe.");
         }
@@ -127,11 +215,75 @@ public class EstadoService {
 
         try {
             estadoRepository.delete(estado);
+            recargarCatalogo();
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("No se puede eliminar el estado. Está siendo utilizado por otros registros.");
         }
     }
 
+    // -------------------------------------------------------------------------
+    // CATÁLOGO EN MEMORIA
+    // -------------------------------------------------------------------------
+
+    private Catalogo catalogo() {
+        Catalogo actual = catalogo;
+        if (actual == null) {
+            recargarCatalogo();
+            actual = catalogo;
+        }
+        return actual;
+    }
+
+    private static String claveNombre(String nombre) {
+        return nombre.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // Las entidades del catálogo no salen del servicio: quien reciba un estado puede modificarlo sin afectarlo
+    private static Estado copiar(Estado estado) {
+        return new Estado(estado.getIdEstado(), estado.getNombre(), estado.getDescripcion());
+    }
+
+    /**
+     * Instantánea inmutable del catálogo de estados.
+     *
+     * @param todos     Todos los estados, en el orden de la tabla.
+     * @param porId     Estados por ID.
+     * @param porNombre Estados por nombre normalizado (minúsculas, sin espacios en los extremos).
+     * @param version   Hash del contenido, usado como versión del catálogo.
+     */
+    private record Catalogo(List<Estado> todos, Map<Integer, Estado> porId, Map<String, List<Estado>> porNombre,
+                            long version) {
+
+        static Catalogo de(List<Estado> estados) {
+            List<Estado> todos = estados.stream().map(EstadoService::copiar).toList();
+            Map<Integer, Estado> porId = new HashMap<>();
+            Map<String, List<Estado>> porNombre = new HashMap<>();
+            for (Estado estado : todos) {
+                porId.put(estado.getIdEstado(), estado);
+                if (estado.getNombre() != null) {
+                    porNombre.computeIfAbsent(claveNombre(estado.getNombre()), clave -> new ArrayList<>()).add(estado);
+                }
+            }
+            porNombre.replaceAll((clave, lista) -> List.copyOf(lista));
+            return new Catalogo(todos, Map.copyOf(porId), Map.copyOf(porNombre), calcularVersion(todos));
+        }
+
+        // Se ordena por ID para que el hash no dependa del orden en que la base de datos entregue las filas
+        private static long calcularVersion(List<Estado> estados) {
+            StringBuilder contenido = new StringBuilder();
+            estados.stream()
+                    .sorted(Comparator.comparingInt(Estado::getIdEstado))
+                    .forEach(estado -> contenido.append(estado.getIdEstado()).append('\u0000').append(estado.getNombre())
+                            .append('\u0000').append(estado.getDescripcion()).append('\n'));
+            try {
+                byte[] resumen = MessageDigest.getInstance("SHA-256").digest(contenido.toString().getBytes(StandardCharsets.UTF_8));
+                return ByteBuffer.wrap(resumen).getLong() & Long.MAX_VALUE;
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 no está disponible", e);
+            }
+        }
+    }
+
     // -------------------------------------------------------------------------
     // MÉTODOS DE VALIDACIÓN
     // -------------------------------------------------------------------------
@@ -0,0 +1,81 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.ResultadoSubidaDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Servicio que procesa la subida de varias fotos en una sola petición.
+ * <p>
+ * Cada archivo (lectura, detección de tipo, hash, escritura en disco y registro en la BD) se procesa
+ * en paralelo sobre un pool de hilos acotado. Los errores se capturan por archivo, de modo que
+ * un archivo inválido no hace fallar al resto del lote.
+ * </p>
+ */
+@Service
+public class FotoLoteService {
+
+    private final FotoService fotoService;
+    private final ExecutorService executor;
+    private final int maxArchivos;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param fotoService Servicio con el flujo de subida de una foto.
+     * @param executor    Pool acotado para procesar los archivos.
+     * @param maxArchivos Cantidad máxima de archivos por lote.
+     */
+    public FotoLoteService(FotoService fotoService,
+                           @Qualifier("fotoLoteExecutor") ExecutorService executor,
+                           @Value("${fotos.lote.max-archivos:30}") int maxArchivos) {
+        this.fotoService = fotoService;
+        this.executor = executor;
+        this.maxArchivos = maxArchivos;
+    }
+
+    public int getMaxArchivos() {
+        return maxArchivos;
+    }
+
+    /**
+     * Sube todos los archivos del lote en paralelo.
+     *
+     * @param archivos    Archivos recibidos en la petición.
+     * @param descripcion Descripción común para las fotos (opcional).
+     * @return El resultado de cada archivo, en el mismo orden en que fueron enviados.
+     */
+    public List<ResultadoSubidaDTO> subirLote(List<MultipartFile> archivos, String descripcion) {
+        String descripcionFoto = descripcion != null && !descripcion.isBlank() ? descripcion : "Foto de incidente";
+
+        List<CompletableFuture<ResultadoSubidaDTO>> tareas = archivos.stream()
+                .map(archivo -> CompletableFuture.supplyAsync(() -> subirArchivo(archivo, descripcionFoto), executor))
+                .toList();
+
+        return tareas.stream().map(CompletableFuture::join).toList();
+    }
+
+    private ResultadoSubidaDTO subirArchivo(MultipartFile archivo, String descripcion) {
+        String nombre = archivo.getOriginalFilename();
+        try {
+            if (archivo.getSize() > FotoService.TAMANIO_MAXIMO) {
+                return ResultadoSubidaDTO.fallido(nombre, "El archivo no debe superar 5MB. Tamaño actual: "
+                        + (archivo.getSize() / 1024 / 1024) + "MB");
+            }
+            Foto foto = fotoService.subirFoto(archivo.getBytes(), nombre, descripcion);
+            return ResultadoSubidaDTO.exitoso(nombre, foto);
+        } catch (IllegalArgumentException e) {
+            return ResultadoSubidaDTO.fallido(nombre, e.getMessage());
+        } catch (Exception e) {
+            System.err.println(" [FotoLoteService] Error al subir " + nombre + ": " + e.getMessage());
+            return ResultadoSubidaDTO.fallido(nombre, "Error al procesar el archivo: " + e.getMessage());
+        }
+    }
+}
@@ -1,19 +1,39 @@
 package com.SAFE_Rescue.API_Registros.service;
 
+import com.SAFE_Rescue.API_Registros.dto.ContenidoFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FiltroFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoUbicacionDTO;
+import com.SAFE_Rescue.API_Registros.dto.PaginaFotosDTO;
 import com.SAFE_Rescue.API_Registros.modelo.Foto;
 import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import com.SAFE_Rescue.API_Registros.util.ExifUtil;
+import com.SAFE_Rescue.API_Registros.util.GeoUtil;
+import com.SAFE_Rescue.API_Registros.util.HashPerceptualUtil;
+import com.SAFE_Rescue.API_Registros.util.HashUtil;
+import org.apache.tika.Tika;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -22,8 +42,147 @@ public class FotoService {
     @Autowired
     private FotoRepository fotoRepository;
 
+    @Autowired
+    private NormalizacionFotoService normalizacionFotoService;
+
+    @Autowired
+    private UrlFirmadaService urlFirmadaService;
+
+    @Autowired
+    private CacheFotoService cacheFotoService;
+
+    @Autowired
+    private SimilitudFotoService similitudFotoService;
+
+    @Autowired
+    private AlmacenamientoFrioService almacenamientoFrioService;
+
     //  Carpeta donde se guardarán las fotos
-    private static final String UPLOAD_DIR = "uploads/fotos";
+    public static final String UPLOAD_DIR = "uploads/fotos";
+
+    //  Tamaño máximo aceptado por archivo (5MB)
+    public static final long TAMANIO_MAXIMO = 5 * 1024 * 1024;
+
+    //  Anchos de derivado (miniaturas) que se pueden pedir al endpoint de contenido
+    public static final Set<Integer> ANCHOS_DERIVADOS = Set.of(160, 320, 640);
+
+    /** Radio máximo de la búsqueda de fotos cercanas (50 km), en metros. */
+    public static final double RADIO_MAXIMO_METROS = 50_000;
+
+    /** Cantidad máxima de candidatas que se leen del rectángulo antes de filtrar por distancia. */
+    private static final int MAX_CANDIDATAS_CERCANAS = 5_000;
+
+    //  Tika es thread-safe: una sola instancia para todas las subidas
+    private static final Tika TIKA = new Tika();
+
+    /**
+     * Valida, guarda en disco y registra en la BD una foto subida.
+     * Es el flujo común de {@code /upload} y de cada archivo de {@code /upload-lote}.
+     *
+     * @throws IllegalArgumentException si el archivo está vacío, es demasiado grande o no es una imagen
+     */
+    public Foto subirFoto(byte[] fotoBytes, String filename, String descripcion) throws IOException {
+        if (fotoBytes == null || fotoBytes.length == 0) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        if (fotoBytes.length > TAMANIO_MAXIMO) {
+            throw new IllegalArgumentException("El archivo no debe superar 5MB. Tamaño actual: "
+                    + (fotoBytes.length / 1024 / 1024) + "MB");
+        }
+
+        //  Determinar el tipo MIME
+        String contentType = determinarTipoContenido(fotoBytes, filename);
+        System.out.println("   Content-Type determinado: " + contentType);
+        if (contentType == null) {
+            throw new IllegalArgumentException("Solo se aceptan imágenes (JPG, PNG, GIF, WebP, BMP, SVG)");
+        }
+
+        //  Guardar archivo en el sistema de archivos
+        String savedFilePath = guardarArchivoFisico(fotoBytes, filename);
+        System.out.println("   Archivo guardado en: " + savedFilePath);
+
+        //  Crear objeto Foto SIN los bytes (solo metadatos y URL)
+        Foto foto = new Foto();
+        foto.setUrl(savedFilePath);
+        foto.setDatos(null);
+        foto.setTipo(contentType);
+        foto.setTamanio(fotoBytes.length);
+        foto.setHash(calcularHash(fotoBytes));
+        foto.setFechaSubida(LocalDateTime.now());
+        foto.setDescripcion(descripcion);
+
+        //  Ubicación y fecha de captura del EXIF (se leen antes de que la normalización lo elimine)
+        ExifUtil.MetadatosExif exif = ExifUtil.leerMetadatos(fotoBytes);
+        foto.setLatitud(exif.getLatitud());
+        foto.setLongitud(exif.getLongitud());
+        foto.setFechaCaptura(exif.getFechaCaptura());
+
+        //  Hash perceptual para detectar casi duplicadas (la imagen se decodifica submuestreada)
+        foto.setHashPerceptual(HashPerceptualUtil.dHash(fotoBytes));
+
+        Foto fotoGuardada = save(foto);
+        similitudFotoService.registrar(fotoGuardada.getIdFoto(), fotoGuardada.getHashPerceptual());
+
+        //  Recompresión opcional en segundo plano (no bloquea la respuesta)
+        normalizacionFotoService.programar(fotoGuardada);
+        return fotoGuardada;
+    }
+
+    /**
+     * Determina el tipo MIME: usa Tika primero, luego fallback a extensión.
+     * Retorna {@code null} si el archivo no es una imagen soportada.
+     */
+    public String determinarTipoContenido(byte[] fileBytes, String filename) {
+        try {
+            String detectedType = TIKA.detect(fileBytes);
+
+            System.out.println("   MIME type detectado por Tika: " + detectedType);
+
+            // Validar que sea una imagen
+            if (detectedType != null && detectedType.startsWith("image/")) {
+                return detectedType;
+            }
+        } catch (Exception e) {
+            System.out.println(" Tika no disponible, usando detección por extensión");
+        }
+
+        // Fallback: Determinar por extensión
+        return determinarTipoPorExtension(filename);
+    }
+
+    /**
+     * Determina el tipo MIME desde la extensión del nombre de archivo.
+     */
+    public String determinarTipoPorExtension(String filename) {
+        if (filename == null) {
+            return null;
+        }
+
+        String lowerFilename = filename.toLowerCase();
+
+        if (lowerFilename.endsWith(".jpg") || lowerFilename.endsWith(".jpeg")) {
+            return "image/jpeg";
+        } else if (lowerFilename.endsWith(".png")) {
+            return "image/png";
+        } else if (lowerFilename.endsWith(".gif")) {
+            return "image/gif";
+        } else if (lowerFilename.endsWith(".webp")) {
+            return "image/webp";
+        } else if (lowerFilename.endsWith(".bmp")) {
+            return "image/bmp";
+        } else if (lowerFilename.endsWith(".svg")) {
+            return "image/svg+xml";
+        }
+
+        return null;
+    }
+
+    /**
+     * Calcula el hash SHA-256 (hexadecimal) del contenido de la foto
+     */
+    public String calcularHash(byte[] fileBytes) {
+        return HashUtil.sha256Hex(fileBytes);
+    }
 
     /**
      * Guarda el archivo físico en el servidor
@@ -59,10 +218,55 @@ public class FotoService {
         return "uploads/fotos/" + savedFilename;
     }
 
+    /**
+     * Resuelve la URL de una foto local a su archivo dentro de {@code directorio}, normalizando la ruta.
+     * Es la única forma de pasar de una URL guardada a un archivo: la URL la puede enviar el cliente.
+     *
+     * @param directorio Directorio que publica {@code uploads/fotos} (relativo al directorio de trabajo o absoluto)
+     * @param url        URL almacenada en la BD (ej. "uploads/fotos/archivo.png")
+     * @return El archivo, o {@code null} si la URL no es local o, una vez normalizada, sale del directorio
+     */
+    public static Path resolverArchivoLocal(Path directorio, String url) {
+        if (url == null || !url.startsWith(UPLOAD_DIR + "/")) {
+            return null;
+        }
+        Path base = directorio.toAbsolutePath().normalize();
+        try {
+            Path archivo = base.resolve(url.substring(UPLOAD_DIR.length() + 1)).normalize();
+            return archivo.startsWith(base) && !archivo.equals(base) ? archivo : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resuelve la URL de una foto local dentro de {@link #UPLOAD_DIR}.
+     *
+     * @see #resolverArchivoLocal(Path, String)
+     */
+    public static Path resolverArchivoLocal(String url) {
+        return resolverArchivoLocal(Paths.get(UPLOAD_DIR), url);
+    }
+
+    /**
+     * Rechaza una URL local (que empieza con {@code uploads/fotos/}) que, una vez normalizada, sale del directorio
+     *
+     * @throws IllegalArgumentException si la URL apunta fuera de {@code uploads/fotos}
+     */
+    private void validarUrl(String url) {
+        if (url != null && url.startsWith(UPLOAD_DIR + "/") && resolverArchivoLocal(url) == null) {
+            throw new IllegalArgumentException("La URL de la foto debe apuntar a un archivo dentro de " + UPLOAD_DIR);
+        }
+    }
+
     /**
      * Extrae la extensión del archivo
      */
     private String getFileExtension(String filename) {
+        if (filename != null) {
+            // Ignorar la ruta (las URLs heredadas pueden contener puntos en el dominio)
+            filename = filename.substring(filename.lastIndexOf("/") + 1);
+        }
         if (filename != null && filename.contains(".")) {
             return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
         }
@@ -78,7 +282,15 @@ public class FotoService {
         System.out.println("   Tipo: " + foto.getTipo());
         System.out.println("   Tamaño: " + foto.getTamanio() + " bytes");
 
+        validarUrl(foto.getUrl());
         try {
+            // Clientes antiguos envían los bytes en el JSON: se vuelcan a disco y no se guardan en la BD
+            if (foto.getDatos() != null && foto.getDatos().length > 0) {
+                String ruta = guardarArchivoFisico(foto.getDatos(), foto.getUrl());
+                foto.setUrl(ruta);
+                foto.setTamanio(foto.getDatos().length);
+                foto.setDatos(null);
+            }
             Foto fotoGuardada = fotoRepository.save(foto);
             System.out.println(" [FotoService] Foto guardada con ID: " + fotoGuardada.getIdFoto());
             return fotoGuardada;
@@ -92,28 +304,185 @@ public class FotoService {
      * Obtener foto por ID
      */
     public Foto findById(int id) {
-        Optional<Foto> foto = fotoRepository.findById(id);
-        return foto.orElseThrow(() -> new RuntimeException("Foto no encontrada"));
+        Optional<Foto> foto = buscarVigente(id);
+        return foto.orElseThrow(() -> new NoSuchElementException("Foto no encontrada"));
+    }
+
+    /**
+     * Busca una foto por ID ignorando las que tienen lápida (eliminación pendiente)
+     */
+    private Optional<Foto> buscarVigente(int id) {
+        return fotoRepository.findById(id).filter(foto -> foto.getFechaEliminacion() == null);
+    }
+
+    /**
+     * Obtener los bytes de una foto o de uno de sus derivados, pasando por la caché de contenido.
+     * La lápida se revisa antes que la caché, para no servir una foto eliminada que aún no se purga.
+     *
+     * @param id    ID de la foto
+     * @param ancho Ancho del derivado (0 = original; si no, uno de {@link #ANCHOS_DERIVADOS})
+     */
+    public ContenidoFotoDTO obtenerContenido(int id, int ancho) throws IOException {
+        if (ancho != 0 && !ANCHOS_DERIVADOS.contains(ancho)) {
+            throw new IllegalArgumentException("Ancho no soportado. Valores permitidos: 0, " + ANCHOS_DERIVADOS);
+        }
+
+        // Se captura antes de leer para no guardar bytes que una invalidación concurrente dejó obsoletos
+        long generacion = cacheFotoService.generacion(id);
+        Foto foto = buscarVigente(id)
+                .orElseThrow(() -> new NoSuchElementException("Foto no encontrada"));
+
+        ContenidoFotoDTO enCache = cacheFotoService.buscar(id, ancho);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        byte[] datos = leerArchivo(foto);
+        if (ancho > 0) {
+            datos = normalizacionFotoService.generarDerivado(datos, foto.getTipo(), ancho);
+        }
+        return cacheFotoService.guardar(id, ancho, generacion, foto.getTipo(), datos);
+    }
+
+    /**
+     * Lee los bytes de la foto desde el almacenamiento frío, desde disco o, si aún no se migran,
+     * desde la columna binaria heredada
+     */
+    private byte[] leerArchivo(Foto foto) throws IOException {
+        if (foto.getUbicacionFrio() != null) {
+            return almacenamientoFrioService.leer(foto.getUbicacionFrio());
+        }
+        Path archivo = resolverArchivoLocal(foto.getUrl());
+        if (archivo != null && Files.isRegularFile(archivo)) {
+            return Files.readAllBytes(archivo);
+        }
+        byte[] datos = fotoRepository.findDatosById(foto.getIdFoto());
+        if (datos == null) {
+            throw new NoSuchElementException("El archivo de la foto no está disponible");
+        }
+        return datos;
     }
 
     /**
      * Obtener todas las fotos
      */
     public List<Foto> findAll() {
-        return fotoRepository.findAll();
+        return fotoRepository.findByFechaEliminacionIsNull();
+    }
+
+    /**
+     * Obtener una página de fotos con solo sus metadatos (sin leer la columna binaria)
+     */
+    public Page<FotoResumenDTO> findAllResumen(Pageable pageable) {
+        return fotoRepository.findAllResumen(pageable);
+    }
+
+    /**
+     * Buscar fotos por fecha de subida, tipo y tamaño, paginando por cursor
+     *
+     * @param filtro  Filtros a aplicar (los nulos se ignoran)
+     * @param cursor  Cursor devuelto por la página anterior (nulo para la primera página)
+     * @param tamanio Cantidad de fotos por página
+     * @throws IllegalArgumentException si los rangos o el cursor no son válidos
+     */
+    public PaginaFotosDTO buscar(FiltroFotoDTO filtro, String cursor, int tamanio) {
+        if (filtro.getDesde() != null && filtro.getHasta() != null && !filtro.getDesde().isBefore(filtro.getHasta())) {
+            throw new IllegalArgumentException("La fecha 'desde' debe ser anterior a 'hasta'");
+        }
+        if (filtro.getTamanioMin() != null && filtro.getTamanioMax() != null && filtro.getTamanioMin() > filtro.getTamanioMax()) {
+            throw new IllegalArgumentException("El tamaño mínimo no puede ser mayor que el máximo");
+        }
+
+        LocalDateTime cursorFecha = null;
+        Integer cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorFecha = LocalDateTime.parse(partes[0]);
+                cursorId = Integer.parseInt(partes[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+
+        // Se pide una foto extra para saber si hay página siguiente
+        List<FotoResumenDTO> fotos = fotoRepository.buscar(filtro, cursorFecha, cursorId, tamanio + 1);
+        String siguienteCursor = null;
+        if (fotos.size() > tamanio) {
+            fotos = fotos.subList(0, tamanio);
+            FotoResumenDTO ultima = fotos.get(tamanio - 1);
+            siguienteCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (ultima.getFechaSubida() + "|" + ultima.getIdFoto()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new PaginaFotosDTO(fotos, siguienteCursor);
+    }
+
+    /**
+     * Buscar fotos tomadas cerca de un punto, ordenadas por distancia
+     * <p>
+     * Primero se filtra por un rectángulo que contiene el círculo (usando el índice de ubicación)
+     * y luego se calcula la distancia exacta a cada candidata.
+     * </p>
+     *
+     * @param latitud     Latitud del punto
+     * @param longitud    Longitud del punto
+     * @param radioMetros Radio de búsqueda en metros
+     * @param limite      Cantidad máxima de fotos a retornar
+     * @throws IllegalArgumentException si las coordenadas o el radio no son válidos
+     */
+    public List<FotoUbicacionDTO> buscarCercanas(double latitud, double longitud, double radioMetros, int limite) {
+        if (Double.isNaN(latitud) || latitud < -90 || latitud > 90) {
+            throw new IllegalArgumentException("La latitud debe estar entre -90 y 90");
+        }
+        if (Double.isNaN(longitud) || longitud < -180 || longitud > 180) {
+            throw new IllegalArgumentException("La longitud debe estar entre -180 y 180");
+        }
+        if (!(radioMetros > 0) || radioMetros > RADIO_MAXIMO_METROS) {
+            throw new IllegalArgumentException("El radio debe ser mayor que 0 y no superar " + (int) RADIO_MAXIMO_METROS + " metros");
+        }
+
+        double dLat = GeoUtil.gradosLatitud(radioMetros);
+        double latMin = Math.max(-90, latitud - dLat);
+        double latMax = Math.min(90, latitud + dLat);
+        // Se usa la latitud más alejada del ecuador: ahí el grado de longitud es más corto
+        double dLon = GeoUtil.gradosLongitud(radioMetros, Math.max(Math.abs(latMin), Math.abs(latMax)));
+        double lonMin = longitud - dLon;
+        double lonMax = longitud + dLon;
+        if (lonMin < -180 || lonMax > 180) {
+            // El círculo cruza el antimeridiano: se busca en todas las longitudes de esa franja
+            lonMin = -180;
+            lonMax = 180;
+        }
+
+        List<FotoUbicacionDTO> candidatas = fotoRepository.findEnRectangulo(latMin, latMax, lonMin, lonMax,
+                PageRequest.of(0, MAX_CANDIDATAS_CERCANAS));
+        candidatas.forEach(f -> f.setDistanciaMetros(
+                GeoUtil.distanciaMetros(latitud, longitud, f.getLatitud(), f.getLongitud())));
+        return candidatas.stream()
+                .filter(f -> f.getDistanciaMetros() <= radioMetros)
+                .sorted(Comparator.comparingDouble(FotoUbicacionDTO::getDistanciaMetros))
+                .limit(limite)
+                .toList();
     }
 
     /**
      * Actualizar foto
      */
     public void update(Foto foto, Integer id) {
-        Optional<Foto> fotoExistente = fotoRepository.findById(id);
+        Optional<Foto> fotoExistente = buscarVigente(id);
         if (fotoExistente.isPresent()) {
             Foto f = fotoExistente.get();
-            f.setUrl(foto.getUrl());
+            // El cliente puede reenviar la URL que recibió: se guarda la ruta interna y, si la foto está
+            // en frío, la ruta de contenido publicada no reemplaza la URL almacenada
+            String url = urlFirmadaService.extraerRuta(foto.getUrl());
+            if (!UrlFirmadaService.rutaContenido(id).equals(url)) {
+                validarUrl(url);
+                f.setUrl(url);
+            }
             f.setTipo(foto.getTipo());
             f.setDescripcion(foto.getDescripcion());
             fotoRepository.save(f);
+            cacheFotoService.invalidar(id);
         } else {
             throw new RuntimeException("Foto no encontrada");
         }
@@ -121,22 +490,18 @@ public class FotoService {
 
     /**
      * Eliminar foto
+     * <p>
+     * Solo deja una lápida en la fila y retorna: desde ese momento la foto no aparece en ninguna lectura.
+     * Los archivos y la fila los borra {@link EliminacionFotosService} en segundo plano.
+     * </p>
+     *
+     * @throws NoSuchElementException si la foto no existe o ya fue eliminada
      */
     public void delete(Integer id) {
-        Optional<Foto> foto = fotoRepository.findById(id);
-        if (foto.isPresent()) {
-
-            String filePath = foto.get().getUrl();
-            File file = new File(filePath);
-            if (file.exists() && file.delete()) {
-                System.out.println(" Archivo eliminado: " + filePath);
-            } else {
-                System.out.println("⚠ No se pudo eliminar el archivo: " + filePath);
-            }
-            // Eliminar de BD
-            fotoRepository.deleteById(id);
-        } else {
-            throw new RuntimeException("Foto no encontrada");
+        if (fotoRepository.marcarEliminada(id, LocalDateTime.now()) == 0) {
+            throw new NoSuchElementException("Foto no encontrada");
         }
+        cacheFotoService.invalidar(id);
+        similitudFotoService.eliminar(id);
     }
 }
\ No newline at end of file
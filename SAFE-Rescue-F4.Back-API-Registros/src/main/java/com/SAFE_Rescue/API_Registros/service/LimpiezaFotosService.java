@@ -0,0 +1,295 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Tarea programada que reconcilia el directorio {@code uploads/fotos} con la tabla {@code foto}.
+ * <p>
+ * En cada ejecución revisa un lote de archivos y un lote de registros a partir del último punto
+ * procesado (checkpoint), que se guarda en disco para continuar tras un reinicio:
+ * </p>
+ * <ul>
+ *     <li>Los archivos sin registro, y más antiguos que el período de gracia, se eliminan.</li>
+ *     <li>Los registros cuyo archivo no existe se marcan con {@code archivoFaltante = true}.</li>
+ * </ul>
+ * <p>
+ * Solo se recorre el directorio caliente (sin subdirectorios). Las fotos trasladadas al almacenamiento
+ * frío conservan su URL, así que se buscan en su ubicación fría antes de marcarlas como sin archivo.
+ * </p>
+ * <p>
+ * Las operaciones sobre disco se limitan a una tasa máxima por segundo para no competir con las subidas.
+ * El avance se publica como métricas {@code fotos.limpieza.*}.
+ * </p>
+ */
+@Service
+public class LimpiezaFotosService {
+
+    private static final String CLAVE_ARCHIVO = "ultimoArchivo";
+    private static final String CLAVE_ID_FOTO = "ultimoIdFoto";
+
+    private final FotoRepository fotoRepository;
+    private final AlmacenamientoFrioService almacenamientoFrioService;
+    private final Path directorio;
+    private final Path archivoCheckpoint;
+    private final int tamanioLote;
+    private final long periodoGraciaMs;
+    private final long nanosPorOperacion;
+
+    private final Counter archivosRevisados;
+    private final Counter archivosEliminados;
+    private final Counter registrosRevisados;
+    private final Counter registrosSinArchivo;
+    private final Counter ciclosCompletados;
+
+    private volatile String ultimoArchivo = "";
+    private volatile int ultimoIdFoto = 0;
+    private long proximaOperacion = 0;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param fotoRepository           Repositorio de fotos.
+     * @param almacenamientoFrioService Almacenamiento frío, donde también pueden estar los archivos.
+     * @param meterRegistry            Registro de métricas.
+     * @param directorio               Directorio de almacenamiento de las fotos.
+     * @param archivoCheckpoint        Archivo donde se guarda el avance de la limpieza.
+     * @param tamanioLote              Cantidad de archivos y de registros revisados por ejecución.
+     * @param periodoGraciaMinutos     Antigüedad mínima de un archivo huérfano para eliminarlo.
+     * @param operacionesPorSegundo    Máximo de operaciones de disco por segundo (0 = sin límite).
+     */
+    public LimpiezaFotosService(FotoRepository fotoRepository,
+                                AlmacenamientoFrioService almacenamientoFrioService,
+                                MeterRegistry meterRegistry,
+                                @Value("${fotos.directorio:" + FotoService.UPLOAD_DIR + "}") String directorio,
+                                @Value("${fotos.limpieza.checkpoint:uploads/fotos-limpieza.properties}") String archivoCheckpoint,
+                                @Value("${fotos.limpieza.lote:200}") int tamanioLote,
+                                @Value("${fotos.limpieza.periodo-gracia-minutos:60}") long periodoGraciaMinutos,
+                                @Value("${fotos.limpieza.operaciones-por-segundo:50}") int operacionesPorSegundo) {
+        this.fotoRepository = fotoRepository;
+        this.almacenamientoFrioService = almacenamientoFrioService;
+        this.directorio = Paths.get(directorio);
+        this.archivoCheckpoint = Paths.get(archivoCheckpoint);
+        this.tamanioLote = tamanioLote;
+        this.periodoGraciaMs = TimeUnit.MINUTES.toMillis(periodoGraciaMinutos);
+        this.nanosPorOperacion = operacionesPorSegundo > 0 ? TimeUnit.SECONDS.toNanos(1) / operacionesPorSegundo : 0;
+
+        this.archivosRevisados = Counter.builder("fotos.limpieza.archivos.revisados")
+                .description("Archivos de uploads/fotos revisados").register(meterRegistry);
+        this.archivosEliminados = Counter.builder("fotos.limpieza.archivos.eliminados")
+                .description("Archivos huérfanos (sin registro) eliminados").register(meterRegistry);
+        this.registrosRevisados = Counter.builder("fotos.limpieza.registros.revisados")
+                .description("Registros de la tabla foto revisados").register(meterRegistry);
+        this.registrosSinArchivo = Counter.builder("fotos.limpieza.registros.sin_archivo")
+                .description("Registros marcados porque su archivo no existe").register(meterRegistry);
+        this.ciclosCompletados = Counter.builder("fotos.limpieza.ciclos")
+                .description("Recorridos completos del almacenamiento y de la tabla").register(meterRegistry);
+        meterRegistry.gauge("fotos.limpieza.checkpoint.id_foto", this, servicio -> servicio.ultimoIdFoto);
+
+        cargarCheckpoint();
+    }
+
+    /**
+     * Ejecuta un paso incremental de la limpieza: un lote de archivos y un lote de registros.
+     */
+    @Scheduled(initialDelayString = "${fotos.limpieza.retraso-inicial-ms:120000}",
+            fixedDelayString = "${fotos.limpieza.intervalo-ms:300000}")
+    public synchronized void ejecutar() {
+        try {
+            int eliminados = revisarArchivos();
+            int faltantes = revisarRegistros();
+            guardarCheckpoint();
+            if (eliminados > 0 || faltantes > 0) {
+                System.out.println(" [LimpiezaFotos] Archivos huérfanos eliminados: " + eliminados
+                        + " - Registros sin archivo: " + faltantes);
+            }
+        } catch (Exception e) {
+            System.err.println(" [LimpiezaFotos] Error en la limpieza: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Revisa el siguiente lote de archivos (en orden de nombre) y elimina los que no tienen registro.
+     *
+     * @return Cantidad de archivos eliminados.
+     */
+    int revisarArchivos() throws IOException {
+        if (!Files.isDirectory(directorio)) {
+            return 0;
+        }
+
+        String desde = ultimoArchivo;
+        List<Path> lote;
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            lote = archivos
+                    .filter(Files::isRegularFile)
+                    .filter(archivo -> archivo.getFileName().toString().compareTo(desde) > 0)
+                    .sorted(Comparator.comparing(archivo -> archivo.getFileName().toString()))
+                    .limit(tamanioLote)
+                    .toList();
+        }
+
+        if (lote.isEmpty()) {
+            // Se terminó el recorrido del directorio: el próximo lote parte desde el inicio
+            if (!desde.isEmpty()) {
+                ciclosCompletados.increment();
+            }
+            ultimoArchivo = "";
+            return 0;
+        }
+
+        List<String> urls = lote.stream().map(this::urlDe).toList();
+        Set<String> existentes = new HashSet<>(fotoRepository.findUrlsExistentes(urls));
+        long limiteAntiguedad = System.currentTimeMillis() - periodoGraciaMs;
+
+        int eliminados = 0;
+        for (Path archivo : lote) {
+            archivosRevisados.increment();
+            if (existentes.contains(urlDe(archivo))) {
+                continue;
+            }
+            limitarTasa();
+            // Un archivo reciente puede pertenecer a una subida cuyo registro aún no se confirma
+            if (Files.getLastModifiedTime(archivo).toMillis() > limiteAntiguedad) {
+                continue;
+            }
+            if (Files.deleteIfExists(archivo)) {
+                archivosEliminados.increment();
+                eliminados++;
+            }
+        }
+
+        ultimoArchivo = lote.get(lote.size() - 1).getFileName().toString();
+        return eliminados;
+    }
+
+    /**
+     * Revisa el siguiente lote de registros (en orden de ID) y marca los que no tienen archivo.
+     *
+     * @return Cantidad de registros marcados como sin archivo.
+     */
+    int revisarRegistros() {
+        List<FotoResumenDTO> lote = fotoRepository.findResumenDesde(ultimoIdFoto, PageRequest.of(0, tamanioLote));
+        if (lote.isEmpty()) {
+            if (ultimoIdFoto > 0) {
+                ciclosCompletados.increment();
+            }
+            ultimoIdFoto = 0;
+            return 0;
+        }
+
+        String prefijo = FotoService.UPLOAD_DIR + "/";
+        List<Integer> faltantes = new ArrayList<>();
+        List<Integer> presentes = new ArrayList<>();
+        for (FotoResumenDTO foto : lote) {
+            registrosRevisados.increment();
+            String url = foto.getUrl();
+            // Solo se revisan las fotos almacenadas localmente (no las URLs externas)
+            if (url == null || !url.startsWith(prefijo)) {
+                continue;
+            }
+            limitarTasa();
+            if (Files.exists(directorio.resolve(url.substring(prefijo.length())))) {
+                presentes.add(foto.getIdFoto());
+            } else {
+                faltantes.add(foto.getIdFoto());
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            // Las fotos en frío no están en el directorio caliente: se revisa su copia fría
+            for (Object[] fila : fotoRepository.findUbicacionesFrio(faltantes)) {
+                limitarTasa();
+                if (almacenamientoFrioService.existe((String) fila[1])) {
+                    faltantes.remove(fila[0]);
+                    presentes.add((Integer) fila[0]);
+                }
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            fotoRepository.marcarArchivoFaltante(faltantes, true);
+            registrosSinArchivo.increment(faltantes.size());
+        }
+        if (!presentes.isEmpty()) {
+            fotoRepository.marcarArchivoFaltante(presentes, false);
+        }
+
+        ultimoIdFoto = lote.get(lote.size() - 1).getIdFoto();
+        return faltantes.size();
+    }
+
+    private String urlDe(Path archivo) {
+        return FotoService.UPLOAD_DIR + "/" + archivo.getFileName().toString();
+    }
+
+    /**
+     * Espera lo necesario para no superar la tasa máxima de operaciones de disco.
+     */
+    private void limitarTasa() {
+        if (nanosPorOperacion == 0) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        long espera = proximaOperacion - ahora;
+        if (espera > 0) {
+            LockSupport.parkNanos(espera);
+        }
+        proximaOperacion = Math.max(ahora, proximaOperacion) + nanosPorOperacion;
+    }
+
+    private void cargarCheckpoint() {
+        if (!Files.exists(archivoCheckpoint)) {
+            return;
+        }
+        Properties propiedades = new Properties();
+        try (InputStream in = Files.newInputStream(archivoCheckpoint)) {
+            propiedades.load(in);
+            ultimoArchivo = propiedades.getProperty(CLAVE_ARCHIVO, "");
+            ultimoIdFoto = Integer.parseInt(propiedades.getProperty(CLAVE_ID_FOTO, "0"));
+        } catch (IOException | NumberFormatException e) {
+            System.err.println(" [LimpiezaFotos] Checkpoint inválido, se parte desde el inicio: " + e.getMessage());
+        }
+    }
+
+    private void guardarCheckpoint() throws IOException {
+        Properties propiedades = new Properties();
+        propiedades.setProperty(CLAVE_ARCHIVO, ultimoArchivo);
+        propiedades.setProperty(CLAVE_ID_FOTO, String.valueOf(ultimoIdFoto));
+        if (archivoCheckpoint.getParent() != null) {
+            Files.createDirectories(archivoCheckpoint.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(archivoCheckpoint)) {
+            propiedades.store(out, "Avance de la limpieza de fotos huerfanas");
+        }
+    }
+
+    String getUltimoArchivo() {
+        return ultimoArchivo;
+    }
+
+    int getUltimoIdFoto() {
+        return ultimoIdFoto;
+    }
+}
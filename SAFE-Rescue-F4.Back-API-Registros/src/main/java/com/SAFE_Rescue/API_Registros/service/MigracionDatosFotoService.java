@@ -0,0 +1,106 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Tarea en segundo plano que mueve a disco los bytes de fotos heredadas.
+ * <p>
+ * Los clientes antiguos guardaban la imagen en la columna {@code datos} a través de {@code POST /fotos}.
+ * En cada ejecución se procesa un lote: se escribe el archivo en {@code uploads/fotos}, se actualiza la URL
+ * y se deja la columna en nulo. La extensión y el tipo MIME se detectan a partir de los bytes. Una foto que
+ * falla suma un intento y, al agotar {@code fotos.migracion.max-intentos}, deja de seleccionarse para que
+ * no bloquee los lotes siguientes.
+ * </p>
+ */
+@Service
+public class MigracionDatosFotoService {
+
+    private final FotoRepository fotoRepository;
+    private final FotoService fotoService;
+    private final int tamanioLote;
+    private final int maxIntentos;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param fotoRepository Repositorio de fotos.
+     * @param fotoService    Servicio de fotos, usado para escribir el archivo físico.
+     * @param tamanioLote    Cantidad de fotos migradas por ejecución.
+     * @param maxIntentos    Intentos fallidos tras los cuales una foto deja de reintentarse.
+     */
+    public MigracionDatosFotoService(FotoRepository fotoRepository,
+                                     FotoService fotoService,
+                                     @Value("${fotos.migracion.lote:20}") int tamanioLote,
+                                     @Value("${fotos.migracion.max-intentos:3}") int maxIntentos) {
+        this.fotoRepository = fotoRepository;
+        this.fotoService = fotoService;
+        this.tamanioLote = tamanioLote;
+        this.maxIntentos = maxIntentos;
+    }
+
+    /**
+     * Migra un lote de fotos con bytes en la base de datos.
+     *
+     * @return Cantidad de fotos migradas en esta ejecución.
+     */
+    @Scheduled(initialDelayString = "${fotos.migracion.retraso-inicial-ms:30000}",
+            fixedDelayString = "${fotos.migracion.intervalo-ms:60000}")
+    public int migrarLote() {
+        List<Integer> ids = fotoRepository.findIdsConDatos(maxIntentos, PageRequest.of(0, tamanioLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int migradas = 0;
+        for (Integer id : ids) {
+            try {
+                byte[] datos = fotoRepository.findDatosById(id);
+                if (datos == null) {
+                    continue;
+                }
+                String tipo = fotoService.determinarTipoContenido(datos, null);
+                String ruta = fotoService.guardarArchivoFisico(datos, "foto." + extensionDe(tipo));
+                fotoRepository.moverDatosADisco(id, ruta, datos.length, tipo);
+                migradas++;
+            } catch (IOException | RuntimeException e) {
+                System.err.println(" [MigracionDatosFoto] Error al migrar foto " + id + ": " + e.getMessage());
+                registrarIntento(id);
+            }
+        }
+        System.out.println(" [MigracionDatosFoto] Fotos migradas a disco: " + migradas + "/" + ids.size());
+        return migradas;
+    }
+
+    private void registrarIntento(int id) {
+        try {
+            fotoRepository.registrarIntentoMigracion(id);
+        } catch (RuntimeException e) {
+            System.err.println(" [MigracionDatosFoto] No se pudo registrar el intento de la foto " + id + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Extensión de archivo para un tipo MIME detectado; {@code bin} si no es una imagen conocida.
+     */
+    static String extensionDe(String tipo) {
+        if (tipo == null) {
+            return "bin";
+        }
+        return switch (tipo) {
+            case "image/jpeg" -> "jpg";
+            case "image/png" -> "png";
+            case "image/gif" -> "gif";
+            case "image/webp" -> "webp";
+            case "image/bmp", "image/x-ms-bmp" -> "bmp";
+            case "image/svg+xml" -> "svg";
+            default -> "bin";
+        };
+    }
+}
@@ -0,0 +1,319 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import com.SAFE_Rescue.API_Registros.util.ExifUtil;
+import com.SAFE_Rescue.API_Registros.util.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Etapa opcional de normalización de fotos después de la subida.
+ * <p>
+ * Usando solo ImageIO/Java2D, reduce las imágenes que superan la resolución configurada, las vuelve a
+ * codificar con la calidad configurada (JPEG) o con la máxima compresión (PNG) y descarta los metadatos
+ * (EXIF, miniaturas, perfiles), aplicando antes la orientación EXIF a los píxeles.
+ * Si el resultado no es más liviano que el original, el archivo original se mantiene.
+ * </p>
+ * <p>
+ * Se ejecuta en un pool de hilos acotado y publica las métricas {@code fotos.normalizacion.*},
+ * incluidos los bytes ahorrados.
+ * </p>
+ */
+@Service
+public class NormalizacionFotoService {
+
+    // Límite de píxeles a decodificar (protege la memoria ante imágenes gigantes o maliciosas)
+    private static final long MAX_PIXELES = 60_000_000L;
+
+    private final FotoRepository fotoRepository;
+    private final CacheFotoService cacheFotoService;
+    private final ExecutorService executor;
+    private final boolean habilitada;
+    private final int anchoMaximo;
+    private final int altoMaximo;
+    private final float calidadJpeg;
+
+    private final Counter procesadas;
+    private final Counter sinAhorro;
+    private final Counter errores;
+    private final Counter bytesAhorrados;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param fotoRepository Repositorio de fotos, para actualizar tamaño y hash.
+     * @param cacheFotoService Caché de contenido, a invalidar cuando se reemplaza un archivo.
+     * @param executor       Pool acotado de normalización.
+     * @param meterRegistry  Registro de métricas.
+     * @param habilitada     Activa o desactiva la etapa.
+     * @param anchoMaximo    Ancho máximo en píxeles.
+     * @param altoMaximo     Alto máximo en píxeles.
+     * @param calidadJpeg    Calidad JPEG entre 0 y 1.
+     */
+    public NormalizacionFotoService(FotoRepository fotoRepository,
+                                    CacheFotoService cacheFotoService,
+                                    @Qualifier("fotoNormalizacionExecutor") ExecutorService executor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${fotos.normalizacion.habilitada:false}") boolean habilitada,
+                                    @Value("${fotos.normalizacion.ancho-maximo:1920}") int anchoMaximo,
+                                    @Value("${fotos.normalizacion.alto-maximo:1920}") int altoMaximo,
+                                    @Value("${fotos.normalizacion.calidad-jpeg:0.82}") float calidadJpeg) {
+        this.fotoRepository = fotoRepository;
+        this.cacheFotoService = cacheFotoService;
+        this.executor = executor;
+        this.habilitada = habilitada;
+        this.anchoMaximo = anchoMaximo;
+        this.altoMaximo = altoMaximo;
+        this.calidadJpeg = calidadJpeg;
+
+        this.procesadas = Counter.builder("fotos.normalizacion.procesadas")
+                .description("Fotos recomprimidas y reemplazadas").register(meterRegistry);
+        this.sinAhorro = Counter.builder("fotos.normalizacion.sin_ahorro")
+                .description("Fotos en que se mantuvo el original por no ahorrar espacio").register(meterRegistry);
+        this.errores = Counter.builder("fotos.normalizacion.errores")
+                .description("Fotos que no se pudieron normalizar").register(meterRegistry);
+        this.bytesAhorrados = Counter.builder("fotos.normalizacion.bytes_ahorrados")
+                .baseUnit("bytes").description("Bytes de disco ahorrados por la normalización").register(meterRegistry);
+    }
+
+    /**
+     * Encola la normalización de una foto recién subida. No hace nada si la etapa está desactivada
+     * o si el tipo de la foto no es JPEG ni PNG.
+     *
+     * @param foto Foto ya guardada en disco y en la BD.
+     */
+    public void programar(Foto foto) {
+        if (!habilitada || foto == null || foto.getUrl() == null || formatoDe(foto.getTipo()) == null) {
+            return;
+        }
+        int idFoto = foto.getIdFoto();
+        Path archivo = Paths.get(foto.getUrl());
+        String tipo = foto.getTipo();
+        executor.execute(() -> {
+            try {
+                normalizar(idFoto, archivo, tipo);
+            } catch (Exception e) {
+                errores.increment();
+                System.err.println(" [NormalizacionFoto] Error al normalizar foto " + idFoto + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Normaliza el archivo de una foto y, si se ahorra espacio, lo reemplaza de forma atómica.
+     *
+     * @param idFoto  ID de la foto a actualizar en la BD.
+     * @param archivo Ruta del archivo.
+     * @param tipo    Tipo MIME de la foto.
+     * @return Bytes ahorrados (0 si se mantuvo el original).
+     * @throws IOException Si no se puede leer o escribir el archivo.
+     */
+    long normalizar(int idFoto, Path archivo, String tipo) throws IOException {
+        String formato = formatoDe(tipo);
+        if (formato == null || !Files.isRegularFile(archivo)) {
+            return 0;
+        }
+
+        byte[] original = Files.readAllBytes(archivo);
+        BufferedImage imagen = decodificar(original);
+        if (imagen == null) {
+            return 0;
+        }
+
+        int orientacion = "jpeg".equals(formato) ? ExifUtil.leerOrientacion(original) : ExifUtil.ORIENTACION_NORMAL;
+        BufferedImage normalizada = transformar(imagen, orientacion, "png".equals(formato) && imagen.getColorModel().hasAlpha());
+        byte[] recodificada = codificar(normalizada, formato);
+
+        if (recodificada.length >= original.length) {
+            sinAhorro.increment();
+            return 0;
+        }
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        Files.write(temporal, recodificada);
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fotoRepository.actualizarArchivo(idFoto, recodificada.length, HashUtil.sha256Hex(recodificada));
+        cacheFotoService.invalidar(idFoto);
+
+        long ahorro = original.length - recodificada.length;
+        procesadas.increment();
+        bytesAhorrados.increment(ahorro);
+        System.out.println(" [NormalizacionFoto] Foto " + idFoto + ": " + original.length + " -> "
+                + recodificada.length + " bytes (ahorro " + ahorro + ")");
+        return ahorro;
+    }
+
+    /**
+     * Genera un derivado reducido (miniatura) de una foto JPEG o PNG, con la orientación EXIF aplicada
+     * y sin metadatos. No modifica el archivo original.
+     *
+     * @param original Bytes de la foto original.
+     * @param tipo     Tipo MIME de la foto.
+     * @param ancho    Lado máximo del derivado, en píxeles.
+     * @return Los bytes del derivado, o los originales si el tipo no se puede procesar.
+     * @throws IOException Si la imagen no se puede codificar.
+     */
+    public byte[] generarDerivado(byte[] original, String tipo, int ancho) throws IOException {
+        String formato = formatoDe(tipo);
+        BufferedImage imagen = formato == null ? null : decodificar(original);
+        if (imagen == null) {
+            return original;
+        }
+        int orientacion = "jpeg".equals(formato) ? ExifUtil.leerOrientacion(original) : ExifUtil.ORIENTACION_NORMAL;
+        boolean conAlfa = "png".equals(formato) && imagen.getColorModel().hasAlpha();
+        return codificar(transformar(imagen, orientacion, conAlfa, ancho, ancho), formato);
+    }
+
+    private static String formatoDe(String tipo) {
+        if ("image/jpeg".equals(tipo)) {
+            return "jpeg";
+        }
+        if ("image/png".equals(tipo)) {
+            return "png";
+        }
+        return null;
+    }
+
+    /**
+     * Decodifica la imagen ignorando metadatos y rechazando resoluciones excesivas.
+     */
+    private BufferedImage decodificar(byte[] datos) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(new ByteArrayInputStream(datos))) {
+            Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+            if (!lectores.hasNext()) {
+                return null;
+            }
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada, true, true);
+                if ((long) lector.getWidth(0) * lector.getHeight(0) > MAX_PIXELES) {
+                    return null;
+                }
+                return lector.read(0);
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+
+    /**
+     * Aplica la orientación EXIF y reduce la imagen para que quepa en la resolución máxima configurada.
+     */
+    BufferedImage transformar(BufferedImage imagen, int orientacion, boolean conAlfa) {
+        return transformar(imagen, orientacion, conAlfa, anchoMaximo, altoMaximo);
+    }
+
+    private BufferedImage transformar(BufferedImage imagen, int orientacion, boolean conAlfa, int anchoMaximo, int altoMaximo) {
+        boolean intercambiaEjes = orientacion >= 5 && orientacion <= 8;
+        int anchoOrientado = intercambiaEjes ? imagen.getHeight() : imagen.getWidth();
+        int altoOrientado = intercambiaEjes ? imagen.getWidth() : imagen.getHeight();
+        double escala = Math.min(1.0, Math.min((double) anchoMaximo / anchoOrientado, (double) altoMaximo / altoOrientado));
+        int ancho = Math.max(1, (int) Math.round(anchoOrientado * escala));
+        int alto = Math.max(1, (int) Math.round(altoOrientado * escala));
+
+        // Reducciones grandes en pasos de 1/2 para evitar el aliasing del escalado bilineal
+        BufferedImage fuente = imagen;
+        while (fuente.getWidth() / 2 >= (intercambiaEjes ? alto : ancho)
+                && fuente.getHeight() / 2 >= (intercambiaEjes ? ancho : alto)) {
+            fuente = escalar(fuente, fuente.getWidth() / 2, fuente.getHeight() / 2, conAlfa);
+        }
+        double escalaX = (double) ancho / (intercambiaEjes ? fuente.getHeight() : fuente.getWidth());
+        double escalaY = (double) alto / (intercambiaEjes ? fuente.getWidth() : fuente.getHeight());
+
+        BufferedImage destino = new BufferedImage(ancho, alto, conAlfa ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = destino.createGraphics();
+        try {
+            aplicarCalidad(g);
+            g.scale(escalaX, escalaY);
+            g.transform(transformacionExif(orientacion, fuente.getWidth(), fuente.getHeight()));
+            g.drawImage(fuente, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return destino;
+    }
+
+    private static BufferedImage escalar(BufferedImage imagen, int ancho, int alto, boolean conAlfa) {
+        BufferedImage destino = new BufferedImage(ancho, alto, conAlfa ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = destino.createGraphics();
+        try {
+            aplicarCalidad(g);
+            g.drawImage(imagen, 0, 0, ancho, alto, null);
+        } finally {
+            g.dispose();
+        }
+        return destino;
+    }
+
+    private static void aplicarCalidad(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    /**
+     * Transformación que lleva una imagen de {@code ancho x alto} a su orientación visual según el tag EXIF.
+     */
+    private static AffineTransform transformacionExif(int orientacion, int ancho, int alto) {
+        return switch (orientacion) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, ancho, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, ancho, alto);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, alto);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, alto, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, alto, ancho);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, ancho);
+            default -> new AffineTransform();
+        };
+    }
+
+    /**
+     * Codifica la imagen sin metadatos, con la calidad configurada (JPEG) o la máxima compresión (PNG).
+     */
+    private byte[] codificar(BufferedImage imagen, String formato) throws IOException {
+        Iterator<ImageWriter> escritores = ImageIO.getImageWritersByFormatName(formato);
+        if (!escritores.hasNext()) {
+            throw new IOException("No hay codificador disponible para " + formato);
+        }
+        ImageWriter escritor = escritores.next();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(salida)) {
+            escritor.setOutput(ios);
+            ImageWriteParam parametros = escritor.getDefaultWriteParam();
+            if (parametros.canWriteCompressed()) {
+                parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                // En PNG la "calidad" es el nivel de deflate: 0 = máxima compresión (sin pérdida)
+                parametros.setCompressionQuality("jpeg".equals(formato) ? calidadJpeg : 0.0f);
+            }
+            escritor.write(null, new IIOImage(imagen, null, null), parametros);
+        } finally {
+            escritor.dispose();
+        }
+        return salida.toByteArray();
+    }
+}
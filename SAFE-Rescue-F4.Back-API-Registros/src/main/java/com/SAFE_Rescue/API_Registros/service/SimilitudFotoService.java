@@ -0,0 +1,239 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.FotoSimilarDTO;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import com.SAFE_Rescue.API_Registros.util.HashPerceptualUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de los hashes perceptuales de las fotos, para encontrar casi duplicadas.
+ * <p>
+ * Usa un árbol BK sobre la distancia de Hamming: cada hijo de un nodo cuelga de la distancia que lo separa
+ * de él, y por la desigualdad triangular una búsqueda con radio {@code r} solo baja por los hijos con
+ * distancia en {@code [d - r, d + r]}. Con radios pequeños se visita una fracción mínima del árbol, así que
+ * la consulta se puede hacer en cada subida.
+ * </p>
+ * <p>
+ * Se carga desde la BD al iniciar la aplicación y se mantiene al día con las subidas y eliminaciones.
+ * Publica la métrica {@code fotos.similitud.indexadas}.
+ * </p>
+ */
+@Service
+public class SimilitudFotoService {
+
+    /** Distancia máxima aceptada en las consultas (más allá, las imágenes ya no se parecen). */
+    public static final int DISTANCIA_MAXIMA = 24;
+
+    private static final int TAMANIO_LOTE_CARGA = 5_000;
+
+    private final FotoRepository fotoRepository;
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Map<Integer, Long> hashPorFoto = new HashMap<>();
+    private Nodo raiz;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param fotoRepository Repositorio de fotos, para la carga inicial.
+     * @param meterRegistry  Registro de métricas.
+     */
+    public SimilitudFotoService(FotoRepository fotoRepository, MeterRegistry meterRegistry) {
+        this.fotoRepository = fotoRepository;
+        Gauge.builder("fotos.similitud.indexadas", this, SimilitudFotoService::getCantidadIndexadas)
+                .description("Fotos con hash perceptual en el índice de similitud").register(meterRegistry);
+    }
+
+    /**
+     * Carga en el índice los hashes guardados en la BD, por lotes ordenados por ID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        int desde = 0;
+        int cargadas = 0;
+        while (true) {
+            List<Object[]> lote = fotoRepository.findHashesPerceptualesDesde(desde, PageRequest.of(0, TAMANIO_LOTE_CARGA));
+            for (Object[] fila : lote) {
+                registrar((Integer) fila[0], (Long) fila[1]);
+            }
+            cargadas += lote.size();
+            if (lote.size() < TAMANIO_LOTE_CARGA) {
+                break;
+            }
+            desde = (Integer) lote.get(lote.size() - 1)[0];
+        }
+        System.out.println(" [SimilitudFoto] Hashes perceptuales cargados: " + cargadas);
+    }
+
+    /**
+     * Agrega (o reemplaza) el hash de una foto en el índice.
+     *
+     * @param idFoto ID de la foto.
+     * @param hash   Hash perceptual; si es nulo no se hace nada.
+     */
+    public void registrar(int idFoto, Long hash) {
+        if (hash == null) {
+            return;
+        }
+        candado.writeLock().lock();
+        try {
+            quitar(idFoto);
+            hashPorFoto.put(idFoto, hash);
+            if (raiz == null) {
+                raiz = new Nodo(hash);
+                raiz.fotos.add(idFoto);
+                return;
+            }
+            Nodo nodo = raiz;
+            while (true) {
+                int distancia = HashPerceptualUtil.distancia(hash, nodo.hash);
+                if (distancia == 0) {
+                    nodo.fotos.add(idFoto);
+                    return;
+                }
+                Nodo hijo = nodo.hijo(distancia);
+                if (hijo == null) {
+                    hijo = new Nodo(hash);
+                    hijo.fotos.add(idFoto);
+                    nodo.agregarHijo(distancia, hijo);
+                    return;
+                }
+                nodo = hijo;
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita una foto del índice (su nodo queda en el árbol como punto de paso).
+     */
+    public void eliminar(int idFoto) {
+        candado.writeLock().lock();
+        try {
+            quitar(idFoto);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las fotos cuyo hash está a lo más a {@code distanciaMaxima} bits del de una foto dada.
+     *
+     * @param idFoto          Foto de referencia (no se incluye en el resultado).
+     * @param distanciaMaxima Distancia de Hamming máxima, entre 0 y {@link #DISTANCIA_MAXIMA}.
+     * @param limite          Cantidad máxima de resultados.
+     * @return Las fotos similares, de la más parecida a la menos parecida.
+     * @throws NoSuchElementException   si la foto no tiene hash perceptual indexado.
+     * @throws IllegalArgumentException si la distancia está fuera de rango.
+     */
+    public List<FotoSimilarDTO> buscarSimilares(int idFoto, int distanciaMaxima, int limite) {
+        if (distanciaMaxima < 0 || distanciaMaxima > DISTANCIA_MAXIMA) {
+            throw new IllegalArgumentException("La distancia debe estar entre 0 y " + DISTANCIA_MAXIMA);
+        }
+        List<FotoSimilarDTO> similares = new ArrayList<>();
+        candado.readLock().lock();
+        try {
+            Long hash = hashPorFoto.get(idFoto);
+            if (hash == null) {
+                throw new NoSuchElementException("La foto " + idFoto + " no tiene hash perceptual");
+            }
+            Deque<Nodo> pendientes = new ArrayDeque<>();
+            pendientes.push(raiz);
+            while (!pendientes.isEmpty()) {
+                Nodo nodo = pendientes.pop();
+                int distancia = HashPerceptualUtil.distancia(hash, nodo.hash);
+                if (distancia <= distanciaMaxima) {
+                    for (int otra : nodo.fotos) {
+                        if (otra != idFoto) {
+                            similares.add(new FotoSimilarDTO(otra, distancia));
+                        }
+                    }
+                }
+                if (nodo.hijos == null) {
+                    continue;
+                }
+                int desde = Math.max(1, distancia - distanciaMaxima);
+                int hasta = Math.min(64, distancia + distanciaMaxima);
+                for (int d = desde; d <= hasta; d++) {
+                    if (nodo.hijos[d] != null) {
+                        pendientes.push(nodo.hijos[d]);
+                    }
+                }
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+        similares.sort(Comparator.comparingInt(FotoSimilarDTO::getDistancia).thenComparingInt(FotoSimilarDTO::getIdFoto));
+        return similares.size() > limite ? similares.subList(0, limite) : similares;
+    }
+
+    public int getCantidadIndexadas() {
+        candado.readLock().lock();
+        try {
+            return hashPorFoto.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quita la foto de su nodo. Debe llamarse con el candado de escritura tomado.
+     */
+    private void quitar(int idFoto) {
+        Long anterior = hashPorFoto.remove(idFoto);
+        if (anterior == null) {
+            return;
+        }
+        Nodo nodo = raiz;
+        while (nodo != null) {
+            int distancia = HashPerceptualUtil.distancia(anterior, nodo.hash);
+            if (distancia == 0) {
+                nodo.fotos.remove(Integer.valueOf(idFoto));
+                return;
+            }
+            nodo = nodo.hijo(distancia);
+        }
+    }
+
+    /**
+     * Nodo del árbol BK: un hash, las fotos que lo tienen y los hijos indexados por distancia (1 a 64).
+     * El arreglo de hijos se crea con el primer hijo, porque la mayoría de los nodos son hojas.
+     */
+    private static final class Nodo {
+        private final long hash;
+        private final List<Integer> fotos = new ArrayList<>(1);
+        private Nodo[] hijos;
+
+        private Nodo(long hash) {
+            this.hash = hash;
+        }
+
+        private Nodo hijo(int distancia) {
+            return hijos == null ? null : hijos[distancia];
+        }
+
+        private void agregarHijo(int distancia, Nodo hijo) {
+            if (hijos == null) {
+                hijos = new Nodo[65];
+            }
+            hijos[distancia] = hijo;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.SesionSubidaDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Subidas de fotos reanudables para conexiones inestables.
+ * <p>
+ * El cliente crea una sesión, envía el archivo en fragmentos indicando el offset de cada uno y,
+ * si la conexión se corta, consulta el offset actual y reanuda desde ahí. Al finalizar, el archivo
+ * completo pasa por el flujo normal de {@link FotoService#subirFoto}.
+ * </p>
+ * <p>
+ * Cada sesión se guarda en el directorio temporal como {@code <id>.parte} (bytes recibidos) y
+ * {@code <id>.properties} (datos de la sesión). El offset es el tamaño de {@code .parte}, por lo que
+ * los bytes que alcanzaron a llegar antes de un corte no se pierden y las sesiones sobreviven a un reinicio.
+ * Las sesiones sin actividad durante el tiempo de expiración se eliminan periódicamente.
+ * </p>
+ */
+@Service
+public class SubidaReanudableService {
+
+    private static final String EXTENSION_PARTE = ".parte";
+    private static final String EXTENSION_SESION = ".properties";
+
+    private final FotoService fotoService;
+    private final Path directorio;
+    private final long expiracionMs;
+
+    // Un candado por sesión: los fragmentos de una misma sesión se escriben de a uno
+    private final ConcurrentHashMap<String, Object> candados = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param fotoService        Servicio de fotos, usado al finalizar la subida.
+     * @param directorio         Directorio de los archivos temporales de las sesiones.
+     * @param expiracionMinutos  Minutos sin actividad tras los cuales una sesión expira.
+     */
+    public SubidaReanudableService(FotoService fotoService,
+                                   @Value("${fotos.subida.directorio:uploads/fotos-subidas}") String directorio,
+                                   @Value("${fotos.subida.expiracion-minutos:1440}") long expiracionMinutos) {
+        this.fotoService = fotoService;
+        this.directorio = Paths.get(directorio);
+        this.expiracionMs = TimeUnit.MINUTES.toMillis(expiracionMinutos);
+    }
+
+    /**
+     * Crea una sesión de subida.
+     *
+     * @param nombreArchivo Nombre original del archivo (se usa para la extensión y el tipo MIME).
+     * @param tamanio       Tamaño total del archivo, en bytes.
+     * @param descripcion   Descripción de la foto.
+     * @param sha256        Hash SHA-256 esperado del archivo completo, en hexadecimal (opcional).
+     * @return El estado inicial de la sesión.
+     * @throws IllegalArgumentException Si el nombre o el tamaño no son válidos.
+     */
+    public SesionSubidaDTO crear(String nombreArchivo, long tamanio, String descripcion, String sha256) throws IOException {
+        if (nombreArchivo == null || nombreArchivo.isBlank()) {
+            throw new IllegalArgumentException("El nombre del archivo es obligatorio");
+        }
+        if (tamanio <= 0) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        if (tamanio > FotoService.TAMANIO_MAXIMO) {
+            throw new IllegalArgumentException("El archivo no debe superar 5MB. Tamaño actual: " + (tamanio / 1024 / 1024) + "MB");
+        }
+
+        String id = UUID.randomUUID().toString();
+        Properties sesion = new Properties();
+        sesion.setProperty("nombreArchivo", nombreArchivo);
+        sesion.setProperty("tamanio", String.valueOf(tamanio));
+        sesion.setProperty("descripcion", descripcion != null ? descripcion : "Foto de perfil");
+        if (sha256 != null && !sha256.isBlank()) {
+            sesion.setProperty("sha256", sha256.trim().toLowerCase());
+        }
+
+        Files.createDirectories(directorio);
+        try (OutputStream out = Files.newOutputStream(archivoSesion(id))) {
+            sesion.store(out, "Sesion de subida reanudable");
+        }
+        Files.createFile(archivoParte(id));
+        return aDTO(id, sesion, 0);
+    }
+
+    /**
+     * Consulta el estado de una sesión (por ejemplo, para reanudar tras un corte).
+     *
+     * @throws NoSuchElementException Si la sesión no existe o expiró.
+     */
+    public SesionSubidaDTO consultar(String id) throws IOException {
+        Properties sesion = cargarSesion(id);
+        return aDTO(id, sesion, Files.size(archivoParte(id)));
+    }
+
+    /**
+     * Agrega un fragmento a la sesión. Los bytes leídos se conservan aunque la conexión se corte a la mitad.
+     *
+     * @param id     Identificador de la sesión.
+     * @param offset Posición del fragmento; debe coincidir con el offset actual de la sesión.
+     * @param datos  Contenido del fragmento.
+     * @return El estado de la sesión tras escribir el fragmento.
+     * @throws IllegalStateException    Si el offset no coincide con el de la sesión.
+     * @throws IllegalArgumentException Si el fragmento supera el tamaño declarado.
+     * @throws NoSuchElementException   Si la sesión no existe o expiró.
+     */
+    public SesionSubidaDTO escribir(String id, long offset, InputStream datos) throws IOException {
+        Properties sesion = cargarSesion(id);
+        long tamanio = Long.parseLong(sesion.getProperty("tamanio"));
+
+        synchronized (candado(id)) {
+            try (FileChannel canal = FileChannel.open(archivoParte(id), StandardOpenOption.WRITE)) {
+                long actual = canal.size();
+                if (offset != actual) {
+                    throw new IllegalStateException("El offset no coincide con el de la sesión (" + actual + ")");
+                }
+
+                canal.position(actual);
+                byte[] buffer = new byte[64 * 1024];
+                int leidos;
+                try {
+                    while ((leidos = datos.read(buffer)) != -1) {
+                        if (canal.position() + leidos > tamanio) {
+                            // Se descarta el fragmento completo: el cliente debe reenviarlo con el tamaño correcto
+                            canal.truncate(actual);
+                            throw new IllegalArgumentException("El fragmento supera el tamaño declarado del archivo");
+                        }
+                        ByteBuffer bloque = ByteBuffer.wrap(buffer, 0, leidos);
+                        while (bloque.hasRemaining()) {
+                            canal.write(bloque);
+                        }
+                    }
+                } catch (IOException e) {
+                    // Conexión cortada: se conserva lo recibido y el cliente reanuda desde el nuevo offset
+                    System.err.println(" [SubidaReanudable] Fragmento interrumpido en sesión " + id
+                            + " (offset " + canal.position() + "): " + e.getMessage());
+                }
+                return aDTO(id, sesion, canal.position());
+            }
+        }
+    }
+
+    /**
+     * Finaliza la subida: valida que el archivo esté completo, lo registra mediante {@link FotoService#subirFoto}
+     * y elimina la sesión.
+     *
+     * @return La foto registrada.
+     * @throws IllegalStateException    Si aún faltan bytes por recibir.
+     * @throws IllegalArgumentException Si el archivo no es válido o el hash no coincide.
+     * @throws NoSuchElementException   Si la sesión no existe o expiró.
+     */
+    public Foto finalizar(String id) throws IOException {
+        Properties sesion = cargarSesion(id);
+        long tamanio = Long.parseLong(sesion.getProperty("tamanio"));
+
+        synchronized (candado(id)) {
+            byte[] contenido = Files.readAllBytes(archivoParte(id));
+            if (contenido.length != tamanio) {
+                throw new IllegalStateException("Faltan bytes por recibir: " + contenido.length + " de " + tamanio);
+            }
+            String sha256 = sesion.getProperty("sha256");
+            if (sha256 != null && !sha256.equals(fotoService.calcularHash(contenido))) {
+                // El archivo llegó corrupto: se reinicia la sesión para que el cliente lo reenvíe
+                Files.write(archivoParte(id), new byte[0]);
+                throw new IllegalArgumentException("El hash del archivo no coincide con el declarado");
+            }
+
+            Foto foto = fotoService.subirFoto(contenido, sesion.getProperty("nombreArchivo"), sesion.getProperty("descripcion"));
+            eliminarSesion(id);
+            return foto;
+        }
+    }
+
+    /**
+     * Cancela una sesión y elimina sus archivos temporales.
+     *
+     * @throws NoSuchElementException Si la sesión no existe o expiró.
+     */
+    public void cancelar(String id) throws IOException {
+        cargarSesion(id);
+        synchronized (candado(id)) {
+            eliminarSesion(id);
+        }
+    }
+
+    /**
+     * Elimina las sesiones sin actividad durante el tiempo de expiración.
+     *
+     * @return Cantidad de sesiones eliminadas.
+     */
+    @Scheduled(fixedDelayString = "${fotos.subida.limpieza-ms:600000}", initialDelayString = "${fotos.subida.limpieza-ms:600000}")
+    public int limpiarExpiradas() {
+        if (!Files.isDirectory(directorio)) {
+            return 0;
+        }
+        int eliminadas = 0;
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : (Iterable<Path>) archivos::iterator) {
+                String nombre = archivo.getFileName().toString();
+                if (!nombre.endsWith(EXTENSION_SESION)) {
+                    continue;
+                }
+                String id = nombre.substring(0, nombre.length() - EXTENSION_SESION.length());
+                if (expirada(id)) {
+                    synchronized (candado(id)) {
+                        eliminarSesion(id);
+                    }
+                    eliminadas++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println(" [SubidaReanudable] Error al limpiar sesiones: " + e.getMessage());
+        }
+        if (eliminadas > 0) {
+            System.out.println(" [SubidaReanudable] Sesiones expiradas eliminadas: " + eliminadas);
+        }
+        return eliminadas;
+    }
+
+    private Properties cargarSesion(String id) throws IOException {
+        if (!idValido(id) || !Files.exists(archivoSesion(id)) || !Files.exists(archivoParte(id)) || expirada(id)) {
+            throw new NoSuchElementException("Sesión de subida no encontrada o expirada");
+        }
+        Properties sesion = new Properties();
+        try (InputStream in = Files.newInputStream(archivoSesion(id))) {
+            sesion.load(in);
+        }
+        return sesion;
+    }
+
+    private boolean expirada(String id) throws IOException {
+        Path parte = archivoParte(id);
+        Path referencia = Files.exists(parte) ? parte : archivoSesion(id);
+        return Files.getLastModifiedTime(referencia).toMillis() + expiracionMs < System.currentTimeMillis();
+    }
+
+    private void eliminarSesion(String id) throws IOException {
+        Files.deleteIfExists(archivoParte(id));
+        Files.deleteIfExists(archivoSesion(id));
+        candados.remove(id);
+    }
+
+    private SesionSubidaDTO aDTO(String id, Properties sesion, long offset) throws IOException {
+        Path parte = archivoParte(id);
+        long ultimaActividad = Files.exists(parte) ? Files.getLastModifiedTime(parte).toMillis() : System.currentTimeMillis();
+        LocalDateTime expira = LocalDateTime.ofInstant(Instant.ofEpochMilli(ultimaActividad + expiracionMs), ZoneId.systemDefault());
+        return new SesionSubidaDTO(id, sesion.getProperty("nombreArchivo"),
+                Long.parseLong(sesion.getProperty("tamanio")), offset, expira);
+    }
+
+    private Object candado(String id) {
+        return candados.computeIfAbsent(id, clave -> new Object());
+    }
+
+    // Solo se aceptan UUID: evita que un ID manipulado apunte fuera del directorio temporal
+    private static boolean idValido(String id) {
+        try {
+            return id != null && UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Path archivoParte(String id) {
+        return directorio.resolve(id + EXTENSION_PARTE);
+    }
+
+    private Path archivoSesion(String id) {
+        return directorio.resolve(id + EXTENSION_SESION);
+    }
+}
@@ -0,0 +1,147 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Base64;
+
+/**
+ * Emite y valida URLs firmadas y con expiración para descargar fotos desde un servidor estático.
+ * <p>
+ * El servidor estático publica el directorio {@code uploads/fotos} bajo {@code fotos.url-firmada.base}
+ * y valida cada petición sin llamar a esta API. Contrato de la firma:
+ * </p>
+ * <pre>
+ *   ruta  = "/" + nombre del archivo dentro de uploads/fotos   (ej. "/20251123_164023_1bc66e4c.png")
+ *   firma = base64url_sin_relleno( HMAC-SHA256( secreto, ruta + "\n" + expira ) )
+ *   URL   = base + ruta + "?expira=" + expira + "&amp;firma=" + firma
+ * </pre>
+ * <p>
+ * {@code expira} está en segundos desde epoch (UTC) y se redondea hacia arriba a una ventana fija,
+ * de modo que la misma foto recibe la misma URL durante esa ventana y puede quedar en la caché del cliente.
+ * Si no se configura un secreto, las URLs se retornan sin firmar.
+ * </p>
+ */
+@Service
+public class UrlFirmadaService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final String PREFIJO_LOCAL = FotoService.UPLOAD_DIR + "/";
+
+    private final byte[] secreto;
+    private final String base;
+    private final long ttlSegundos;
+    private final long ventanaSegundos;
+    private final Clock clock;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param secreto     Clave HMAC compartida con el servidor estático (vacía = firma desactivada).
+     * @param base        URL pública del servidor estático que publica {@code uploads/fotos}.
+     * @param ttlSegundos Vigencia mínima de una URL firmada.
+     */
+    @Autowired
+    public UrlFirmadaService(@Value("${fotos.url-firmada.secreto:}") String secreto,
+                             @Value("${fotos.url-firmada.base:http://localhost:8090/fotos}") String base,
+                             @Value("${fotos.url-firmada.ttl-segundos:3600}") long ttlSegundos) {
+        this(secreto, base, ttlSegundos, Clock.systemUTC());
+    }
+
+    UrlFirmadaService(String secreto, String base, long ttlSegundos, Clock clock) {
+        this.secreto = secreto == null ? new byte[0] : secreto.getBytes(StandardCharsets.UTF_8);
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        this.ttlSegundos = ttlSegundos;
+        this.ventanaSegundos = Math.max(1, ttlSegundos / 4);
+        this.clock = clock;
+    }
+
+    /**
+     * Ruta de la API que sirve el contenido de una foto. Se publica en lugar de la URL firmada cuando
+     * la foto está en el almacenamiento frío, porque el servidor estático solo publica {@code uploads/fotos}.
+     *
+     * @param idFoto ID de la foto.
+     * @return La ruta {@code /fotos/{id}/contenido}.
+     */
+    public static String rutaContenido(int idFoto) {
+        return "/fotos/" + idFoto + "/contenido";
+    }
+
+    public boolean isHabilitada() {
+        return secreto.length > 0;
+    }
+
+    /**
+     * Convierte la URL almacenada de una foto local en una URL firmada del servidor estático.
+     * Las URLs externas (o cualquier URL si la firma está desactivada) se retornan sin cambios.
+     *
+     * @param url URL almacenada en la BD (ej. "uploads/fotos/archivo.png").
+     * @return La URL firmada o la URL original.
+     */
+    public String firmar(String url) {
+        if (!isHabilitada() || url == null || !url.startsWith(PREFIJO_LOCAL)) {
+            return url;
+        }
+        String ruta = "/" + url.substring(PREFIJO_LOCAL.length());
+        long expira = calcularExpiracion();
+        return base + ruta + "?expira=" + expira + "&firma=" + calcularFirma(ruta, expira);
+    }
+
+    /**
+     * Revierte una URL firmada a la URL almacenada en la BD. Se usa cuando un cliente reenvía
+     * la foto que obtuvo de la API (por ejemplo, en un PUT).
+     *
+     * @param url URL recibida.
+     * @return La URL local equivalente, o la URL recibida si no es una URL firmada de esta API.
+     */
+    public String extraerRuta(String url) {
+        if (url == null || !url.startsWith(base + "/")) {
+            return url;
+        }
+        String ruta = url.substring(base.length() + 1);
+        int query = ruta.indexOf('?');
+        return PREFIJO_LOCAL + (query >= 0 ? ruta.substring(0, query) : ruta);
+    }
+
+    /**
+     * Valida una petición al servidor estático.
+     *
+     * @param ruta   Ruta solicitada (ej. "/archivo.png").
+     * @param expira Expiración recibida, en segundos desde epoch.
+     * @param firma  Firma recibida.
+     * @return {@code true} si la firma es correcta y no ha expirado.
+     */
+    public boolean validar(String ruta, long expira, String firma) {
+        if (!isHabilitada() || ruta == null || firma == null) {
+            return false;
+        }
+        if (expira < clock.instant().getEpochSecond()) {
+            return false;
+        }
+        byte[] esperada = calcularFirma(ruta, expira).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(esperada, firma.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private long calcularExpiracion() {
+        long minima = clock.instant().getEpochSecond() + ttlSegundos;
+        return ((minima + ventanaSegundos - 1) / ventanaSegundos) * ventanaSegundos;
+    }
+
+    String calcularFirma(String ruta, long expira) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(new SecretKeySpec(secreto, ALGORITMO));
+            byte[] firma = mac.doFinal((ruta + "\n" + expira).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(firma);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular la firma HMAC", e);
+        }
+    }
+}
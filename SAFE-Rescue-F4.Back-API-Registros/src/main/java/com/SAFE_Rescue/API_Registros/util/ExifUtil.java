@@ -0,0 +1,324 @@
+package com.SAFE_Rescue.API_Registros.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Lectura mínima de metadatos EXIF desde los bytes de un JPEG, sin decodificar la imagen.
+ * <p>
+ * Recorre los segmentos del archivo hasta el bloque APP1 "Exif" y lee las entradas TIFF necesarias.
+ * Cualquier estructura inesperada se trata como "sin datos" en lugar de lanzar una excepción.
+ * </p>
+ */
+public final class ExifUtil {
+
+    /** Orientación por defecto (la imagen no requiere rotación). */
+    public static final int ORIENTACION_NORMAL = 1;
+
+    private static final int TAG_ORIENTACION = 0x0112;
+    private static final int TAG_FECHA = 0x0132;
+    private static final int TAG_PUNTERO_EXIF = 0x8769;
+    private static final int TAG_PUNTERO_GPS = 0x8825;
+    private static final int TAG_FECHA_ORIGINAL = 0x9003;
+    private static final int TAG_GPS_LATITUD_REF = 0x0001;
+    private static final int TAG_GPS_LATITUD = 0x0002;
+    private static final int TAG_GPS_LONGITUD_REF = 0x0003;
+    private static final int TAG_GPS_LONGITUD = 0x0004;
+
+    private static final int TIPO_ASCII = 2;
+    private static final int TIPO_RATIONAL = 5;
+
+    private static final DateTimeFormatter FORMATO_FECHA_EXIF = DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+    private ExifUtil() {
+    }
+
+    /**
+     * Obtiene la orientación EXIF (valores 1 a 8) de un JPEG.
+     *
+     * @param datos Bytes del archivo (basta con el inicio que contiene el bloque EXIF).
+     * @return La orientación, o {@link #ORIENTACION_NORMAL} si no hay EXIF o no es un JPEG.
+     */
+    public static int leerOrientacion(byte[] datos) {
+        BloqueTiff tiff = buscarBloqueTiff(datos);
+        if (tiff == null) {
+            return ORIENTACION_NORMAL;
+        }
+        int entrada = tiff.buscarEntrada(tiff.offsetIfd0(), TAG_ORIENTACION);
+        if (entrada < 0) {
+            return ORIENTACION_NORMAL;
+        }
+        int orientacion = tiff.u16(entrada + 8);
+        return orientacion >= 1 && orientacion <= 8 ? orientacion : ORIENTACION_NORMAL;
+    }
+
+    /**
+     * Obtiene la ubicación GPS y la fecha de captura de un JPEG.
+     * <p>
+     * La fecha es {@code DateTimeOriginal} (o, en su defecto, {@code DateTime} del IFD0) y se interpreta
+     * como hora local de la cámara, tal como la guarda EXIF.
+     * </p>
+     *
+     * @param datos Bytes del archivo (basta con el inicio que contiene el bloque EXIF).
+     * @return Los metadatos encontrados; los campos ausentes o inválidos quedan en {@code null}.
+     */
+    public static MetadatosExif leerMetadatos(byte[] datos) {
+        BloqueTiff tiff = buscarBloqueTiff(datos);
+        if (tiff == null) {
+            return new MetadatosExif(null, null, null);
+        }
+        int ifd0 = tiff.offsetIfd0();
+
+        LocalDateTime fechaCaptura = null;
+        int punteroExif = tiff.buscarEntrada(ifd0, TAG_PUNTERO_EXIF);
+        if (punteroExif >= 0) {
+            fechaCaptura = leerFecha(tiff, tiff.buscarEntrada((int) tiff.u32(punteroExif + 8), TAG_FECHA_ORIGINAL));
+        }
+        if (fechaCaptura == null) {
+            fechaCaptura = leerFecha(tiff, tiff.buscarEntrada(ifd0, TAG_FECHA));
+        }
+
+        Double latitud = null;
+        Double longitud = null;
+        int punteroGps = tiff.buscarEntrada(ifd0, TAG_PUNTERO_GPS);
+        if (punteroGps >= 0) {
+            int ifdGps = (int) tiff.u32(punteroGps + 8);
+            latitud = leerCoordenada(tiff, ifdGps, TAG_GPS_LATITUD_REF, TAG_GPS_LATITUD, 'S', 90);
+            longitud = leerCoordenada(tiff, ifdGps, TAG_GPS_LONGITUD_REF, TAG_GPS_LONGITUD, 'W', 180);
+            // 0,0 es el valor que dejan muchos equipos sin señal GPS
+            if (latitud == null || longitud == null || (latitud == 0 && longitud == 0)) {
+                latitud = null;
+                longitud = null;
+            }
+        }
+        return new MetadatosExif(latitud, longitud, fechaCaptura);
+    }
+
+    /**
+     * Lee una fecha EXIF ("yyyy:MM:dd HH:mm:ss", 20 bytes con el terminador).
+     */
+    private static LocalDateTime leerFecha(BloqueTiff tiff, int entrada) {
+        if (entrada < 0 || tiff.u16(entrada + 2) != TIPO_ASCII || tiff.u32(entrada + 4) < 19) {
+            return null;
+        }
+        String texto = tiff.ascii(tiff.posicionValor(entrada, 20), 19);
+        if (texto == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(texto, FORMATO_FECHA_EXIF);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lee una coordenada GPS (grados, minutos y segundos como 3 RATIONAL) y la convierte a grados decimales.
+     */
+    private static Double leerCoordenada(BloqueTiff tiff, int ifdGps, int tagRef, int tagValor, char refNegativa, double limite) {
+        int entradaRef = tiff.buscarEntrada(ifdGps, tagRef);
+        int entradaValor = tiff.buscarEntrada(ifdGps, tagValor);
+        if (entradaRef < 0 || entradaValor < 0
+                || tiff.u16(entradaValor + 2) != TIPO_RATIONAL || tiff.u32(entradaValor + 4) != 3) {
+            return null;
+        }
+        int pos = tiff.posicionValor(entradaValor, 24);
+        double grados = tiff.racional(pos);
+        double minutos = tiff.racional(pos + 8);
+        double segundos = tiff.racional(pos + 16);
+        if (Double.isNaN(grados) || Double.isNaN(minutos) || Double.isNaN(segundos)) {
+            return null;
+        }
+        double valor = grados + minutos / 60 + segundos / 3600;
+        if (valor > limite) {
+            return null;
+        }
+        String ref = tiff.ascii(entradaRef + 8, 1);
+        return ref != null && ref.charAt(0) == refNegativa ? -valor : valor;
+    }
+
+    /**
+     * Busca el bloque TIFF dentro del segmento APP1 "Exif" de un JPEG.
+     *
+     * @return El bloque encontrado o {@code null} si no existe.
+     */
+    static BloqueTiff buscarBloqueTiff(byte[] datos) {
+        if (datos == null || datos.length < 4 || (datos[0] & 0xFF) != 0xFF || (datos[1] & 0xFF) != 0xD8) {
+            return null;
+        }
+        int pos = 2;
+        while (pos + 4 <= datos.length) {
+            if ((datos[pos] & 0xFF) != 0xFF) {
+                return null;
+            }
+            int marcador = datos[pos + 1] & 0xFF;
+            // SOS o EOI: ya comenzaron los datos de la imagen, no hay más metadatos
+            if (marcador == 0xDA || marcador == 0xD9) {
+                return null;
+            }
+            int largo = ((datos[pos + 2] & 0xFF) << 8) | (datos[pos + 3] & 0xFF);
+            if (largo < 2) {
+                return null;
+            }
+            int inicio = pos + 4;
+            if (marcador == 0xE1 && largo >= 8 && inicio + 6 <= datos.length
+                    && datos[inicio] == 'E' && datos[inicio + 1] == 'x' && datos[inicio + 2] == 'i'
+                    && datos[inicio + 3] == 'f' && datos[inicio + 4] == 0 && datos[inicio + 5] == 0) {
+                int fin = Math.min(pos + 2 + largo, datos.length);
+                return BloqueTiff.crear(datos, inicio + 6, fin);
+            }
+            pos += 2 + largo;
+        }
+        return null;
+    }
+
+    /**
+     * Vista sobre la estructura TIFF de un bloque EXIF, con el orden de bytes correspondiente.
+     */
+    static final class BloqueTiff {
+
+        private final byte[] datos;
+        private final int base;
+        private final int fin;
+        private final boolean littleEndian;
+
+        private BloqueTiff(byte[] datos, int base, int fin, boolean littleEndian) {
+            this.datos = datos;
+            this.base = base;
+            this.fin = fin;
+            this.littleEndian = littleEndian;
+        }
+
+        static BloqueTiff crear(byte[] datos, int base, int fin) {
+            if (base + 8 > fin) {
+                return null;
+            }
+            boolean littleEndian;
+            if (datos[base] == 'I' && datos[base + 1] == 'I') {
+                littleEndian = true;
+            } else if (datos[base] == 'M' && datos[base + 1] == 'M') {
+                littleEndian = false;
+            } else {
+                return null;
+            }
+            return new BloqueTiff(datos, base, fin, littleEndian);
+        }
+
+        int offsetIfd0() {
+            return (int) u32(base + 4);
+        }
+
+        /**
+         * Busca una entrada en un IFD.
+         *
+         * @param offsetIfd Offset del IFD relativo al inicio del bloque TIFF.
+         * @param tag       Tag buscado.
+         * @return Posición absoluta de la entrada (12 bytes) o -1 si no existe.
+         */
+        int buscarEntrada(int offsetIfd, int tag) {
+            int pos = base + offsetIfd;
+            if (offsetIfd < 8 || pos + 2 > fin) {
+                return -1;
+            }
+            int cantidad = u16(pos);
+            for (int i = 0; i < cantidad; i++) {
+                int entrada = pos + 2 + i * 12;
+                if (entrada + 12 > fin) {
+                    return -1;
+                }
+                if (u16(entrada) == tag) {
+                    return entrada;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Posición absoluta del valor de una entrada: dentro de la propia entrada si cabe en 4 bytes,
+         * o en el offset indicado en caso contrario.
+         */
+        int posicionValor(int entrada, int largoValor) {
+            if (largoValor <= 4) {
+                return entrada + 8;
+            }
+            long offset = u32(entrada + 8);
+            return offset < 0 || offset > Integer.MAX_VALUE - base ? -1 : base + (int) offset;
+        }
+
+        /**
+         * Lee un RATIONAL (numerador y denominador de 32 bits sin signo).
+         *
+         * @return El valor, o {@code NaN} si está fuera del bloque o el denominador es 0.
+         */
+        double racional(int pos) {
+            long numerador = u32(pos);
+            long denominador = u32(pos + 4);
+            if (numerador < 0 || denominador <= 0) {
+                return Double.NaN;
+            }
+            return (double) numerador / denominador;
+        }
+
+        String ascii(int pos, int largo) {
+            if (pos < 0 || pos + largo > fin) {
+                return null;
+            }
+            return new String(datos, pos, largo, StandardCharsets.US_ASCII);
+        }
+
+        int u16(int pos) {
+            if (pos < 0 || pos + 2 > fin) {
+                return -1;
+            }
+            int b0 = datos[pos] & 0xFF;
+            int b1 = datos[pos + 1] & 0xFF;
+            return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+        }
+
+        long u32(int pos) {
+            if (pos < 0 || pos + 4 > fin) {
+                return -1;
+            }
+            long b0 = datos[pos] & 0xFF;
+            long b1 = datos[pos + 1] & 0xFF;
+            long b2 = datos[pos + 2] & 0xFF;
+            long b3 = datos[pos + 3] & 0xFF;
+            return littleEndian
+                    ? (b3 << 24) | (b2 << 16) | (b1 << 8) | b0
+                    : (b0 << 24) | (b1 << 16) | (b2 << 8) | b3;
+        }
+    }
+
+    /**
+     * Ubicación y fecha de captura leídas del EXIF de una foto.
+     */
+    public static final class MetadatosExif {
+
+        private final Double latitud;
+        private final Double longitud;
+        private final LocalDateTime fechaCaptura;
+
+        public MetadatosExif(Double latitud, Double longitud, LocalDateTime fechaCaptura) {
+            this.latitud = latitud;
+            this.longitud = longitud;
+            this.fechaCaptura = fechaCaptura;
+        }
+
+        /** Latitud en grados decimales (negativa al sur), o {@code null}. */
+        public Double getLatitud() {
+            return latitud;
+        }
+
+        /** Longitud en grados decimales (negativa al oeste), o {@code null}. */
+        public Double getLongitud() {
+            return longitud;
+        }
+
+        /** Fecha y hora de captura según la cámara, o {@code null}. */
+        public LocalDateTime getFechaCaptura() {
+            return fechaCaptura;
+        }
+    }
+}
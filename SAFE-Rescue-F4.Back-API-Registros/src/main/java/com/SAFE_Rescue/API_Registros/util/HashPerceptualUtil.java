@@ -0,0 +1,133 @@
+package com.SAFE_Rescue.API_Registros.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Hash perceptual (dHash de 64 bits) para detectar fotos casi duplicadas.
+ * <p>
+ * La imagen se reduce a 9x8 píxeles en escala de grises y cada bit indica si un píxel es más claro que su
+ * vecino de la derecha. Dos versiones de la misma escena (redimensionada, recomprimida o con otro formato)
+ * dan hashes a pocos bits de distancia de Hamming.
+ * </p>
+ */
+public final class HashPerceptualUtil {
+
+    private static final int ANCHO = 9;
+    private static final int ALTO = 8;
+
+    // Lado aproximado al que se submuestrea al decodificar: evita leer todos los píxeles del original
+    private static final int LADO_MUESTREO = 64;
+
+    private HashPerceptualUtil() {
+    }
+
+    /**
+     * Calcula el dHash de una imagen, aplicando su orientación EXIF.
+     *
+     * @param datos Bytes del archivo.
+     * @return El hash, o {@code null} si ImageIO no puede decodificar la imagen.
+     */
+    public static Long dHash(byte[] datos) {
+        BufferedImage imagen;
+        try {
+            imagen = decodificarReducida(datos);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+        if (imagen == null) {
+            return null;
+        }
+        return dHash(imagen, ExifUtil.leerOrientacion(datos));
+    }
+
+    /**
+     * Calcula el dHash de una imagen ya decodificada.
+     *
+     * @param imagen      Imagen tal como está almacenada.
+     * @param orientacion Orientación EXIF (1 a 8) que hay que aplicar para verla derecha.
+     */
+    public static long dHash(BufferedImage imagen, int orientacion) {
+        boolean intercambiaEjes = orientacion >= 5 && orientacion <= 8;
+        int anchoFuente = intercambiaEjes ? ALTO : ANCHO;
+        int altoFuente = intercambiaEjes ? ANCHO : ALTO;
+
+        BufferedImage gris = new BufferedImage(anchoFuente, altoFuente, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gris.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(imagen, 0, 0, anchoFuente, altoFuente, null);
+        } finally {
+            g.dispose();
+        }
+
+        long hash = 0;
+        for (int y = 0; y < ALTO; y++) {
+            for (int x = 0; x < ANCHO - 1; x++) {
+                hash <<= 1;
+                if (gris(gris, orientacion, x, y) > gris(gris, orientacion, x + 1, y)) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Distancia de Hamming entre dos hashes (cantidad de bits distintos, de 0 a 64).
+     */
+    public static int distancia(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * Nivel de gris del píxel (x, y) de la imagen vista derecha, leído de la imagen almacenada.
+     */
+    private static int gris(BufferedImage fuente, int orientacion, int x, int y) {
+        int w = fuente.getWidth() - 1;
+        int h = fuente.getHeight() - 1;
+        int fx;
+        int fy;
+        switch (orientacion) {
+            case 2 -> { fx = w - x; fy = y; }
+            case 3 -> { fx = w - x; fy = h - y; }
+            case 4 -> { fx = x; fy = h - y; }
+            case 5 -> { fx = y; fy = x; }
+            case 6 -> { fx = y; fy = h - x; }
+            case 7 -> { fx = w - y; fy = h - x; }
+            case 8 -> { fx = w - y; fy = x; }
+            default -> { fx = x; fy = y; }
+        }
+        return fuente.getRaster().getSample(fx, fy, 0);
+    }
+
+    /**
+     * Decodifica la imagen submuestreada a unos {@value #LADO_MUESTREO} píxeles de lado.
+     */
+    private static BufferedImage decodificarReducida(byte[] datos) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(new ByteArrayInputStream(datos))) {
+            Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+            if (!lectores.hasNext()) {
+                return null;
+            }
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada, true, true);
+                int paso = Math.max(1, Math.min(lector.getWidth(0), lector.getHeight(0)) / LADO_MUESTREO);
+                ImageReadParam parametros = lector.getDefaultReadParam();
+                parametros.setSourceSubsampling(paso, paso, 0, 0);
+                return lector.read(0, parametros);
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+}
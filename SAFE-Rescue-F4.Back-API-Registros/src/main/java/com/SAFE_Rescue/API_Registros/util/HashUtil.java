@@ -0,0 +1,29 @@
+package com.SAFE_Rescue.API_Registros.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utilidades de hash para el contenido de las fotos.
+ */
+public final class HashUtil {
+
+    private HashUtil() {
+    }
+
+    /**
+     * Calcula el hash SHA-256 de un arreglo de bytes.
+     *
+     * @param datos Contenido a resumir.
+     * @return El hash en hexadecimal (64 caracteres en minúscula).
+     */
+    public static String sha256Hex(byte[] datos) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(datos));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.SAFE_Rescue.API_Registros.util;
+
+/**
+ * Datos de una foto que {@link UrlFirmadaSerializer} necesita para decidir qué URL publicar.
+ * <p>
+ * La implementan la entidad y las proyecciones que exponen la URL. Sus getters los genera Lombok.
+ * </p>
+ */
+public interface ReferenciaFoto {
+
+    int getIdFoto();
+
+    /**
+     * Ubicación en el almacenamiento frío, o {@code null} si el archivo sigue en {@code uploads/fotos}.
+     */
+    String getUbicacionFrio();
+}
@@ -0,0 +1,48 @@
+package com.SAFE_Rescue.API_Registros.util;
+
+import com.SAFE_Rescue.API_Registros.service.UrlFirmadaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+
+/**
+ * Serializa la URL almacenada de una foto como una URL firmada y con expiración.
+ * <p>
+ * Si el objeto que se serializa es una {@link ReferenciaFoto} en el almacenamiento frío, el archivo ya no
+ * está en {@code uploads/fotos} y se publica {@code /fotos/{id}/contenido} en su lugar.
+ * </p>
+ * <p>
+ * Spring crea el serializador e inyecta {@link UrlFirmadaService}. Fuera de Spring (por ejemplo, con un
+ * {@code ObjectMapper} propio) o en contextos parciales sin ese bean, la URL se escribe sin firmar.
+ * </p>
+ */
+public class UrlFirmadaSerializer extends StdSerializer<String> {
+
+    private transient UrlFirmadaService urlFirmadaService;
+
+    public UrlFirmadaSerializer() {
+        super(String.class);
+    }
+
+    public UrlFirmadaSerializer(UrlFirmadaService urlFirmadaService) {
+        this();
+        this.urlFirmadaService = urlFirmadaService;
+    }
+
+    @Autowired(required = false)
+    public void setUrlFirmadaService(UrlFirmadaService urlFirmadaService) {
+        this.urlFirmadaService = urlFirmadaService;
+    }
+
+    @Override
+    public void serialize(String url, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (gen.currentValue() instanceof ReferenciaFoto foto && foto.getUbicacionFrio() != null) {
+            gen.writeString(UrlFirmadaService.rutaContenido(foto.getIdFoto()));
+            return;
+        }
+        gen.writeString(urlFirmadaService != null ? urlFirmadaService.firmar(url) : url);
+    }
+}
@@ -88,6 +88,73 @@ public class EstadoControllerTest {
         verify(estadoService, times(1)).findAll();
     }
 
+    @Test
+    void listar_ShouldReturnETag_AndReturn304_WhenVersionUnchanged() throws Exception {
+        // Arrange
+        when(estadoService.getVersionCatalogo()).thenReturn(42L);
+        when(estadoService.findAll()).thenReturn(List.of(estadoValido));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"estados-42\""));
+
+        mockMvc.perform(get(API_BASE_URL).header("If-None-Match", "\"estados-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(estadoService, times(1)).findAll();
+    }
+
+    @Test
+    void listar_ShouldReturn200_WhenVersionChanged() throws Exception {
+        // Arrange
+        when(estadoService.getVersionCatalogo()).thenReturn(43L);
+        when(estadoService.findAll()).thenReturn(List.of(estadoValido));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL).header("If-None-Match", "\"estados-42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"estados-43\""))
+                .andExpect(jsonPath("$.size()").value(1));
+    }
+
+    @Test
+    void listar_ShouldReturnRequestedEstados_WhenIdsGiven() throws Exception {
+        // Arrange
+        Estado otro = new Estado(estadoId + 1, "OTRO", null);
+        when(estadoService.findAllById(List.of(estadoId, estadoId + 1))).thenReturn(List.of(estadoValido, otro));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL).param("ids", estadoId + "," + (estadoId + 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[1].idEstado").value(estadoId + 1));
+
+        verify(estadoService, never()).findAll();
+    }
+
+    @Test
+    void listar_ShouldReturn400_WhenTooManyIds() throws Exception {
+        // Arrange
+        when(estadoService.findAllById(any())).thenThrow(new IllegalArgumentException("No se pueden consultar más de 200 estados a la vez."));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL).param("ids", "1,2,3"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void obtenerVersion_ShouldReturnCatalogVersion() throws Exception {
+        // Arrange
+        when(estadoService.getVersionCatalogo()).thenReturn(7L);
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/version"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("7"));
+    }
+
     // -------------------------------------------------------------------------
     // GET /{id} (buscarEstado)
     // -------------------------------------------------------------------------
@@ -1,23 +1,41 @@
 package com.SAFE_Rescue.API_Registros.controller;
 
+import com.SAFE_Rescue.API_Registros.dto.ContenidoFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FiltroFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoSimilarDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoUbicacionDTO;
+import com.SAFE_Rescue.API_Registros.dto.PaginaFotosDTO;
+import com.SAFE_Rescue.API_Registros.dto.ResultadoSubidaDTO;
 import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.service.FotoLoteService;
 import com.SAFE_Rescue.API_Registros.service.FotoService;
+import com.SAFE_Rescue.API_Registros.service.SimilitudFotoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.datafaker.Faker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,6 +60,12 @@ public class FotoControllerTest {
     @MockitoBean
     private FotoService fotoService;
 
+    @MockitoBean
+    private FotoLoteService fotoLoteService;
+
+    @MockitoBean
+    private SimilitudFotoService similitudFotoService;
+
     private Faker faker;
     private Foto fotoValida;
     private Integer fotoId;
@@ -65,30 +89,283 @@ public class FotoControllerTest {
     @Test
     void listar_ShouldReturn200AndList_WhenFound() throws Exception {
         // Arrange
-        List<Foto> listaEsperada = List.of(fotoValida);
-        when(fotoService.findAll()).thenReturn(listaEsperada);
+        FotoResumenDTO resumen = new FotoResumenDTO(fotoId, fotoValida.getUrl(), "image/jpeg", 1024,
+                fotoValida.getFechaSubida(), fotoValida.getDescripcion());
+        List<FotoResumenDTO> listaEsperada = List.of(resumen);
+        when(fotoService.findAllResumen(any(Pageable.class))).thenReturn(new PageImpl<>(listaEsperada));
 
         // Act & Assert
         mockMvc.perform(get(API_BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(objectMapper.writeValueAsString(listaEsperada)))
-                .andExpect(jsonPath("$.size()").value(1));
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].datos").doesNotExist());
+
+        verify(fotoService, times(1)).findAllResumen(any(Pageable.class));
+        verify(fotoService, never()).findAll();
+    }
+
+    @Test
+    void listar_ShouldClampPageSize_WhenTooLarge() throws Exception {
+        // Arrange
+        when(fotoService.findAllResumen(any(Pageable.class))).thenReturn(Page.empty());
+
+        // Act
+        mockMvc.perform(get(API_BASE_URL).param("pagina", "2").param("tamanio", "10000"))
+                .andExpect(status().isNoContent());
 
-        verify(fotoService, times(1)).findAll();
+        // Assert
+        verify(fotoService).findAllResumen(argThat(p -> p.getPageNumber() == 2 && p.getPageSize() == 200));
     }
 
     @Test
     void listar_ShouldReturn204_WhenNoContent() throws Exception {
         // Arrange
-        when(fotoService.findAll()).thenReturn(List.of());
+        when(fotoService.findAllResumen(any(Pageable.class))).thenReturn(Page.empty());
 
         // Act & Assert
         mockMvc.perform(get(API_BASE_URL))
                 .andExpect(status().isNoContent())
                 .andExpect(content().string("")); // El cuerpo debe estar vacío
 
-        verify(fotoService, times(1)).findAll();
+        verify(fotoService, times(1)).findAllResumen(any(Pageable.class));
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /buscar
+    // -------------------------------------------------------------------------
+
+    @Test
+    void buscar_ShouldReturn200AndPage_WhenFound() throws Exception {
+        // Arrange
+        FotoResumenDTO resumen = new FotoResumenDTO(fotoId, fotoValida.getUrl(), "image/jpeg", 2048,
+                fotoValida.getFechaSubida(), fotoValida.getDescripcion());
+        FiltroFotoDTO filtroEsperado = new FiltroFotoDTO(LocalDateTime.of(2025, 11, 1, 0, 0), null, "image/jpeg", 1024, null);
+        when(fotoService.buscar(eq(filtroEsperado), eq("abc"), eq(20)))
+                .thenReturn(new PaginaFotosDTO(List.of(resumen), "def"));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/buscar")
+                        .param("desde", "2025-11-01T00:00:00")
+                        .param("tipo", "image/jpeg")
+                        .param("tamanioMin", "1024")
+                        .param("cursor", "abc")
+                        .param("tamanio", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fotos[0].idFoto").value(fotoId))
+                .andExpect(jsonPath("$.siguienteCursor").value("def"));
+    }
+
+    @Test
+    void buscar_ShouldReturn204_WhenNoMatches() throws Exception {
+        // Arrange
+        when(fotoService.buscar(any(FiltroFotoDTO.class), any(), anyInt())).thenReturn(new PaginaFotosDTO(List.of(), null));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/buscar").param("tipo", "image/gif"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void buscar_ShouldReturn400_WhenCursorIsInvalid() throws Exception {
+        // Arrange
+        when(fotoService.buscar(any(FiltroFotoDTO.class), eq("x"), anyInt())).thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/buscar").param("cursor", "x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Cursor inválido"));
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /cercanas
+    // -------------------------------------------------------------------------
+
+    @Test
+    void buscarCercanas_ShouldReturn200AndPhotos_WhenFound() throws Exception {
+        // Arrange
+        FotoUbicacionDTO cercana = new FotoUbicacionDTO(fotoId, fotoValida.getUrl(), -33.4479, -70.6693,
+                LocalDateTime.of(2025, 11, 23, 16, 35, 10), 111.2);
+        when(fotoService.buscarCercanas(-33.4489, -70.6693, 500, 50)).thenReturn(List.of(cercana));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/cercanas").param("lat", "-33.4489").param("lon", "-70.6693"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idFoto").value(fotoId))
+                .andExpect(jsonPath("$[0].distanciaMetros").value(111.2))
+                .andExpect(jsonPath("$[0].fechaCaptura").value("2025-11-23T16:35:10"));
+    }
+
+    @Test
+    void buscarCercanas_ShouldReturn204_WhenNoPhotosInRadius() throws Exception {
+        // Arrange
+        when(fotoService.buscarCercanas(anyDouble(), anyDouble(), anyDouble(), anyInt())).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/cercanas").param("lat", "0").param("lon", "0").param("radio", "100"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void buscarCercanas_ShouldReturn400_WhenParametersAreInvalid() throws Exception {
+        // Arrange
+        when(fotoService.buscarCercanas(eq(95.0), anyDouble(), anyDouble(), anyInt()))
+                .thenThrow(new IllegalArgumentException("La latitud debe estar entre -90 y 90"));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/cercanas").param("lat", "95").param("lon", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("La latitud debe estar entre -90 y 90"));
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /{id}/similares
+    // -------------------------------------------------------------------------
+
+    @Test
+    void buscarSimilares_ShouldReturn200AndPhotos_WhenFound() throws Exception {
+        // Arrange
+        when(similitudFotoService.buscarSimilares(fotoId, 6, 20))
+                .thenReturn(List.of(new FotoSimilarDTO(fotoId + 1, 2), new FotoSimilarDTO(fotoId + 2, 5)));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/{id}/similares", fotoId).param("distancia", "6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idFoto").value(fotoId + 1))
+                .andExpect(jsonPath("$[0].distancia").value(2))
+                .andExpect(jsonPath("$[1].distancia").value(5));
+    }
+
+    @Test
+    void buscarSimilares_ShouldReturn404_WhenPhotoHasNoHash() throws Exception {
+        // Arrange
+        when(similitudFotoService.buscarSimilares(eq(fotoId), anyInt(), anyInt()))
+                .thenThrow(new NoSuchElementException("La foto " + fotoId + " no tiene hash perceptual"));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/{id}/similares", fotoId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void buscarSimilares_ShouldReturn400_WhenDistanceIsInvalid() throws Exception {
+        // Arrange
+        when(similitudFotoService.buscarSimilares(eq(fotoId), eq(99), anyInt()))
+                .thenThrow(new IllegalArgumentException("La distancia debe estar entre 0 y 24"));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/{id}/similares", fotoId).param("distancia", "99"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /{id}/contenido
+    // -------------------------------------------------------------------------
+
+    @Test
+    void obtenerContenido_ShouldReturn200AndBytes_WhenFound() throws Exception {
+        // Arrange
+        byte[] datos = {1, 2, 3, 4};
+        ByteBuffer directo = ByteBuffer.allocateDirect(datos.length).put(datos).flip();
+        when(fotoService.obtenerContenido(fotoId, 160))
+                .thenReturn(new ContenidoFotoDTO("image/png", directo.asReadOnlyBuffer()));
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get(API_BASE_URL + "/{id}/contenido", fotoId).param("ancho", "160"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("Content-Length", "4"))
+                .andExpect(content().bytes(datos));
+    }
+
+    @Test
+    void obtenerContenido_ShouldReturn404_WhenNotFound() throws Exception {
+        // Arrange
+        when(fotoService.obtenerContenido(fotoId, 0)).thenThrow(new NoSuchElementException("Foto no encontrada"));
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get(API_BASE_URL + "/{id}/contenido", fotoId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Foto no encontrada"));
+    }
+
+    @Test
+    void obtenerContenido_ShouldReturn400_WhenWidthNotAllowed() throws Exception {
+        // Arrange
+        when(fotoService.obtenerContenido(fotoId, 123)).thenThrow(new IllegalArgumentException("Ancho no soportado"));
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get(API_BASE_URL + "/{id}/contenido", fotoId).param("ancho", "123"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Ancho no soportado"));
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /upload-lote (uploadLote)
+    // -------------------------------------------------------------------------
+
+    @Test
+    void uploadLote_ShouldReturn201_WhenAllFilesSucceed() throws Exception {
+        // Arrange
+        MockMultipartFile archivo = new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[]{1, 2});
+        when(fotoLoteService.getMaxArchivos()).thenReturn(30);
+        when(fotoLoteService.subirLote(anyList(), any()))
+                .thenReturn(List.of(ResultadoSubidaDTO.exitoso("a.jpg", fotoValida)));
+
+        // Act & Assert
+        mockMvc.perform(multipart(API_BASE_URL + "/upload-lote").file(archivo))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].exito").value(true))
+                .andExpect(jsonPath("$[0].foto.idFoto").value(fotoId));
+    }
+
+    @Test
+    void uploadLote_ShouldReturn207_WhenSomeFilesFail() throws Exception {
+        // Arrange
+        MockMultipartFile valido = new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[]{1});
+        MockMultipartFile invalido = new MockMultipartFile("files", "b.txt", "text/plain", new byte[]{2});
+        when(fotoLoteService.getMaxArchivos()).thenReturn(30);
+        when(fotoLoteService.subirLote(anyList(), any())).thenReturn(List.of(
+                ResultadoSubidaDTO.exitoso("a.jpg", fotoValida),
+                ResultadoSubidaDTO.fallido("b.txt", "Solo se aceptan imágenes (JPG, PNG, GIF, WebP, BMP, SVG)")));
+
+        // Act & Assert
+        mockMvc.perform(multipart(API_BASE_URL + "/upload-lote").file(valido).file(invalido))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[1].exito").value(false))
+                .andExpect(jsonPath("$[1].nombreArchivo").value("b.txt"));
+    }
+
+    @Test
+    void uploadLote_ShouldReturn400_WhenTooManyFiles() throws Exception {
+        // Arrange
+        when(fotoLoteService.getMaxArchivos()).thenReturn(1);
+        MockMultipartFile a = new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[]{1});
+        MockMultipartFile b = new MockMultipartFile("files", "b.jpg", "image/jpeg", new byte[]{2});
+
+        // Act & Assert
+        mockMvc.perform(multipart(API_BASE_URL + "/upload-lote").file(a).file(b))
+                .andExpect(status().isBadRequest());
+
+        verify(fotoLoteService, never()).subirLote(anyList(), any());
     }
 
     // -------------------------------------------------------------------------
@@ -0,0 +1,129 @@
+package com.SAFE_Rescue.API_Registros.controller;
+
+import com.SAFE_Rescue.API_Registros.dto.SesionSubidaDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.service.SubidaReanudableService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas unitarias para SubidaFotoController utilizando @WebMvcTest y MockMvc.
+ */
+@WebMvcTest(SubidaFotoController.class)
+public class SubidaFotoControllerTest {
+
+    private static final String API_BASE_URL = "/api-registros/v1/fotos/subidas";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SubidaReanudableService subidaReanudableService;
+
+    private String id;
+
+    @BeforeEach
+    void setUp() {
+        id = UUID.randomUUID().toString();
+    }
+
+    private SesionSubidaDTO sesion(long offset) {
+        return new SesionSubidaDTO(id, "incendio.jpg", 3000, offset, LocalDateTime.now().plusHours(1));
+    }
+
+    @Test
+    void crear_ShouldReturn201AndLocation() throws Exception {
+        // Arrange
+        when(subidaReanudableService.crear("incendio.jpg", 3000, null, null)).thenReturn(sesion(0));
+
+        // Act & Assert
+        mockMvc.perform(post(API_BASE_URL).param("nombreArchivo", "incendio.jpg").param("tamanio", "3000"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", API_BASE_URL + "/" + id))
+                .andExpect(jsonPath("$.offset").value(0));
+    }
+
+    @Test
+    void crear_ShouldReturn400_WhenTooLarge() throws Exception {
+        // Arrange
+        when(subidaReanudableService.crear(any(), anyLong(), any(), any()))
+                .thenThrow(new IllegalArgumentException("El archivo no debe superar 5MB. Tamaño actual: 9MB"));
+
+        // Act & Assert
+        mockMvc.perform(post(API_BASE_URL).param("nombreArchivo", "a.jpg").param("tamanio", "9999999"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void escribir_ShouldReturn200AndNewOffset() throws Exception {
+        // Arrange
+        when(subidaReanudableService.escribir(eq(id), eq(0L), any(InputStream.class))).thenReturn(sesion(1000));
+
+        // Act & Assert
+        mockMvc.perform(put(API_BASE_URL + "/{id}", id).param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM).content(new byte[1000]))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.offset").value(1000));
+    }
+
+    @Test
+    void escribir_ShouldReturn409AndCurrentOffset_WhenOffsetDoesNotMatch() throws Exception {
+        // Arrange
+        when(subidaReanudableService.escribir(eq(id), eq(0L), any(InputStream.class)))
+                .thenThrow(new IllegalStateException("El offset no coincide"));
+        when(subidaReanudableService.consultar(id)).thenReturn(sesion(1200));
+
+        // Act & Assert
+        mockMvc.perform(put(API_BASE_URL + "/{id}", id).param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM).content(new byte[10]))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.offset").value(1200));
+    }
+
+    @Test
+    void consultar_ShouldReturn404_WhenExpired() throws Exception {
+        // Arrange
+        when(subidaReanudableService.consultar(id)).thenThrow(new NoSuchElementException("Sesión de subida no encontrada o expirada"));
+
+        // Act & Assert
+        mockMvc.perform(get(API_BASE_URL + "/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void finalizar_ShouldReturn201AndFoto() throws Exception {
+        // Arrange
+        Foto foto = new Foto();
+        foto.setIdFoto(7);
+        when(subidaReanudableService.finalizar(id)).thenReturn(foto);
+
+        // Act & Assert
+        mockMvc.perform(post(API_BASE_URL + "/{id}/finalizar", id))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.idFoto").value(7));
+    }
+
+    @Test
+    void cancelar_ShouldReturn200() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete(API_BASE_URL + "/{id}", id))
+                .andExpect(status().isOk());
+        verify(subidaReanudableService).cancelar(id);
+    }
+}
@@ -0,0 +1,49 @@
+package com.SAFE_Rescue.API_Registros.repository;
+
+import com.SAFE_Rescue.API_Registros.dto.FiltroFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para la búsqueda por Criteria de {@link FotoRepositoryImpl}.
+ * Se simula el EntityManager para revisar la proyección que se construye.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FotoRepositoryImplTest {
+
+    @Mock(answer = RETURNS_DEEP_STUBS)
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private FotoRepositoryImpl fotoRepository;
+
+    @Test
+    void buscar_ShouldProjectColdLocation_SoColdPhotosGetTheContentRoute() {
+        // Arrange
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Root<Foto> foto = cb.createQuery(FotoResumenDTO.class).from(Foto.class);
+        Path<Object> ubicacionFrio = foto.get("ubicacionFrio");
+
+        // Act
+        fotoRepository.buscar(new FiltroFotoDTO(), null, null, 20);
+
+        // Assert: la proyección usa el constructor de 7 columnas y la última es la ubicación en frío
+        verify(cb).construct(eq(FotoResumenDTO.class), any(), any(), any(), any(), any(), any(),
+                same(ubicacionFrio));
+    }
+}
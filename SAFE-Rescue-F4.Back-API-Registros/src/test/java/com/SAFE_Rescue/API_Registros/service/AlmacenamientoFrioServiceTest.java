@@ -0,0 +1,197 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para el traslado de fotos antiguas al almacenamiento frío.
+ * Los directorios caliente y frío son temporales y se simula el FotoRepository.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AlmacenamientoFrioServiceTest {
+
+    @Mock
+    private FotoRepository fotoRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private Path caliente;
+    private Path frio;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        caliente = Files.createDirectory(tempDir.resolve("fotos"));
+        frio = tempDir.resolve("fotos-frio");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private AlmacenamientoFrioService crearServicio(boolean habilitado, boolean empaquetar) {
+        return new AlmacenamientoFrioService(fotoRepository, meterRegistry, habilitado, caliente.toString(), frio.toString(),
+                120, 10, empaquetar);
+    }
+
+    private FotoResumenDTO crearFoto(int id, String nombre, byte[] datos) throws Exception {
+        Files.write(caliente.resolve(nombre), datos);
+        return new FotoResumenDTO(id, FotoService.UPLOAD_DIR + "/" + nombre, "image/jpeg", datos.length,
+                LocalDateTime.now().minusYears(1), null);
+    }
+
+    @Test
+    void trasladarLote_ShouldMoveFilesAndRecordLocation_WhenNotPacking() throws Exception {
+        // Arrange
+        AlmacenamientoFrioService servicio = crearServicio(true, false);
+        FotoResumenDTO foto = crearFoto(1, "a.jpg", new byte[]{1, 2, 3});
+        when(fotoRepository.findCandidatasFrio(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(foto));
+
+        // Act
+        int movidas = servicio.trasladarLote();
+
+        // Assert
+        assertEquals(1, movidas);
+        assertFalse(Files.exists(caliente.resolve("a.jpg")));
+        verify(fotoRepository).marcarEnFrio(1, "a.jpg");
+        assertArrayEquals(new byte[]{1, 2, 3}, servicio.leer("a.jpg"));
+        assertTrue(servicio.existe("a.jpg"));
+        assertEquals(3.0, meterRegistry.counter("fotos.frio.bytes_movidos").count());
+    }
+
+    @Test
+    void trasladarLote_ShouldPackBatchInZip_WhenPackingIsEnabled() throws Exception {
+        // Arrange
+        AlmacenamientoFrioService servicio = crearServicio(true, true);
+        List<FotoResumenDTO> lote = List.of(crearFoto(1, "a.jpg", new byte[]{1, 2, 3}), crearFoto(2, "b.jpg", new byte[]{4, 5}));
+        when(fotoRepository.findCandidatasFrio(any(LocalDateTime.class), any(Pageable.class))).thenReturn(lote);
+
+        // Act
+        int movidas = servicio.trasladarLote();
+
+        // Assert
+        assertEquals(2, movidas);
+        ArgumentCaptor<String> ubicaciones = ArgumentCaptor.forClass(String.class);
+        verify(fotoRepository, times(2)).marcarEnFrio(anyInt(), ubicaciones.capture());
+        String ubicacionB = ubicaciones.getAllValues().get(1);
+        assertTrue(ubicacionB.matches("lote_.*\\.zip!b\\.jpg"));
+        assertArrayEquals(new byte[]{4, 5}, servicio.leer(ubicacionB));
+        try (var archivos = Files.list(frio)) {
+            assertEquals(1, archivos.count());
+        }
+        try (var archivos = Files.list(caliente)) {
+            assertEquals(0, archivos.count());
+        }
+    }
+
+    @Test
+    void compactarPaquetes_ShouldDropDeletedEntries_AndDeleteEmptyPackages() throws Exception {
+        // Arrange: un paquete con a.jpg y b.jpg
+        AlmacenamientoFrioService servicio = crearServicio(true, true);
+        List<FotoResumenDTO> lote = List.of(crearFoto(1, "a.jpg", new byte[]{1, 2, 3}), crearFoto(2, "b.jpg", new byte[]{4, 5}));
+        when(fotoRepository.findCandidatasFrio(any(LocalDateTime.class), any(Pageable.class))).thenReturn(lote);
+        servicio.trasladarLote();
+        ArgumentCaptor<String> ubicaciones = ArgumentCaptor.forClass(String.class);
+        verify(fotoRepository, times(2)).marcarEnFrio(anyInt(), ubicaciones.capture());
+        String ubicacionA = ubicaciones.getAllValues().get(0);
+        String ubicacionB = ubicaciones.getAllValues().get(1);
+        String paquete = ubicacionA.substring(0, ubicacionA.indexOf('!'));
+
+        // Act: se elimina a.jpg y luego b.jpg
+        assertFalse(servicio.eliminar(ubicacionA));
+        when(fotoRepository.findUbicacionesEnPaquete(anyString())).thenReturn(List.of(ubicacionB));
+        int primera = servicio.compactarPaquetes();
+        boolean aSigue = servicio.existe(ubicacionA);
+        byte[] datosB = servicio.leer(ubicacionB);
+
+        servicio.eliminar(ubicacionB);
+        when(fotoRepository.findUbicacionesEnPaquete(anyString())).thenReturn(List.of());
+        int segunda = servicio.compactarPaquetes();
+
+        // Assert: los "_" del nombre del paquete se escapan en el patrón LIKE
+        assertEquals(1, primera);
+        assertFalse(aSigue);
+        assertArrayEquals(new byte[]{4, 5}, datosB);
+        assertEquals(1, segunda);
+        assertFalse(Files.exists(frio.resolve(paquete)));
+        verify(fotoRepository, atLeastOnce()).findUbicacionesEnPaquete(paquete.replace("_", "#_") + "!%");
+        assertEquals(2.0, meterRegistry.counter("fotos.frio.entradas_compactadas").count());
+    }
+
+    @Test
+    void compactarPaquetes_ShouldKeepPackage_WhenAllEntriesAreReferenced() throws Exception {
+        // Arrange
+        AlmacenamientoFrioService servicio = crearServicio(true, true);
+        when(fotoRepository.findCandidatasFrio(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(crearFoto(1, "a.jpg", new byte[]{1})));
+        servicio.trasladarLote();
+        ArgumentCaptor<String> ubicacion = ArgumentCaptor.forClass(String.class);
+        verify(fotoRepository).marcarEnFrio(eq(1), ubicacion.capture());
+        when(fotoRepository.findUbicacionesEnPaquete(anyString())).thenReturn(List.of(ubicacion.getValue()));
+
+        // Act: la primera ejecución revisa todos los paquetes
+        int quitadas = servicio.compactarPaquetes();
+
+        // Assert
+        assertEquals(0, quitadas);
+        assertArrayEquals(new byte[]{1}, servicio.leer(ubicacion.getValue()));
+    }
+
+    @Test
+    void trasladarLote_ShouldDoNothing_WhenDisabled() {
+        // Act
+        int movidas = crearServicio(false, false).trasladarLote();
+
+        // Assert
+        assertEquals(0, movidas);
+        verifyNoInteractions(fotoRepository);
+    }
+
+    @Test
+    void trasladarLote_ShouldSkipPhotos_WhenUrlEscapesHotDirectory() throws Exception {
+        // Arrange: la URL empieza con uploads/fotos pero apunta a un archivo fuera del directorio caliente
+        AlmacenamientoFrioService servicio = crearServicio(true, false);
+        Path externo = Files.write(tempDir.resolve("externa.jpg"), new byte[]{7});
+        FotoResumenDTO foto = new FotoResumenDTO(1, FotoService.UPLOAD_DIR + "/../externa.jpg", "image/jpeg", 1,
+                LocalDateTime.now().minusYears(1), null);
+        when(fotoRepository.findCandidatasFrio(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(foto));
+
+        // Act
+        int movidas = servicio.trasladarLote();
+
+        // Assert
+        assertEquals(0, movidas);
+        assertTrue(Files.exists(externo));
+        assertFalse(Files.exists(frio.resolve("externa.jpg")));
+        verify(fotoRepository, never()).marcarEnFrio(anyInt(), anyString());
+    }
+
+    @Test
+    void leer_ShouldThrowNoSuchElementException_WhenMissingOrOutsideDirectory() throws Exception {
+        // Arrange
+        AlmacenamientoFrioService servicio = crearServicio(true, false);
+        Files.write(caliente.resolve("secreta.jpg"), new byte[]{9});
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> servicio.leer("no-existe.jpg"));
+        assertThrows(NoSuchElementException.class, () -> servicio.leer("../fotos/secreta.jpg"));
+        assertFalse(servicio.existe("no-existe.zip!a.jpg"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.ContenidoFotoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la caché de contenido de fotos.
+ */
+public class CacheFotoServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static byte[] bytes(int tamanio, int valor) {
+        byte[] datos = new byte[tamanio];
+        java.util.Arrays.fill(datos, (byte) valor);
+        return datos;
+    }
+
+    private static byte[] leer(ContenidoFotoDTO contenido) {
+        ByteBuffer datos = contenido.getDatos().duplicate();
+        byte[] copia = new byte[datos.remaining()];
+        datos.get(copia);
+        return copia;
+    }
+
+    private double contador(String nombre) {
+        return meterRegistry.get(nombre).counter().count();
+    }
+
+    @Test
+    void buscar_ShouldReturnOffHeapCopy_WhenStored() {
+        // Arrange
+        CacheFotoService cache = new CacheFotoService(meterRegistry, 8000);
+        byte[] original = bytes(500, 7);
+
+        // Act
+        assertNull(cache.buscar(1, 0));
+        cache.guardar(1, 0, 0L, "image/png", original);
+        original[0] = 0;
+        ContenidoFotoDTO contenido = cache.buscar(1, 0);
+
+        // Assert
+        assertNotNull(contenido);
+        assertEquals("image/png", contenido.getTipo());
+        assertTrue(contenido.getDatos().isDirect());
+        assertTrue(contenido.getDatos().isReadOnly());
+        assertArrayEquals(bytes(500, 7), leer(contenido));
+        assertEquals(1, contador("fotos.cache.aciertos"));
+        assertEquals(1, contador("fotos.cache.fallos"));
+        assertEquals(500, meterRegistry.get("fotos.cache.bytes").gauge().value());
+    }
+
+    @Test
+    void guardar_ShouldEvictLeastRecentlyUsed_WhenBudgetExceeded() {
+        // Arrange
+        CacheFotoService cache = new CacheFotoService(meterRegistry, 8000);
+        cache.guardar(1, 0, 0L, "image/jpeg", bytes(1000, 1));
+        cache.guardar(2, 0, 0L, "image/jpeg", bytes(1000, 2));
+        cache.guardar(3, 0, 0L, "image/jpeg", bytes(1000, 3));
+        cache.buscar(1, 0);
+
+        // Act: la novena entrada supera los 8000 bytes y se desaloja la menos usada (2)
+        for (int id = 4; id <= 9; id++) {
+            cache.guardar(id, 0, 0L, "image/jpeg", bytes(1000, id));
+        }
+
+        // Assert
+        assertEquals(8000, cache.getBytesOcupados());
+        assertNotNull(cache.buscar(1, 0));
+        assertNull(cache.buscar(2, 0));
+        assertEquals(1, contador("fotos.cache.desalojos"));
+    }
+
+    @Test
+    void guardar_ShouldNotCache_WhenEntryTooLarge() {
+        // Arrange
+        CacheFotoService cache = new CacheFotoService(meterRegistry, 8000);
+
+        // Act
+        ContenidoFotoDTO contenido = cache.guardar(1, 0, 0L, "image/jpeg", bytes(2000, 1));
+
+        // Assert: se entrega el contenido, pero no ocupa la caché
+        assertEquals(2000, contenido.getTamanio());
+        assertEquals(0, cache.getCantidadEntradas());
+        assertNull(cache.buscar(1, 0));
+    }
+
+    @Test
+    void invalidar_ShouldRemoveOriginalAndDerivatives() {
+        // Arrange
+        CacheFotoService cache = new CacheFotoService(meterRegistry, 8000);
+        cache.guardar(1, 0, 0L, "image/jpeg", bytes(800, 1));
+        cache.guardar(1, 160, 0L, "image/jpeg", bytes(100, 1));
+        cache.guardar(2, 0, 0L, "image/jpeg", bytes(800, 2));
+
+        // Act
+        cache.invalidar(1);
+
+        // Assert
+        assertNull(cache.buscar(1, 0));
+        assertNull(cache.buscar(1, 160));
+        assertNotNull(cache.buscar(2, 0));
+        assertEquals(800, cache.getBytesOcupados());
+    }
+
+    @Test
+    void guardar_ShouldNotCache_WhenInvalidatedAfterGenerationCaptured() {
+        // Arrange: un lector captura la generación y lee el archivo antes de que se reemplace
+        CacheFotoService cache = new CacheFotoService(meterRegistry, 8000);
+        long generacion = cache.generacion(1);
+        cache.invalidar(1);
+
+        // Act: el lector intenta guardar los bytes que leyó
+        ContenidoFotoDTO contenido = cache.guardar(1, 0, generacion, "image/jpeg", bytes(800, 1));
+
+        // Assert: recibe su contenido, pero los bytes obsoletos no quedan en la caché
+        assertArrayEquals(bytes(800, 1), leer(contenido));
+        assertNull(cache.buscar(1, 0));
+        assertEquals(0, cache.getBytesOcupados());
+        assertNotNull(cache.guardar(1, 0, cache.generacion(1), "image/jpeg", bytes(800, 2)));
+        assertEquals(1, cache.getCantidadEntradas());
+    }
+
+    @Test
+    void guardar_ShouldReplaceEntry_WhenSameKey() {
+        // Arrange
+        CacheFotoService cache = new CacheFotoService(meterRegistry, 8000);
+        cache.guardar(1, 0, 0L, "image/jpeg", bytes(800, 1));
+
+        // Act
+        cache.guardar(1, 0, 0L, "image/jpeg", bytes(300, 9));
+
+        // Assert
+        assertEquals(300, cache.getBytesOcupados());
+        assertArrayEquals(bytes(300, 9), leer(cache.buscar(1, 0)));
+    }
+}
@@ -0,0 +1,161 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para el borrado en segundo plano de las fotos con lápida.
+ * Se simulan el FotoRepository, el almacenamiento frío y la caché.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EliminacionFotosServiceTest {
+
+    @Mock
+    private FotoRepository fotoRepository;
+
+    @Mock
+    private AlmacenamientoFrioService almacenamientoFrioService;
+
+    @Mock
+    private CacheFotoService cacheFotoService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EliminacionFotosService eliminacionFotosService;
+    private Path archivo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        eliminacionFotosService = new EliminacionFotosService(fotoRepository, almacenamientoFrioService,
+                cacheFotoService, meterRegistry, 10, 3);
+        Files.createDirectories(Paths.get(FotoService.UPLOAD_DIR));
+        archivo = Files.createTempFile(Paths.get(FotoService.UPLOAD_DIR), "eliminada_", ".jpg");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(archivo);
+    }
+
+    private Foto crearLapida(int id, String url, String ubicacionFrio) {
+        Foto foto = new Foto();
+        foto.setIdFoto(id);
+        foto.setUrl(url);
+        foto.setUbicacionFrio(ubicacionFrio);
+        foto.setFechaEliminacion(LocalDateTime.now().minusMinutes(1));
+        foto.setIntentosEliminacion(0);
+        return foto;
+    }
+
+    private String urlLocal() {
+        return FotoService.UPLOAD_DIR + "/" + archivo.getFileName();
+    }
+
+    @Test
+    void procesarLote_ShouldDeleteFilesAndPurgeRows_WhenFilesAreRemoved() throws Exception {
+        // Arrange
+        Foto foto = crearLapida(1, urlLocal(), "frio.jpg");
+        when(fotoRepository.findPendientesEliminacion(eq(3), any(Pageable.class))).thenReturn(List.of(foto));
+
+        // Act
+        int purgadas = eliminacionFotosService.procesarLote();
+
+        // Assert
+        assertEquals(1, purgadas);
+        assertFalse(Files.exists(archivo));
+        verify(almacenamientoFrioService).eliminar("frio.jpg");
+        verify(fotoRepository).deleteAllByIdInBatch(List.of(1));
+        verify(fotoRepository, never()).registrarIntentoEliminacion(anyCollection());
+        verify(cacheFotoService).invalidar(1);
+        assertEquals(1.0, meterRegistry.counter("fotos.eliminacion.purgadas").count());
+    }
+
+    @Test
+    void procesarLote_ShouldKeepTombstoneAndCountAttempt_WhenColdDeleteFails() throws Exception {
+        // Arrange
+        Foto fallida = crearLapida(1, urlLocal(), "frio.jpg");
+        Foto correcta = crearLapida(2, "https://externo.cl/foto.jpg", null);
+        when(fotoRepository.findPendientesEliminacion(eq(3), any(Pageable.class))).thenReturn(List.of(fallida, correcta));
+        when(almacenamientoFrioService.eliminar("frio.jpg")).thenThrow(new IOException("volumen no disponible"));
+
+        // Act
+        int purgadas = eliminacionFotosService.procesarLote();
+
+        // Assert: la foto fallida se reintenta más tarde; la otra se purga
+        assertEquals(1, purgadas);
+        verify(fotoRepository).registrarIntentoEliminacion(List.of(1));
+        verify(fotoRepository).deleteAllByIdInBatch(List.of(2));
+        assertEquals(1.0, meterRegistry.counter("fotos.eliminacion.errores").count());
+    }
+
+    @Test
+    void procesarLote_ShouldNotDeleteFilesOutsideUploadDirectory() throws Exception {
+        // Arrange
+        Path externo = Files.createTempFile("externa_", ".jpg");
+        try {
+            Foto foto = crearLapida(5, externo.toString(), null);
+            when(fotoRepository.findPendientesEliminacion(eq(3), any(Pageable.class))).thenReturn(List.of(foto));
+
+            // Act
+            eliminacionFotosService.procesarLote();
+
+            // Assert
+            assertTrue(Files.exists(externo));
+            verify(fotoRepository).deleteAllByIdInBatch(List.of(5));
+        } finally {
+            Files.deleteIfExists(externo);
+        }
+    }
+
+    @Test
+    void procesarLote_ShouldNotDeleteFiles_WhenUrlEscapesUploadDirectory() throws Exception {
+        // Arrange: la URL empieza con uploads/fotos pero sale del directorio hacia un archivo vecino
+        Path vecino = Files.createTempFile(Paths.get(FotoService.UPLOAD_DIR).getParent(), "vecina_", ".jpg");
+        try {
+            Foto foto = crearLapida(6, FotoService.UPLOAD_DIR + "/../" + vecino.getFileName(), null);
+            when(fotoRepository.findPendientesEliminacion(eq(3), any(Pageable.class))).thenReturn(List.of(foto));
+
+            // Act
+            eliminacionFotosService.procesarLote();
+
+            // Assert
+            assertTrue(Files.exists(vecino));
+            verify(fotoRepository).deleteAllByIdInBatch(List.of(6));
+        } finally {
+            Files.deleteIfExists(vecino);
+        }
+    }
+
+    @Test
+    void procesarLote_ShouldDoNothing_WhenThereAreNoTombstones() {
+        // Arrange
+        when(fotoRepository.findPendientesEliminacion(eq(3), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        int purgadas = eliminacionFotosService.procesarLote();
+
+        // Assert
+        assertEquals(0, purgadas);
+        verify(fotoRepository, never()).deleteAllByIdInBatch(anyIterable());
+        verifyNoInteractions(almacenamientoFrioService, cacheFotoService);
+    }
+}
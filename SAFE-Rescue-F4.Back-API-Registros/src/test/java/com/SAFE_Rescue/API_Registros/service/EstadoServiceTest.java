@@ -15,9 +15,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -71,7 +73,7 @@ public class EstadoServiceTest {
     @Test
     void findById_ShouldReturnEstado_WhenFound() {
         // Arrange
-        when(estadoRepository.findById(idEstado)).thenReturn(Optional.of(estadoValido));
+        when(estadoRepository.findAll()).thenReturn(List.of(estadoValido));
 
         // Act
         Estado resultado = estadoService.findById(idEstado);
@@ -79,34 +81,103 @@ public class EstadoServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(idEstado, resultado.getIdEstado());
-        verify(estadoRepository, times(1)).findById(idEstado);
+        verify(estadoRepository, never()).findById(anyInt());
     }
 
     @Test
     void findById_ShouldThrowNoSuchElementException_WhenNotFound() {
         // Arrange
-        when(estadoRepository.findById(idEstado)).thenReturn(Optional.empty());
+        when(estadoRepository.findAll()).thenReturn(List.of());
 
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> estadoService.findById(idEstado));
-        verify(estadoRepository, times(1)).findById(idEstado);
     }
 
     @Test
-    void findByNombre_ShouldReturnMatchingEstados() {
+    void findByNombre_ShouldReturnMatchingEstados_IgnoringCase() {
         // Arrange
         String nombreBuscado = estadoValido.getNombre();
-        List<Estado> listaEsperada = List.of(estadoValido);
-        when(estadoRepository.findByNombre(nombreBuscado)).thenReturn(listaEsperada);
+        when(estadoRepository.findAll()).thenReturn(List.of(estadoValido));
 
         // Act
-        List<Estado> resultado = estadoService.findByNombre(nombreBuscado);
+        List<Estado> resultado = estadoService.findByNombre(" " + nombreBuscado.toLowerCase() + " ");
 
         // Assert
         assertNotNull(resultado);
         assertFalse(resultado.isEmpty());
         assertEquals(nombreBuscado, resultado.get(0).getNombre());
-        verify(estadoRepository, times(1)).findByNombre(nombreBuscado);
+        assertTrue(estadoService.findByNombre("no-existe").isEmpty());
+        verify(estadoRepository, never()).findByNombre(any());
+    }
+
+    @Test
+    void findAllById_ShouldReturnFoundEstadosInRequestedOrder() {
+        // Arrange
+        Estado otro = new Estado(idEstado + 1, "OTRO", null);
+        when(estadoRepository.findAll()).thenReturn(List.of(estadoValido, otro));
+
+        // Act: IDs repetidos e inexistentes
+        List<Estado> resultado = estadoService.findAllById(List.of(idEstado + 1, 999, idEstado, idEstado + 1));
+
+        // Assert
+        assertEquals(List.of(otro, estadoValido), resultado);
+        verify(estadoRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void lecturas_ShouldBeServedFromSnapshot_LoadingTheTableOnce() {
+        // Arrange
+        when(estadoRepository.findAll()).thenReturn(List.of(estadoValido));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            estadoService.findById(idEstado);
+            estadoService.findByNombre(estadoValido.getNombre());
+        }
+
+        // Assert
+        verify(estadoRepository, times(1)).findAll();
+    }
+
+    @Test
+    void lecturas_ShouldNotExposeSnapshotInstances() {
+        // Arrange
+        when(estadoRepository.findAll()).thenReturn(List.of(estadoValido));
+        String nombreOriginal = estadoValido.getNombre();
+
+        // Act: modificar lo recibido no debe alterar el catálogo
+        estadoService.findById(idEstado).setNombre("MODIFICADO");
+
+        // Assert
+        assertEquals(nombreOriginal, estadoService.findById(idEstado).getNombre());
+    }
+
+    @Test
+    void update_ShouldSwapSnapshot_SoReadsSeeTheNewName() {
+        // Arrange
+        Estado renombrado = new Estado(idEstado, "RENOMBRADO", null);
+        when(estadoRepository.findAll()).thenReturn(List.of(estadoValido), List.of(renombrado));
+        when(estadoRepository.findById(idEstado)).thenReturn(Optional.of(estadoValido));
+        String nombreAnterior = estadoValido.getNombre();
+        assertEquals(1, estadoService.findByNombre(nombreAnterior).size());
+
+        // Act
+        estadoService.update(renombrado, idEstado);
+
+        // Assert
+        assertTrue(estadoService.findByNombre(nombreAnterior).isEmpty());
+        assertEquals("RENOMBRADO", estadoService.findById(idEstado).getNombre());
+        verify(estadoRepository, times(2)).findAll();
+    }
+
+    @Test
+    void findAllById_ShouldThrowIllegalArgumentException_WhenTooManyIds() {
+        // Arrange
+        List<Integer> ids = IntStream.rangeClosed(1, EstadoService.MAX_IDS_POR_LOTE + 1).boxed().toList();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> estadoService.findAllById(ids));
+        verifyNoInteractions(estadoRepository);
     }
 
     // -------------------------------------------------------------------------
@@ -127,6 +198,40 @@ public class EstadoServiceTest {
         verify(estadoRepository, times(1)).save(estadoValido);
     }
 
+    @Test
+    void versionCatalogo_ShouldDependOnlyOnContent() {
+        // Arrange: otra instancia con los mismos datos, entregados en otro orden
+        Estado otro = new Estado(idEstado + 1, "OTRO", null);
+        EstadoService otraInstancia = new EstadoService(estadoRepository);
+        when(estadoRepository.findAll()).thenReturn(List.of(estadoValido, otro), List.of(otro, estadoValido));
+
+        // Act
+        long version = estadoService.getVersionCatalogo();
+        long versionOtraInstancia = otraInstancia.getVersionCatalogo();
+
+        // Assert
+        assertEquals(version, versionOtraInstancia);
+        assertTrue(version >= 0);
+    }
+
+    @Test
+    void versionCatalogo_ShouldChange_WhenScheduledReloadBringsChanges() {
+        // Arrange: la segunda lectura trae un cambio hecho por otra instancia; la tercera no trae cambios
+        Estado renombrado = new Estado(idEstado, "RENOMBRADO", estadoValido.getDescripcion());
+        when(estadoRepository.findAll()).thenReturn(List.of(estadoValido), List.of(renombrado), List.of(renombrado));
+        long inicial = estadoService.getVersionCatalogo();
+
+        // Act
+        estadoService.recargarCatalogo();
+        long trasCambio = estadoService.getVersionCatalogo();
+        estadoService.recargarCatalogo();
+        long sinCambios = estadoService.getVersionCatalogo();
+
+        // Assert
+        assertNotEquals(inicial, trasCambio);
+        assertEquals(trasCambio, sinCambios);
+    }
+
     @Test
     void save_ShouldThrowIllegalArgumentException_OnDataIntegrityViolation() {
         // Arrange: Simular error de unicidad al guardar
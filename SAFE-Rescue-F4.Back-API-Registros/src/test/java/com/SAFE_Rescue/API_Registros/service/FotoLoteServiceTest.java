@@ -0,0 +1,81 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.ResultadoSubidaDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para la subida de fotos por lote.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FotoLoteServiceTest {
+
+    @Mock
+    private FotoService fotoService;
+
+    private ExecutorService executor;
+    private FotoLoteService fotoLoteService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        fotoLoteService = new FotoLoteService(fotoService, executor, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void subirLote_ShouldReturnResultPerFile_InRequestOrder() throws Exception {
+        // Arrange
+        Foto foto = new Foto();
+        foto.setIdFoto(1);
+        List<MultipartFile> archivos = List.of(
+                new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[]{1}),
+                new MockMultipartFile("files", "b.txt", "text/plain", new byte[]{2}));
+        when(fotoService.subirFoto(any(), eq("a.jpg"), anyString())).thenReturn(foto);
+        when(fotoService.subirFoto(any(), eq("b.txt"), anyString()))
+                .thenThrow(new IllegalArgumentException("Solo se aceptan imágenes (JPG, PNG, GIF, WebP, BMP, SVG)"));
+
+        // Act
+        List<ResultadoSubidaDTO> resultados = fotoLoteService.subirLote(archivos, null);
+
+        // Assert
+        assertEquals(2, resultados.size());
+        assertTrue(resultados.get(0).isExito());
+        assertEquals(1, resultados.get(0).getFoto().getIdFoto());
+        assertFalse(resultados.get(1).isExito());
+        assertEquals("b.txt", resultados.get(1).getNombreArchivo());
+    }
+
+    @Test
+    void subirLote_ShouldNotFailBatch_OnUnexpectedError() throws Exception {
+        // Arrange
+        List<MultipartFile> archivos = List.of(new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[]{1}));
+        when(fotoService.subirFoto(any(), anyString(), anyString())).thenThrow(new RuntimeException("BD caída"));
+
+        // Act
+        List<ResultadoSubidaDTO> resultados = fotoLoteService.subirLote(archivos, "Incendio");
+
+        // Assert
+        assertFalse(resultados.get(0).isExito());
+        assertTrue(resultados.get(0).getError().contains("BD caída"));
+    }
+}
@@ -1,5 +1,10 @@
 package com.SAFE_Rescue.API_Registros.service;
 
+import com.SAFE_Rescue.API_Registros.dto.ContenidoFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FiltroFotoDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.dto.FotoUbicacionDTO;
+import com.SAFE_Rescue.API_Registros.dto.PaginaFotosDTO;
 import com.SAFE_Rescue.API_Registros.modelo.Foto;
 import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
 import net.datafaker.Faker;
@@ -10,7 +15,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -18,6 +29,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,6 +42,21 @@ public class FotoServiceTest {
     @Mock
     private FotoRepository fotoRepository;
 
+    @Mock
+    private NormalizacionFotoService normalizacionFotoService;
+
+    @Mock
+    private UrlFirmadaService urlFirmadaService;
+
+    @Mock
+    private CacheFotoService cacheFotoService;
+
+    @Mock
+    private SimilitudFotoService similitudFotoService;
+
+    @Mock
+    private AlmacenamientoFrioService almacenamientoFrioService;
+
     @InjectMocks
     private FotoService fotoService;
 
@@ -58,7 +85,7 @@ public class FotoServiceTest {
     void findAll_ShouldReturnAllFotos() {
         // Arrange
         List<Foto> listaEsperada = List.of(fotoValida, new Foto());
-        when(fotoRepository.findAll()).thenReturn(listaEsperada);
+        when(fotoRepository.findByFechaEliminacionIsNull()).thenReturn(listaEsperada);
 
         // Act
         List<Foto> resultado = fotoService.findAll();
@@ -66,7 +93,103 @@ public class FotoServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(2, resultado.size());
-        verify(fotoRepository, times(1)).findAll();
+        verify(fotoRepository, times(1)).findByFechaEliminacionIsNull();
+    }
+
+    @Test
+    void findAllResumen_ShouldUseProjection_WithoutLoadingEntities() {
+        // Arrange
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        FotoResumenDTO resumen = new FotoResumenDTO(idFoto, fotoValida.getUrl(), "image/png", 2048,
+                fotoValida.getFechaSubida(), fotoValida.getDescripcion());
+        when(fotoRepository.findAllResumen(pageRequest)).thenReturn(new PageImpl<>(List.of(resumen)));
+
+        // Act
+        Page<FotoResumenDTO> resultado = fotoService.findAllResumen(pageRequest);
+
+        // Assert
+        assertEquals(1, resultado.getTotalElements());
+        assertEquals(idFoto, resultado.getContent().get(0).getIdFoto());
+        verify(fotoRepository, never()).findAll();
+    }
+
+    @Test
+    void buscar_ShouldReturnCursor_WhenMoreResultsExist() {
+        // Arrange
+        FiltroFotoDTO filtro = new FiltroFotoDTO(null, null, "image/jpeg", null, null);
+        LocalDateTime fecha = LocalDateTime.of(2025, 11, 23, 16, 40, 23);
+        List<FotoResumenDTO> encontrados = List.of(
+                new FotoResumenDTO(1, "uploads/fotos/a.jpg", "image/jpeg", 10, fecha, null),
+                new FotoResumenDTO(2, "uploads/fotos/b.jpg", "image/jpeg", 10, fecha, null),
+                new FotoResumenDTO(3, "uploads/fotos/c.jpg", "image/jpeg", 10, fecha.plusMinutes(1), null));
+        when(fotoRepository.buscar(eq(filtro), isNull(), isNull(), eq(3))).thenReturn(encontrados);
+        when(fotoRepository.buscar(eq(filtro), eq(fecha), eq(2), eq(3))).thenReturn(List.of(encontrados.get(2)));
+
+        // Act
+        PaginaFotosDTO primera = fotoService.buscar(filtro, null, 2);
+        PaginaFotosDTO segunda = fotoService.buscar(filtro, primera.getSiguienteCursor(), 2);
+
+        // Assert
+        assertEquals(2, primera.getFotos().size());
+        assertNotNull(primera.getSiguienteCursor());
+        assertEquals(List.of(encontrados.get(2)), segunda.getFotos());
+        assertNull(segunda.getSiguienteCursor());
+    }
+
+    @Test
+    void buscar_ShouldThrowIllegalArgumentException_WhenCursorOrRangeIsInvalid() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        FiltroFotoDTO sinFiltros = new FiltroFotoDTO();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fotoService.buscar(sinFiltros, "no-es-un-cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> fotoService.buscar(new FiltroFotoDTO(ahora, ahora.minusDays(1), null, null, null), null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> fotoService.buscar(new FiltroFotoDTO(null, null, null, 100, 10), null, 10));
+        verifyNoInteractions(fotoRepository);
+    }
+
+    @Test
+    void buscarCercanas_ShouldReturnOnlyPhotosInsideRadius_SortedByDistance() {
+        // Arrange: punto en Santiago; ~111 m y ~1,1 km al norte, y una esquina del rectángulo fuera del círculo
+        LocalDateTime fecha = LocalDateTime.of(2025, 11, 23, 16, 35, 10);
+        FotoUbicacionDTO lejos = new FotoUbicacionDTO(1, "uploads/fotos/a.jpg", -33.4389, -70.6693, fecha);
+        FotoUbicacionDTO cerca = new FotoUbicacionDTO(2, "uploads/fotos/b.jpg", -33.4479, -70.6693, fecha);
+        FotoUbicacionDTO esquina = new FotoUbicacionDTO(3, "uploads/fotos/c.jpg", -33.4389, -70.6573, fecha);
+        when(fotoRepository.findEnRectangulo(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(List.of(lejos, cerca, esquina));
+
+        // Act
+        List<FotoUbicacionDTO> resultado = fotoService.buscarCercanas(-33.4489, -70.6693, 1500, 10);
+
+        // Assert
+        assertEquals(List.of(2, 1), resultado.stream().map(FotoUbicacionDTO::getIdFoto).toList());
+        assertEquals(111, resultado.get(0).getDistanciaMetros(), 1);
+        assertEquals(1112, resultado.get(1).getDistanciaMetros(), 2);
+    }
+
+    @Test
+    void buscarCercanas_ShouldSearchAllLongitudes_WhenCircleCrossesAntimeridian() {
+        // Arrange
+        when(fotoRepository.findEnRectangulo(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any())).thenReturn(List.of());
+
+        // Act
+        fotoService.buscarCercanas(-16.5, 179.999, 1000, 10);
+
+        // Assert
+        verify(fotoRepository).findEnRectangulo(anyDouble(), anyDouble(), eq(-180.0), eq(180.0), any());
+    }
+
+    @Test
+    void buscarCercanas_ShouldThrowIllegalArgumentException_WhenParametersAreInvalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fotoService.buscarCercanas(91, 0, 100, 10));
+        assertThrows(IllegalArgumentException.class, () -> fotoService.buscarCercanas(0, -181, 100, 10));
+        assertThrows(IllegalArgumentException.class, () -> fotoService.buscarCercanas(0, 0, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> fotoService.buscarCercanas(0, 0, 50_001, 10));
+        verifyNoInteractions(fotoRepository);
     }
 
     @Test
@@ -93,6 +216,126 @@ public class FotoServiceTest {
         verify(fotoRepository, times(1)).findById(idFoto);
     }
 
+    @Test
+    void findById_ShouldThrowNoSuchElementException_WhenTombstoned() {
+        // Arrange
+        fotoValida.setFechaEliminacion(LocalDateTime.now());
+        when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> fotoService.findById(idFoto));
+    }
+
+    // -------------------------------------------------------------------------
+    // TEST DE CONTENIDO
+    // -------------------------------------------------------------------------
+
+    @Test
+    void obtenerContenido_ShouldReturnCachedBytes_WithoutReadingFile() throws Exception {
+        // Arrange
+        ContenidoFotoDTO enCache = new ContenidoFotoDTO("image/png", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
+        when(cacheFotoService.buscar(idFoto, 0)).thenReturn(enCache);
+
+        // Act
+        ContenidoFotoDTO resultado = fotoService.obtenerContenido(idFoto, 0);
+
+        // Assert
+        assertSame(enCache, resultado);
+        verify(fotoRepository, never()).findDatosById(anyInt());
+        verify(cacheFotoService, never()).guardar(anyInt(), anyInt(), anyLong(), any(), any());
+    }
+
+    @Test
+    void obtenerContenido_ShouldThrowNoSuchElementException_WhenTombstonedEvenIfCached() {
+        // Arrange: la foto se eliminó pero su contenido sigue en la caché hasta la purga
+        fotoValida.setFechaEliminacion(LocalDateTime.now());
+        when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> fotoService.obtenerContenido(idFoto, 0));
+        verify(cacheFotoService, never()).buscar(anyInt(), anyInt());
+    }
+
+    @Test
+    void obtenerContenido_ShouldLoadLegacyBytesAndCache_WhenMiss() throws Exception {
+        // Arrange
+        byte[] datos = {9, 8, 7};
+        fotoValida.setTipo("image/jpeg");
+        ContenidoFotoDTO guardado = new ContenidoFotoDTO("image/jpeg", ByteBuffer.wrap(datos));
+        when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
+        when(fotoRepository.findDatosById(idFoto)).thenReturn(datos);
+        when(cacheFotoService.generacion(idFoto)).thenReturn(4L);
+        when(cacheFotoService.guardar(idFoto, 0, 4L, "image/jpeg", datos)).thenReturn(guardado);
+
+        // Act
+        ContenidoFotoDTO resultado = fotoService.obtenerContenido(idFoto, 0);
+
+        // Assert
+        assertSame(guardado, resultado);
+        verify(cacheFotoService).buscar(idFoto, 0);
+    }
+
+    @Test
+    void obtenerContenido_ShouldReadFromColdStorage_WhenPhotoIsArchived() throws Exception {
+        // Arrange
+        byte[] datos = {4, 5, 6};
+        fotoValida.setTipo("image/jpeg");
+        fotoValida.setUbicacionFrio("lote.zip!foto.jpg");
+        ContenidoFotoDTO guardado = new ContenidoFotoDTO("image/jpeg", ByteBuffer.wrap(datos));
+        when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
+        when(almacenamientoFrioService.leer("lote.zip!foto.jpg")).thenReturn(datos);
+        when(cacheFotoService.guardar(idFoto, 0, 0L, "image/jpeg", datos)).thenReturn(guardado);
+
+        // Act
+        ContenidoFotoDTO resultado = fotoService.obtenerContenido(idFoto, 0);
+
+        // Assert
+        assertSame(guardado, resultado);
+        verify(fotoRepository, never()).findDatosById(anyInt());
+    }
+
+    @Test
+    void obtenerContenido_ShouldNotReadFilesOutsideUploadDirectory() {
+        // Arrange: la URL empieza con uploads/fotos pero, normalizada, apunta al pom.xml del proyecto
+        fotoValida.setUrl(FotoService.UPLOAD_DIR + "/../../pom.xml");
+        when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
+
+        // Act & Assert: no se lee el archivo; sin bytes heredados la foto no está disponible
+        assertThrows(NoSuchElementException.class, () -> fotoService.obtenerContenido(idFoto, 0));
+        verify(fotoRepository).findDatosById(idFoto);
+        verify(cacheFotoService, never()).guardar(anyInt(), anyInt(), anyLong(), any(), any());
+    }
+
+    @Test
+    void resolverArchivoLocal_ShouldOnlyResolvePathsInsideDirectory() {
+        // Act & Assert
+        Path base = Paths.get(FotoService.UPLOAD_DIR).toAbsolutePath().normalize();
+        assertEquals(base.resolve("a.jpg"), FotoService.resolverArchivoLocal(FotoService.UPLOAD_DIR + "/a.jpg"));
+        assertEquals(base.resolve("b.jpg"), FotoService.resolverArchivoLocal(FotoService.UPLOAD_DIR + "/x/../b.jpg"));
+        assertNull(FotoService.resolverArchivoLocal(FotoService.UPLOAD_DIR + "/../../etc/passwd"));
+        assertNull(FotoService.resolverArchivoLocal(FotoService.UPLOAD_DIR + "//etc/passwd"));
+        assertNull(FotoService.resolverArchivoLocal(FotoService.UPLOAD_DIR + "/."));
+        assertNull(FotoService.resolverArchivoLocal("https://externo.cl/foto.jpg"));
+        assertNull(FotoService.resolverArchivoLocal(null));
+    }
+
+    @Test
+    void obtenerContenido_ShouldThrowIllegalArgumentException_WhenWidthNotAllowed() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fotoService.obtenerContenido(idFoto, 123));
+        verifyNoInteractions(cacheFotoService, fotoRepository);
+    }
+
+    @Test
+    void obtenerContenido_ShouldThrowNoSuchElementException_WhenNotFound() {
+        // Arrange
+        when(fotoRepository.findById(idFoto)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> fotoService.obtenerContenido(idFoto, 160));
+    }
+
     // -------------------------------------------------------------------------
     // TEST DE SAVE
     // -------------------------------------------------------------------------
@@ -121,6 +364,16 @@ public class FotoServiceTest {
         verify(fotoRepository, never()).save(any(Foto.class));
     }
 
+    @Test
+    void save_ShouldThrowIllegalArgumentException_WhenUrlLeavesUploadDirectory() {
+        // Arrange
+        fotoValida.setUrl(FotoService.UPLOAD_DIR + "/../../etc/passwd");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fotoService.save(fotoValida));
+        verify(fotoRepository, never()).save(any(Foto.class));
+    }
+
     @Test
     void save_ShouldThrowIllegalArgumentException_OnRepositorySaveFailure() {
         // Arrange: Simular error de integridad de datos (unicidad de URL, por ejemplo)
@@ -154,6 +407,21 @@ public class FotoServiceTest {
         // Capturamos el argumento pasado a save para verificar la actualización
         verify(fotoRepository, times(1)).save(any(Foto.class));
         verify(fotoRepository, times(1)).findById(idFoto);
+        verify(cacheFotoService).invalidar(idFoto);
+    }
+
+    @Test
+    void update_ShouldThrowIllegalArgumentException_WhenUrlLeavesUploadDirectory() {
+        // Arrange
+        Foto cambios = new Foto();
+        cambios.setUrl(FotoService.UPLOAD_DIR + "/../../etc/passwd");
+        when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
+        when(urlFirmadaService.extraerRuta(cambios.getUrl())).thenReturn(cambios.getUrl());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fotoService.update(cambios, idFoto));
+        verify(fotoRepository, never()).save(any(Foto.class));
+        verify(cacheFotoService, never()).invalidar(anyInt());
     }
 
     @Test
@@ -194,40 +462,39 @@ public class FotoServiceTest {
     // -------------------------------------------------------------------------
 
     @Test
-    void delete_ShouldBeSuccessful_WhenFound() {
+    void delete_ShouldWriteTombstoneAndReturn_WhenFound() {
         // Arrange
-        when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
-        doNothing().when(fotoRepository).delete(fotoValida);
+        when(fotoRepository.marcarEliminada(eq(idFoto), any(LocalDateTime.class))).thenReturn(1);
 
-        // Act & Assert: No debería lanzar excepción
+        // Act
         assertDoesNotThrow(() -> fotoService.delete(idFoto));
-        verify(fotoRepository, times(1)).findById(idFoto);
-        verify(fotoRepository, times(1)).delete(fotoValida);
+
+        // Assert: la fila y los archivos los borra la tarea en segundo plano
+        verify(fotoRepository, never()).deleteById(anyInt());
+        verify(fotoRepository, never()).delete(any(Foto.class));
+        verify(cacheFotoService).invalidar(idFoto);
+        verify(similitudFotoService).eliminar(idFoto);
     }
 
     @Test
-    void delete_ShouldThrowNoSuchElementException_WhenNotFound() {
+    void delete_ShouldThrowNoSuchElementException_WhenNotFoundOrAlreadyDeleted() {
         // Arrange
-        when(fotoRepository.findById(idFoto)).thenReturn(Optional.empty());
+        when(fotoRepository.marcarEliminada(eq(idFoto), any(LocalDateTime.class))).thenReturn(0);
 
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> fotoService.delete(idFoto));
-        verify(fotoRepository, times(1)).findById(idFoto);
-        verify(fotoRepository, never()).delete(any(Foto.class));
+        verify(cacheFotoService, never()).invalidar(anyInt());
     }
 
     @Test
-    void delete_ShouldThrowIllegalArgumentException_OnDataIntegrityViolation() {
+    void findById_ShouldThrowException_WhenPhotoIsTombstoned() {
         // Arrange
+        fotoValida.setFechaEliminacion(LocalDateTime.now());
         when(fotoRepository.findById(idFoto)).thenReturn(Optional.of(fotoValida));
-        // Simular un error de restricción de clave foránea al intentar eliminar (foto asociada a un usuario)
-        doThrow(DataIntegrityViolationException.class).when(fotoRepository).delete(fotoValida);
 
         // Act & Assert
-        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> fotoService.delete(idFoto));
-        assertTrue(thrown.getMessage().contains("No se puede eliminar la foto, está siendo utilizada por un usuario."));
-        verify(fotoRepository, times(1)).findById(idFoto);
-        verify(fotoRepository, times(1)).delete(fotoValida);
+        assertThrows(RuntimeException.class, () -> fotoService.findById(idFoto));
+        assertThrows(NoSuchElementException.class, () -> fotoService.obtenerContenido(idFoto, 0));
     }
 
     // -------------------------------------------------------------------------
@@ -0,0 +1,154 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para la limpieza incremental de fotos huérfanas.
+ * Se usa un directorio temporal como almacenamiento y se simula el FotoRepository.
+ */
+@ExtendWith(MockitoExtension.class)
+public class LimpiezaFotosServiceTest {
+
+    @Mock
+    private FotoRepository fotoRepository;
+
+    @Mock
+    private AlmacenamientoFrioService almacenamientoFrioService;
+
+    @TempDir
+    Path tempDir;
+
+    private Path directorio;
+    private SimpleMeterRegistry meterRegistry;
+    private LimpiezaFotosService limpiezaService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directorio = Files.createDirectory(tempDir.resolve("fotos"));
+        meterRegistry = new SimpleMeterRegistry();
+        limpiezaService = crearServicio();
+    }
+
+    private LimpiezaFotosService crearServicio() {
+        return new LimpiezaFotosService(fotoRepository, almacenamientoFrioService, meterRegistry, directorio.toString(),
+                tempDir.resolve("checkpoint.properties").toString(), 10, 60, 0);
+    }
+
+    private Path crearArchivo(String nombre, Instant modificado) throws Exception {
+        Path archivo = Files.write(directorio.resolve(nombre), new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(archivo, FileTime.from(modificado));
+        return archivo;
+    }
+
+    @Test
+    void revisarArchivos_ShouldDeleteOldOrphans_AndKeepReferencedOrRecentFiles() throws Exception {
+        // Arrange
+        Instant antiguo = Instant.now().minus(2, ChronoUnit.HOURS);
+        Path referenciado = crearArchivo("a.jpg", antiguo);
+        Path huerfano = crearArchivo("b.jpg", antiguo);
+        Path reciente = crearArchivo("c.jpg", Instant.now());
+        when(fotoRepository.findUrlsExistentes(anyCollection())).thenReturn(List.of("uploads/fotos/a.jpg"));
+
+        // Act
+        int eliminados = limpiezaService.revisarArchivos();
+
+        // Assert
+        assertEquals(1, eliminados);
+        assertTrue(Files.exists(referenciado));
+        assertFalse(Files.exists(huerfano));
+        assertTrue(Files.exists(reciente));
+        assertEquals("c.jpg", limpiezaService.getUltimoArchivo());
+        assertEquals(1.0, meterRegistry.counter("fotos.limpieza.archivos.eliminados").count());
+    }
+
+    @Test
+    void revisarRegistros_ShouldFlagRowsWithoutFile() throws Exception {
+        // Arrange
+        crearArchivo("existe.jpg", Instant.now());
+        List<FotoResumenDTO> lote = List.of(
+                new FotoResumenDTO(1, "uploads/fotos/existe.jpg", "image/jpeg", 3, LocalDateTime.now(), null),
+                new FotoResumenDTO(2, "uploads/fotos/perdida.jpg", "image/jpeg", 3, LocalDateTime.now(), null),
+                new FotoResumenDTO(3, "http://api.ejemplo.com/fotos/1.jpg", null, null, LocalDateTime.now(), null));
+        when(fotoRepository.findResumenDesde(eq(0), any(Pageable.class))).thenReturn(lote);
+
+        // Act
+        int faltantes = limpiezaService.revisarRegistros();
+
+        // Assert
+        assertEquals(1, faltantes);
+        verify(fotoRepository).marcarArchivoFaltante(List.of(2), true);
+        verify(fotoRepository).marcarArchivoFaltante(List.of(1), false);
+        assertEquals(3, limpiezaService.getUltimoIdFoto());
+    }
+
+    @Test
+    void revisarRegistros_ShouldNotFlagRows_WhenFileIsInColdStorage() throws Exception {
+        // Arrange
+        List<FotoResumenDTO> lote = List.of(
+                new FotoResumenDTO(4, "uploads/fotos/archivada.jpg", "image/jpeg", 3, LocalDateTime.now(), null),
+                new FotoResumenDTO(5, "uploads/fotos/perdida.jpg", "image/jpeg", 3, LocalDateTime.now(), null));
+        when(fotoRepository.findResumenDesde(eq(0), any(Pageable.class))).thenReturn(lote);
+        when(fotoRepository.findUbicacionesFrio(List.of(4, 5)))
+                .thenReturn(List.<Object[]>of(new Object[]{4, "lote.zip!archivada.jpg"}));
+        when(almacenamientoFrioService.existe("lote.zip!archivada.jpg")).thenReturn(true);
+
+        // Act
+        int faltantes = limpiezaService.revisarRegistros();
+
+        // Assert
+        assertEquals(1, faltantes);
+        verify(fotoRepository).marcarArchivoFaltante(List.of(5), true);
+        verify(fotoRepository).marcarArchivoFaltante(List.of(4), false);
+    }
+
+    @Test
+    void ejecutar_ShouldPersistCheckpoint_AndResumeAfterRestart() throws Exception {
+        // Arrange
+        when(fotoRepository.findResumenDesde(eq(0), any(Pageable.class))).thenReturn(List.of(
+                new FotoResumenDTO(5, "http://externa/1.jpg", null, null, LocalDateTime.now(), null)));
+
+        // Act
+        limpiezaService.ejecutar();
+        LimpiezaFotosService reiniciado = crearServicio();
+
+        // Assert
+        assertEquals(5, reiniciado.getUltimoIdFoto());
+    }
+
+    @Test
+    void revisarRegistros_ShouldRestartCycle_WhenTableIsExhausted() throws Exception {
+        // Arrange
+        when(fotoRepository.findResumenDesde(eq(0), any(Pageable.class))).thenReturn(List.of(
+                new FotoResumenDTO(8, "http://externa/1.jpg", null, null, LocalDateTime.now(), null)));
+        when(fotoRepository.findResumenDesde(eq(8), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        limpiezaService.revisarRegistros();
+        limpiezaService.revisarRegistros();
+
+        // Assert
+        assertEquals(0, limpiezaService.getUltimoIdFoto());
+        assertEquals(1.0, meterRegistry.counter("fotos.limpieza.ciclos").count());
+    }
+}
@@ -0,0 +1,99 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para la migración de bytes de fotos heredadas a disco.
+ */
+@ExtendWith(MockitoExtension.class)
+public class MigracionDatosFotoServiceTest {
+
+    @Mock
+    private FotoRepository fotoRepository;
+
+    @Mock
+    private FotoService fotoService;
+
+    private MigracionDatosFotoService migracionService;
+
+    @BeforeEach
+    void setUp() {
+        migracionService = new MigracionDatosFotoService(fotoRepository, fotoService, 10, 3);
+    }
+
+    @Test
+    void migrarLote_ShouldMoveBytesToDiskAndNullColumn() throws Exception {
+        // Arrange
+        byte[] datos = new byte[]{1, 2, 3};
+        when(fotoRepository.findIdsConDatos(eq(3), any(Pageable.class))).thenReturn(List.of(7));
+        when(fotoRepository.findDatosById(7)).thenReturn(datos);
+        when(fotoService.determinarTipoContenido(datos, null)).thenReturn("image/jpeg");
+        when(fotoService.guardarArchivoFisico(datos, "foto.jpg")).thenReturn("uploads/fotos/a.jpg");
+
+        // Act
+        int migradas = migracionService.migrarLote();
+
+        // Assert
+        assertEquals(1, migradas);
+        verify(fotoRepository).moverDatosADisco(7, "uploads/fotos/a.jpg", 3, "image/jpeg");
+    }
+
+    @Test
+    void migrarLote_ShouldKeepDetectedExtension_WhenBytesAreNotJpeg() throws Exception {
+        // Arrange
+        byte[] datos = new byte[]{4, 5};
+        when(fotoRepository.findIdsConDatos(eq(3), any(Pageable.class))).thenReturn(List.of(8));
+        when(fotoRepository.findDatosById(8)).thenReturn(datos);
+        when(fotoService.determinarTipoContenido(datos, null)).thenReturn("image/png");
+        when(fotoService.guardarArchivoFisico(datos, "foto.png")).thenReturn("uploads/fotos/c.png");
+
+        // Act
+        migracionService.migrarLote();
+
+        // Assert
+        verify(fotoRepository).moverDatosADisco(8, "uploads/fotos/c.png", 2, "image/png");
+    }
+
+    @Test
+    void migrarLote_ShouldContinueAndCountAttempt_WhenOneFileFails() throws Exception {
+        // Arrange
+        when(fotoRepository.findIdsConDatos(eq(3), any(Pageable.class))).thenReturn(List.of(1, 2));
+        when(fotoRepository.findDatosById(anyInt())).thenReturn(new byte[]{9});
+        when(fotoService.guardarArchivoFisico(any(), eq("foto.bin")))
+                .thenThrow(new IOException("disco lleno"))
+                .thenReturn("uploads/fotos/b.jpg");
+
+        // Act
+        int migradas = migracionService.migrarLote();
+
+        // Assert
+        assertEquals(1, migradas);
+        verify(fotoRepository, never()).moverDatosADisco(eq(1), anyString(), anyInt(), any());
+        verify(fotoRepository).moverDatosADisco(2, "uploads/fotos/b.jpg", 1, null);
+        verify(fotoRepository).registrarIntentoMigracion(1);
+        verify(fotoRepository, never()).registrarIntentoMigracion(2);
+    }
+
+    @Test
+    void migrarLote_ShouldDoNothing_WhenNoLegacyBytes() {
+        // Arrange
+        when(fotoRepository.findIdsConDatos(eq(3), any(Pageable.class))).thenReturn(List.of());
+
+        // Act & Assert
+        assertEquals(0, migracionService.migrarLote());
+        verify(fotoRepository, never()).findDatosById(anyInt());
+    }
+}
@@ -0,0 +1,157 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para la normalización (recompresión) de fotos.
+ */
+@ExtendWith(MockitoExtension.class)
+public class NormalizacionFotoServiceTest {
+
+    @Mock
+    private FotoRepository fotoRepository;
+
+    @Mock
+    private CacheFotoService cacheFotoService;
+
+    @Mock
+    private ExecutorService executor;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private NormalizacionFotoService crearServicio(boolean habilitada, float calidad) {
+        return new NormalizacionFotoService(fotoRepository, cacheFotoService, executor, meterRegistry, habilitada, 200, 200, calidad);
+    }
+
+    private static byte[] jpeg(int ancho, int alto, float calidad) throws Exception {
+        BufferedImage imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int x = 0; x < ancho; x++) {
+            for (int y = 0; y < alto; y++) {
+                imagen.setRGB(x, y, ((x * 255 / ancho) << 16) | ((y * 255 / alto) << 8) | random.nextInt(32));
+            }
+        }
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(salida)) {
+            escritor.setOutput(ios);
+            ImageWriteParam parametros = escritor.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(calidad);
+            escritor.write(null, new IIOImage(imagen, null, null), parametros);
+        } finally {
+            escritor.dispose();
+        }
+        return salida.toByteArray();
+    }
+
+    @Test
+    void normalizar_ShouldDownscaleAndReplaceFile_WhenItSavesSpace() throws Exception {
+        // Arrange
+        Path archivo = Files.write(tempDir.resolve("grande.jpg"), jpeg(1200, 800, 0.98f));
+        long tamanioOriginal = Files.size(archivo);
+
+        // Act
+        long ahorro = crearServicio(true, 0.8f).normalizar(5, archivo, "image/jpeg");
+
+        // Assert
+        assertTrue(ahorro > 0);
+        assertEquals(tamanioOriginal - ahorro, Files.size(archivo));
+        BufferedImage resultado = ImageIO.read(archivo.toFile());
+        assertEquals(200, resultado.getWidth());
+        assertEquals(133, resultado.getHeight());
+        verify(fotoRepository).actualizarArchivo(eq(5), eq((int) Files.size(archivo)), anyString());
+        verify(cacheFotoService).invalidar(5);
+        assertEquals((double) ahorro, meterRegistry.counter("fotos.normalizacion.bytes_ahorrados").count());
+    }
+
+    @Test
+    void normalizar_ShouldKeepOriginal_WhenReencodingIsLarger() throws Exception {
+        // Arrange: imagen pequeña y muy comprimida, recodificada con calidad alta
+        byte[] original = jpeg(100, 100, 0.2f);
+        Path archivo = Files.write(tempDir.resolve("chica.jpg"), original);
+
+        // Act
+        long ahorro = crearServicio(true, 1.0f).normalizar(6, archivo, "image/jpeg");
+
+        // Assert
+        assertEquals(0, ahorro);
+        assertArrayEquals(original, Files.readAllBytes(archivo));
+        verify(fotoRepository, never()).actualizarArchivo(anyInt(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("fotos.normalizacion.sin_ahorro").count());
+    }
+
+    @Test
+    void normalizar_ShouldIgnoreUnsupportedTypes() throws Exception {
+        // Arrange
+        Path archivo = Files.write(tempDir.resolve("anim.gif"), new byte[]{'G', 'I', 'F'});
+
+        // Act & Assert
+        assertEquals(0, crearServicio(true, 0.8f).normalizar(7, archivo, "image/gif"));
+    }
+
+    @Test
+    void generarDerivado_ShouldFitRequestedWidth_WithoutTouchingOriginal() throws Exception {
+        // Arrange
+        byte[] original = jpeg(1200, 800, 0.9f);
+
+        NormalizacionFotoService service = crearServicio(false, 0.8f);
+
+        // Act
+        byte[] derivado = service.generarDerivado(original, "image/jpeg", 160);
+
+        // Assert
+        BufferedImage resultado = ImageIO.read(new ByteArrayInputStream(derivado));
+        assertEquals(160, resultado.getWidth());
+        assertEquals(107, resultado.getHeight());
+        assertSame(original, service.generarDerivado(original, "image/gif", 160));
+        verifyNoInteractions(fotoRepository);
+    }
+
+    @Test
+    void programar_ShouldDoNothing_WhenDisabled() {
+        // Arrange
+        Foto foto = new Foto();
+        foto.setUrl("uploads/fotos/a.jpg");
+        foto.setTipo("image/jpeg");
+
+        // Act
+        crearServicio(false, 0.8f).programar(foto);
+
+        // Assert
+        verifyNoInteractions(executor);
+    }
+}
@@ -0,0 +1,121 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.FotoSimilarDTO;
+import com.SAFE_Rescue.API_Registros.repository.FotoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas unitarias para el índice de similitud (árbol BK sobre hashes perceptuales).
+ */
+@ExtendWith(MockitoExtension.class)
+public class SimilitudFotoServiceTest {
+
+    @Mock
+    private FotoRepository fotoRepository;
+
+    private SimilitudFotoService similitudFotoService;
+
+    @BeforeEach
+    void setUp() {
+        similitudFotoService = new SimilitudFotoService(fotoRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void buscarSimilares_ShouldReturnPhotosWithinDistance_SortedByDistance() {
+        // Arrange
+        long base = 0x0F0F_0F0F_0F0F_0F0FL;
+        similitudFotoService.registrar(1, base);
+        similitudFotoService.registrar(2, base ^ 0b111);           // 3 bits distintos
+        similitudFotoService.registrar(3, base ^ 0b1);             // 1 bit distinto
+        similitudFotoService.registrar(4, ~base);                  // 64 bits distintos
+        similitudFotoService.registrar(5, base);                   // mismo hash
+
+        // Act
+        List<FotoSimilarDTO> resultado = similitudFotoService.buscarSimilares(1, 3, 10);
+
+        // Assert
+        assertEquals(List.of(new FotoSimilarDTO(5, 0), new FotoSimilarDTO(3, 1), new FotoSimilarDTO(2, 3)), resultado);
+    }
+
+    @Test
+    void buscarSimilares_ShouldMatchLinearScan_WithRandomHashes() {
+        // Arrange: hashes aleatorios y algunos casi duplicados de los primeros
+        Random random = new Random(42);
+        List<Long> hashes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long hash = i % 4 == 3 ? hashes.get(random.nextInt(i)) ^ (1L << random.nextInt(64)) : random.nextLong();
+            hashes.add(hash);
+            similitudFotoService.registrar(i, hash);
+        }
+
+        // Act & Assert
+        for (int id = 0; id < 50; id++) {
+            List<FotoSimilarDTO> esperado = new ArrayList<>();
+            for (int otra = 0; otra < hashes.size(); otra++) {
+                int distancia = Long.bitCount(hashes.get(id) ^ hashes.get(otra));
+                if (otra != id && distancia <= 8) {
+                    esperado.add(new FotoSimilarDTO(otra, distancia));
+                }
+            }
+            esperado.sort((a, b) -> a.getDistancia() != b.getDistancia()
+                    ? Integer.compare(a.getDistancia(), b.getDistancia()) : Integer.compare(a.getIdFoto(), b.getIdFoto()));
+            assertEquals(esperado, similitudFotoService.buscarSimilares(id, 8, Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void eliminar_ShouldRemovePhotoFromResults() {
+        // Arrange
+        similitudFotoService.registrar(1, 100L);
+        similitudFotoService.registrar(2, 101L);
+
+        // Act
+        similitudFotoService.eliminar(2);
+
+        // Assert
+        assertTrue(similitudFotoService.buscarSimilares(1, 4, 10).isEmpty());
+        assertThrows(NoSuchElementException.class, () -> similitudFotoService.buscarSimilares(2, 4, 10));
+        assertEquals(1, similitudFotoService.getCantidadIndexadas());
+    }
+
+    @Test
+    void buscarSimilares_ShouldThrowIllegalArgumentException_WhenDistanceIsOutOfRange() {
+        // Arrange
+        similitudFotoService.registrar(1, 100L);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> similitudFotoService.buscarSimilares(1, -1, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> similitudFotoService.buscarSimilares(1, SimilitudFotoService.DISTANCIA_MAXIMA + 1, 10));
+    }
+
+    @Test
+    void cargar_ShouldIndexHashesFromDatabaseInBatches() {
+        // Arrange
+        List<Object[]> lote = List.<Object[]>of(new Object[]{1, 100L}, new Object[]{2, 100L});
+        when(fotoRepository.findHashesPerceptualesDesde(eq(0), any(Pageable.class))).thenReturn(lote);
+
+        // Act
+        similitudFotoService.cargar();
+
+        // Assert
+        assertEquals(2, similitudFotoService.getCantidadIndexadas());
+        assertEquals(List.of(new FotoSimilarDTO(2, 0)), similitudFotoService.buscarSimilares(1, 0, 10));
+    }
+}
@@ -0,0 +1,171 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.SesionSubidaDTO;
+import com.SAFE_Rescue.API_Registros.modelo.Foto;
+import com.SAFE_Rescue.API_Registros.util.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para las subidas reanudables por fragmentos.
+ */
+@ExtendWith(MockitoExtension.class)
+public class SubidaReanudableServiceTest {
+
+    @Mock
+    private FotoService fotoService;
+
+    @TempDir
+    Path tempDir;
+
+    private SubidaReanudableService service;
+    private byte[] archivo;
+
+    @BeforeEach
+    void setUp() {
+        service = new SubidaReanudableService(fotoService, tempDir.toString(), 60);
+        archivo = new byte[3000];
+        for (int i = 0; i < archivo.length; i++) {
+            archivo[i] = (byte) i;
+        }
+    }
+
+    private static InputStream fragmento(byte[] datos, int desde, int hasta) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(datos, desde, hasta));
+    }
+
+    /**
+     * Simula una conexión que se corta después de entregar {@code limite} bytes.
+     */
+    private static InputStream cortadoTras(byte[] datos, int limite) {
+        return new InputStream() {
+            private int posicion = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (posicion >= limite) {
+                    throw new IOException("Conexión reiniciada");
+                }
+                return datos[posicion++] & 0xFF;
+            }
+        };
+    }
+
+    @Test
+    void escribir_ShouldResumeFromLastReceivedByte_AfterDrop() throws Exception {
+        // Arrange
+        SesionSubidaDTO sesion = service.crear("incendio.jpg", archivo.length, "Incendio", null);
+        Foto fotoGuardada = new Foto();
+        when(fotoService.subirFoto(any(byte[].class), eq("incendio.jpg"), eq("Incendio"))).thenReturn(fotoGuardada);
+
+        // Act: el primer fragmento se corta a los 1200 bytes; el cliente consulta el offset y reanuda
+        SesionSubidaDTO trasCorte = service.escribir(sesion.getId(), 0, cortadoTras(Arrays.copyOfRange(archivo, 0, 2000), 1200));
+        long offset = service.consultar(sesion.getId()).getOffset();
+        service.escribir(sesion.getId(), offset, fragmento(archivo, (int) offset, archivo.length));
+        Foto resultado = service.finalizar(sesion.getId());
+
+        // Assert
+        assertEquals(1200, trasCorte.getOffset());
+        assertEquals(1200, offset);
+        assertSame(fotoGuardada, resultado);
+        verify(fotoService).subirFoto(aryEq(archivo), eq("incendio.jpg"), eq("Incendio"));
+        assertThrows(NoSuchElementException.class, () -> service.consultar(sesion.getId()));
+        try (var archivos = Files.list(tempDir)) {
+            assertEquals(0, archivos.count());
+        }
+    }
+
+    @Test
+    void escribir_ShouldThrowIllegalStateException_WhenOffsetDoesNotMatch() throws Exception {
+        // Arrange
+        SesionSubidaDTO sesion = service.crear("a.png", archivo.length, null, null);
+        service.escribir(sesion.getId(), 0, fragmento(archivo, 0, 1000));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.escribir(sesion.getId(), 500, fragmento(archivo, 500, 1500)));
+        assertEquals(1000, service.consultar(sesion.getId()).getOffset());
+    }
+
+    @Test
+    void escribir_ShouldDiscardChunk_WhenItExceedsDeclaredSize() throws Exception {
+        // Arrange
+        SesionSubidaDTO sesion = service.crear("a.png", 1000, null, null);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.escribir(sesion.getId(), 0, fragmento(archivo, 0, 1500)));
+        assertEquals(0, service.consultar(sesion.getId()).getOffset());
+    }
+
+    @Test
+    void finalizar_ShouldThrowIllegalStateException_WhenIncomplete() throws Exception {
+        // Arrange
+        SesionSubidaDTO sesion = service.crear("a.png", archivo.length, null, null);
+        service.escribir(sesion.getId(), 0, fragmento(archivo, 0, 100));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.finalizar(sesion.getId()));
+        verify(fotoService, never()).subirFoto(any(), any(), any());
+    }
+
+    @Test
+    void finalizar_ShouldResetSession_WhenHashDoesNotMatch() throws Exception {
+        // Arrange
+        SesionSubidaDTO sesion = service.crear("a.png", archivo.length, null, HashUtil.sha256Hex(new byte[]{1}));
+        service.escribir(sesion.getId(), 0, fragmento(archivo, 0, archivo.length));
+        when(fotoService.calcularHash(any(byte[].class))).thenAnswer(inv -> HashUtil.sha256Hex(inv.getArgument(0)));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.finalizar(sesion.getId()));
+        assertEquals(0, service.consultar(sesion.getId()).getOffset());
+        verify(fotoService, never()).subirFoto(any(), any(), any());
+    }
+
+    @Test
+    void crear_ShouldThrowIllegalArgumentException_WhenTooLarge() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> service.crear("a.png", FotoService.TAMANIO_MAXIMO + 1, null, null));
+    }
+
+    @Test
+    void consultar_ShouldThrowNoSuchElementException_WhenIdIsNotUuid() {
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> service.consultar("../../application"));
+    }
+
+    @Test
+    void limpiarExpiradas_ShouldRemoveOnlyInactiveSessions() throws Exception {
+        // Arrange
+        SesionSubidaDTO activa = service.crear("a.png", archivo.length, null, null);
+        SesionSubidaDTO inactiva = service.crear("b.png", archivo.length, null, null);
+        FileTime haceDosHoras = FileTime.fromMillis(System.currentTimeMillis() - 2 * 60 * 60 * 1000L);
+        Files.setLastModifiedTime(tempDir.resolve(inactiva.getId() + ".parte"), haceDosHoras);
+
+        // Act
+        int eliminadas = service.limpiarExpiradas();
+
+        // Assert
+        assertEquals(1, eliminadas);
+        assertEquals(0, service.consultar(activa.getId()).getOffset());
+        assertThrows(NoSuchElementException.class, () -> service.consultar(inactiva.getId()));
+        assertFalse(Files.exists(tempDir.resolve(inactiva.getId() + ".properties")));
+    }
+}
@@ -0,0 +1,223 @@
+package com.SAFE_Rescue.API_Registros.service;
+
+import com.SAFE_Rescue.API_Registros.dto.FotoResumenDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de las URLs firmadas de fotos.
+ * El servidor estático se sustituye por un {@link HttpServer} embebido que valida la firma
+ * con el contrato documentado (HMAC-SHA256 sobre ruta + "\n" + expira), sin usar la API.
+ */
+public class UrlFirmadaServiceTest {
+
+    private static final String SECRETO = "secreto-de-prueba";
+    private static final byte[] CONTENIDO = {1, 2, 3, 4, 5};
+
+    @TempDir
+    Path directorio;
+
+    private HttpServer servidor;
+    private String base;
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.write(directorio.resolve("foto.png"), CONTENIDO);
+
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/fotos", this::servirArchivo);
+        servidor.start();
+        base = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/fotos";
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void firmar_ShouldBeServedByStaticServer_WhenSignatureIsValid() throws Exception {
+        // Arrange
+        UrlFirmadaService service = new UrlFirmadaService(SECRETO, base, 3600, Clock.systemUTC());
+
+        // Act
+        String url = service.firmar(FotoService.UPLOAD_DIR + "/foto.png");
+        HttpResponse<byte[]> respuesta = descargar(url);
+
+        // Assert
+        assertTrue(url.startsWith(base + "/foto.png?expira="));
+        assertEquals(200, respuesta.statusCode());
+        assertArrayEquals(CONTENIDO, respuesta.body());
+    }
+
+    @Test
+    void firmar_ShouldBeRejectedByStaticServer_WhenSignatureIsTampered() throws Exception {
+        // Arrange
+        UrlFirmadaService service = new UrlFirmadaService("otro-secreto", base, 3600, Clock.systemUTC());
+
+        // Act
+        String url = service.firmar(FotoService.UPLOAD_DIR + "/foto.png");
+
+        // Assert
+        assertEquals(403, descargar(url).statusCode());
+        assertEquals(403, descargar(base + "/foto.png").statusCode());
+    }
+
+    @Test
+    void firmar_ShouldBeRejectedByStaticServer_WhenExpired() throws Exception {
+        // Arrange: URL emitida hace dos horas con una vigencia de una hora
+        Clock pasado = Clock.fixed(Instant.now().minusSeconds(7200), ZoneOffset.UTC);
+        UrlFirmadaService service = new UrlFirmadaService(SECRETO, base, 3600, pasado);
+
+        // Act
+        String url = service.firmar(FotoService.UPLOAD_DIR + "/foto.png");
+
+        // Assert
+        assertEquals(403, descargar(url).statusCode());
+    }
+
+    @Test
+    void firmar_ShouldReturnSameUrl_WithinSameWindow() {
+        // Arrange: con ttl 3600 la ventana es de 900 s; 16:05 y 16:06 caen en la misma (16:00 sería su borde)
+        Instant ahora = Instant.parse("2025-11-23T16:05:00Z");
+        UrlFirmadaService primera = new UrlFirmadaService(SECRETO, base, 3600, Clock.fixed(ahora, ZoneOffset.UTC));
+        UrlFirmadaService segunda = new UrlFirmadaService(SECRETO, base, 3600, Clock.fixed(ahora.plusSeconds(60), ZoneOffset.UTC));
+
+        // Act & Assert
+        assertEquals(primera.firmar(FotoService.UPLOAD_DIR + "/foto.png"), segunda.firmar(FotoService.UPLOAD_DIR + "/foto.png"));
+    }
+
+    @Test
+    void firmar_ShouldReturnOriginalUrl_WhenExternalOrDisabled() {
+        // Arrange
+        UrlFirmadaService habilitada = new UrlFirmadaService(SECRETO, base, 3600, Clock.systemUTC());
+        UrlFirmadaService deshabilitada = new UrlFirmadaService("", base, 3600, Clock.systemUTC());
+
+        // Act & Assert
+        assertEquals("http://cdn.example.com/x.png", habilitada.firmar("http://cdn.example.com/x.png"));
+        assertEquals(FotoService.UPLOAD_DIR + "/foto.png", deshabilitada.firmar(FotoService.UPLOAD_DIR + "/foto.png"));
+        assertNull(habilitada.firmar(null));
+    }
+
+    @Test
+    void extraerRuta_ShouldRevertSignedUrl() {
+        // Arrange
+        UrlFirmadaService service = new UrlFirmadaService(SECRETO, base, 3600, Clock.systemUTC());
+        String url = service.firmar(FotoService.UPLOAD_DIR + "/foto.png");
+
+        // Act & Assert
+        assertEquals(FotoService.UPLOAD_DIR + "/foto.png", service.extraerRuta(url));
+        assertEquals("http://cdn.example.com/x.png", service.extraerRuta("http://cdn.example.com/x.png"));
+    }
+
+    @Test
+    void serializador_ShouldPublishContentRoute_WhenPhotoIsInColdStorage() throws Exception {
+        // Arrange: el archivo de una foto en frío ya no está en uploads/fotos
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        FotoResumenDTO caliente = new FotoResumenDTO(1, FotoService.UPLOAD_DIR + "/a.png", "image/png", 10, null, null);
+        FotoResumenDTO enFrio = new FotoResumenDTO(2, FotoService.UPLOAD_DIR + "/b.png", "image/png", 10, null, null,
+                "lote.zip!b.png");
+
+        // Act
+        JsonNode jsonCaliente = mapper.readTree(mapper.writeValueAsString(caliente));
+        JsonNode jsonFrio = mapper.readTree(mapper.writeValueAsString(enFrio));
+
+        // Assert
+        assertEquals(FotoService.UPLOAD_DIR + "/a.png", jsonCaliente.get("url").asText());
+        assertEquals("/fotos/2/contenido", jsonFrio.get("url").asText());
+        assertFalse(jsonFrio.has("ubicacionFrio"));
+    }
+
+    @Test
+    void validar_ShouldAcceptOwnSignature_AndRejectOthers() {
+        // Arrange
+        UrlFirmadaService service = new UrlFirmadaService(SECRETO, base, 3600, Clock.systemUTC());
+        long expira = Instant.now().getEpochSecond() + 600;
+        String firma = service.calcularFirma("/foto.png", expira);
+
+        // Act & Assert
+        assertTrue(service.validar("/foto.png", expira, firma));
+        assertFalse(service.validar("/otra.png", expira, firma));
+        assertFalse(service.validar("/foto.png", expira + 1, firma));
+        assertFalse(service.validar("/foto.png", Instant.now().getEpochSecond() - 1,
+                service.calcularFirma("/foto.png", Instant.now().getEpochSecond() - 1)));
+    }
+
+    // -------------------------------------------------------------------------
+    // Servidor estático de reemplazo
+    // -------------------------------------------------------------------------
+
+    private HttpResponse<byte[]> descargar(String url) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private void servirArchivo(HttpExchange exchange) throws IOException {
+        String ruta = exchange.getRequestURI().getPath().substring("/fotos".length());
+        Map<String, String> parametros = new HashMap<>();
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+            for (String par : query.split("&")) {
+                int igual = par.indexOf('=');
+                parametros.put(par.substring(0, igual), par.substring(igual + 1));
+            }
+        }
+
+        Path archivo = directorio.resolve(ruta.substring(1)).normalize();
+        if (!firmaValida(ruta, parametros.get("expira"), parametros.get("firma")) || !archivo.startsWith(directorio)) {
+            exchange.sendResponseHeaders(403, -1);
+        } else if (!Files.exists(archivo)) {
+            exchange.sendResponseHeaders(404, -1);
+        } else {
+            byte[] cuerpo = Files.readAllBytes(archivo);
+            exchange.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = exchange.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        }
+        exchange.close();
+    }
+
+    private static boolean firmaValida(String ruta, String expira, String firma) {
+        if (expira == null || firma == null || Long.parseLong(expira) < Instant.now().getEpochSecond()) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRETO.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] esperada = mac.doFinal((ruta + "\n" + expira).getBytes(StandardCharsets.UTF_8));
+            String codificada = Base64.getUrlEncoder().withoutPadding().encodeToString(esperada);
+            return MessageDigest.isEqual(codificada.getBytes(StandardCharsets.US_ASCII), firma.getBytes(StandardCharsets.US_ASCII));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
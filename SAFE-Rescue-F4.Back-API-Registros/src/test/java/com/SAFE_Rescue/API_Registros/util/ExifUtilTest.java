@@ -0,0 +1,133 @@
+package com.SAFE_Rescue.API_Registros.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Pruebas unitarias para la lectura de metadatos EXIF.
+ * Los JPEG se construyen a mano con solo los segmentos necesarios.
+ */
+public class ExifUtilTest {
+
+    /**
+     * Construye un JPEG mínimo con un bloque EXIF (big endian) que contiene solo el tag de orientación.
+     */
+    private static byte[] jpegConOrientacion(int orientacion) {
+        ByteArrayOutputStream tiff = new ByteArrayOutputStream();
+        tiff.writeBytes(new byte[]{'M', 'M', 0, 42, 0, 0, 0, 8});       // cabecera TIFF, IFD0 en offset 8
+        tiff.writeBytes(new byte[]{0, 1});                              // 1 entrada
+        tiff.writeBytes(new byte[]{0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientacion, 0, 0});
+        tiff.writeBytes(new byte[]{0, 0, 0, 0});                        // sin IFD siguiente
+        return envolverEnJpeg(tiff.toByteArray());
+    }
+
+    /**
+     * Construye un JPEG con IFD0 apuntando a un IFD Exif (DateTimeOriginal) y a un IFD GPS
+     * (latitud 33° 26' 56.04" S, longitud 70° 40' 9.48" W).
+     */
+    private static byte[] jpegConGps(char refLatitud, char refLongitud) {
+        ByteBuffer tiff = ByteBuffer.allocate(178);                     // big endian por defecto
+        tiff.put(new byte[]{'M', 'M', 0, 42}).putInt(8);
+
+        // IFD0 (offset 8): punteros al IFD Exif (38) y al IFD GPS (76)
+        tiff.putShort((short) 2);
+        entrada(tiff, 0x8769, 4, 1, 38);
+        entrada(tiff, 0x8825, 4, 1, 76);
+        tiff.putInt(0);
+
+        // IFD Exif (offset 38): DateTimeOriginal, 20 bytes en el offset 56
+        tiff.putShort((short) 1);
+        entrada(tiff, 0x9003, 2, 20, 56);
+        tiff.putInt(0);
+        tiff.put("2025:11:23 16:35:10\0".getBytes(StandardCharsets.US_ASCII));
+
+        // IFD GPS (offset 76): referencias en línea y coordenadas en los offsets 130 y 154
+        tiff.putShort((short) 4);
+        entrada(tiff, 0x0001, 2, 2, (refLatitud << 24));
+        entrada(tiff, 0x0002, 5, 3, 130);
+        entrada(tiff, 0x0003, 2, 2, (refLongitud << 24));
+        entrada(tiff, 0x0004, 5, 3, 154);
+        tiff.putInt(0);
+        tiff.putInt(33).putInt(1).putInt(26).putInt(1).putInt(5604).putInt(100);
+        tiff.putInt(70).putInt(1).putInt(40).putInt(1).putInt(948).putInt(100);
+        return envolverEnJpeg(tiff.array());
+    }
+
+    private static void entrada(ByteBuffer tiff, int tag, int tipo, int cantidad, int valor) {
+        tiff.putShort((short) tag).putShort((short) tipo).putInt(cantidad).putInt(valor);
+    }
+
+    private static byte[] envolverEnJpeg(byte[] cuerpo) {
+        int largo = 2 + 6 + cuerpo.length;
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        jpeg.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xD8});
+        jpeg.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xE1, (byte) (largo >> 8), (byte) largo});
+        jpeg.writeBytes(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+        jpeg.writeBytes(cuerpo);
+        jpeg.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xD9});
+        return jpeg.toByteArray();
+    }
+
+    @Test
+    void leerOrientacion_ShouldReturnTagValue_WhenPresent() {
+        assertEquals(6, ExifUtil.leerOrientacion(jpegConOrientacion(6)));
+        assertEquals(3, ExifUtil.leerOrientacion(jpegConOrientacion(3)));
+    }
+
+    @Test
+    void leerOrientacion_ShouldReturnNormal_WhenNotJpeg() {
+        assertEquals(ExifUtil.ORIENTACION_NORMAL, ExifUtil.leerOrientacion(new byte[]{(byte) 0x89, 'P', 'N', 'G'}));
+        assertEquals(ExifUtil.ORIENTACION_NORMAL, ExifUtil.leerOrientacion(null));
+    }
+
+    @Test
+    void leerOrientacion_ShouldReturnNormal_WhenValueIsInvalidOrTruncated() {
+        assertEquals(ExifUtil.ORIENTACION_NORMAL, ExifUtil.leerOrientacion(jpegConOrientacion(42)));
+
+        byte[] completo = jpegConOrientacion(6);
+        byte[] truncado = java.util.Arrays.copyOf(completo, 20);
+        assertEquals(ExifUtil.ORIENTACION_NORMAL, ExifUtil.leerOrientacion(truncado));
+    }
+
+    @Test
+    void leerMetadatos_ShouldReturnLocationAndCaptureDate_WhenPresent() {
+        // Act
+        ExifUtil.MetadatosExif metadatos = ExifUtil.leerMetadatos(jpegConGps('S', 'W'));
+
+        // Assert
+        assertEquals(-33.4489, metadatos.getLatitud(), 1e-6);
+        assertEquals(-70.6693, metadatos.getLongitud(), 1e-6);
+        assertEquals(LocalDateTime.of(2025, 11, 23, 16, 35, 10), metadatos.getFechaCaptura());
+    }
+
+    @Test
+    void leerMetadatos_ShouldReturnPositiveCoordinates_WhenNorthAndEast() {
+        // Act
+        ExifUtil.MetadatosExif metadatos = ExifUtil.leerMetadatos(jpegConGps('N', 'E'));
+
+        // Assert
+        assertEquals(33.4489, metadatos.getLatitud(), 1e-6);
+        assertEquals(70.6693, metadatos.getLongitud(), 1e-6);
+    }
+
+    @Test
+    void leerMetadatos_ShouldReturnNulls_WhenNoGpsOrExif() {
+        // Act
+        ExifUtil.MetadatosExif soloOrientacion = ExifUtil.leerMetadatos(jpegConOrientacion(6));
+        ExifUtil.MetadatosExif png = ExifUtil.leerMetadatos(new byte[]{(byte) 0x89, 'P', 'N', 'G'});
+
+        // Assert
+        assertNull(soloOrientacion.getLatitud());
+        assertNull(soloOrientacion.getLongitud());
+        assertNull(soloOrientacion.getFechaCaptura());
+        assertNull(png.getLatitud());
+        assertNull(png.getFechaCaptura());
+    }
+}
@@ -0,0 +1,114 @@
+package com.SAFE_Rescue.API_Registros.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el hash perceptual (dHash).
+ */
+public class HashPerceptualUtilTest {
+
+    /**
+     * Escena de prueba: fondo degradado con un par de figuras, para que el hash no sea trivial.
+     */
+    private static BufferedImage escena(int ancho, int alto) {
+        BufferedImage imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagen.createGraphics();
+        try {
+            for (int x = 0; x < ancho; x++) {
+                int tono = 255 * x / ancho;
+                g.setColor(new Color(tono, 255 - tono, 128));
+                g.drawLine(x, 0, x, alto);
+            }
+            g.setColor(Color.BLACK);
+            g.fillOval(ancho / 5, alto / 4, ancho / 3, alto / 2);
+            g.setColor(Color.WHITE);
+            g.fillRect(ancho * 3 / 5, alto / 2, ancho / 4, alto / 3);
+        } finally {
+            g.dispose();
+        }
+        return imagen;
+    }
+
+    private static byte[] codificar(BufferedImage imagen, String formato) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ImageIO.write(imagen, formato, salida);
+        return salida.toByteArray();
+    }
+
+    /**
+     * Gira la imagen 90° en sentido antihorario: es como la guarda una cámara que marca la orientación 6.
+     */
+    private static BufferedImage girarAntihorario(BufferedImage imagen) {
+        BufferedImage girada = new BufferedImage(imagen.getHeight(), imagen.getWidth(), BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < imagen.getHeight(); y++) {
+            for (int x = 0; x < imagen.getWidth(); x++) {
+                girada.setRGB(y, imagen.getWidth() - 1 - x, imagen.getRGB(x, y));
+            }
+        }
+        return girada;
+    }
+
+    @Test
+    void dHash_ShouldBeClose_WhenImageIsResizedAndRecompressed() throws IOException {
+        // Arrange
+        byte[] original = codificar(escena(800, 600), "png");
+        byte[] reducida = codificar(escena(320, 240), "jpg");
+
+        // Act
+        Long hashOriginal = HashPerceptualUtil.dHash(original);
+        Long hashReducida = HashPerceptualUtil.dHash(reducida);
+
+        // Assert
+        assertNotNull(hashOriginal);
+        assertNotNull(hashReducida);
+        assertTrue(HashPerceptualUtil.distancia(hashOriginal, hashReducida) <= 6);
+    }
+
+    @Test
+    void dHash_ShouldBeFar_WhenImagesAreDifferent() throws IOException {
+        // Arrange
+        BufferedImage escena = escena(400, 300);
+        BufferedImage espejada = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 300; y++) {
+            for (int x = 0; x < 400; x++) {
+                espejada.setRGB(399 - x, y, escena.getRGB(x, y));
+            }
+        }
+
+        // Act
+        long hashEscena = HashPerceptualUtil.dHash(escena, ExifUtil.ORIENTACION_NORMAL);
+        long hashEspejada = HashPerceptualUtil.dHash(espejada, ExifUtil.ORIENTACION_NORMAL);
+
+        // Assert
+        assertTrue(HashPerceptualUtil.distancia(hashEscena, hashEspejada) > 20);
+    }
+
+    @Test
+    void dHash_ShouldApplyExifOrientation() {
+        // Arrange
+        BufferedImage escena = escena(400, 300);
+        BufferedImage almacenada = girarAntihorario(escena);
+
+        // Act
+        long hashDerecha = HashPerceptualUtil.dHash(escena, ExifUtil.ORIENTACION_NORMAL);
+        long hashOrientada = HashPerceptualUtil.dHash(almacenada, 6);
+
+        // Assert
+        assertTrue(HashPerceptualUtil.distancia(hashDerecha, hashOrientada) <= 4);
+    }
+
+    @Test
+    void dHash_ShouldReturnNull_WhenNotAnImage() {
+        assertNull(HashPerceptualUtil.dHash(new byte[]{1, 2, 3, 4}));
+        assertNull(HashPerceptualUtil.dHash("<svg/>".getBytes()));
+    }
+}
@@ -2,8 +2,10 @@ package com.SAFE_Rescue.API_Geolocalizacion;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ApiGeolocalizacionApplication {
 
 	public static void main(String[] args) {
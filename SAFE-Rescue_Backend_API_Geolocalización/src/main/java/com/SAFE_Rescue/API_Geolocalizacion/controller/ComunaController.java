@@ -75,6 +75,35 @@ public class ComunaController {
         return ResponseEntity.ok(comuna);
     }
 
+    /**
+     * Busca la comuna en la que cae un punto (geocodificación inversa).
+     * @param lat Latitud del punto
+     * @param lon Longitud del punto
+     * @return ResponseEntity con la comuna (y su región) o mensaje de error
+     */
+    @GetMapping("/por-punto")
+    @Operation(summary = "Obtiene la comuna que contiene un punto",
+            description = "Resuelve la comuna y su región a partir de coordenadas GPS, usando los límites comunales cargados en memoria")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Comuna encontrada.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Comuna.class))),
+            @ApiResponse(responseCode = "400", description = "Coordenadas fuera de rango."),
+            @ApiResponse(responseCode = "404", description = "El punto no cae en ninguna comuna conocida.")
+    })
+    public ResponseEntity<?> buscarPorPunto(@Parameter(description = "Latitud del punto", required = true)
+                                            @RequestParam double lat,
+                                            @Parameter(description = "Longitud del punto", required = true)
+                                            @RequestParam double lon) {
+        try {
+            return ResponseEntity.ok(comunaService.buscarPorPunto(lat, lon));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>("Comuna no encontrada para el punto", HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * Crea una nueva comuna.
      * @param comuna Datos de la comuna a crear
@@ -1,5 +1,6 @@
 package com.SAFE_Rescue.API_Geolocalizacion.controller;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MapaCalorDTO;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
 import com.SAFE_Rescue.API_Geolocalizacion.service.CoordenadasService; // 👈 Servicio actualizado
 import io.swagger.v3.oas.annotations.Operation;
@@ -158,4 +159,34 @@ public class CoordenadasController { // Cambiado de CordenadasController a Coord
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
         }
     }
+
+    // --- MAPA DE CALOR ---
+
+    /**
+     * Obtiene la cantidad de coordenadas por celda en el área visible de un mapa.
+     * @param zoom Zoom del mapa
+     * @param bbox Área visible como "oeste,sur,este,norte"
+     * @return ResponseEntity con las celdas del mapa de calor o mensaje de error
+     */
+    @GetMapping("/heatmap")
+    @Operation(summary = "Mapa de calor de coordenadas",
+            description = "Devuelve conteos precalculados por celda (8 × 8 celdas por tesela visible) en vez de cada " +
+                    "coordenada, así que la respuesta crece con el área mostrada y no con la cantidad de puntos. " +
+                    "Si oeste es mayor que este, el área cruza el antimeridiano.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Celdas con al menos una coordenada.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MapaCalorDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Zoom o área inválidos, o área con demasiadas teselas para el zoom.")
+    })
+    public ResponseEntity<?> mapaCalor(@Parameter(description = "Zoom del mapa (0 a 22)", example = "14", required = true)
+                                       @RequestParam int zoom,
+                                       @Parameter(description = "Área visible como oeste,sur,este,norte", example = "-70.75,-33.50,-70.55,-33.40", required = true)
+                                       @RequestParam String bbox) {
+        try {
+            return ResponseEntity.ok(coordenadasService.consultarMapaCalor(zoom, bbox));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
 }
\ No newline at end of file
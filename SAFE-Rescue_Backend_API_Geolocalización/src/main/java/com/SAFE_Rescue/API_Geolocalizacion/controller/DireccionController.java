@@ -1,5 +1,9 @@
 package com.SAFE_Rescue.API_Geolocalizacion.controller;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionResumenDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionUbicacionDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.SugerenciaCalleDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.PaginaDireccionesDTO;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion; // 👈 Entidad correcta
 import com.SAFE_Rescue.API_Geolocalizacion.service.DireccionService; // 👈 Servicio correcto
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,29 +30,103 @@ import java.util.NoSuchElementException;
 @Tag(name = "Direcciones", description = "Operaciones de CRUD relacionadas con la entidad Dirección")
 public class DireccionController {
 
+    // Cabecera con el cursor de la página siguiente del listado de direcciones
+    static final String CABECERA_SIGUIENTE_CURSOR = "X-Siguiente-Cursor";
+
     @Autowired
     private DireccionService direccionService; // 👈 Servicio inyectado correcto
 
     // --- OPERACIONES CRUD BÁSICAS ---
 
     /**
-     * Obtiene todas las direcciones registradas en el sistema.
-     * @return ResponseEntity con lista de direcciones o estado NO_CONTENT si no hay registros
+     * Obtiene una página de las direcciones registradas en el sistema, ordenadas por ID.
+     * Si la página viene llena, la cabecera {@value #CABECERA_SIGUIENTE_CURSOR} trae el cursor de la siguiente.
+     * @param cursor Cursor devuelto por la página anterior
+     * @param tamanio Cantidad de direcciones por página
+     * @return ResponseEntity con lista de direcciones, NO_CONTENT si no hay más registros o mensaje de error
      */
     @GetMapping
-    @Operation(summary = "Obtener todas las direcciones", description = "Obtiene una lista con todas las direcciones")
+    @Operation(summary = "Obtener las direcciones",
+            description = "Obtiene las direcciones ordenadas por ID, por páginas. Si la página viene llena, la cabecera " +
+                    CABECERA_SIGUIENTE_CURSOR + " trae el cursor para pedir la siguiente.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de direcciones obtenida exitosamente.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Direccion.class))), // Esquema correcto
-            @ApiResponse(responseCode = "204", description = "No hay direcciones registradas.")
+            @ApiResponse(responseCode = "204", description = "No hay más direcciones registradas."),
+            @ApiResponse(responseCode = "400", description = "Tamaño de página o cursor inválidos.")
     })
-    public ResponseEntity<List<Direccion>> listar() {
-        List<Direccion> direcciones = direccionService.findAll();
+    public ResponseEntity<?> listar(@Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) Integer cursor,
+                                    @Parameter(description = "Cantidad de direcciones por página (máximo 500)") @RequestParam(defaultValue = "100") int tamanio) {
+        List<Direccion> direcciones;
+        try {
+            direcciones = direccionService.findAll(cursor, tamanio);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
         if (direcciones.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(direcciones);
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (direcciones.size() == tamanio) {
+            respuesta.header(CABECERA_SIGUIENTE_CURSOR,
+                    String.valueOf(direcciones.get(direcciones.size() - 1).getIdDireccion()));
+        }
+        return respuesta.body(direcciones);
+    }
+
+    /**
+     * Obtiene una página del listado plano de direcciones.
+     * @param cursor Cursor devuelto por la página anterior
+     * @param tamanio Cantidad de direcciones por página
+     * @return ResponseEntity con la página, NO_CONTENT si no hay más direcciones o mensaje de error
+     */
+    @GetMapping("/resumen")
+    @Operation(summary = "Listar direcciones paginadas",
+            description = "Obtiene las direcciones ordenadas por ID, con los datos de su comuna, región y coordenadas en un solo objeto. " +
+                    "Para la página siguiente se envía el cursor recibido.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de direcciones.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaDireccionesDTO.class))),
+            @ApiResponse(responseCode = "204", description = "No hay más direcciones."),
+            @ApiResponse(responseCode = "400", description = "Tamaño de página o cursor inválidos.")
+    })
+    public ResponseEntity<?> listarResumen(@Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) Integer cursor,
+                                           @Parameter(description = "Cantidad de direcciones por página (máximo 500)") @RequestParam(defaultValue = "50") int tamanio) {
+        try {
+            PaginaDireccionesDTO pagina = direccionService.listarPagina(cursor, tamanio);
+            if (pagina.getDirecciones().isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene varias direcciones por ID en una sola llamada (para servicios que muestran listas de registros).
+     * @param ids IDs de las direcciones
+     * @return ResponseEntity con las direcciones encontradas en el orden pedido o mensaje de error
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Obtener direcciones por lista de IDs",
+            description = "Obtiene hasta 500 direcciones con su comuna, región y coordenadas en una sola consulta. " +
+                    "Se devuelven en el orden pedido y los IDs inexistentes se omiten.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Direcciones encontradas (puede ser una lista vacía).",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Direccion.class))),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vacía o demasiado larga.")
+    })
+    public ResponseEntity<?> listarPorIds(@Parameter(description = "IDs separados por coma, por ejemplo 1,2,3", required = true)
+                                          @RequestParam List<Integer> ids) {
+        try {
+            return ResponseEntity.ok(direccionService.findAllById(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
@@ -75,6 +153,112 @@ public class DireccionController {
         return ResponseEntity.ok(direccion);
     }
 
+    /**
+     * Busca la proyección plana de una dirección por su ID.
+     * @param id ID de la dirección a buscar
+     * @return ResponseEntity con la dirección encontrada o mensaje de error
+     */
+    @GetMapping("/{id}/resumen")
+    @Operation(summary = "Obtiene el resumen de una dirección por su ID",
+            description = "Obtiene la dirección con los datos de su comuna, región y coordenadas en un solo objeto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Dirección encontrada.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DireccionResumenDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Dirección no encontrada.")
+    })
+    public ResponseEntity<?> buscarResumen(@Parameter(description = "ID de la dirección a buscar", required = true)
+                                           @PathVariable int id) {
+        try {
+            return ResponseEntity.ok(direccionService.findResumenById(id));
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>("Dirección no encontrada", HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // --- BÚSQUEDAS GEOGRÁFICAS ---
+
+    /**
+     * Busca las direcciones más cercanas a un punto.
+     * @param lat Latitud del centro
+     * @param lon Longitud del centro
+     * @param radioKm Radio de búsqueda en kilómetros
+     * @param limite Cantidad máxima de resultados
+     * @return ResponseEntity con las direcciones ordenadas por distancia o mensaje de error
+     */
+    @GetMapping("/cercanas")
+    @Operation(summary = "Buscar direcciones cercanas",
+            description = "Obtiene las direcciones dentro de un radio, de la más cercana a la más lejana, con su distancia en metros.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Direcciones encontradas (puede ser una lista vacía).",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DireccionUbicacionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Coordenadas, radio o límite fuera de rango.")
+    })
+    public ResponseEntity<?> buscarCercanas(@Parameter(description = "Latitud del centro", required = true) @RequestParam double lat,
+                                            @Parameter(description = "Longitud del centro", required = true) @RequestParam double lon,
+                                            @Parameter(description = "Radio en kilómetros (máximo 50)") @RequestParam(defaultValue = "1") double radioKm,
+                                            @Parameter(description = "Cantidad máxima de resultados (máximo 500)") @RequestParam(defaultValue = "20") int limite) {
+        try {
+            return ResponseEntity.ok(direccionService.buscarCercanas(lat, lon, radioKm, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Busca las direcciones dentro de un rectángulo (por ejemplo, el área visible de un mapa).
+     * @return ResponseEntity con las direcciones encontradas o mensaje de error
+     */
+    @GetMapping("/bbox")
+    @Operation(summary = "Buscar direcciones en un rectángulo",
+            description = "Obtiene las direcciones dentro de un rectángulo de latitud/longitud, ordenadas por ID. " +
+                    "Si lonMin es mayor que lonMax, el rectángulo cruza el antimeridiano.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Direcciones encontradas (puede ser una lista vacía).",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DireccionUbicacionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Rectángulo o límite fuera de rango.")
+    })
+    public ResponseEntity<?> buscarEnRectangulo(@Parameter(description = "Latitud mínima", required = true) @RequestParam double latMin,
+                                                @Parameter(description = "Latitud máxima", required = true) @RequestParam double latMax,
+                                                @Parameter(description = "Longitud mínima", required = true) @RequestParam double lonMin,
+                                                @Parameter(description = "Longitud máxima", required = true) @RequestParam double lonMax,
+                                                @Parameter(description = "Cantidad máxima de resultados (máximo 500)") @RequestParam(defaultValue = "200") int limite) {
+        try {
+            return ResponseEntity.ok(direccionService.buscarEnRectangulo(latMin, latMax, lonMin, lonMax, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Sugiere nombres de calle para completar lo que se está escribiendo.
+     * @param q Texto escrito
+     * @param idComuna Comuna en la que buscar (opcional)
+     * @param limite Cantidad máxima de sugerencias
+     * @return ResponseEntity con las calles sugeridas o mensaje de error
+     */
+    @GetMapping("/autocompletar")
+    @Operation(summary = "Autocompletar nombres de calle",
+            description = "Sugiere calles cuyo nombre empieza con el texto escrito (sin importar mayúsculas, tildes, " +
+                    "abreviaturas ni el tipo de vía), de las más a las menos usadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calles sugeridas (puede ser una lista vacía).",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SugerenciaCalleDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Texto vacío o muy largo, o límite fuera de rango.")
+    })
+    public ResponseEntity<?> autocompletar(@Parameter(description = "Texto escrito", required = true) @RequestParam String q,
+                                           @Parameter(description = "ID de la comuna en la que buscar") @RequestParam(required = false) Integer idComuna,
+                                           @Parameter(description = "Cantidad máxima de sugerencias (máximo 20)") @RequestParam(defaultValue = "10") int limite) {
+        try {
+            return ResponseEntity.ok(direccionService.autocompletar(q, idComuna, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     /**
      * Crea una nueva dirección.
      * @param direccion Datos de la dirección a crear
@@ -108,6 +292,30 @@ public class DireccionController {
         }
     }
 
+    /**
+     * Crea un lote de direcciones en una sola llamada.
+     * @param direcciones Datos de las direcciones a crear
+     * @return ResponseEntity con las direcciones creadas (con ID) o mensaje de error
+     */
+    @PostMapping("/lote")
+    @Operation(summary = "Crear un lote de direcciones",
+            description = "Crea hasta 500 direcciones en una sola transacción (todas o ninguna) y las devuelve con su ID, en el mismo orden.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Direcciones creadas con éxito."),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o demasiado grande, o alguna dirección inválida (se indica su posición)."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    public ResponseEntity<?> agregarLote(@RequestBody @Parameter(description = "Direcciones a crear", required = true)
+                                         List<Direccion> direcciones) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(direccionService.saveAll(direcciones));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
+        }
+    }
+
     /**
      * Actualiza una dirección existente.
      * @param id ID de la dirección a actualizar
@@ -1,5 +1,7 @@
 package com.SAFE_Rescue.API_Geolocalizacion.controller;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RegionArbolDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Region; // 👈 Entidad correcta
 import com.SAFE_Rescue.API_Geolocalizacion.service.RegionService; // 👈 Servicio correcto
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,9 +12,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -75,6 +79,67 @@ public class RegionController {
         return ResponseEntity.ok(region);
     }
 
+    // --- CATÁLOGO JERÁRQUICO ---
+    // Responden desde el catálogo en memoria con un ETag fuerte; si el cliente envía If-None-Match con la
+    // versión vigente se responde 304 sin cuerpo.
+
+    /**
+     * Obtiene todas las regiones con sus comunas.
+     * @return ResponseEntity con el árbol de regiones y comunas
+     */
+    @GetMapping("/arbol")
+    @Operation(summary = "Obtener el árbol de regiones y comunas",
+            description = "Obtiene todas las regiones, cada una con sus comunas ordenadas por nombre, en una sola respuesta con ETag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Árbol obtenido exitosamente.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RegionArbolDTO.class))),
+            @ApiResponse(responseCode = "304", description = "El catálogo no ha cambiado desde la versión indicada en If-None-Match.")
+    })
+    public ResponseEntity<List<RegionArbolDTO>> obtenerArbol(WebRequest request) {
+        String etag = etagCatalogo();
+        if (request.checkNotModified(etag)) {
+            // Spring ya preparó la respuesta 304
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(regionService.findArbol());
+    }
+
+    /**
+     * Obtiene las comunas de una región.
+     * @param id ID de la región
+     * @return ResponseEntity con las comunas de la región o mensaje de error
+     */
+    @GetMapping("/{id}/comunas")
+    @Operation(summary = "Obtener las comunas de una región",
+            description = "Obtiene las comunas de una región, ordenadas por nombre, con ETag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Comunas de la región (puede ser una lista vacía).",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Comuna.class))),
+            @ApiResponse(responseCode = "304", description = "El catálogo no ha cambiado desde la versión indicada en If-None-Match."),
+            @ApiResponse(responseCode = "404", description = "Región no encontrada.")
+    })
+    public ResponseEntity<?> listarComunas(@Parameter(description = "ID de la región", required = true)
+                                           @PathVariable int id,
+                                           WebRequest request) {
+        String etag = etagCatalogo();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(regionService.findComunas(id));
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>("Región no encontrada", HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * Crea una nueva región.
      * @param region Datos de la región a crear
@@ -155,4 +220,8 @@ public class RegionController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno del servidor.");
         }
     }
-}
\ No newline at end of file
+
+    private String etagCatalogo() {
+        return "\"catalogo-" + regionService.getVersionCatalogo() + "\"";
+    }
+}
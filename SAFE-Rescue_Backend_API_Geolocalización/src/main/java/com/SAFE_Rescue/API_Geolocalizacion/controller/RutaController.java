@@ -0,0 +1,85 @@
+package com.SAFE_Rescue.API_Geolocalizacion.controller;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MatrizRutasDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RutaDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.service.RutasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST para el cálculo de rutas y tiempos de viaje por la red vial.
+ */
+@RestController
+@RequestMapping("/api-geolocalizacion/v1/rutas")
+@Tag(name = "Rutas", description = "Tiempos de viaje por la red vial, calculados sin servicios externos")
+public class RutaController {
+
+    @Autowired
+    private RutasService rutasService;
+
+    /**
+     * Calcula el tiempo estimado de viaje entre dos puntos.
+     * @param origen Punto de partida, como "latitud,longitud"
+     * @param destino Punto de llegada, como "latitud,longitud"
+     * @return ResponseEntity con la ruta o mensaje de error
+     */
+    @GetMapping("/eta")
+    @Operation(summary = "Tiempo estimado de viaje",
+            description = "Calcula el tiempo y largo de la ruta más rápida por la red vial entre dos puntos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ruta calculada (sin tiempo si no hay ruta).",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RutaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Punto con formato inválido, fuera de rango o lejos de la red vial."),
+            @ApiResponse(responseCode = "503", description = "La red vial no está cargada.")
+    })
+    public ResponseEntity<?> calcularEta(@Parameter(description = "Origen como latitud,longitud", example = "-33.4489,-70.6693", required = true)
+                                         @RequestParam String origen,
+                                         @Parameter(description = "Destino como latitud,longitud", example = "-33.4263,-70.6170", required = true)
+                                         @RequestParam String destino) {
+        try {
+            return ResponseEntity.ok(rutasService.calcularEta(origen, destino));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Calcula los tiempos de viaje de un origen a muchos destinos (o de cada destino al origen).
+     * @param solicitud Origen, destinos y sentido
+     * @return ResponseEntity con una ruta por destino o mensaje de error
+     */
+    @PostMapping("/matriz")
+    @Operation(summary = "Matriz de tiempos de uno a muchos",
+            description = "Calcula, en una sola búsqueda, el tiempo de viaje del origen a cada destino. Con haciaOrigen, " +
+                    "calcula el de cada destino al origen (por ejemplo, de cada compañía a un incidente). " +
+                    "Las rutas vienen en el mismo orden que los destinos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rutas calculadas.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RutaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida u origen lejos de la red vial."),
+            @ApiResponse(responseCode = "503", description = "La red vial no está cargada.")
+    })
+    public ResponseEntity<?> calcularMatriz(@RequestBody @Parameter(description = "Origen y destinos", required = true)
+                                            MatrizRutasDTO solicitud) {
+        try {
+            return ResponseEntity.ok(rutasService.calcularMatriz(solicitud));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Celda del mapa de calor con la cantidad de coordenadas que caen en ella.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CeldaMapaCalorDTO {
+
+    @Schema(description = "Columna de la celda como tesela XYZ al nivel de la grilla", example = "79612")
+    private Integer x;
+
+    @Schema(description = "Fila de la celda como tesela XYZ al nivel de la grilla", example = "156943")
+    private Integer y;
+
+    @Schema(description = "Latitud del centro de la celda", example = "-33.4492")
+    private Double latitud;
+
+    @Schema(description = "Longitud del centro de la celda", example = "-70.6689")
+    private Double longitud;
+
+    @Schema(description = "Cantidad de coordenadas en la celda", example = "37")
+    private Integer cantidad;
+}
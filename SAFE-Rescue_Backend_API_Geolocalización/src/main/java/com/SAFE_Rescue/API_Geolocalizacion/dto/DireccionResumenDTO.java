@@ -0,0 +1,71 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import com.SAFE_Rescue.API_Geolocalizacion.util.GeoUtil;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección plana de una {@link com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion} con su comuna, región y
+ * coordenadas.
+ * <p>
+ * Se arma en la misma consulta que lee la dirección (con JOIN a las tres tablas), así que listar N direcciones
+ * no dispara una carga por fila al serializar. Con la ubicación en línea activa, la latitud y longitud salen de
+ * la propia tabla {@code direccion} en doble precisión y la tabla de coordenadas no se toca.
+ * </p>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class DireccionResumenDTO {
+
+    @Schema(description = "Identificador único de la dirección", example = "1")
+    private Integer idDireccion;
+
+    @Schema(description = "Nombre de la calle, avenida o pasaje", example = "Avenida Apoquindo")
+    private String calle;
+
+    @Schema(description = "Numeración del domicilio", example = "4500")
+    private String numero;
+
+    @Schema(description = "Nombre de la villa, población o barrio", example = "Villa Los Jardines")
+    private String villa;
+
+    @Schema(description = "Información adicional (Depto, Oficina, Lote)", example = "Depto 502")
+    private String complemento;
+
+    @Schema(description = "Identificador de la comuna", example = "3")
+    private Integer idComuna;
+
+    @Schema(description = "Nombre de la comuna", example = "Providencia")
+    private String nombreComuna;
+
+    @Schema(description = "Identificador de la región", example = "13")
+    private Integer idRegion;
+
+    @Schema(description = "Nombre de la región", example = "Metropolitana de Santiago")
+    private String nombreRegion;
+
+    @Schema(description = "Identificación de la región (Número Romano o abreviatura)", example = "RM")
+    private String identificacionRegion;
+
+    @Schema(description = "Identificador de las coordenadas (nulo si la dirección no tiene)", example = "1")
+    private Integer idCoordenadas;
+
+    @Schema(description = "Coordenada latitud", example = "-33.4489")
+    private Double latitud;
+
+    @Schema(description = "Coordenada longitud", example = "-70.6693")
+    private Double longitud;
+
+    /**
+     * Constructor para la consulta con JOIN a {@code coordenadas}, donde la ubicación se guarda como {@code Float}.
+     */
+    public DireccionResumenDTO(Integer idDireccion, String calle, String numero, String villa, String complemento,
+                               Integer idComuna, String nombreComuna, Integer idRegion, String nombreRegion,
+                               String identificacionRegion, Integer idCoordenadas, Float latitud, Float longitud) {
+        this(idDireccion, calle, numero, villa, complemento, idComuna, nombreComuna, idRegion, nombreRegion,
+                identificacionRegion, idCoordenadas, GeoUtil.comoDouble(latitud), GeoUtil.comoDouble(longitud));
+    }
+}
@@ -0,0 +1,42 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dirección encontrada en una búsqueda geográfica (por cercanía o por rectángulo).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class DireccionUbicacionDTO {
+
+    @Schema(description = "Identificador único de la dirección", example = "1")
+    private Integer idDireccion;
+
+    @Schema(description = "Nombre de la calle, avenida o pasaje", example = "Avenida Apoquindo")
+    private String calle;
+
+    @Schema(description = "Numeración del domicilio", example = "4500")
+    private String numero;
+
+    @Schema(description = "Nombre de la villa, población o barrio", example = "Villa Los Jardines")
+    private String villa;
+
+    @Schema(description = "Información adicional (Depto, Oficina, Lote)", example = "Depto 502")
+    private String complemento;
+
+    @Schema(description = "Identificador de la comuna de la dirección", example = "3")
+    private Integer idComuna;
+
+    @Schema(description = "Coordenada latitud", example = "-33.4489")
+    private Double latitud;
+
+    @Schema(description = "Coordenada longitud", example = "-70.6693")
+    private Double longitud;
+
+    @Schema(description = "Distancia en metros al punto de búsqueda (solo en búsquedas por cercanía)", example = "235.4")
+    private Double distanciaMetros;
+}
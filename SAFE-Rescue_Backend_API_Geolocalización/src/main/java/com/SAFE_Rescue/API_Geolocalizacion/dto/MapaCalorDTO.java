@@ -0,0 +1,29 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Conteos de coordenadas por celda dentro del área visible de un mapa.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class MapaCalorDTO {
+
+    @Schema(description = "Zoom del mapa consultado", example = "15")
+    private Integer zoom;
+
+    @Schema(description = "Zoom de tesela XYZ al que corresponden x e y de las celdas (hasta 8 × 8 celdas por tesela visible)", example = "18")
+    private Integer nivel;
+
+    @Schema(description = "Cantidad total de coordenadas en las celdas devueltas", example = "1250")
+    private Long total;
+
+    @Schema(description = "Celdas con al menos una coordenada, por fila y columna")
+    private List<CeldaMapaCalorDTO> celdas;
+}
@@ -0,0 +1,27 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Solicitud de tiempos de viaje de un punto a muchos (o de muchos a uno).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class MatrizRutasDTO {
+
+    @Schema(description = "Punto de origen (o de llegada, si haciaOrigen es verdadero)")
+    private PuntoDTO origen;
+
+    @Schema(description = "Puntos de destino (o de partida, si haciaOrigen es verdadero)")
+    private List<PuntoDTO> destinos;
+
+    @Schema(description = "Si es verdadero, calcula el tiempo desde cada destino hasta el origen " +
+            "(por ejemplo, de cada compañía al incidente)", example = "true")
+    private boolean haciaOrigen;
+}
@@ -0,0 +1,23 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del listado de direcciones, paginado por cursor (el ID de la última dirección entregada).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class PaginaDireccionesDTO {
+
+    @Schema(description = "Direcciones de la página, ordenadas por ID")
+    private List<DireccionResumenDTO> direcciones;
+
+    @Schema(description = "Cursor para pedir la página siguiente (nulo si no hay más resultados)", example = "120")
+    private Integer siguienteCursor;
+}
@@ -0,0 +1,21 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Punto geográfico en grados decimales (WGS84).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class PuntoDTO {
+
+    @Schema(description = "Coordenada latitud", example = "-33.4489")
+    private Double latitud;
+
+    @Schema(description = "Coordenada longitud", example = "-70.6693")
+    private Double longitud;
+}
@@ -0,0 +1,42 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Región con sus comunas, para entregar el catálogo geográfico completo en una sola respuesta.
+ * Es inmutable: la misma instancia se comparte entre todas las lecturas de una versión del catálogo.
+ */
+@Value
+public class RegionArbolDTO {
+
+    @Schema(description = "Identificador único de la región", example = "13")
+    Integer idRegion;
+
+    @Schema(description = "Nombre oficial de la región", example = "Metropolitana de Santiago")
+    String nombre;
+
+    @Schema(description = "Identificación de la región (Número Romano o abreviatura)", example = "RM")
+    String identificacion;
+
+    @Schema(description = "Comunas de la región, ordenadas por nombre")
+    List<ComunaArbol> comunas;
+
+    /**
+     * Comuna dentro del árbol (sin repetir su región).
+     */
+    @Value
+    public static class ComunaArbol {
+
+        @Schema(description = "Identificador único de la comuna", example = "3")
+        Integer idComuna;
+
+        @Schema(description = "Nombre oficial de la comuna", example = "Providencia")
+        String nombre;
+
+        @Schema(description = "Código postal asociado a la comuna", example = "7500000")
+        String codigoPostal;
+    }
+}
@@ -0,0 +1,27 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tiempo estimado y largo de la ruta más rápida por la red vial entre dos puntos.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RutaDTO {
+
+    @Schema(description = "Tiempo estimado de viaje en segundos (nulo si no hay ruta)", example = "415.2")
+    private Double tiempoSegundos;
+
+    @Schema(description = "Largo de la ruta en metros (nulo si no hay ruta)", example = "4820")
+    private Long distanciaMetros;
+
+    @Schema(description = "Distancia en línea recta del origen al nodo más cercano de la red vial", example = "12.5")
+    private Double accesoOrigenMetros;
+
+    @Schema(description = "Distancia en línea recta del destino al nodo más cercano de la red vial (nula si está fuera de la red)", example = "30.1")
+    private Double accesoDestinoMetros;
+}
@@ -0,0 +1,21 @@
+package com.SAFE_Rescue.API_Geolocalizacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Calle sugerida por el autocompletado.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class SugerenciaCalleDTO {
+
+    @Schema(description = "Nombre de la calle, avenida o pasaje", example = "Avenida Apoquindo")
+    private String calle;
+
+    @Schema(description = "Cantidad de direcciones registradas en la calle", example = "42")
+    private int cantidad;
+}
@@ -1,5 +1,7 @@
 package com.SAFE_Rescue.API_Geolocalizacion.modelo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
@@ -15,7 +17,11 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Data
 @Entity
-@Table(name = "direccion")
+@Table(name = "direccion", indexes = {
+        @Index(name = "idx_direccion_clave_canonica", columnList = "clave_canonica"),
+        @Index(name = "idx_direccion_lat_lon", columnList = "latitud, longitud"),
+        @Index(name = "idx_direccion_geohash", columnList = "geohash")
+})
 public class Direccion {
 
     @Id
@@ -57,4 +63,29 @@ public class Direccion {
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "id_coordenadas")
     private Coordenadas coordenadas;
+
+
+    // --- Ubicación en línea (doble precisión, sin JOIN a coordenadas) ---
+    // La mantiene el servicio junto con la tabla coordenadas; ver UbicacionEnLineaService.
+
+    @Column(name = "latitud")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Latitud en doble precisión (si se envía, prevalece sobre la de las coordenadas)", example = "-33.448912")
+    private Double latitud;
+
+    @Column(name = "longitud")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Longitud en doble precisión (si se envía, prevalece sobre la de las coordenadas)", example = "-70.669287")
+    private Double longitud;
+
+    @JsonIgnore
+    @Column(name = "geohash", length = 12)
+    private String geohash;
+
+
+    // Hash de la forma normalizada (calle, número, complemento y comuna), para detectar duplicados.
+    // Lo calcula el servicio; las filas antiguas lo reciben de la tarea de fusión.
+    @JsonIgnore
+    @Column(name = "clave_canonica", length = 64)
+    private String claveCanonica;
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.SAFE_Rescue.API_Geolocalizacion.modelo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de una dirección duplicada que se fusionó con otra.
+ * Otros servicios guardan el ID de la dirección, así que el ID eliminado se sigue resolviendo
+ * hacia la dirección que quedó.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "direccion_fusionada", indexes = @Index(name = "idx_direccion_fusionada_destino", columnList = "id_direccion_destino"))
+public class DireccionFusionada {
+
+    @Id
+    @Column(name = "id_direccion")
+    @Schema(description = "ID de la dirección duplicada que se eliminó", example = "15")
+    private Integer idDireccion;
+
+    @Column(name = "id_direccion_destino", nullable = false)
+    @Schema(description = "ID de la dirección con la que se fusionó", example = "3")
+    private Integer idDireccionDestino;
+
+    @Column(name = "fecha_fusion", nullable = false)
+    @Schema(description = "Fecha y hora de la fusión")
+    private LocalDateTime fechaFusion;
+}
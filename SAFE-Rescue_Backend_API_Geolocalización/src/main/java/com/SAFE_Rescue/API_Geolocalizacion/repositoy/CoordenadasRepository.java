@@ -1,9 +1,14 @@
 package com.SAFE_Rescue.API_Geolocalizacion.repositoy;
 
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Repositorio para la gestión de Coordenadas
  * Maneja operaciones CRUD desde la base de datos usando Jakarta
@@ -11,4 +16,12 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CoordenadasRepository extends JpaRepository<Coordenadas, Integer> {
 
+    /**
+     * Página de coordenadas con ID mayor que {@code desde}, en orden de ID y sin cargar entidades.
+     *
+     * @return Filas {@code [idCoordenadas, latitud, longitud]}.
+     */
+    @Query("SELECT c.idCoordenadas, c.latitud, c.longitud FROM Coordenadas c " +
+            "WHERE c.idCoordenadas > :desde ORDER BY c.idCoordenadas")
+    List<Object[]> findPuntosDesde(@Param("desde") int desde, Pageable pageable);
 }
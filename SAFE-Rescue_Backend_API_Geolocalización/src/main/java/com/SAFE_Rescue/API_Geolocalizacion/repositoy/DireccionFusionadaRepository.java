@@ -0,0 +1,29 @@
+package com.SAFE_Rescue.API_Geolocalizacion.repositoy;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.DireccionFusionada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Repositorio de las direcciones fusionadas (ID eliminado → ID que quedó).
+ */
+@Repository
+public interface DireccionFusionadaRepository extends JpaRepository<DireccionFusionada, Integer> {
+
+    /**
+     * Redirige hacia {@code destino} las fusiones que apuntaban a direcciones que ahora también se fusionan,
+     * para que cada ID antiguo se resuelva en un solo paso.
+     *
+     * @return Cantidad de fusiones redirigidas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DireccionFusionada f SET f.idDireccionDestino = :destino WHERE f.idDireccionDestino IN :ids")
+    int redirigir(@Param("ids") Collection<Integer> ids, @Param("destino") Integer destino);
+}
@@ -1,14 +1,168 @@
 package com.SAFE_Rescue.API_Geolocalizacion.repositoy;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionResumenDTO;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para la gestión de Direcciones
  * Maneja operaciones CRUD desde la base de datos usando Jakarta
  */
 @Repository
-public interface DireccionRepository extends JpaRepository<Direccion, Integer> {
+public interface DireccionRepository extends JpaRepository<Direccion, Integer>, DireccionRepositoryCustom {
+
+    // Proyección plana con comuna, región y coordenadas; el LEFT JOIN mantiene las direcciones sin coordenadas
+    String SELECT_RESUMEN = "SELECT new com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionResumenDTO(" +
+            "d.idDireccion, d.calle, d.numero, d.villa, d.complemento, c.idComuna, c.nombre, " +
+            "r.idRegion, r.nombre, r.identificacion, co.idCoordenadas, co.latitud, co.longitud) " +
+            "FROM Direccion d JOIN d.comuna c JOIN c.region r LEFT JOIN d.coordenadas co ";
+
+    // Igual, pero con la ubicación en línea de la propia dirección: sin JOIN a coordenadas
+    String SELECT_RESUMEN_EN_LINEA = "SELECT new com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionResumenDTO(" +
+            "d.idDireccion, d.calle, d.numero, d.villa, d.complemento, c.idComuna, c.nombre, " +
+            "r.idRegion, r.nombre, r.identificacion, fk(d.coordenadas), d.latitud, d.longitud) " +
+            "FROM Direccion d JOIN d.comuna c JOIN c.region r ";
+
+    /**
+     * Todas las direcciones con su comuna, región y coordenadas en una sola consulta.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"comuna", "comuna.region", "coordenadas"})
+    List<Direccion> findAll();
+
+    /**
+     * Página de direcciones con ID mayor que {@code desde}, con su comuna, región y coordenadas en la misma
+     * consulta (paginación por clave sobre la PK).
+     *
+     * @param desde    ID de la última dirección de la página anterior (0 en la primera página).
+     * @param pageable Solo se usa el tamaño de página.
+     * @return Las direcciones de la página, ordenadas por ID.
+     */
+    @EntityGraph(attributePaths = {"comuna", "comuna.region", "coordenadas"})
+    List<Direccion> findByIdDireccionGreaterThanOrderByIdDireccionAsc(int desde, Pageable pageable);
+
+    /**
+     * Una dirección con su comuna, región y coordenadas en una sola consulta.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"comuna", "comuna.region", "coordenadas"})
+    Optional<Direccion> findById(Integer id);
+
+    /**
+     * Página del listado plano de direcciones con ID mayor que {@code desde} (paginación por clave sobre la PK).
+     *
+     * @param desde    ID de la última dirección de la página anterior (0 en la primera página).
+     * @param pageable Solo se usa el tamaño de página.
+     * @return Las direcciones de la página, ordenadas por ID.
+     */
+    @Query(SELECT_RESUMEN + "WHERE d.idDireccion > :desde ORDER BY d.idDireccion")
+    List<DireccionResumenDTO> findResumenDesde(@Param("desde") int desde, Pageable pageable);
+
+    /**
+     * Proyección plana de una dirección.
+     */
+    @Query(SELECT_RESUMEN + "WHERE d.idDireccion = :id")
+    Optional<DireccionResumenDTO> findResumenById(@Param("id") Integer id);
+
+    /**
+     * Como {@link #findResumenDesde(int, Pageable)}, leyendo la ubicación en línea.
+     */
+    @Query(SELECT_RESUMEN_EN_LINEA + "WHERE d.idDireccion > :desde ORDER BY d.idDireccion")
+    List<DireccionResumenDTO> findResumenEnLineaDesde(@Param("desde") int desde, Pageable pageable);
+
+    /**
+     * Como {@link #findResumenById(Integer)}, leyendo la ubicación en línea.
+     */
+    @Query(SELECT_RESUMEN_EN_LINEA + "WHERE d.idDireccion = :id")
+    Optional<DireccionResumenDTO> findResumenEnLineaById(@Param("id") Integer id);
+
+    /**
+     * Posición de todas las direcciones con coordenadas, para construir el índice espacial.
+     *
+     * @return Filas {@code [idDireccion, idCoordenadas, latitud, longitud]}.
+     */
+    @Query("SELECT d.idDireccion, c.idCoordenadas, c.latitud, c.longitud FROM Direccion d JOIN d.coordenadas c")
+    List<Object[]> findPuntos();
+
+    /**
+     * Como {@link #findPuntos()}, leyendo la ubicación en línea (una sola tabla).
+     *
+     * @return Filas {@code [idDireccion, idCoordenadas, latitud, longitud]}.
+     */
+    @Query("SELECT d.idDireccion, fk(d.coordenadas), d.latitud, d.longitud FROM Direccion d " +
+            "WHERE d.latitud IS NOT NULL AND d.longitud IS NOT NULL")
+    List<Object[]> findPuntosEnLinea();
+
+    /**
+     * Página de direcciones con coordenadas pero sin ubicación en línea, con ID mayor que {@code desde}.
+     *
+     * @return Filas {@code [idDireccion, latitud, longitud]} con los valores de la tabla coordenadas.
+     */
+    @Query("SELECT d.idDireccion, c.latitud, c.longitud FROM Direccion d JOIN d.coordenadas c " +
+            "WHERE d.idDireccion > :desde AND (d.latitud IS NULL OR d.longitud IS NULL) ORDER BY d.idDireccion")
+    List<Object[]> findUbicacionesPendientes(@Param("desde") int desde, Pageable pageable);
+
+    /**
+     * Copia a la ubicación en línea el cambio de unas coordenadas (las direcciones que las usan).
+     *
+     * @return Cantidad de direcciones actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Direccion d SET d.latitud = :latitud, d.longitud = :longitud, d.geohash = :geohash " +
+            "WHERE fk(d.coordenadas) = :idCoordenadas")
+    int actualizarUbicacionPorCoordenadas(@Param("idCoordenadas") Integer idCoordenadas, @Param("latitud") Double latitud,
+                                          @Param("longitud") Double longitud, @Param("geohash") String geohash);
+
+    /**
+     * Direcciones por ID con su comuna, región y coordenadas en una sola consulta (sin cargas perezosas por fila).
+     *
+     * @param ids IDs buscados.
+     * @return Las direcciones encontradas, en cualquier orden.
+     */
+    @Query("SELECT d FROM Direccion d JOIN FETCH d.comuna c JOIN FETCH c.region LEFT JOIN FETCH d.coordenadas " +
+            "WHERE d.idDireccion IN :ids")
+    List<Direccion> findAllConRelacionesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * La dirección más antigua con la clave canónica dada (ver {@code NormalizadorDireccion}).
+     */
+    Optional<Direccion> findFirstByClaveCanonicaOrderByIdDireccionAsc(String claveCanonica);
+
+    /**
+     * Direcciones con alguna de las claves canónicas dadas, de la más antigua a la más nueva.
+     */
+    List<Direccion> findByClaveCanonicaInOrderByIdDireccionAsc(Collection<String> claves);
+
+    /**
+     * Página de direcciones sin clave canónica (registradas antes de calcularla o por otra vía), con ID mayor
+     * que {@code desde}.
+     */
+    List<Direccion> findByClaveCanonicaIsNullAndIdDireccionGreaterThanOrderByIdDireccionAsc(int desde, Pageable pageable);
+
+    /**
+     * Calles registradas por comuna, con la cantidad de direcciones de cada una (para el autocompletado).
+     *
+     * @return Filas {@code [calle, idComuna, cantidad]}.
+     */
+    @Query("SELECT d.calle, c.idComuna, COUNT(d) FROM Direccion d JOIN d.comuna c GROUP BY d.calle, c.idComuna")
+    List<Object[]> findCallesPorComuna();
 
+    /**
+     * Claves canónicas compartidas por más de una dirección.
+     */
+    @Query("SELECT d.claveCanonica FROM Direccion d WHERE d.claveCanonica IS NOT NULL " +
+            "GROUP BY d.claveCanonica HAVING COUNT(d) > 1")
+    List<String> findClavesDuplicadas(Pageable pageable);
 }
@@ -0,0 +1,30 @@
+package com.SAFE_Rescue.API_Geolocalizacion.repositoy;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+
+import java.util.List;
+
+/**
+ * Operaciones de {@link DireccionRepository} que se hacen directamente con JDBC.
+ */
+public interface DireccionRepositoryCustom {
+
+    /**
+     * Inserta un lote de direcciones nuevas con sentencias JDBC en lote: primero las coordenadas que aún no
+     * tienen ID y luego las direcciones, asignando a cada objeto el ID generado.
+     * <p>
+     * Las comunas y las coordenadas con ID ya deben existir; no se validan aquí.
+     * </p>
+     *
+     * @param direcciones Direcciones sin ID, con su comuna y coordenadas.
+     */
+    void insertarLote(List<Direccion> direcciones);
+
+    /**
+     * Escribe en lote la ubicación en línea (latitud, longitud y geohash) de varias direcciones.
+     *
+     * @param filas Filas {@code [idDireccion, latitud, longitud]}, con latitud y longitud como {@code Double}.
+     * @return Cantidad de direcciones actualizadas.
+     */
+    int actualizarUbicaciones(List<Object[]> filas);
+}
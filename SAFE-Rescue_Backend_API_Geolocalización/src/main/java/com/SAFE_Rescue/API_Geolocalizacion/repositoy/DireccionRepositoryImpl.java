@@ -0,0 +1,131 @@
+package com.SAFE_Rescue.API_Geolocalizacion.repositoy;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import com.SAFE_Rescue.API_Geolocalizacion.util.GeoHash;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Implementación de {@link DireccionRepositoryCustom}, combinada por Spring Data con {@link DireccionRepository}.
+ * <p>
+ * Las entidades usan IDs {@code IDENTITY}, con los que Hibernate no puede agrupar los INSERT (necesita cada ID
+ * antes de seguir). Aquí se envía cada tabla en un solo lote JDBC y se leen los IDs generados de una vez; con
+ * {@code rewriteBatchedStatements=true} el driver de MySQL lo convierte en un único INSERT de varias filas.
+ * Corre en la misma transacción que el {@code EntityManager}.
+ * </p>
+ */
+public class DireccionRepositoryImpl implements DireccionRepositoryCustom {
+
+    private static final String INSERT_COORDENADAS =
+            "INSERT INTO coordenadas (latitud, longitud) VALUES (?, ?)";
+    private static final String INSERT_DIRECCION =
+            "INSERT INTO direccion (calle, numero, villa, complemento, id_comuna, id_coordenadas, clave_canonica, " +
+            "latitud, longitud, geohash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_UBICACION =
+            "UPDATE direccion SET latitud = ?, longitud = ?, geohash = ? WHERE id_direccion = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertarLote(List<Direccion> direcciones) {
+        List<Coordenadas> nuevas = direcciones.stream()
+                .map(Direccion::getCoordenadas)
+                .filter(coordenadas -> coordenadas != null && coordenadas.getIdCoordenadas() == null)
+                .toList();
+        insertar(INSERT_COORDENADAS, "id_coordenadas", nuevas, (ps, coordenadas) -> {
+            ps.setFloat(1, coordenadas.getLatitud());
+            ps.setFloat(2, coordenadas.getLongitud());
+        }, Coordenadas::setIdCoordenadas);
+
+        insertar(INSERT_DIRECCION, "id_direccion", direcciones, (ps, direccion) -> {
+            ps.setString(1, direccion.getCalle());
+            ps.setString(2, direccion.getNumero());
+            ps.setString(3, direccion.getVilla());
+            ps.setString(4, direccion.getComplemento());
+            ps.setInt(5, direccion.getComuna().getIdComuna());
+            if (direccion.getCoordenadas() != null) {
+                ps.setInt(6, direccion.getCoordenadas().getIdCoordenadas());
+            } else {
+                ps.setNull(6, Types.INTEGER);
+            }
+            ps.setString(7, direccion.getClaveCanonica());
+            ps.setObject(8, direccion.getLatitud(), Types.DOUBLE);
+            ps.setObject(9, direccion.getLongitud(), Types.DOUBLE);
+            ps.setString(10, direccion.getGeohash());
+        }, Direccion::setIdDireccion);
+    }
+
+    @Override
+    public int actualizarUbicaciones(List<Object[]> filas) {
+        if (filas.isEmpty()) {
+            return 0;
+        }
+        int[][] resultados = jdbcTemplate.batchUpdate(UPDATE_UBICACION, filas, filas.size(), (ps, fila) -> {
+            double latitud = (Double) fila[1];
+            double longitud = (Double) fila[2];
+            ps.setDouble(1, latitud);
+            ps.setDouble(2, longitud);
+            ps.setString(3, GeoHash.codificar(latitud, longitud, GeoHash.PRECISION));
+            ps.setInt(4, (Integer) fila[0]);
+        });
+        int actualizadas = 0;
+        for (int[] lote : resultados) {
+            for (int filasAfectadas : lote) {
+                // Con rewriteBatchedStatements el driver puede informar SUCCESS_NO_INFO (-2) en vez del conteo
+                actualizadas += filasAfectadas > 0 || filasAfectadas == Statement.SUCCESS_NO_INFO ? 1 : 0;
+            }
+        }
+        return actualizadas;
+    }
+
+    /**
+     * Asigna los parámetros de una fila a la sentencia.
+     */
+    @FunctionalInterface
+    private interface Parametros<T> {
+        void asignar(PreparedStatement ps, T fila) throws SQLException;
+    }
+
+    /**
+     * Ejecuta un INSERT en lote y asigna a cada fila el ID generado, en el mismo orden.
+     */
+    private <T> void insertar(String sql, String columnaId, List<T> filas,
+                              Parametros<T> parametros, BiConsumer<T, Integer> asignarId) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        GeneratedKeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, new String[]{columnaId}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        parametros.asignar(ps, filas.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return filas.size();
+                    }
+                }, claves);
+
+        List<Map<String, Object>> generadas = claves.getKeyList();
+        if (generadas.size() != filas.size()) {
+            throw new IllegalStateException("El driver devolvió " + generadas.size() + " IDs para " + filas.size() + " filas.");
+        }
+        for (int i = 0; i < filas.size(); i++) {
+            asignarId.accept(filas.get(i), ((Number) generadas.get(i).values().iterator().next()).intValue());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.SugerenciaCalleDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.NormalizadorDireccion;
+import com.SAFE_Rescue.API_Geolocalizacion.util.TriePrefijos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Autocompletado de nombres de calle, servido desde árboles de prefijos en memoria ({@link TriePrefijos}).
+ * <p>
+ * Los nombres se indexan normalizados con {@link NormalizadorDireccion} ("Av. Pajaritos" y "avenida pajaritos"
+ * son la misma calle) y también sin su tipo de vía inicial, para que "pajar" encuentre "Avenida Pajaritos".
+ * Hay un árbol por comuna y uno general; las sugerencias se ordenan por cantidad de direcciones registradas
+ * en la calle y luego alfabéticamente.
+ * </p>
+ * <p>
+ * Se construye al arrancar con las calles de las direcciones existentes y, si existe, un nomenclátor local de
+ * calles (archivo de texto UTF-8 con una calle por línea, {@code idComuna;nombre}; las líneas con {@code #} son
+ * comentarios). El nombre del nomenclátor se prefiere como nombre a mostrar. Las direcciones nuevas se agregan
+ * al confirmar su transacción; las eliminadas no se descuentan hasta la próxima carga.
+ * </p>
+ */
+@Service
+public class AutocompletadoService {
+
+    /** Cantidad máxima de sugerencias por consulta. */
+    public static final int LIMITE_MAXIMO = 20;
+
+    /** Largo máximo del texto buscado. */
+    public static final int LARGO_MAXIMO = 100;
+
+    // Tipos de vía que pueden omitirse al escribir (ya normalizados)
+    private static final Set<String> TIPOS_DE_VIA = Set.of("avenida", "calle", "pasaje", "camino", "carretera",
+            "autopista", "ruta", "paseo", "diagonal", "costanera", "circunvalacion");
+
+    private static final Comparator<Calle> ORDEN = Comparator.comparingInt((Calle calle) -> -calle.cantidad)
+            .thenComparing(calle -> calle.nombre);
+
+    @Autowired
+    private DireccionRepository direccionRepository;
+
+    @Value("${geolocalizacion.autocompletado.archivo:datos/calles.csv}")
+    private String archivo;
+
+    // Se reemplaza completo en cada carga; las consultas nunca ven un índice a medio construir
+    private volatile Indice indice = new Indice();
+
+    /**
+     * Calle sugerida. La cantidad cambia con las altas, siempre dentro de {@code synchronized (this)}.
+     */
+    static final class Calle {
+        private volatile String nombre;
+        private volatile int cantidad;
+        private boolean oficial;
+
+        Calle(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    /**
+     * Árbol de prefijos de un ámbito, con las calles por su nombre normalizado completo. Una clave sin tipo de vía
+     * nunca reemplaza a la de una calle que se llama así.
+     */
+    private static final class Arbol {
+        final TriePrefijos<Calle> prefijos = new TriePrefijos<>(ORDEN, LIMITE_MAXIMO);
+        final Map<String, Calle> calles = new HashMap<>();
+    }
+
+    /**
+     * Árbol general y árboles por comuna.
+     */
+    private static final class Indice {
+        final Arbol general = new Arbol();
+        final Map<Integer, Arbol> porComuna = new ConcurrentHashMap<>();
+    }
+
+    // -------------------------------------------------------------------------
+    // CARGA Y MANTENCIÓN
+    // -------------------------------------------------------------------------
+
+    /**
+     * Reconstruye el índice con el nomenclátor (si existe) y las calles de las direcciones registradas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void cargar() {
+        Indice nuevo = new Indice();
+        int delNomenclator = leerNomenclator(nuevo);
+        for (Object[] fila : direccionRepository.findCallesPorComuna()) {
+            agregar(nuevo, (Integer) fila[1], (String) fila[0], ((Number) fila[2]).intValue(), false);
+        }
+        indice = nuevo;
+        System.out.println("Autocompletado de calles cargado: " + nuevo.general.calles.size() + " calles ("
+                + delNomenclator + " calles del nomenclátor).");
+    }
+
+    /**
+     * Suma una dirección guardada a su calle, al confirmar la transacción en curso (o de inmediato si no hay una).
+     *
+     * @param idComuna ID de la comuna de la dirección.
+     * @param calle    Nombre de la calle tal como se registró.
+     */
+    public void registrar(Integer idComuna, String calle) {
+        if (idComuna == null || calle == null || calle.isBlank()) {
+            return;
+        }
+        Runnable cambio = () -> {
+            synchronized (this) {
+                agregar(indice, idComuna, calle, 1, false);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+            });
+        } else {
+            cambio.run();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // CONSULTAS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Sugiere calles cuyo nombre normalizado (con o sin tipo de vía) empieza con el texto escrito.
+     *
+     * @param texto    Texto escrito por el operador.
+     * @param idComuna Comuna en la que buscar, o {@code null} para todas.
+     * @param limite   Cantidad máxima de sugerencias (máximo {@value #LIMITE_MAXIMO}).
+     * @return Sugerencias de la más a la menos frecuente.
+     * @throws IllegalArgumentException Si el texto está vacío o es muy largo, o el límite está fuera de rango.
+     */
+    public List<SugerenciaCalleDTO> autocompletar(String texto, Integer idComuna, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO + ".");
+        }
+        if (texto == null || texto.length() > LARGO_MAXIMO) {
+            throw new IllegalArgumentException("El texto a buscar es requerido y no puede exceder " + LARGO_MAXIMO + " caracteres.");
+        }
+        String prefijo = NormalizadorDireccion.normalizarPrefijo(texto);
+        if (prefijo.isEmpty()) {
+            throw new IllegalArgumentException("El texto a buscar debe contener letras o números.");
+        }
+
+        Indice actual = indice;
+        Arbol arbol = idComuna == null ? actual.general : actual.porComuna.get(idComuna);
+        if (arbol == null) {
+            return List.of();
+        }
+        return arbol.prefijos.buscar(prefijo, limite).stream()
+                .map(calle -> new SugerenciaCalleDTO(calle.nombre, calle.cantidad))
+                .toList();
+    }
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCCIÓN
+    // -------------------------------------------------------------------------
+
+    private int leerNomenclator(Indice destino) {
+        Path ruta = Path.of(archivo);
+        if (!Files.isRegularFile(ruta)) {
+            return 0;
+        }
+        int leidas = 0;
+        try (BufferedReader lector = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                int separador = linea.indexOf(';');
+                if (linea.isBlank() || linea.startsWith("#") || separador < 0) {
+                    continue;
+                }
+                try {
+                    int idComuna = Integer.parseInt(linea.substring(0, separador).trim());
+                    agregar(destino, idComuna, linea.substring(separador + 1).trim(), 0, true);
+                    leidas++;
+                } catch (NumberFormatException e) {
+                    // Línea sin ID de comuna válido: se omite
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error al leer el nomenclátor de calles " + ruta + ": " + e.getMessage());
+        }
+        return leidas;
+    }
+
+    /**
+     * Suma {@code cantidad} direcciones a la calle en el árbol de su comuna y en el general.
+     */
+    private static void agregar(Indice destino, int idComuna, String nombre, int cantidad, boolean oficial) {
+        String clave = NormalizadorDireccion.normalizarTexto(nombre);
+        if (clave.isEmpty()) {
+            return;
+        }
+        agregar(destino.porComuna.computeIfAbsent(idComuna, id -> new Arbol()), clave, nombre.trim(), cantidad, oficial);
+        agregar(destino.general, clave, nombre.trim(), cantidad, oficial);
+    }
+
+    private static void agregar(Arbol arbol, String clave, String nombre, int cantidad, boolean oficial) {
+        Calle calle = arbol.calles.computeIfAbsent(clave, c -> new Calle(nombre));
+        calle.cantidad += cantidad;
+        if (oficial && !calle.oficial) {
+            calle.nombre = nombre;
+            calle.oficial = true;
+        }
+        // Se vuelve a poner aunque ya esté, para que el árbol recalcule el orden con la nueva cantidad
+        arbol.prefijos.poner(clave, calle);
+
+        // También sin el tipo de vía: "avenida pajaritos" queda además como "pajaritos"
+        int espacio = clave.indexOf(' ');
+        if (espacio > 0 && TIPOS_DE_VIA.contains(clave.substring(0, espacio))) {
+            String alias = clave.substring(espacio + 1);
+            if (!arbol.calles.containsKey(alias)) {
+                arbol.prefijos.poner(alias, calle);
+            }
+        }
+    }
+}
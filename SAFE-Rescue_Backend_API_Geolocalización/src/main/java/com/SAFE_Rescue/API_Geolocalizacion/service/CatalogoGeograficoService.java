@@ -0,0 +1,203 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RegionArbolDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Region;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.ComunaRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.RegionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Catálogo de regiones y comunas servido desde memoria.
+ * <p>
+ * Es un catálogo nacional casi fijo (16 regiones, 346 comunas), así que se lee completo al arrancar y se guarda
+ * en una instantánea inmutable, indexada por ID y con las comunas agrupadas por región. {@link RegionService} y
+ * {@link ComunaService} recargan la instantánea después de cada escritura; el reemplazo es atómico, de modo que
+ * una lectura ve el catálogo anterior o el nuevo, nunca uno a medias. Las lecturas no tocan la BD.
+ * </p>
+ * <p>
+ * Cada instantánea tiene una versión calculada a partir de su contenido (no de la hora de carga), por lo que
+ * todas las instancias con los mismos datos entregan el mismo {@code ETag}.
+ * </p>
+ */
+@Service
+public class CatalogoGeograficoService {
+
+    @Autowired
+    private RegionRepository regionRepository;
+
+    @Autowired
+    private ComunaRepository comunaRepository;
+
+    // Instantánea vigente; si una lectura llega antes de la carga inicial, la hace ella
+    private volatile Catalogo catalogo;
+
+    /**
+     * Instantánea del catálogo. Las entidades guardadas aquí nunca se entregan: las lecturas reciben copias.
+     */
+    private record Catalogo(List<Region> regiones, Map<Integer, Region> regionPorId,
+                            List<Comuna> comunas, Map<Integer, Comuna> comunaPorId,
+                            Map<Integer, List<Comuna>> comunasPorRegion,
+                            List<RegionArbolDTO> arbol, String version) {
+    }
+
+    /**
+     * Vuelve a leer regiones y comunas y reemplaza la instantánea.
+     * Es {@code synchronized} para que una recarga lenta nunca pise a una más reciente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recargar() {
+        List<Region> regiones = regionRepository.findAll().stream()
+                .map(CatalogoGeograficoService::copiar)
+                .sorted(Comparator.comparing(Region::getIdRegion))
+                .toList();
+        Map<Integer, Region> regionPorId = new HashMap<>();
+        regiones.forEach(region -> regionPorId.put(region.getIdRegion(), region));
+
+        List<Comuna> comunas = comunaRepository.findAll().stream()
+                .map(CatalogoGeograficoService::copiar)
+                .sorted(Comparator.comparing(Comuna::getIdComuna))
+                .toList();
+        Map<Integer, Comuna> comunaPorId = new HashMap<>();
+        Map<Integer, List<Comuna>> comunasPorRegion = new HashMap<>();
+        regiones.forEach(region -> comunasPorRegion.put(region.getIdRegion(), new ArrayList<>()));
+        for (Comuna comuna : comunas) {
+            comunaPorId.put(comuna.getIdComuna(), comuna);
+            if (comuna.getRegion() != null) {
+                comunasPorRegion.computeIfAbsent(comuna.getRegion().getIdRegion(), id -> new ArrayList<>()).add(comuna);
+            }
+        }
+        Comparator<Comuna> porNombre = Comparator.comparing(Comuna::getNombre, Comparator.nullsLast(String::compareTo))
+                .thenComparing(Comuna::getIdComuna);
+        comunasPorRegion.replaceAll((id, lista) -> lista.stream().sorted(porNombre).toList());
+
+        List<RegionArbolDTO> arbol = regiones.stream()
+                .map(region -> new RegionArbolDTO(region.getIdRegion(), region.getNombre(), region.getIdentificacion(),
+                        comunasPorRegion.get(region.getIdRegion()).stream()
+                                .map(comuna -> new RegionArbolDTO.ComunaArbol(comuna.getIdComuna(), comuna.getNombre(), comuna.getCodigoPostal()))
+                                .toList()))
+                .toList();
+
+        catalogo = new Catalogo(regiones, Map.copyOf(regionPorId), comunas, Map.copyOf(comunaPorId),
+                Map.copyOf(comunasPorRegion), arbol, calcularVersion(regiones, comunas));
+    }
+
+    // -------------------------------------------------------------------------
+    // LECTURAS
+    // -------------------------------------------------------------------------
+
+    /**
+     * @return Todas las regiones, ordenadas por ID.
+     */
+    public List<Region> findRegiones() {
+        return catalogo().regiones().stream().map(CatalogoGeograficoService::copiar).toList();
+    }
+
+    /**
+     * @param id ID de la región.
+     * @return La región, o vacío si no existe.
+     */
+    public Optional<Region> findRegion(Integer id) {
+        return Optional.ofNullable(catalogo().regionPorId().get(id)).map(CatalogoGeograficoService::copiar);
+    }
+
+    /**
+     * @return Todas las comunas con su región, ordenadas por ID.
+     */
+    public List<Comuna> findComunas() {
+        return catalogo().comunas().stream().map(CatalogoGeograficoService::copiar).toList();
+    }
+
+    /**
+     * @param id ID de la comuna.
+     * @return La comuna con su región, o vacío si no existe.
+     */
+    public Optional<Comuna> findComuna(Integer id) {
+        return Optional.ofNullable(catalogo().comunaPorId().get(id)).map(CatalogoGeograficoService::copiar);
+    }
+
+    /**
+     * @param idRegion ID de la región.
+     * @return Las comunas de la región, ordenadas por nombre.
+     * @throws NoSuchElementException Si la región no existe.
+     */
+    public List<Comuna> findComunasDeRegion(Integer idRegion) {
+        List<Comuna> comunas = catalogo().comunasPorRegion().get(idRegion);
+        if (comunas == null) {
+            throw new NoSuchElementException("No se encontró la región con ID: " + idRegion);
+        }
+        return comunas.stream().map(CatalogoGeograficoService::copiar).toList();
+    }
+
+    /**
+     * @return Todas las regiones con sus comunas. La lista es inmutable y se comparte entre lecturas.
+     */
+    public List<RegionArbolDTO> getArbol() {
+        return catalogo().arbol();
+    }
+
+    /**
+     * Versión de la instantánea vigente; cambia solo si cambia el contenido del catálogo.
+     *
+     * @return Resumen hexadecimal del contenido.
+     */
+    public String getVersion() {
+        return catalogo().version();
+    }
+
+    // -------------------------------------------------------------------------
+    // AUXILIARES
+    // -------------------------------------------------------------------------
+
+    private Catalogo catalogo() {
+        Catalogo actual = catalogo;
+        if (actual == null) {
+            recargar();
+            actual = catalogo;
+        }
+        return actual;
+    }
+
+    private static String calcularVersion(List<Region> regiones, List<Comuna> comunas) {
+        StringBuilder contenido = new StringBuilder();
+        for (Region region : regiones) {
+            contenido.append('R').append(region.getIdRegion()).append('\u0000').append(region.getNombre())
+                    .append('\u0000').append(region.getIdentificacion()).append('\n');
+        }
+        for (Comuna comuna : comunas) {
+            contenido.append('C').append(comuna.getIdComuna()).append('\u0000').append(comuna.getNombre())
+                    .append('\u0000').append(comuna.getCodigoPostal())
+                    .append('\u0000').append(comuna.getRegion() != null ? comuna.getRegion().getIdRegion() : null).append('\n');
+        }
+        try {
+            byte[] resumen = MessageDigest.getInstance("SHA-256").digest(contenido.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(resumen, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    private static Region copiar(Region region) {
+        return new Region(region.getIdRegion(), region.getNombre(), region.getIdentificacion());
+    }
+
+    private static Comuna copiar(Comuna comuna) {
+        return new Comuna(comuna.getIdComuna(), comuna.getNombre(), comuna.getCodigoPostal(),
+                comuna.getRegion() != null ? copiar(comuna.getRegion()) : null);
+    }
+}
@@ -20,29 +20,53 @@ public class ComunaService {
     @Autowired
     private ComunaRepository comunaRepository;
 
+    @Autowired
+    private CatalogoGeograficoService catalogoGeograficoService;
+
+    @Autowired
+    private LimitesComunaService limitesComunaService;
+
     // MÉTODOS CRUD PRINCIPALES
 
     /**
-     * Obtiene todas las comunas registradas en el sistema.
+     * Obtiene todas las comunas registradas en el sistema (desde el catálogo en memoria).
      *
      * @return Lista completa de comunas
      */
     public List<Comuna> findAll() {
-        return comunaRepository.findAll();
+        return catalogoGeograficoService.findComunas();
     }
 
     /**
-     * Busca una comuna por su ID único.
+     * Busca una comuna por su ID único (desde el catálogo en memoria).
      *
      * @param id Identificador de la comuna
      * @return Comuna encontrada
      * @throws NoSuchElementException Si no se encuentra la comuna
      */
     public Comuna findById(Integer id) {
-        return comunaRepository.findById(id)
+        return catalogoGeograficoService.findComuna(id)
                 .orElseThrow(() -> new NoSuchElementException("No se encontró la comuna con ID: " + id));
     }
 
+    /**
+     * Busca la comuna (con su región) en la que cae un punto, según los límites comunales cargados en memoria.
+     *
+     * @param latitud  Latitud en grados decimales
+     * @param longitud Longitud en grados decimales
+     * @return Comuna que contiene el punto
+     * @throws IllegalArgumentException Si las coordenadas están fuera de rango
+     * @throws NoSuchElementException   Si el punto no cae en ninguna comuna conocida
+     */
+    public Comuna buscarPorPunto(double latitud, double longitud) {
+        if (!(latitud >= -90 && latitud <= 90) || !(longitud >= -180 && longitud <= 180)) {
+            throw new IllegalArgumentException("Coordenadas fuera de rango (latitud -90..90, longitud -180..180).");
+        }
+        Integer idComuna = limitesComunaService.buscarIdComuna(latitud, longitud)
+                .orElseThrow(() -> new NoSuchElementException("No se encontró una comuna para el punto: " + latitud + ", " + longitud));
+        return findById(idComuna);
+    }
+
     /**
      * Guarda una nueva comuna en el sistema.
      *
@@ -53,7 +77,9 @@ public class ComunaService {
     public Comuna save(Comuna comuna) {
         validarComuna(comuna);
         try {
-            return comunaRepository.save(comuna);
+            Comuna guardada = comunaRepository.save(comuna);
+            catalogoGeograficoService.recargar();
+            return guardada;
         } catch (DataIntegrityViolationException e) {
             // Error de integridad: puede ser porque la Region no existe (FK) o datos inválidos.
             throw new IllegalArgumentException("Error de integridad de datos. Verifique que la Región asociada exista y que los valores sean válidos.", e);
@@ -86,7 +112,9 @@ public class ComunaService {
         antiguaComuna.setRegion(comuna.getRegion());
 
         try {
-            return comunaRepository.save(antiguaComuna);
+            Comuna actualizada = comunaRepository.save(antiguaComuna);
+            catalogoGeograficoService.recargar();
+            return actualizada;
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Error de integridad de datos. Verifique que la Región asociada sea válida.", e);
         }
@@ -105,6 +133,7 @@ public class ComunaService {
         }
         try {
             comunaRepository.deleteById(id);
+            catalogoGeograficoService.recargar();
         } catch (DataIntegrityViolationException e) {
             // Esto es crucial si la comuna tiene direcciones asociadas
             throw new IllegalArgumentException("No se puede eliminar la comuna porque tiene direcciones asociadas.", e);
@@ -1,10 +1,12 @@
 package com.SAFE_Rescue.API_Geolocalizacion.service;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MapaCalorDTO;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
 import com.SAFE_Rescue.API_Geolocalizacion.repositoy.CoordenadasRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -20,6 +22,15 @@ public class CoordenadasService { // Cambiado de CordenadasService a Coordenadas
     @Autowired
     private CoordenadasRepository coordenadasRepository;
 
+    @Autowired
+    private IndiceEspacialService indiceEspacialService;
+
+    @Autowired
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    @Autowired
+    private MapaCalorService mapaCalorService;
+
     // MÉTODOS CRUD PRINCIPALES
 
     /**
@@ -55,7 +66,9 @@ public class CoordenadasService { // Cambiado de CordenadasService a Coordenadas
             throw new IllegalArgumentException("La entidad Coordenadas no puede ser nula."); // Mensaje actualizado
         }
         try {
-            return coordenadasRepository.save(coordenadas);
+            Coordenadas guardadas = coordenadasRepository.save(coordenadas);
+            mapaCalorService.registrar(guardadas);
+            return guardadas;
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Error de integridad de datos al guardar las coordenadas.", e); // Mensaje actualizado
         }
@@ -70,6 +83,7 @@ public class CoordenadasService { // Cambiado de CordenadasService a Coordenadas
      * @throws IllegalArgumentException Si las coordenadas son nulas
      * @throws NoSuchElementException Si no se encuentran las coordenadas a actualizar
      */
+    @Transactional
     public Coordenadas update(Coordenadas coordenadas, Integer id) { // Cambiado parámetro y tipo de retorno
         if (coordenadas == null) {
             throw new IllegalArgumentException("Las coordenadas no pueden ser nulas."); // Mensaje actualizado
@@ -79,13 +93,22 @@ public class CoordenadasService { // Cambiado de CordenadasService a Coordenadas
         Coordenadas antiguasCoordenadas = coordenadasRepository.findById(id) // Cambiado el nombre de la variable
                 .orElseThrow(() -> new NoSuchElementException("Coordenadas no encontradas con ID: " + id)); // Mensaje actualizado
 
-        // 2. Actualiza solo los campos modificables (Latitud y Longitud)
+        // 2. Actualiza solo los campos modificables (Latitud y Longitud), recordando la ubicación anterior
+        Float latitudAnterior = antiguasCoordenadas.getLatitud();
+        Float longitudAnterior = antiguasCoordenadas.getLongitud();
         antiguasCoordenadas.setLatitud(coordenadas.getLatitud());
         antiguasCoordenadas.setLongitud(coordenadas.getLongitud());
 
         try {
-            // 3. Guarda y retorna la entidad actualizada
-            return coordenadasRepository.save(antiguasCoordenadas);
+            // 3. Guarda, copia el cambio a la ubicación en línea de las direcciones, mueve la dirección asociada
+            //    en el índice espacial y en el mapa de calor, y retorna la entidad actualizada
+            Coordenadas actualizadas = coordenadasRepository.save(antiguasCoordenadas);
+            ubicacionEnLineaService.actualizarCoordenadas(id, actualizadas.getLatitud(), actualizadas.getLongitud());
+            if (actualizadas.getLatitud() != null && actualizadas.getLongitud() != null) {
+                indiceEspacialService.actualizarCoordenadas(id, actualizadas.getLatitud(), actualizadas.getLongitud());
+            }
+            mapaCalorService.mover(latitudAnterior, longitudAnterior, actualizadas.getLatitud(), actualizadas.getLongitud());
+            return actualizadas;
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Error al actualizar. Verifique la validez de las coordenadas.", e);
         }
@@ -98,9 +121,25 @@ public class CoordenadasService { // Cambiado de CordenadasService a Coordenadas
      * @throws NoSuchElementException Si no se encuentran las coordenadas
      */
     public void delete(Integer id) {
-        if (!coordenadasRepository.existsById(id)) {
-            throw new NoSuchElementException("Coordenadas no encontradas con ID: " + id); // Mensaje actualizado
-        }
+        // Se carga la entidad (y no solo se verifica que exista) para descontarla del mapa de calor
+        Coordenadas coordenadas = coordenadasRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Coordenadas no encontradas con ID: " + id)); // Mensaje actualizado
         coordenadasRepository.deleteById(id);
+        indiceEspacialService.eliminarCoordenadas(id);
+        mapaCalorService.quitar(coordenadas);
+    }
+
+    // MAPA DE CALOR
+
+    /**
+     * Conteos de coordenadas por celda del área visible de un mapa, precalculados en memoria.
+     *
+     * @param zoom Zoom del mapa (0 a {@value MapaCalorService#ZOOM_MAXIMO})
+     * @param bbox Área visible como "oeste,sur,este,norte"
+     * @return Celdas con al menos una coordenada
+     * @throws IllegalArgumentException Si el zoom o el área no son válidos, o si el área abarca demasiadas teselas
+     */
+    public MapaCalorDTO consultarMapaCalor(int zoom, String bbox) {
+        return mapaCalorService.consultar(zoom, bbox);
     }
 }
\ No newline at end of file
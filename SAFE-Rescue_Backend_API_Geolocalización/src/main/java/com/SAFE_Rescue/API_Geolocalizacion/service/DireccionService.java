@@ -1,18 +1,35 @@
 package com.SAFE_Rescue.API_Geolocalizacion.service;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionResumenDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionUbicacionDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.PaginaDireccionesDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.SugerenciaCalleDTO;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
 import com.SAFE_Rescue.API_Geolocalizacion.repositoy.ComunaRepository;
 import com.SAFE_Rescue.API_Geolocalizacion.repositoy.CoordenadasRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionFusionadaRepository;
 import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.GeoUtil;
+import com.SAFE_Rescue.API_Geolocalizacion.util.NormalizadorDireccion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión integral de la entidad Direccion.
@@ -21,21 +38,44 @@ import java.util.NoSuchElementException;
 @Service
 public class DireccionService {
 
+    // Límites de las búsquedas geográficas
+    public static final double RADIO_MAXIMO_KM = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
     // REPOSITORIOS INYECTADOS
     @Autowired
     private DireccionRepository direccionRepository;
 
+    @Autowired
+    private DireccionFusionadaRepository direccionFusionadaRepository;
+
     @Autowired
     private CoordenadasRepository coordenadasRepository;
 
     @Autowired
     private ComunaRepository comunaRepository;
 
+    @Autowired
+    private IndiceEspacialService indiceEspacialService;
+
+    @Autowired
+    private LimitesComunaService limitesComunaService;
+
+    @Autowired
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    @Autowired
+    private AutocompletadoService autocompletadoService;
+
+    @Autowired
+    private MapaCalorService mapaCalorService;
+
 
     // MÉTODOS CRUD PRINCIPALES
 
     /**
-     * Obtiene todas las direcciones registradas en el sistema.
+     * Obtiene todas las direcciones registradas en el sistema, con su comuna, región y coordenadas
+     * cargadas en la misma consulta.
      *
      * @return Lista completa de direcciones
      */
@@ -43,16 +83,120 @@ public class DireccionService {
         return direccionRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de direcciones ordenadas por ID, con su comuna, región y coordenadas cargadas
+     * en la misma consulta. Cada página es una sola consulta, y su costo no crece con el número de página.
+     *
+     * @param cursor  ID de la última dirección de la página anterior (nulo para la primera página)
+     * @param tamanio Cantidad de direcciones por página (máximo {@value #LIMITE_MAXIMO})
+     * @return Las direcciones de la página; si vienen {@code tamanio}, puede haber una página siguiente
+     * @throws IllegalArgumentException Si el tamaño está fuera de rango o el cursor es negativo
+     */
+    public List<Direccion> findAll(Integer cursor, int tamanio) {
+        validarLimite(tamanio);
+        if (cursor != null && cursor < 0) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+        return direccionRepository.findByIdDireccionGreaterThanOrderByIdDireccionAsc(
+                cursor != null ? cursor : 0, PageRequest.of(0, tamanio));
+    }
+
     /**
      * Busca una dirección por su ID único.
+     * Si la dirección se fusionó con otra por estar duplicada, devuelve la que quedó.
      *
      * @param id Identificador de la dirección
      * @return Dirección encontrada
      * @throws NoSuchElementException Si no se encuentra la dirección
      */
     public Direccion findById(Integer id) {
-        return direccionRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("No se encontró la dirección con ID: " + id));
+        return buscarSiguiendoFusion(id, direccionRepository::findById);
+    }
+
+    /**
+     * Obtiene una página del listado plano de direcciones, ordenado por ID.
+     * Cada página es una sola consulta, y su costo no crece con el número de página.
+     *
+     * @param cursor  Cursor devuelto por la página anterior (nulo para la primera página)
+     * @param tamanio Cantidad de direcciones por página (máximo {@value #LIMITE_MAXIMO})
+     * @return Página con las direcciones y el cursor de la siguiente
+     * @throws IllegalArgumentException Si el tamaño está fuera de rango o el cursor es negativo
+     */
+    public PaginaDireccionesDTO listarPagina(Integer cursor, int tamanio) {
+        validarLimite(tamanio);
+        if (cursor != null && cursor < 0) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+
+        // Se pide una dirección extra para saber si hay página siguiente
+        int desde = cursor != null ? cursor : 0;
+        PageRequest pagina = PageRequest.of(0, tamanio + 1);
+        List<DireccionResumenDTO> direcciones = ubicacionEnLineaService.isActivo()
+                ? direccionRepository.findResumenEnLineaDesde(desde, pagina)
+                : direccionRepository.findResumenDesde(desde, pagina);
+        Integer siguienteCursor = null;
+        if (direcciones.size() > tamanio) {
+            direcciones = direcciones.subList(0, tamanio);
+            siguienteCursor = direcciones.get(tamanio - 1).getIdDireccion();
+        }
+        return new PaginaDireccionesDTO(direcciones, siguienteCursor);
+    }
+
+    /**
+     * Busca la proyección plana de una dirección por su ID.
+     * Si la dirección se fusionó con otra por estar duplicada, devuelve la que quedó.
+     *
+     * @param id Identificador de la dirección
+     * @return Dirección con su comuna, región y coordenadas
+     * @throws NoSuchElementException Si no se encuentra la dirección
+     */
+    public DireccionResumenDTO findResumenById(Integer id) {
+        Function<Integer, Optional<DireccionResumenDTO>> buscar = ubicacionEnLineaService.isActivo()
+                ? direccionRepository::findResumenEnLineaById
+                : direccionRepository::findResumenById;
+        return buscarSiguiendoFusion(id, buscar);
+    }
+
+    /**
+     * Busca varias direcciones por ID en una sola consulta, con su comuna, región y coordenadas.
+     * Pensado para otros servicios que necesitan las direcciones de una página completa de registros.
+     *
+     * @param ids IDs buscados (máximo {@value #LIMITE_MAXIMO}; los repetidos se ignoran)
+     * @return Direcciones encontradas, en el orden pedido; los IDs inexistentes se omiten y los de direcciones
+     * fusionadas se reemplazan por la dirección que quedó (una sola vez)
+     * @throws IllegalArgumentException Si no se indica ningún ID o se excede el máximo
+     */
+    public List<Direccion> findAllById(List<Integer> ids) {
+        Set<Integer> unicos = ids == null ? Set.of() : new LinkedHashSet<>(ids);
+        unicos.remove(null);
+        if (unicos.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un ID de dirección.");
+        }
+        if (unicos.size() > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("No se pueden consultar más de " + LIMITE_MAXIMO + " direcciones a la vez.");
+        }
+        Map<Integer, Direccion> porId = direccionRepository.findAllConRelacionesByIdIn(unicos).stream()
+                .collect(Collectors.toMap(Direccion::getIdDireccion, Function.identity()));
+
+        // Los IDs que no aparecen pueden ser de direcciones fusionadas: se resuelven con una consulta más
+        Set<Integer> faltantes = new LinkedHashSet<>(unicos);
+        faltantes.removeAll(porId.keySet());
+        Map<Integer, Integer> destinoPorId = new HashMap<>();
+        if (!faltantes.isEmpty()) {
+            direccionFusionadaRepository.findAllById(faltantes)
+                    .forEach(fusion -> destinoPorId.put(fusion.getIdDireccion(), fusion.getIdDireccionDestino()));
+            Set<Integer> destinos = new LinkedHashSet<>(destinoPorId.values());
+            destinos.removeAll(porId.keySet());
+            if (!destinos.isEmpty()) {
+                direccionRepository.findAllConRelacionesByIdIn(destinos)
+                        .forEach(direccion -> porId.put(direccion.getIdDireccion(), direccion));
+            }
+        }
+        return unicos.stream()
+                .map(id -> porId.getOrDefault(id, porId.get(destinoPorId.get(id))))
+                .filter(direccion -> direccion != null)
+                .distinct()
+                .toList();
     }
 
     /**
@@ -60,15 +204,34 @@ public class DireccionService {
      *
      * CORRECCIÓN CRÍTICA: Maneja entidades 'detached' (Coordenadas/Comuna) buscándolas primero
      * para evitar el error "detached entity passed to persist".
+     * Si no viene comuna, se asigna la que contiene sus coordenadas según los límites comunales.
+     * Si ya existe la misma dirección (misma clave canónica, ver {@link NormalizadorDireccion}) no se crea
+     * otra: se devuelve la existente.
+     * La ubicación en línea (latitud/longitud en doble precisión) se toma del payload si viene; si no, de las
+     * coordenadas. Si solo viene la ubicación en línea, se crean coordenadas con ella.
      *
      * @param direccion Datos de la dirección a guardar
-     * @return Dirección guardada con ID generado
+     * @return Dirección guardada con ID generado, o la existente equivalente
      * @throws IllegalArgumentException Si la dirección no cumple con los parámetros
      */
     @Transactional
     public Direccion save(Direccion direccion) {
+        coordenadasDesdeUbicacion(direccion);
+        if (direccion.getComuna() == null || direccion.getComuna().getIdComuna() == null) {
+            asignarComunaPorUbicacion(direccion);
+        }
         validarDireccion(direccion);
 
+        // 0. Misma dirección ya registrada (búsqueda por el índice de la clave canónica)
+        String clave = NormalizadorDireccion.claveCanonica(direccion);
+        if (clave != null) {
+            Optional<Direccion> existente = direccionRepository.findFirstByClaveCanonicaOrderByIdDireccionAsc(clave);
+            if (existente.isPresent()) {
+                return existente.get();
+            }
+        }
+        direccion.setClaveCanonica(clave);
+
         // 1. Gestionar Coordenadas Detached
         // Si vienen coordenadas con ID, las buscamos en BD para asociar la instancia "managed"
         if (direccion.getCoordenadas() != null && direccion.getCoordenadas().getIdCoordenadas() != null) {
@@ -84,16 +247,174 @@ public class DireccionService {
                     .orElseThrow(() -> new RuntimeException("Comuna no encontrada con ID: " + direccion.getComuna().getIdComuna()));
             direccion.setComuna(comunaManaged);
         }
+        ubicacionEnLineaService.completar(direccion);
+        // Las coordenadas sin ID se insertan en cascada con la dirección
+        boolean coordenadasNuevas = direccion.getCoordenadas() != null && direccion.getCoordenadas().getIdCoordenadas() == null;
 
         try {
-            return direccionRepository.save(direccion);
+            Direccion guardada = direccionRepository.save(direccion);
+            indiceEspacialService.registrar(guardada);
+            if (coordenadasNuevas) {
+                mapaCalorService.registrar(guardada.getCoordenadas());
+            }
+            autocompletadoService.registrar(guardada.getComuna().getIdComuna(), guardada.getCalle());
+            return guardada;
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Error de integridad de datos al guardar Dirección. Verifique datos.", e);
         }
     }
 
+    /**
+     * Guarda un lote de direcciones nuevas en una sola transacción: o se guardan todas o ninguna.
+     * <p>
+     * Las comunas y coordenadas referenciadas se resuelven para todo el lote con una consulta por tabla, y
+     * las filas se insertan con sentencias JDBC en lote en vez de un INSERT por dirección. Igual que en
+     * {@link #save(Direccion)}, si una dirección no trae comuna se asigna la que contiene sus coordenadas, y las
+     * que ya existen (o se repiten dentro del lote) no se vuelven a insertar.
+     * </p>
+     *
+     * @param direcciones Direcciones a guardar (máximo {@value #LIMITE_MAXIMO})
+     * @return Las direcciones guardadas con sus IDs generados, o las existentes equivalentes, en el mismo orden
+     * @throws IllegalArgumentException Si el lote está vacío o excede el máximo, si alguna dirección no es válida
+     *                                  o si referencia comunas o coordenadas inexistentes
+     */
+    @Transactional
+    public List<Direccion> saveAll(List<Direccion> direcciones) {
+        if (direcciones == null || direcciones.isEmpty()) {
+            throw new IllegalArgumentException("El lote debe contener al menos una dirección.");
+        }
+        if (direcciones.size() > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El lote no puede contener más de " + LIMITE_MAXIMO + " direcciones.");
+        }
+
+        // 1. Coordenadas existentes del lote, en una sola consulta
+        Map<Integer, Coordenadas> coordenadasPorId = coordenadasRepository.findAllById(
+                        idsDe(direcciones, direccion -> direccion.getCoordenadas() != null ? direccion.getCoordenadas().getIdCoordenadas() : null))
+                .stream()
+                .collect(Collectors.toMap(Coordenadas::getIdCoordenadas, Function.identity()));
+        for (int i = 0; i < direcciones.size(); i++) {
+            Direccion direccion = direcciones.get(i);
+            if (direccion == null) {
+                throw new IllegalArgumentException("Dirección #" + (i + 1) + ": la entidad Dirección no puede ser nula.");
+            }
+            try {
+                coordenadasDesdeUbicacion(direccion);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Dirección #" + (i + 1) + ": " + e.getMessage(), e);
+            }
+            Coordenadas coordenadas = direccion.getCoordenadas();
+            if (coordenadas != null && coordenadas.getIdCoordenadas() != null) {
+                Coordenadas existentes = coordenadasPorId.get(coordenadas.getIdCoordenadas());
+                if (existentes == null) {
+                    throw new IllegalArgumentException("Dirección #" + (i + 1) + ": coordenadas no encontradas con ID: " + coordenadas.getIdCoordenadas());
+                }
+                direccion.setCoordenadas(existentes);
+            } else if (coordenadas != null && (coordenadas.getLatitud() == null || coordenadas.getLongitud() == null)) {
+                throw new IllegalArgumentException("Dirección #" + (i + 1) + ": las coordenadas nuevas requieren latitud y longitud.");
+            }
+            ubicacionEnLineaService.completar(direccion);
+
+            // 2. Comuna por ubicación (índice en memoria) y validación de cada dirección
+            if (direccion.getComuna() == null || direccion.getComuna().getIdComuna() == null) {
+                Coordenadas ubicacion = direccion.getCoordenadas();
+                if (ubicacion != null) {
+                    limitesComunaService.buscarIdComuna(ubicacion.getLatitud(), ubicacion.getLongitud())
+                            .ifPresent(idComuna -> {
+                                Comuna comuna = new Comuna();
+                                comuna.setIdComuna(idComuna);
+                                direccion.setComuna(comuna);
+                            });
+                }
+            }
+            try {
+                validarDireccion(direccion);
+                if (direccion.getComuna().getIdComuna() == null) {
+                    throw new IllegalArgumentException("La dirección debe estar asociada a una Comuna válida.");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Dirección #" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+
+        // 3. Comunas del lote, en una sola consulta
+        Map<Integer, Comuna> comunasPorId = comunaRepository.findAllById(idsDe(direcciones, direccion -> direccion.getComuna().getIdComuna()))
+                .stream()
+                .collect(Collectors.toMap(Comuna::getIdComuna, Function.identity()));
+        for (int i = 0; i < direcciones.size(); i++) {
+            Direccion direccion = direcciones.get(i);
+            Comuna comuna = comunasPorId.get(direccion.getComuna().getIdComuna());
+            if (comuna == null) {
+                throw new IllegalArgumentException("Dirección #" + (i + 1) + ": comuna no encontrada con ID: " + direccion.getComuna().getIdComuna());
+            }
+            direccion.setComuna(comuna);
+            direccion.setIdDireccion(null);
+            direccion.setClaveCanonica(NormalizadorDireccion.claveCanonica(direccion));
+        }
+
+        // 4. Direcciones ya registradas, en una sola consulta por clave canónica
+        Set<String> claves = new LinkedHashSet<>();
+        direcciones.forEach(direccion -> {
+            if (direccion.getClaveCanonica() != null) {
+                claves.add(direccion.getClaveCanonica());
+            }
+        });
+        Map<String, Direccion> porClave = new HashMap<>();
+        if (!claves.isEmpty()) {
+            direccionRepository.findByClaveCanonicaInOrderByIdDireccionAsc(claves)
+                    .forEach(existente -> porClave.putIfAbsent(existente.getClaveCanonica(), existente));
+        }
+        List<Direccion> resultado = new ArrayList<>(direcciones.size());
+        List<Direccion> nuevas = new ArrayList<>(direcciones.size());
+        for (Direccion direccion : direcciones) {
+            String clave = direccion.getClaveCanonica();
+            Direccion existente = clave != null ? porClave.get(clave) : null;
+            if (existente != null) {
+                resultado.add(existente);
+                continue;
+            }
+            if (clave != null) {
+                porClave.put(clave, direccion);
+            }
+            nuevas.add(direccion);
+            resultado.add(direccion);
+        }
+
+        // 5. Inserción en lote (las coordenadas sin ID se insertan junto con las direcciones)
+        if (!nuevas.isEmpty()) {
+            List<Coordenadas> coordenadasNuevas = nuevas.stream()
+                    .map(Direccion::getCoordenadas)
+                    .filter(coordenadas -> coordenadas != null && coordenadas.getIdCoordenadas() == null)
+                    .toList();
+            try {
+                direccionRepository.insertarLote(nuevas);
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalArgumentException("Error de integridad de datos al guardar el lote de direcciones. Verifique datos.", e);
+            }
+            nuevas.forEach(indiceEspacialService::registrar);
+            coordenadasNuevas.forEach(mapaCalorService::registrar);
+            nuevas.forEach(nueva -> autocompletadoService.registrar(nueva.getComuna().getIdComuna(), nueva.getCalle()));
+        }
+        return resultado;
+    }
+
+    /**
+     * IDs distintos y no nulos que referencian las direcciones de un lote.
+     */
+    private static Set<Integer> idsDe(List<Direccion> direcciones, Function<Direccion, Integer> id) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Direccion direccion : direcciones) {
+            Integer valor = direccion != null ? id.apply(direccion) : null;
+            if (valor != null) {
+                ids.add(valor);
+            }
+        }
+        return ids;
+    }
+
     /**
      * Actualiza los datos de una dirección existente.
+     * Si trae ubicación en línea y queda ligada a unas coordenadas, estas se mueven a la misma ubicación en la
+     * misma transacción, junto con las demás direcciones que las usan.
      *
      * @param direccion Datos actualizados de la dirección
      * @param id        Identificador de la dirección a actualizar
@@ -109,8 +430,10 @@ public class DireccionService {
 
         validarDireccion(direccion);
 
-        Direccion antiguaDireccion = direccionRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Dirección no encontrada con ID: " + id));
+        Direccion antiguaDireccion = buscarSiguiendoFusion(id, direccionRepository::findById);
+
+        String calleAnterior = antiguaDireccion.getCalle();
+        Integer idComunaAnterior = antiguaDireccion.getComuna() != null ? antiguaDireccion.getComuna().getIdComuna() : null;
 
         // Actualiza los campos específicos
         antiguaDireccion.setCalle(direccion.getCalle());
@@ -118,6 +441,17 @@ public class DireccionService {
         antiguaDireccion.setComplemento(direccion.getComplemento());
         antiguaDireccion.setVilla(direccion.getVilla());
 
+        // Ubicación en línea: la del payload si viene; si cambian las coordenadas, se vuelve a tomar de ellas
+        boolean ubicacionEnPayload = direccion.getLatitud() != null && direccion.getLongitud() != null;
+        if (ubicacionEnPayload) {
+            validarPunto(direccion.getLatitud(), direccion.getLongitud());
+            antiguaDireccion.setLatitud(direccion.getLatitud());
+            antiguaDireccion.setLongitud(direccion.getLongitud());
+        } else if (direccion.getCoordenadas() != null && direccion.getCoordenadas().getIdCoordenadas() != null) {
+            antiguaDireccion.setLatitud(null);
+            antiguaDireccion.setLongitud(null);
+        }
+
         // Actualiza las relaciones (aplicando la misma lógica de managed entities)
         if (direccion.getComuna() != null && direccion.getComuna().getIdComuna() != null) {
             Comuna comunaManaged = comunaRepository.findById(direccion.getComuna().getIdComuna())
@@ -131,8 +465,36 @@ public class DireccionService {
             antiguaDireccion.setCoordenadas(coordenadasManaged);
         }
 
+        // Las coordenadas ligadas siguen a la ubicación del payload, para que las dos copias no difieran
+        Coordenadas coordenadas = antiguaDireccion.getCoordenadas();
+        boolean moverCoordenadas = ubicacionEnPayload && coordenadas != null;
+        Float latitudAnterior = moverCoordenadas ? coordenadas.getLatitud() : null;
+        Float longitudAnterior = moverCoordenadas ? coordenadas.getLongitud() : null;
+        if (moverCoordenadas) {
+            coordenadas.setLatitud(direccion.getLatitud().floatValue());
+            coordenadas.setLongitud(direccion.getLongitud().floatValue());
+            // Igual que al propagar a las demás direcciones, la copia en línea toma el valor guardado en coordenadas
+            antiguaDireccion.setLatitud(GeoUtil.comoDouble(coordenadas.getLatitud()));
+            antiguaDireccion.setLongitud(GeoUtil.comoDouble(coordenadas.getLongitud()));
+        }
+        ubicacionEnLineaService.completar(antiguaDireccion);
+        // Si con el cambio queda igual a otra dirección, la tarea de fusión las unirá
+        antiguaDireccion.setClaveCanonica(NormalizadorDireccion.claveCanonica(antiguaDireccion));
+
         try {
-            return direccionRepository.save(antiguaDireccion);
+            Direccion actualizada = direccionRepository.save(antiguaDireccion);
+            if (moverCoordenadas) {
+                Coordenadas movidas = coordenadasRepository.save(coordenadas);
+                ubicacionEnLineaService.actualizarCoordenadas(movidas.getIdCoordenadas(), movidas.getLatitud(), movidas.getLongitud());
+                mapaCalorService.mover(latitudAnterior, longitudAnterior, movidas.getLatitud(), movidas.getLongitud());
+            }
+            indiceEspacialService.registrar(actualizada);
+            // El autocompletado solo suma la calle si es otra (o de otra comuna); la anterior se descuenta al recargar
+            if (!Objects.equals(calleAnterior, actualizada.getCalle())
+                    || !Objects.equals(idComunaAnterior, actualizada.getComuna().getIdComuna())) {
+                autocompletadoService.registrar(actualizada.getComuna().getIdComuna(), actualizada.getCalle());
+            }
+            return actualizada;
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Error de integridad de datos. Verifique que las entidades asociadas sean válidas.", e);
         }
@@ -140,19 +502,163 @@ public class DireccionService {
 
     /**
      * Elimina una dirección del sistema.
+     * Si la dirección se fusionó con otra por estar duplicada, se elimina la que quedó.
      *
      * @param id Identificador de la dirección a eliminar
      * @throws NoSuchElementException Si no se encuentra la dirección
      */
     public void delete(Integer id) {
-        if (!direccionRepository.existsById(id)) {
-            throw new NoSuchElementException("Dirección no encontrada con ID: " + id);
+        // Se carga la entidad para descontar del mapa de calor las coordenadas que se borran en cascada con ella
+        Direccion direccion = buscarSiguiendoFusion(id, direccionRepository::findById);
+        direccionRepository.deleteById(direccion.getIdDireccion());
+        indiceEspacialService.eliminar(direccion.getIdDireccion());
+        mapaCalorService.quitar(direccion.getCoordenadas());
+    }
+
+    // BÚSQUEDAS GEOGRÁFICAS
+
+    /**
+     * Busca las direcciones dentro de un radio, de la más cercana a la más lejana.
+     * Los candidatos salen del índice espacial en memoria; la BD solo se consulta para los resultados.
+     *
+     * @param latitud  Latitud del centro
+     * @param longitud Longitud del centro
+     * @param radioKm  Radio de búsqueda en kilómetros (máximo {@value #RADIO_MAXIMO_KM})
+     * @param limite   Cantidad máxima de resultados (máximo {@value #LIMITE_MAXIMO})
+     * @return Direcciones encontradas con su distancia en metros
+     * @throws IllegalArgumentException Si algún parámetro está fuera de rango
+     */
+    public List<DireccionUbicacionDTO> buscarCercanas(double latitud, double longitud, double radioKm, int limite) {
+        validarPunto(latitud, longitud);
+        if (!(radioKm > 0 && radioKm <= RADIO_MAXIMO_KM)) {
+            throw new IllegalArgumentException("El radio debe ser mayor que 0 y no exceder " + RADIO_MAXIMO_KM + " km.");
+        }
+        validarLimite(limite);
+        return completar(indiceEspacialService.buscarCercanas(latitud, longitud, radioKm * 1000, limite));
+    }
+
+    /**
+     * Busca las direcciones dentro de un rectángulo, ordenadas por ID.
+     * Si {@code lonMin > lonMax} el rectángulo cruza el antimeridiano.
+     *
+     * @return Direcciones encontradas
+     * @throws IllegalArgumentException Si algún parámetro está fuera de rango
+     */
+    public List<DireccionUbicacionDTO> buscarEnRectangulo(double latMin, double latMax, double lonMin, double lonMax, int limite) {
+        validarPunto(latMin, lonMin);
+        validarPunto(latMax, lonMax);
+        if (latMin > latMax) {
+            throw new IllegalArgumentException("La latitud mínima no puede ser mayor que la máxima.");
+        }
+        validarLimite(limite);
+        return completar(indiceEspacialService.buscarEnRectangulo(latMin, latMax, lonMin, lonMax, limite));
+    }
+
+    // AUTOCOMPLETADO
+
+    /**
+     * Sugiere nombres de calle que empiezan con el texto escrito, de las más a las menos usadas.
+     *
+     * @param texto    Texto escrito (se normaliza: mayúsculas, tildes y abreviaturas no importan)
+     * @param idComuna Comuna en la que buscar, o {@code null} para todas
+     * @param limite   Cantidad máxima de sugerencias (máximo {@value AutocompletadoService#LIMITE_MAXIMO})
+     * @return Calles sugeridas
+     * @throws IllegalArgumentException Si el texto o el límite no son válidos
+     */
+    public List<SugerenciaCalleDTO> autocompletar(String texto, Integer idComuna, int limite) {
+        return autocompletadoService.autocompletar(texto, idComuna, limite);
+    }
+
+    /**
+     * Carga en una sola consulta los datos de las direcciones encontradas en el índice, manteniendo su orden.
+     * Una dirección borrada entre la búsqueda y la consulta simplemente se omite.
+     */
+    private List<DireccionUbicacionDTO> completar(List<IndiceEspacialService.Resultado> resultados) {
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Direccion> porId = direccionRepository.findAllById(
+                        resultados.stream().map(IndiceEspacialService.Resultado::idDireccion).toList())
+                .stream()
+                .collect(Collectors.toMap(Direccion::getIdDireccion, Function.identity()));
+        return resultados.stream()
+                .filter(resultado -> porId.containsKey(resultado.idDireccion()))
+                .map(resultado -> {
+                    Direccion direccion = porId.get(resultado.idDireccion());
+                    return new DireccionUbicacionDTO(direccion.getIdDireccion(), direccion.getCalle(),
+                            direccion.getNumero(), direccion.getVilla(), direccion.getComplemento(),
+                            direccion.getComuna() != null ? direccion.getComuna().getIdComuna() : null,
+                            resultado.latitud(), resultado.longitud(), resultado.distanciaMetros());
+                })
+                .toList();
+    }
+
+    /**
+     * Si la dirección trae ubicación en línea pero no coordenadas, crea las coordenadas a partir de ella, para
+     * que la tabla de coordenadas siga completa.
+     *
+     * @throws IllegalArgumentException Si la ubicación está fuera de rango
+     */
+    private void coordenadasDesdeUbicacion(Direccion direccion) {
+        if (direccion.getLatitud() == null || direccion.getLongitud() == null) {
+            return;
+        }
+        validarPunto(direccion.getLatitud(), direccion.getLongitud());
+        if (direccion.getCoordenadas() == null) {
+            direccion.setCoordenadas(new Coordenadas(null, direccion.getLatitud().floatValue(), direccion.getLongitud().floatValue()));
         }
-        direccionRepository.deleteById(id);
+    }
+
+    /**
+     * Completa la comuna de una dirección a partir de sus coordenadas (las del payload o, si solo trae el ID,
+     * las guardadas). Si el punto no cae en ninguna comuna conocida la deja como venía.
+     */
+    private void asignarComunaPorUbicacion(Direccion direccion) {
+        Coordenadas coordenadas = direccion.getCoordenadas();
+        if (coordenadas == null) {
+            return;
+        }
+        if ((coordenadas.getLatitud() == null || coordenadas.getLongitud() == null) && coordenadas.getIdCoordenadas() != null) {
+            coordenadas = coordenadasRepository.findById(coordenadas.getIdCoordenadas()).orElse(coordenadas);
+        }
+        if (coordenadas.getLatitud() == null || coordenadas.getLongitud() == null) {
+            return;
+        }
+        limitesComunaService.buscarIdComuna(coordenadas.getLatitud(), coordenadas.getLongitud())
+                .flatMap(comunaRepository::findById)
+                .ifPresent(direccion::setComuna);
     }
 
     // MÉTODOS PRIVADOS DE VALIDACIÓN
 
+    private void validarPunto(double latitud, double longitud) {
+        if (!(latitud >= -90 && latitud <= 90) || !(longitud >= -180 && longitud <= 180)) {
+            throw new IllegalArgumentException("Coordenadas fuera de rango (latitud -90..90, longitud -180..180).");
+        }
+    }
+
+    /**
+     * Busca una dirección por ID y, si no existe, sigue la redirección de {@code DireccionFusionada} hacia la
+     * dirección que quedó. Es la única resolución de IDs fusionados para las operaciones por ID.
+     *
+     * @param id     Identificador pedido
+     * @param buscar Búsqueda por ID (entidad o proyección)
+     * @return El resultado para el ID pedido o para el de la dirección que quedó
+     * @throws NoSuchElementException Si no existe ni fue fusionada
+     */
+    private <T> T buscarSiguiendoFusion(Integer id, Function<Integer, Optional<T>> buscar) {
+        return buscar.apply(id)
+                .or(() -> direccionFusionadaRepository.findById(id)
+                        .flatMap(fusion -> buscar.apply(fusion.getIdDireccionDestino())))
+                .orElseThrow(() -> new NoSuchElementException("No se encontró la dirección con ID: " + id));
+    }
+
+    private void validarLimite(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO + ".");
+        }
+    }
+
     /**
      * Valida la entidad Dirección.
      *
@@ -0,0 +1,202 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.DireccionFusionada;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionFusionadaRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.NormalizadorDireccion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tarea en segundo plano que une las direcciones duplicadas.
+ * <p>
+ * {@link DireccionService} ya no crea una dirección si existe otra con la misma clave canónica, pero quedan
+ * las registradas antes (sin clave) y las que coinciden por una edición o por dos altas simultáneas. En cada
+ * ejecución se calcula la clave de las direcciones que no la tienen y, para cada clave repetida, se conserva la
+ * dirección más antigua y se eliminan las demás.
+ * </p>
+ * <p>
+ * Otros servicios guardan IDs de dirección, así que cada ID eliminado queda registrado en
+ * {@link DireccionFusionada} y se sigue resolviendo hacia la dirección que quedó. El registro se escribe antes
+ * de borrar: si el borrado falla, la dirección duplicada sigue existiendo y se reintenta en la próxima ejecución.
+ * </p>
+ */
+@Service
+public class FusionDireccionesService {
+
+    @Autowired
+    private DireccionRepository direccionRepository;
+
+    @Autowired
+    private DireccionFusionadaRepository direccionFusionadaRepository;
+
+    @Autowired
+    private IndiceEspacialService indiceEspacialService;
+
+    @Autowired
+    private MapaCalorService mapaCalorService;
+
+    @Autowired
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    @Value("${geolocalizacion.direcciones.fusion.lote:500}")
+    private int tamanioLote;
+
+    /**
+     * Completa las claves canónicas pendientes y fusiona los duplicados.
+     */
+    @Scheduled(initialDelayString = "${geolocalizacion.direcciones.fusion.retraso-inicial-ms:60000}",
+            fixedDelayString = "${geolocalizacion.direcciones.fusion.intervalo-ms:3600000}")
+    public synchronized void ejecutar() {
+        int claves = completarClaves();
+        int fusionadas = fusionarDuplicados();
+        if (claves > 0 || fusionadas > 0) {
+            System.out.println("Fusión de direcciones: " + claves + " claves calculadas, "
+                    + fusionadas + " direcciones duplicadas fusionadas.");
+        }
+    }
+
+    /**
+     * Calcula la clave canónica de las direcciones que no la tienen, por lotes.
+     *
+     * @return Cantidad de direcciones a las que se asignó clave.
+     */
+    public int completarClaves() {
+        int asignadas = 0;
+        int desde = 0;
+        while (true) {
+            List<Direccion> pendientes = direccionRepository
+                    .findByClaveCanonicaIsNullAndIdDireccionGreaterThanOrderByIdDireccionAsc(desde, PageRequest.of(0, tamanioLote));
+            if (pendientes.isEmpty()) {
+                return asignadas;
+            }
+            List<Direccion> conClave = new ArrayList<>();
+            for (Direccion direccion : pendientes) {
+                // Las que no tienen calle, número o comuna se quedan sin clave y se vuelven a revisar la próxima vez
+                String clave = NormalizadorDireccion.claveCanonica(direccion);
+                if (clave != null) {
+                    direccion.setClaveCanonica(clave);
+                    conClave.add(direccion);
+                }
+            }
+            if (!conClave.isEmpty()) {
+                direccionRepository.saveAll(conClave);
+                asignadas += conClave.size();
+            }
+            if (pendientes.size() < tamanioLote) {
+                return asignadas;
+            }
+            desde = pendientes.get(pendientes.size() - 1).getIdDireccion();
+        }
+    }
+
+    /**
+     * Fusiona todas las direcciones que comparten clave canónica, por lotes de claves.
+     *
+     * @return Cantidad de direcciones eliminadas por ser duplicadas.
+     */
+    public int fusionarDuplicados() {
+        int eliminadas = 0;
+        while (true) {
+            List<String> claves = direccionRepository.findClavesDuplicadas(PageRequest.of(0, tamanioLote));
+            if (claves.isEmpty()) {
+                return eliminadas;
+            }
+            Map<String, List<Direccion>> grupos = new LinkedHashMap<>();
+            for (Direccion direccion : direccionRepository.findByClaveCanonicaInOrderByIdDireccionAsc(claves)) {
+                grupos.computeIfAbsent(direccion.getClaveCanonica(), clave -> new ArrayList<>()).add(direccion);
+            }
+            int enLote = 0;
+            for (List<Direccion> grupo : grupos.values()) {
+                if (grupo.size() > 1) {
+                    enLote += fusionar(grupo.get(0), grupo.subList(1, grupo.size()));
+                }
+            }
+            if (enLote == 0) {
+                return eliminadas;
+            }
+            eliminadas += enLote;
+        }
+    }
+
+    /**
+     * Deja {@code destino} en lugar de las direcciones duplicadas.
+     *
+     * @return Cantidad de direcciones eliminadas.
+     */
+    private int fusionar(Direccion destino, List<Direccion> duplicadas) {
+        Integer idDestino = destino.getIdDireccion();
+        List<Integer> ids = duplicadas.stream().map(Direccion::getIdDireccion).toList();
+
+        // 1. Los IDs eliminados siguen resolviéndose hacia la dirección que queda (también los fusionados antes con ellos)
+        LocalDateTime ahora = LocalDateTime.now();
+        direccionFusionadaRepository.saveAll(ids.stream()
+                .map(id -> new DireccionFusionada(id, idDestino, ahora))
+                .toList());
+        direccionFusionadaRepository.redirigir(ids, idDestino);
+
+        // 2. La villa no es parte de la clave: si la dirección que queda no la tiene, se toma de una duplicada
+        boolean completada = false;
+        if (destino.getVilla() == null || destino.getVilla().isBlank()) {
+            String villa = duplicadas.stream()
+                    .map(Direccion::getVilla)
+                    .filter(valor -> valor != null && !valor.isBlank())
+                    .findFirst()
+                    .orElse(null);
+            if (villa != null) {
+                destino.setVilla(villa);
+                completada = true;
+            }
+        }
+        // Lo mismo con las coordenadas: si la que queda no tiene, se mueven las de una duplicada en vez de
+        // borrarlas en cascada. La duplicada se suelta antes, porque la columna id_coordenadas es única.
+        if (destino.getCoordenadas() == null) {
+            Direccion conCoordenadas = duplicadas.stream()
+                    .filter(duplicada -> duplicada.getCoordenadas() != null)
+                    .findFirst()
+                    .orElse(null);
+            if (conCoordenadas != null) {
+                Coordenadas coordenadas = conCoordenadas.getCoordenadas();
+                conCoordenadas.setCoordenadas(null);
+                direccionRepository.save(conCoordenadas);
+                destino.setCoordenadas(coordenadas);
+                ubicacionEnLineaService.completar(destino);
+                completada = true;
+            }
+        }
+        if (completada) {
+            indiceEspacialService.registrar(direccionRepository.save(destino));
+        }
+
+        // 3. Las coordenadas se borran en cascada con la dirección, salvo que las comparta con la que queda
+        for (Direccion duplicada : duplicadas) {
+            if (duplicada.getCoordenadas() != null && destino.getCoordenadas() != null
+                    && Objects.equals(duplicada.getCoordenadas().getIdCoordenadas(), destino.getCoordenadas().getIdCoordenadas())) {
+                duplicada.setCoordenadas(null);
+            }
+        }
+        // Las coordenadas que se borran en cascada se descuentan del mapa de calor, una vez cada una
+        Map<Integer, Coordenadas> borradas = new LinkedHashMap<>();
+        for (Direccion duplicada : duplicadas) {
+            if (duplicada.getCoordenadas() != null) {
+                borradas.putIfAbsent(duplicada.getCoordenadas().getIdCoordenadas(), duplicada.getCoordenadas());
+            }
+        }
+        direccionRepository.deleteAll(duplicadas);
+        ids.forEach(indiceEspacialService::eliminar);
+        borradas.values().forEach(mapaCalorService::quitar);
+        return ids.size();
+    }
+}
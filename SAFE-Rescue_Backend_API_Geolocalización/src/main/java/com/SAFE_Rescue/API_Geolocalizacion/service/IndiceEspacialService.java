@@ -0,0 +1,363 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.GeoUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice espacial en memoria de las direcciones y sus coordenadas.
+ * <p>
+ * Divide el planeta en celdas de {@value #TAMANIO_CELDA_GRADOS}° (unos 1,1 km de lado en Santiago) y guarda
+ * en cada celda los IDs de las direcciones que caen en ella. Una búsqueda solo recorre las celdas que cubren
+ * el área pedida y refina los candidatos con la distancia exacta (haversine), sin tocar la BD. La búsqueda por
+ * cercanía avanza en anillos desde el centro y se detiene apenas tiene los más cercanos pedidos.
+ * </p>
+ * <p>
+ * Se construye al arrancar la aplicación y se mantiene al día con las escrituras de {@link DireccionService}
+ * y {@link CoordenadasService}. Dentro de una transacción los cambios se aplican recién al confirmarla.
+ * </p>
+ */
+@Service
+public class IndiceEspacialService {
+
+    /** Lado de cada celda de la grilla, en grados. */
+    static final double TAMANIO_CELDA_GRADOS = 0.01;
+
+    // Cantidad de celdas en una vuelta completa de longitud
+    private static final int CELDAS_LONGITUD = (int) Math.round(360 / TAMANIO_CELDA_GRADOS);
+    private static final int FILA_MAXIMA = (int) Math.round(180 / TAMANIO_CELDA_GRADOS);
+
+    @Autowired
+    private DireccionRepository direccionRepository;
+
+    @Autowired
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    private final Map<Integer, Punto> puntos = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> direccionPorCoordenadas = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Integer>> celdas = new ConcurrentHashMap<>();
+
+    /**
+     * Posición indexada de una dirección.
+     */
+    record Punto(int idDireccion, Integer idCoordenadas, double latitud, double longitud) {
+    }
+
+    /**
+     * Dirección encontrada en una búsqueda por cercanía.
+     *
+     * @param idDireccion     ID de la dirección.
+     * @param latitud         Latitud indexada.
+     * @param longitud        Longitud indexada.
+     * @param distanciaMetros Distancia al punto de búsqueda; nula en búsquedas por rectángulo.
+     */
+    public record Resultado(int idDireccion, double latitud, double longitud, Double distanciaMetros) {
+    }
+
+    // -------------------------------------------------------------------------
+    // CARGA Y MANTENCIÓN
+    // -------------------------------------------------------------------------
+
+    /**
+     * Carga todas las direcciones con coordenadas en una sola consulta (sin JOIN si la ubicación en línea está activa).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void cargar() {
+        puntos.clear();
+        direccionPorCoordenadas.clear();
+        celdas.clear();
+        List<Object[]> filas = ubicacionEnLineaService.isActivo()
+                ? direccionRepository.findPuntosEnLinea()
+                : direccionRepository.findPuntos();
+        for (Object[] fila : filas) {
+            agregar(new Punto((Integer) fila[0], (Integer) fila[1],
+                    ((Number) fila[2]).doubleValue(), ((Number) fila[3]).doubleValue()));
+        }
+        System.out.println("Índice espacial cargado: " + puntos.size() + " direcciones.");
+    }
+
+    /**
+     * Registra o mueve una dirección según su ubicación en línea o, si no la tiene, sus coordenadas.
+     * Si la dirección no tiene ninguna, se quita del índice.
+     *
+     * @param direccion Dirección guardada (con ID).
+     */
+    public void registrar(Direccion direccion) {
+        if (direccion == null || direccion.getIdDireccion() == null) {
+            return;
+        }
+        int id = direccion.getIdDireccion();
+        Integer idCoordenadas = direccion.getCoordenadas() != null ? direccion.getCoordenadas().getIdCoordenadas() : null;
+        if (direccion.getLatitud() != null && direccion.getLongitud() != null) {
+            Punto punto = new Punto(id, idCoordenadas, direccion.getLatitud(), direccion.getLongitud());
+            alConfirmar(() -> reemplazar(punto));
+            return;
+        }
+        if (direccion.getCoordenadas() == null
+                || direccion.getCoordenadas().getLatitud() == null
+                || direccion.getCoordenadas().getLongitud() == null) {
+            eliminar(id);
+            return;
+        }
+        Punto punto = new Punto(id, idCoordenadas,
+                direccion.getCoordenadas().getLatitud(), direccion.getCoordenadas().getLongitud());
+        alConfirmar(() -> reemplazar(punto));
+    }
+
+    /**
+     * Quita una dirección del índice.
+     *
+     * @param idDireccion ID de la dirección eliminada.
+     */
+    public void eliminar(int idDireccion) {
+        alConfirmar(() -> quitar(idDireccion));
+    }
+
+    /**
+     * Mueve la dirección asociada a unas coordenadas que cambiaron (si hay alguna).
+     *
+     * @param idCoordenadas ID de las coordenadas.
+     * @param latitud       Nueva latitud.
+     * @param longitud      Nueva longitud.
+     */
+    public void actualizarCoordenadas(int idCoordenadas, double latitud, double longitud) {
+        alConfirmar(() -> {
+            Integer idDireccion = direccionPorCoordenadas.get(idCoordenadas);
+            if (idDireccion != null) {
+                reemplazar(new Punto(idDireccion, idCoordenadas, latitud, longitud));
+            }
+        });
+    }
+
+    /**
+     * Quita la dirección asociada a unas coordenadas eliminadas (si hay alguna).
+     *
+     * @param idCoordenadas ID de las coordenadas.
+     */
+    public void eliminarCoordenadas(int idCoordenadas) {
+        alConfirmar(() -> {
+            Integer idDireccion = direccionPorCoordenadas.get(idCoordenadas);
+            if (idDireccion != null) {
+                quitar(idDireccion);
+            }
+        });
+    }
+
+    /**
+     * Cantidad de direcciones indexadas.
+     */
+    public int getCantidad() {
+        return puntos.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // CONSULTAS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Direcciones dentro de un radio, de la más cercana a la más lejana.
+     *
+     * @param latitud      Latitud del centro.
+     * @param longitud     Longitud del centro.
+     * @param radioMetros  Radio de búsqueda.
+     * @param limite       Cantidad máxima de resultados.
+     * @return Las direcciones encontradas con su distancia.
+     */
+    public List<Resultado> buscarCercanas(double latitud, double longitud, double radioMetros, int limite) {
+        double deltaLat = GeoUtil.gradosLatitud(radioMetros);
+        // La latitud más alejada del ecuador es la que necesita más grados de longitud para el mismo radio
+        double latitudExtrema = Math.min(90, Math.abs(latitud) + deltaLat);
+        double deltaLon = GeoUtil.gradosLongitud(radioMetros, latitudExtrema);
+        // Lado más corto de una celda dentro del área de búsqueda (con margen por la curvatura)
+        double ladoMinimoMetros = 0.99 * Math.cos(Math.toRadians(latitudExtrema))
+                * TAMANIO_CELDA_GRADOS / GeoUtil.gradosLatitud(1);
+
+        // Se guardan los "limite" más cercanos en un montículo cuya raíz es el más lejano
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(
+                Comparator.comparingDouble(Resultado::distanciaMetros).reversed());
+        Consumer<Punto> candidato = punto -> {
+            double distancia = GeoUtil.distanciaMetros(latitud, longitud, punto.latitud(), punto.longitud());
+            if (distancia > radioMetros) {
+                return;
+            }
+            if (mejores.size() < limite) {
+                mejores.add(new Resultado(punto.idDireccion(), punto.latitud(), punto.longitud(), distancia));
+            } else if (distancia < mejores.peek().distanciaMetros()) {
+                mejores.poll();
+                mejores.add(new Resultado(punto.idDireccion(), punto.latitud(), punto.longitud(), distancia));
+            }
+        };
+
+        if (deltaLon >= 180) {
+            // Junto a un polo el radio abarca todas las longitudes: se recorre la franja de latitud completa
+            recorrer(latitud - deltaLat, latitud + deltaLat, -180, 180, candidato);
+        } else {
+            // Anillos de celdas alrededor del centro, hasta que ningún anillo restante pueda mejorar el resultado
+            int anillos = Math.min(CELDAS_LONGITUD / 2,
+                    (int) Math.ceil(Math.max(deltaLat, deltaLon) / TAMANIO_CELDA_GRADOS) + 1);
+            int filaCentro = fila(latitud);
+            long columnaCentro = columna(longitud);
+            for (int anillo = 0; anillo <= anillos; anillo++) {
+                // Todo punto del anillo está al menos a (anillo - 1) celdas completas del centro
+                double distanciaMinima = (anillo - 1) * ladoMinimoMetros;
+                if (distanciaMinima > radioMetros
+                        || (mejores.size() == limite && mejores.peek().distanciaMetros() <= distanciaMinima)) {
+                    break;
+                }
+                recorrerAnillo(filaCentro, columnaCentro, anillo, candidato);
+            }
+        }
+        List<Resultado> resultados = new ArrayList<>(mejores);
+        resultados.sort(Comparator.comparingDouble(Resultado::distanciaMetros));
+        return resultados;
+    }
+
+    /**
+     * Direcciones dentro de un rectángulo, ordenadas por ID. Si {@code lonMin > lonMax} el rectángulo
+     * cruza el antimeridiano.
+     *
+     * @return Las direcciones encontradas (sin distancia).
+     */
+    public List<Resultado> buscarEnRectangulo(double latMin, double latMax, double lonMin, double lonMax, int limite) {
+        double lonHasta = lonMin > lonMax ? lonMax + 360 : lonMax;
+        List<Resultado> resultados = new ArrayList<>();
+        recorrer(latMin, latMax, lonMin, lonHasta, punto -> {
+            double lon = punto.longitud() < lonMin ? punto.longitud() + 360 : punto.longitud();
+            if (punto.latitud() >= latMin && punto.latitud() <= latMax && lon >= lonMin && lon <= lonHasta) {
+                resultados.add(new Resultado(punto.idDireccion(), punto.latitud(), punto.longitud(), null));
+            }
+        });
+        resultados.sort(Comparator.comparingInt(Resultado::idDireccion));
+        return resultados.size() > limite ? List.copyOf(resultados.subList(0, limite)) : resultados;
+    }
+
+    // -------------------------------------------------------------------------
+    // GRILLA
+    // -------------------------------------------------------------------------
+
+    /**
+     * Visita los puntos de todas las celdas que tocan el rectángulo. La longitud máxima puede pasar de 180
+     * (rectángulos que cruzan el antimeridiano).
+     */
+    private void recorrer(double latMin, double latMax, double lonMin, double lonMax, Consumer<Punto> visitante) {
+        int filaDesde = fila(Math.max(-90, latMin));
+        int filaHasta = fila(Math.min(90, latMax));
+        long columnaDesde = columna(lonMin);
+        long columnaHasta = Math.min(columna(lonMax), columnaDesde + CELDAS_LONGITUD - 1);
+        for (int f = filaDesde; f <= filaHasta; f++) {
+            for (long c = columnaDesde; c <= columnaHasta; c++) {
+                visitarCelda(f, c, visitante);
+            }
+        }
+    }
+
+    /**
+     * Visita los puntos de las celdas que están exactamente a {@code anillo} celdas del centro
+     * (el borde de un cuadrado de lado {@code 2 * anillo + 1}).
+     */
+    private void recorrerAnillo(int filaCentro, long columnaCentro, int anillo, Consumer<Punto> visitante) {
+        // Con anillo == CELDAS_LONGITUD / 2 los dos lados caen en la misma columna
+        long columnaHasta = Math.min(columnaCentro + anillo, columnaCentro - anillo + CELDAS_LONGITUD - 1);
+        for (int f = Math.max(0, filaCentro - anillo); f <= Math.min(FILA_MAXIMA, filaCentro + anillo); f++) {
+            if (Math.abs(f - filaCentro) == anillo) {
+                for (long c = columnaCentro - anillo; c <= columnaHasta; c++) {
+                    visitarCelda(f, c, visitante);
+                }
+            } else {
+                visitarCelda(f, columnaCentro - anillo, visitante);
+                if (columnaHasta == columnaCentro + anillo) {
+                    visitarCelda(f, columnaCentro + anillo, visitante);
+                }
+            }
+        }
+    }
+
+    private void visitarCelda(int fila, long columna, Consumer<Punto> visitante) {
+        Set<Integer> ids = celdas.get(clave(fila, (int) Math.floorMod(columna, CELDAS_LONGITUD)));
+        if (ids == null) {
+            return;
+        }
+        for (Integer id : ids) {
+            Punto punto = puntos.get(id);
+            if (punto != null) {
+                visitante.accept(punto);
+            }
+        }
+    }
+
+    private synchronized void reemplazar(Punto punto) {
+        quitar(punto.idDireccion());
+        agregar(punto);
+    }
+
+    private synchronized void agregar(Punto punto) {
+        puntos.put(punto.idDireccion(), punto);
+        if (punto.idCoordenadas() != null) {
+            direccionPorCoordenadas.put(punto.idCoordenadas(), punto.idDireccion());
+        }
+        celdas.computeIfAbsent(clave(punto), k -> ConcurrentHashMap.newKeySet()).add(punto.idDireccion());
+    }
+
+    private synchronized void quitar(int idDireccion) {
+        Punto anterior = puntos.remove(idDireccion);
+        if (anterior == null) {
+            return;
+        }
+        if (anterior.idCoordenadas() != null) {
+            direccionPorCoordenadas.remove(anterior.idCoordenadas(), idDireccion);
+        }
+        celdas.computeIfPresent(clave(anterior), (k, ids) -> {
+            ids.remove(idDireccion);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static int fila(double latitud) {
+        return (int) Math.floor((latitud + 90) / TAMANIO_CELDA_GRADOS);
+    }
+
+    // Sin normalizar: puede pasar de la última columna en rectángulos que cruzan el antimeridiano
+    private static long columna(double longitud) {
+        return (long) Math.floor((longitud + 180) / TAMANIO_CELDA_GRADOS);
+    }
+
+    private static long clave(Punto punto) {
+        return clave(fila(punto.latitud()), (int) Math.floorMod(columna(punto.longitud()), CELDAS_LONGITUD));
+    }
+
+    private static long clave(int fila, int columna) {
+        return ((long) fila << 32) | (columna & 0xffffffffL);
+    }
+
+    /**
+     * Ejecuta el cambio al confirmar la transacción en curso, o de inmediato si no hay una: así un rollback
+     * nunca deja en el índice una dirección que no existe.
+     */
+    private static void alConfirmar(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+            });
+        } else {
+            cambio.run();
+        }
+    }
+}
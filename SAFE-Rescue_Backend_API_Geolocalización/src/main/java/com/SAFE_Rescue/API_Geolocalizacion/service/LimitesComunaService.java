@@ -0,0 +1,192 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.ComunaRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.ArbolStr;
+import com.SAFE_Rescue.API_Geolocalizacion.util.Poligono;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Índice en memoria de los límites comunales, para saber en qué comuna cae un punto (geocodificación inversa).
+ * <p>
+ * Los polígonos se leen de un archivo GeoJSON local ({@code FeatureCollection} de {@code Polygon} o
+ * {@code MultiPolygon}) al arrancar la aplicación. Sus rectángulos envolventes se guardan en un {@link ArbolStr},
+ * así que una consulta solo hace la prueba exacta de punto en polígono sobre las pocas comunas cuyo rectángulo
+ * contiene el punto.
+ * </p>
+ * <p>
+ * Cada polígono se asocia a una comuna por la propiedad {@code idComuna} del feature o, si no la trae, por su
+ * nombre (sin distinguir mayúsculas ni tildes) en la propiedad configurada. Si el archivo no existe el índice
+ * queda vacío y las consultas no encuentran comuna.
+ * </p>
+ */
+@Service
+public class LimitesComunaService {
+
+    @Autowired
+    private ComunaRepository comunaRepository;
+
+    @Value("${geolocalizacion.limites-comunas.archivo:datos/limites-comunas.geojson}")
+    private String archivo;
+
+    @Value("${geolocalizacion.limites-comunas.propiedad-nombre:nombre}")
+    private String propiedadNombre;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Se reemplaza completo en cada carga; las consultas nunca ven un árbol a medio construir
+    private volatile ArbolStr<Limite> arbol = new ArbolStr<>(List.of());
+
+    /**
+     * Polígono de una comuna.
+     */
+    record Limite(int idComuna, Poligono poligono) {
+    }
+
+    /**
+     * Lee el archivo de límites y reconstruye el índice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void cargar() {
+        Path ruta = Path.of(archivo);
+        if (!Files.isRegularFile(ruta)) {
+            System.out.println("No se encontró el archivo de límites comunales (" + ruta.toAbsolutePath()
+                    + "). La búsqueda de comuna por punto queda deshabilitada.");
+            arbol = new ArbolStr<>(List.of());
+            return;
+        }
+        try (InputStream entrada = Files.newInputStream(ruta)) {
+            arbol = construir(objectMapper.readTree(entrada));
+            System.out.println("Límites comunales cargados: " + arbol.getTamanio() + " polígonos.");
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error al leer los límites comunales de " + ruta + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Busca la comuna cuyo polígono contiene el punto.
+     *
+     * @param latitud  Latitud en grados decimales.
+     * @param longitud Longitud en grados decimales.
+     * @return ID de la comuna, o vacío si el punto no cae en ninguna.
+     */
+    public Optional<Integer> buscarIdComuna(double latitud, double longitud) {
+        Integer[] encontrada = new Integer[1];
+        arbol.buscar(longitud, latitud, limite -> {
+            // Un punto justo en el borde puede caer en dos comunas vecinas; se queda con la de menor ID
+            if ((encontrada[0] == null || limite.idComuna() < encontrada[0])
+                    && limite.poligono().contiene(latitud, longitud)) {
+                encontrada[0] = limite.idComuna();
+            }
+        });
+        return Optional.ofNullable(encontrada[0]);
+    }
+
+    /**
+     * Cantidad de polígonos indexados.
+     */
+    public int getCantidad() {
+        return arbol.getTamanio();
+    }
+
+    // -------------------------------------------------------------------------
+    // LECTURA DEL GEOJSON
+    // -------------------------------------------------------------------------
+
+    private ArbolStr<Limite> construir(JsonNode raiz) {
+        Map<String, Integer> idPorNombre = new HashMap<>();
+        for (Comuna comuna : comunaRepository.findAll()) {
+            idPorNombre.putIfAbsent(normalizar(comuna.getNombre()), comuna.getIdComuna());
+        }
+
+        List<ArbolStr.Entrada<Limite>> entradas = new ArrayList<>();
+        int omitidos = 0;
+        for (JsonNode feature : raiz.path("features")) {
+            Integer idComuna = resolverComuna(feature.path("properties"), idPorNombre);
+            if (idComuna == null) {
+                omitidos++;
+                continue;
+            }
+            for (Poligono poligono : leerGeometria(feature.path("geometry"))) {
+                entradas.add(new ArbolStr.Entrada<>(poligono.getLonMin(), poligono.getLatMin(),
+                        poligono.getLonMax(), poligono.getLatMax(), new Limite(idComuna, poligono)));
+            }
+        }
+        if (omitidos > 0) {
+            System.out.println("Límites comunales: " + omitidos + " features sin comuna registrada fueron omitidos.");
+        }
+        return new ArbolStr<>(entradas);
+    }
+
+    private Integer resolverComuna(JsonNode propiedades, Map<String, Integer> idPorNombre) {
+        JsonNode id = propiedades.path("idComuna");
+        if (id.canConvertToInt()) {
+            return id.asInt();
+        }
+        JsonNode nombre = propiedades.path(propiedadNombre);
+        return nombre.isTextual() ? idPorNombre.get(normalizar(nombre.asText())) : null;
+    }
+
+    private List<Poligono> leerGeometria(JsonNode geometria) {
+        JsonNode coordenadas = geometria.path("coordinates");
+        return switch (geometria.path("type").asText()) {
+            case "Polygon" -> List.of(leerPoligono(coordenadas));
+            case "MultiPolygon" -> {
+                List<Poligono> poligonos = new ArrayList<>();
+                coordenadas.forEach(poligono -> poligonos.add(leerPoligono(poligono)));
+                yield poligonos;
+            }
+            default -> List.of();
+        };
+    }
+
+    private Poligono leerPoligono(JsonNode anillos) {
+        List<double[]> huecos = new ArrayList<>();
+        for (int i = 1; i < anillos.size(); i++) {
+            huecos.add(leerAnillo(anillos.get(i)));
+        }
+        return new Poligono(leerAnillo(anillos.get(0)), huecos);
+    }
+
+    private double[] leerAnillo(JsonNode vertices) {
+        // Las posiciones GeoJSON son [lon, lat] o [lon, lat, altura]; la altura se ignora
+        double[] anillo = new double[vertices.size() * 2];
+        for (int i = 0; i < vertices.size(); i++) {
+            anillo[2 * i] = vertices.get(i).get(0).asDouble();
+            anillo[2 * i + 1] = vertices.get(i).get(1).asDouble();
+        }
+        return anillo;
+    }
+
+    /**
+     * Clave de comparación de nombres: sin tildes, en minúsculas y sin espacios sobrantes.
+     */
+    static String normalizar(String nombre) {
+        if (nombre == null) {
+            return "";
+        }
+        return Normalizer.normalize(nombre, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+}
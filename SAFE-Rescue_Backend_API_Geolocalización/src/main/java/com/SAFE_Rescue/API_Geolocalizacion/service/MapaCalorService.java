@@ -0,0 +1,289 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.CeldaMapaCalorDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MapaCalorDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.CoordenadasRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.ContadorCeldas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapa de calor de las coordenadas, precalculado por celdas.
+ * <p>
+ * Guarda cuántas coordenadas caen en cada celda de una grilla de teselas XYZ (Web Mercator, la de los mapas
+ * web), en todos los niveles de {@value #SUBDIVISION} a {@value #NIVEL_MAXIMO}. Una consulta al zoom {@code z}
+ * lee las celdas del nivel {@code z + 3}, es decir, 8 × 8 celdas por tesela visible: la
+ * respuesta depende de cuántas teselas se muestran y no de cuántas coordenadas hay, y no toca la BD.
+ * </p>
+ * <p>
+ * Los contadores se llenan al arrancar recorriendo la tabla de coordenadas por lotes y se mantienen al día con
+ * las escrituras de {@link CoordenadasService}, {@link DireccionService} y {@link FusionDireccionesService}.
+ * Dentro de una transacción los cambios se aplican recién al confirmarla.
+ * </p>
+ */
+@Service
+public class MapaCalorService {
+
+    /** Zoom máximo consultable; desde el zoom 15 todas las consultas usan el nivel más fino. */
+    public static final int ZOOM_MAXIMO = 22;
+
+    /** Cantidad máxima de teselas visibles por consulta (un monitor 4K muestra unas 150). */
+    public static final int TESELAS_MAXIMAS = 256;
+
+    /** Cada tesela visible se divide en 2^SUBDIVISION × 2^SUBDIVISION celdas (de 32 px en teselas de 256 px). */
+    static final int SUBDIVISION = 3;
+
+    /** Nivel más fino de la grilla: celdas de unos 130 m de lado en Santiago. */
+    static final int NIVEL_MAXIMO = 18;
+
+    // Límite de la proyección Web Mercator; los puntos más al norte o al sur quedan en la primera o última fila
+    private static final double LATITUD_MAXIMA = 85.05112878;
+
+    @Autowired
+    private CoordenadasRepository coordenadasRepository;
+
+    @Value("${geolocalizacion.mapa-calor.lote:5000}")
+    private int tamanioLote;
+
+    private final ContadorCeldas contadores = new ContadorCeldas();
+
+    // -------------------------------------------------------------------------
+    // CARGA Y MANTENCIÓN
+    // -------------------------------------------------------------------------
+
+    /**
+     * Cuenta todas las coordenadas en una pasada por lotes en orden de ID; la memoria usada depende de la
+     * cantidad de celdas con algo, no del tamaño de la tabla.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void cargar() {
+        long inicio = System.currentTimeMillis();
+        contadores.limpiar();
+        long cantidad = 0;
+        int desde = 0;
+        while (true) {
+            List<Object[]> filas = coordenadasRepository.findPuntosDesde(desde, PageRequest.of(0, tamanioLote));
+            for (Object[] fila : filas) {
+                if (fila[1] != null && fila[2] != null) {
+                    sumar(((Number) fila[1]).doubleValue(), ((Number) fila[2]).doubleValue(), 1);
+                    cantidad++;
+                }
+            }
+            if (filas.size() < tamanioLote) {
+                break;
+            }
+            desde = (Integer) filas.get(filas.size() - 1)[0];
+        }
+        System.out.println("Mapa de calor cargado: " + cantidad + " coordenadas en " + contadores.getTamanio()
+                + " celdas (" + (System.currentTimeMillis() - inicio) + " ms).");
+    }
+
+    /**
+     * Suma unas coordenadas nuevas.
+     *
+     * @param coordenadas Coordenadas guardadas; si no tienen latitud y longitud no se cuentan.
+     */
+    public void registrar(Coordenadas coordenadas) {
+        if (coordenadas != null) {
+            mover(null, null, coordenadas.getLatitud(), coordenadas.getLongitud());
+        }
+    }
+
+    /**
+     * Descuenta unas coordenadas eliminadas.
+     *
+     * @param coordenadas Coordenadas con la ubicación que tenían al eliminarlas.
+     */
+    public void quitar(Coordenadas coordenadas) {
+        if (coordenadas != null) {
+            mover(coordenadas.getLatitud(), coordenadas.getLongitud(), null, null);
+        }
+    }
+
+    /**
+     * Pasa unas coordenadas de su ubicación anterior a la nueva. Una ubicación nula no se cuenta.
+     */
+    public void mover(Float latitudAnterior, Float longitudAnterior, Float latitud, Float longitud) {
+        boolean habia = latitudAnterior != null && longitudAnterior != null;
+        boolean hay = latitud != null && longitud != null;
+        if (!habia && !hay) {
+            return;
+        }
+        alConfirmar(() -> {
+            if (habia) {
+                sumar(latitudAnterior, longitudAnterior, -1);
+            }
+            if (hay) {
+                sumar(latitud, longitud, 1);
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // CONSULTAS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Conteos por celda del área visible de un mapa.
+     *
+     * @param zoom Zoom del mapa (0 a {@value #ZOOM_MAXIMO}).
+     * @param bbox Área visible como {@code "oeste,sur,este,norte"} en grados; si oeste &gt; este, cruza el antimeridiano.
+     * @return Celdas con al menos una coordenada, ordenadas por fila y columna.
+     * @throws IllegalArgumentException Si el zoom o el área no son válidos, o si el área abarca más de
+     *                                  {@value #TESELAS_MAXIMAS} teselas a ese zoom.
+     */
+    public MapaCalorDTO consultar(int zoom, String bbox) {
+        if (zoom < 0 || zoom > ZOOM_MAXIMO) {
+            throw new IllegalArgumentException("El zoom debe estar entre 0 y " + ZOOM_MAXIMO + ".");
+        }
+        double[] area = leerArea(bbox);
+        boolean cruzaAntimeridiano = area[0] > area[2];
+        double xOeste = fraccionX(area[0]);
+        double xEste = fraccionX(area[2]);
+        double yNorte = fraccionY(area[3]);
+        double ySur = fraccionY(area[1]);
+
+        long teselas = (long) columnas(xOeste, xEste, cruzaAntimeridiano, zoom) * filas(yNorte, ySur, zoom);
+        if (teselas > TESELAS_MAXIMAS) {
+            throw new IllegalArgumentException("El área abarca " + teselas + " teselas al zoom " + zoom
+                    + " y el máximo es " + TESELAS_MAXIMAS + ". Acerque el mapa o reduzca el área.");
+        }
+
+        int nivel = Math.min(zoom + SUBDIVISION, NIVEL_MAXIMO);
+        int lado = 1 << nivel;
+        int primeraColumna = indice(xOeste, lado);
+        int ancho = columnas(xOeste, xEste, cruzaAntimeridiano, nivel);
+        int primeraFila = indice(yNorte, lado);
+        int ultimaFila = indice(ySur, lado);
+
+        List<CeldaMapaCalorDTO> celdas = new ArrayList<>();
+        long total = 0;
+        for (int y = primeraFila; y <= ultimaFila; y++) {
+            for (int i = 0; i < ancho; i++) {
+                int x = (primeraColumna + i) % lado;
+                int cantidad = contadores.obtener(clave(nivel, x, y));
+                if (cantidad > 0) {
+                    celdas.add(new CeldaMapaCalorDTO(x, y, latitudCentro(y, lado), longitudCentro(x, lado), cantidad));
+                    total += cantidad;
+                }
+            }
+        }
+        return new MapaCalorDTO(zoom, nivel, total, celdas);
+    }
+
+    // -------------------------------------------------------------------------
+    // AUXILIARES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Suma {@code delta} a la celda del punto en cada nivel. Las columnas y filas de un nivel son las del nivel
+     * más fino desplazadas, así que las celdas de todos los niveles encajan exactamente.
+     */
+    private synchronized void sumar(double latitud, double longitud, int delta) {
+        int lado = 1 << NIVEL_MAXIMO;
+        int x = indice(fraccionX(longitud), lado);
+        int y = indice(fraccionY(latitud), lado);
+        for (int nivel = SUBDIVISION; nivel <= NIVEL_MAXIMO; nivel++) {
+            int desplazamiento = NIVEL_MAXIMO - nivel;
+            contadores.sumar(clave(nivel, x >> desplazamiento, y >> desplazamiento), delta);
+        }
+    }
+
+    /**
+     * Lee un área escrita como {@code "oeste,sur,este,norte"}.
+     *
+     * @return {@code [oeste, sur, este, norte]}
+     */
+    private static double[] leerArea(String bbox) {
+        String[] partes = bbox == null ? new String[0] : bbox.split(",");
+        if (partes.length != 4) {
+            throw new IllegalArgumentException("El área (bbox) debe tener el formato 'oeste,sur,este,norte'.");
+        }
+        double[] area = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                area[i] = Double.parseDouble(partes[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El área (bbox) debe tener el formato 'oeste,sur,este,norte'.");
+        }
+        if (!(area[0] >= -180 && area[0] <= 180) || !(area[2] >= -180 && area[2] <= 180)
+                || !(area[1] >= -90 && area[1] <= 90) || !(area[3] >= -90 && area[3] <= 90)) {
+            throw new IllegalArgumentException("El área (bbox) está fuera de rango (latitud -90 a 90, longitud -180 a 180).");
+        }
+        if (area[1] > area[3]) {
+            throw new IllegalArgumentException("La latitud sur del área no puede ser mayor que la norte.");
+        }
+        return area;
+    }
+
+    /**
+     * Cantidad de columnas de un nivel entre dos longitudes (todas, como máximo).
+     */
+    private static int columnas(double xOeste, double xEste, boolean cruzaAntimeridiano, int nivel) {
+        int lado = 1 << nivel;
+        int primera = indice(xOeste, lado);
+        int ultima = indice(xEste, lado);
+        int ancho = cruzaAntimeridiano ? lado - primera + ultima + 1 : ultima - primera + 1;
+        return Math.min(ancho, lado);
+    }
+
+    private static int filas(double yNorte, double ySur, int nivel) {
+        int lado = 1 << nivel;
+        return indice(ySur, lado) - indice(yNorte, lado) + 1;
+    }
+
+    // Posición horizontal en la proyección, de 0 (180° O) a 1 (180° E)
+    private static double fraccionX(double longitud) {
+        return (longitud + 180) / 360;
+    }
+
+    // Posición vertical en la proyección, de 0 (norte) a 1 (sur)
+    private static double fraccionY(double latitud) {
+        double radianes = Math.toRadians(Math.max(-LATITUD_MAXIMA, Math.min(LATITUD_MAXIMA, latitud)));
+        return (1 - Math.log(Math.tan(radianes) + 1 / Math.cos(radianes)) / Math.PI) / 2;
+    }
+
+    private static int indice(double fraccion, int lado) {
+        return Math.max(0, Math.min(lado - 1, (int) Math.floor(fraccion * lado)));
+    }
+
+    private static double longitudCentro(int x, int lado) {
+        return (x + 0.5) / lado * 360 - 180;
+    }
+
+    private static double latitudCentro(int y, int lado) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * (y + 0.5) / lado))));
+    }
+
+    private static long clave(int nivel, int x, int y) {
+        return ((long) nivel << 56) | ((long) x << 28) | y;
+    }
+
+    /**
+     * Ejecuta el cambio al confirmar la transacción en curso, o de inmediato si no hay una: así un rollback
+     * nunca deja contada una coordenada que no existe.
+     */
+    private static void alConfirmar(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+            });
+        } else {
+            cambio.run();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.SAFE_Rescue.API_Geolocalizacion.service;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RegionArbolDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Region;
 import com.SAFE_Rescue.API_Geolocalizacion.repositoy.RegionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,29 +22,61 @@ public class RegionService {
     @Autowired
     private RegionRepository regionRepository;
 
+    @Autowired
+    private CatalogoGeograficoService catalogoGeograficoService;
+
     // MÉTODOS CRUD PRINCIPALES
 
     /**
-     * Obtiene todas las regiones registradas en el sistema.
+     * Obtiene todas las regiones registradas en el sistema (desde el catálogo en memoria).
      *
      * @return Lista completa de regiones
      */
     public List<Region> findAll() {
-        return regionRepository.findAll();
+        return catalogoGeograficoService.findRegiones();
     }
 
     /**
-     * Busca una región por su ID único.
+     * Busca una región por su ID único (desde el catálogo en memoria).
      *
      * @param id Identificador de la región
      * @return Región encontrada
      * @throws NoSuchElementException Si no se encuentra la región
      */
     public Region findById(Integer id) {
-        return regionRepository.findById(id)
+        return catalogoGeograficoService.findRegion(id)
                 .orElseThrow(() -> new NoSuchElementException("No se encontró la región con ID: " + id));
     }
 
+    /**
+     * Obtiene las comunas de una región, ordenadas por nombre (desde el catálogo en memoria).
+     *
+     * @param id Identificador de la región
+     * @return Comunas de la región (puede ser una lista vacía)
+     * @throws NoSuchElementException Si no se encuentra la región
+     */
+    public List<Comuna> findComunas(Integer id) {
+        return catalogoGeograficoService.findComunasDeRegion(id);
+    }
+
+    /**
+     * Obtiene todas las regiones con sus comunas, en un solo árbol.
+     *
+     * @return Regiones ordenadas por ID, cada una con sus comunas ordenadas por nombre
+     */
+    public List<RegionArbolDTO> findArbol() {
+        return catalogoGeograficoService.getArbol();
+    }
+
+    /**
+     * Versión del catálogo de regiones y comunas; cambia solo cuando cambia su contenido.
+     *
+     * @return Versión del catálogo
+     */
+    public String getVersionCatalogo() {
+        return catalogoGeograficoService.getVersion();
+    }
+
     /**
      * Guarda una nueva región en el sistema.
      *
@@ -53,7 +87,9 @@ public class RegionService {
     public Region save(Region region) {
         validarRegion(region);
         try {
-            return regionRepository.save(region);
+            Region guardada = regionRepository.save(region);
+            catalogoGeograficoService.recargar();
+            return guardada;
         } catch (DataIntegrityViolationException e) {
             // Error de integridad: puede ser por clave foránea (Pais no existe) o por restricción UNIQUE (identificación duplicada)
             throw new IllegalArgumentException("Error de integridad de datos. Verifique que el País exista y que la identificación de la región no esté duplicada.", e);
@@ -85,7 +121,9 @@ public class RegionService {
         // El País asociado también puede ser actualizado si es necesario (asumiendo que viene en el objeto región)
 
         try {
-            return regionRepository.save(antiguaRegion);
+            Region actualizada = regionRepository.save(antiguaRegion);
+            catalogoGeograficoService.recargar();
+            return actualizada;
         } catch (DataIntegrityViolationException e) {
             throw new IllegalArgumentException("Error de integridad de datos. El nombre o identificación de la región ya existe o el País no es válido.", e);
         }
@@ -104,6 +142,7 @@ public class RegionService {
         }
         try {
             regionRepository.deleteById(id);
+            catalogoGeograficoService.recargar();
         } catch (DataIntegrityViolationException e) {
             // Esto es crucial para manejar el caso en que la región tiene comunas asociadas (FK)
             throw new IllegalArgumentException("No se puede eliminar la región porque tiene comunas asociadas.", e);
@@ -0,0 +1,210 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MatrizRutasDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.PuntoDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RutaDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.util.GrafoVial;
+import com.SAFE_Rescue.API_Geolocalizacion.util.LectorOsm;
+import com.SAFE_Rescue.API_Geolocalizacion.util.RuteadorAlt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tiempos de viaje por la red vial, calculados en memoria sin servicios externos.
+ * <p>
+ * Al arrancar se lee la red vial de un extracto local de OpenStreetMap ({@link LectorOsm}) y se preprocesa con
+ * landmarks ({@link RuteadorAlt}). Cada punto consultado se ubica en el nodo de la red más cercano, dentro de
+ * una distancia máxima de acceso. El tiempo es el de la ruta más rápida según la velocidad de cada vía; no
+ * considera tráfico ni el tramo de acceso a la red, cuya distancia se informa aparte.
+ * </p>
+ * <p>
+ * Si el archivo no existe, las rutas quedan deshabilitadas y las consultas fallan con {@link IllegalStateException}.
+ * </p>
+ */
+@Service
+public class RutasService {
+
+    /** Cantidad máxima de destinos por matriz. */
+    public static final int DESTINOS_MAXIMOS = 500;
+
+    @Value("${geolocalizacion.rutas.archivo:datos/red-vial.osm.gz}")
+    private String archivo;
+
+    @Value("${geolocalizacion.rutas.landmarks:8}")
+    private int cantidadLandmarks;
+
+    @Value("${geolocalizacion.rutas.distancia-acceso-maxima-m:1000}")
+    private double distanciaAccesoMaxima;
+
+    private volatile RuteadorAlt ruteador;
+
+    // -------------------------------------------------------------------------
+    // CARGA
+    // -------------------------------------------------------------------------
+
+    /**
+     * Lee el extracto OSM y preprocesa la red vial.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void cargar() {
+        Path ruta = Path.of(archivo);
+        if (!Files.isRegularFile(ruta)) {
+            System.out.println("No se encontró el extracto de la red vial (" + ruta.toAbsolutePath()
+                    + "). El cálculo de rutas queda deshabilitado.");
+            return;
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            GrafoVial grafo = LectorOsm.leer(ruta);
+            ruteador = new RuteadorAlt(grafo, cantidadLandmarks);
+            System.out.println("Red vial cargada: " + grafo.getCantidadNodos() + " nodos, " + grafo.getCantidadArcos()
+                    + " arcos, " + ruteador.getCantidadLandmarks() + " landmarks (" + (System.currentTimeMillis() - inicio) + " ms).");
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error al leer la red vial de " + ruta + ": " + e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // CONSULTAS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Tiempo estimado de viaje entre dos puntos escritos como {@code "latitud,longitud"}.
+     *
+     * @throws IllegalArgumentException Si algún punto no es válido o está fuera de la red vial.
+     * @throws IllegalStateException    Si la red vial no está cargada.
+     */
+    public RutaDTO calcularEta(String origen, String destino) {
+        double[] puntoOrigen = leerPunto(origen, "origen");
+        double[] puntoDestino = leerPunto(destino, "destino");
+        return calcularEta(puntoOrigen[0], puntoOrigen[1], puntoDestino[0], puntoDestino[1]);
+    }
+
+    /**
+     * Tiempo estimado de viaje entre dos puntos.
+     *
+     * @throws IllegalArgumentException Si algún punto está fuera de rango o de la red vial.
+     * @throws IllegalStateException    Si la red vial no está cargada.
+     */
+    public RutaDTO calcularEta(double latOrigen, double lonOrigen, double latDestino, double lonDestino) {
+        RuteadorAlt actual = ruteadorCargado();
+        GrafoVial.NodoCercano desde = ubicar(actual, latOrigen, lonOrigen, "origen");
+        GrafoVial.NodoCercano hasta = ubicar(actual, latDestino, lonDestino, "destino");
+        return aDto(actual.ruta(desde.nodo(), hasta.nodo()), desde, hasta);
+    }
+
+    /**
+     * Tiempos estimados de viaje de un origen a muchos destinos (o de cada destino al origen), en una sola
+     * búsqueda.
+     *
+     * @return Una ruta por destino, en el mismo orden; los destinos fuera de la red vial no tienen tiempo.
+     * @throws IllegalArgumentException Si la solicitud no es válida o el origen está fuera de la red vial.
+     * @throws IllegalStateException    Si la red vial no está cargada.
+     */
+    public List<RutaDTO> calcularMatriz(MatrizRutasDTO solicitud) {
+        if (solicitud == null || solicitud.getOrigen() == null) {
+            throw new IllegalArgumentException("El origen es requerido.");
+        }
+        List<PuntoDTO> destinos = solicitud.getDestinos();
+        if (destinos == null || destinos.isEmpty() || destinos.size() > DESTINOS_MAXIMOS) {
+            throw new IllegalArgumentException("Se requiere entre 1 y " + DESTINOS_MAXIMOS + " destinos.");
+        }
+        RuteadorAlt actual = ruteadorCargado();
+        GrafoVial.NodoCercano desde = ubicar(actual, solicitud.getOrigen(), "origen");
+
+        // Los destinos fuera de la red se informan sin tiempo y no entran en la búsqueda
+        List<GrafoVial.NodoCercano> hasta = new ArrayList<>(destinos.size());
+        List<Integer> nodos = new ArrayList<>(destinos.size());
+        for (int i = 0; i < destinos.size(); i++) {
+            PuntoDTO destino = destinos.get(i);
+            validarPunto(destino, "destino #" + (i + 1));
+            GrafoVial.NodoCercano nodo = actual.getGrafo().nodoMasCercano(destino.getLatitud(), destino.getLongitud(), distanciaAccesoMaxima);
+            hasta.add(nodo);
+            if (nodo != null) {
+                nodos.add(nodo.nodo());
+            }
+        }
+        RuteadorAlt.Ruta[] rutas = actual.rutas(desde.nodo(), nodos.stream().mapToInt(Integer::intValue).toArray(), solicitud.isHaciaOrigen());
+
+        List<RutaDTO> resultado = new ArrayList<>(destinos.size());
+        int siguiente = 0;
+        for (GrafoVial.NodoCercano nodo : hasta) {
+            resultado.add(nodo != null
+                    ? aDto(rutas[siguiente++], desde, nodo)
+                    : new RutaDTO(null, null, desde.distanciaMetros(), null));
+        }
+        return resultado;
+    }
+
+    // -------------------------------------------------------------------------
+    // AUXILIARES
+    // -------------------------------------------------------------------------
+
+    private RuteadorAlt ruteadorCargado() {
+        RuteadorAlt actual = ruteador;
+        if (actual == null) {
+            throw new IllegalStateException("La red vial no está cargada; el cálculo de rutas no está disponible.");
+        }
+        return actual;
+    }
+
+    private GrafoVial.NodoCercano ubicar(RuteadorAlt actual, PuntoDTO punto, String nombre) {
+        validarPunto(punto, nombre);
+        return ubicar(actual, punto.getLatitud(), punto.getLongitud(), nombre);
+    }
+
+    private GrafoVial.NodoCercano ubicar(RuteadorAlt actual, double latitud, double longitud, String nombre) {
+        validarPunto(latitud, longitud, nombre);
+        GrafoVial.NodoCercano nodo = actual.getGrafo().nodoMasCercano(latitud, longitud, distanciaAccesoMaxima);
+        if (nodo == null) {
+            throw new IllegalArgumentException("El " + nombre + " está a más de " + Math.round(distanciaAccesoMaxima) + " m de la red vial.");
+        }
+        return nodo;
+    }
+
+    private static RutaDTO aDto(RuteadorAlt.Ruta ruta, GrafoVial.NodoCercano desde, GrafoVial.NodoCercano hasta) {
+        if (!ruta.existe()) {
+            return new RutaDTO(null, null, desde.distanciaMetros(), hasta.distanciaMetros());
+        }
+        return new RutaDTO(ruta.tiempoMs() / 1000.0, ruta.metros(), desde.distanciaMetros(), hasta.distanciaMetros());
+    }
+
+    /**
+     * Lee un punto escrito como {@code "latitud,longitud"}.
+     */
+    private static double[] leerPunto(String texto, String nombre) {
+        String[] partes = texto == null ? new String[0] : texto.split(",");
+        if (partes.length != 2) {
+            throw new IllegalArgumentException("El " + nombre + " debe tener el formato 'latitud,longitud'.");
+        }
+        try {
+            double latitud = Double.parseDouble(partes[0].trim());
+            double longitud = Double.parseDouble(partes[1].trim());
+            validarPunto(latitud, longitud, nombre);
+            return new double[]{latitud, longitud};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El " + nombre + " debe tener el formato 'latitud,longitud'.");
+        }
+    }
+
+    private static void validarPunto(PuntoDTO punto, String nombre) {
+        if (punto == null || punto.getLatitud() == null || punto.getLongitud() == null) {
+            throw new IllegalArgumentException("El " + nombre + " requiere latitud y longitud.");
+        }
+        validarPunto(punto.getLatitud(), punto.getLongitud(), nombre);
+    }
+
+    private static void validarPunto(double latitud, double longitud, String nombre) {
+        if (!(latitud >= -90 && latitud <= 90) || !(longitud >= -180 && longitud <= 180)) {
+            throw new IllegalArgumentException("El " + nombre + " está fuera de rango (latitud -90 a 90, longitud -180 a 180).");
+        }
+    }
+}
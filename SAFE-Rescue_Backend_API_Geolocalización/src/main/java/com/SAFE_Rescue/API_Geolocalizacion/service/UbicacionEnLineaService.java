@@ -0,0 +1,128 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.GeoHash;
+import com.SAFE_Rescue.API_Geolocalizacion.util.GeoUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ubicación en línea de las direcciones: latitud y longitud en doble precisión (más su geohash) guardadas en la
+ * propia tabla {@code direccion}, con índice, en vez de solo en la tabla {@code coordenadas}.
+ * <p>
+ * Las escrituras de {@link DireccionService} y {@link CoordenadasService} mantienen siempre ambas copias, así
+ * que la API de coordenadas sigue funcionando igual. El modo se activa con
+ * {@code geolocalizacion.coordenadas.en-linea=true}: entonces el listado plano, el resumen por ID y la carga del
+ * índice espacial leen la ubicación en línea sin JOIN a {@code coordenadas}, y al arrancar se copian por lotes
+ * las ubicaciones de las direcciones antiguas que aún no la tienen.
+ * </p>
+ */
+@Service
+public class UbicacionEnLineaService {
+
+    @Autowired
+    private DireccionRepository direccionRepository;
+
+    @Value("${geolocalizacion.coordenadas.en-linea:false}")
+    private boolean activo;
+
+    @Value("${geolocalizacion.coordenadas.migracion.lote:1000}")
+    private int tamanioLote;
+
+    /**
+     * Indica si las lecturas usan la ubicación en línea.
+     */
+    public boolean isActivo() {
+        return activo;
+    }
+
+    /**
+     * Completa la ubicación en línea de una dirección a partir de sus coordenadas, si no la trae ya, y calcula
+     * su geohash. Sin coordenadas ni ubicación en línea, la deja vacía.
+     *
+     * @param direccion Dirección a guardar.
+     */
+    public void completar(Direccion direccion) {
+        if ((direccion.getLatitud() == null || direccion.getLongitud() == null) && direccion.getCoordenadas() != null) {
+            direccion.setLatitud(GeoUtil.comoDouble(direccion.getCoordenadas().getLatitud()));
+            direccion.setLongitud(GeoUtil.comoDouble(direccion.getCoordenadas().getLongitud()));
+        }
+        if (direccion.getLatitud() == null || direccion.getLongitud() == null) {
+            direccion.setLatitud(null);
+            direccion.setLongitud(null);
+            direccion.setGeohash(null);
+            return;
+        }
+        direccion.setGeohash(GeoHash.codificar(direccion.getLatitud(), direccion.getLongitud(), GeoHash.PRECISION));
+    }
+
+    /**
+     * Propaga a las direcciones que las usan el cambio de unas coordenadas.
+     *
+     * @param idCoordenadas ID de las coordenadas modificadas.
+     * @param latitud       Nueva latitud.
+     * @param longitud      Nueva longitud.
+     */
+    public void actualizarCoordenadas(Integer idCoordenadas, Float latitud, Float longitud) {
+        Double lat = GeoUtil.comoDouble(latitud);
+        Double lon = GeoUtil.comoDouble(longitud);
+        String geohash = lat != null && lon != null ? GeoHash.codificar(lat, lon, GeoHash.PRECISION) : null;
+        direccionRepository.actualizarUbicacionPorCoordenadas(idCoordenadas, lat, lon, geohash);
+    }
+
+    /**
+     * Si el modo está activo, migra las direcciones pendientes al arrancar, antes de cargar el índice espacial.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void alIniciar() {
+        if (activo) {
+            migrar();
+        }
+    }
+
+    /**
+     * Copia por lotes, en orden de ID, la ubicación de la tabla {@code coordenadas} a las direcciones que aún no
+     * tienen ubicación en línea. Cada lote es una consulta y un UPDATE JDBC en lote, así que la memoria usada no
+     * depende del tamaño de la tabla.
+     *
+     * @return Cantidad de direcciones migradas.
+     */
+    public synchronized int migrar() {
+        int migradas = 0;
+        int desde = 0;
+        while (true) {
+            List<Object[]> pendientes = direccionRepository.findUbicacionesPendientes(desde, PageRequest.of(0, tamanioLote));
+            if (pendientes.isEmpty()) {
+                break;
+            }
+            List<Object[]> filas = new ArrayList<>(pendientes.size());
+            for (Object[] pendiente : pendientes) {
+                Double latitud = GeoUtil.comoDouble((Float) pendiente[1]);
+                Double longitud = GeoUtil.comoDouble((Float) pendiente[2]);
+                if (latitud != null && longitud != null) {
+                    filas.add(new Object[]{pendiente[0], latitud, longitud});
+                }
+            }
+            migradas += direccionRepository.actualizarUbicaciones(filas);
+            if (pendientes.size() < tamanioLote) {
+                break;
+            }
+            desde = (Integer) pendientes.get(pendientes.size() - 1)[0];
+        }
+        if (migradas > 0) {
+            System.out.println("Ubicación en línea: " + migradas + " direcciones migradas desde la tabla coordenadas.");
+        }
+        return migradas;
+    }
+}
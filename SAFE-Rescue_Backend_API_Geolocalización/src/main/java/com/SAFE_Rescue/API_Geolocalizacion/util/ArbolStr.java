@@ -0,0 +1,117 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Árbol R inmutable construido con el método Sort-Tile-Recursive (STR).
+ * <p>
+ * Agrupa los rectángulos ordenándolos por X en franjas verticales y, dentro de cada franja, por Y, de modo que
+ * los nodos casi no se superpongan. Como se construye de una vez y no admite cambios, cada nodo queda lleno y
+ * la búsqueda de un punto solo baja por las ramas cuyo rectángulo lo contiene.
+ * </p>
+ *
+ * @param <T> Tipo del valor asociado a cada rectángulo.
+ */
+public final class ArbolStr<T> {
+
+    /** Cantidad máxima de hijos por nodo. */
+    public static final int CAPACIDAD_NODO = 10;
+
+    private final Nodo<T> raiz;
+    private final int tamanio;
+
+    /**
+     * Rectángulo con su valor asociado.
+     */
+    public record Entrada<T>(double xMin, double yMin, double xMax, double yMax, T valor) {
+    }
+
+    private record Nodo<T>(double xMin, double yMin, double xMax, double yMax, List<Nodo<T>> hijos, T valor) {
+
+        boolean contiene(double x, double y) {
+            return x >= xMin && x <= xMax && y >= yMin && y <= yMax;
+        }
+    }
+
+    /**
+     * Construye el árbol con todas las entradas.
+     *
+     * @param entradas Rectángulos a indexar.
+     */
+    public ArbolStr(List<Entrada<T>> entradas) {
+        List<Nodo<T>> nivel = new ArrayList<>(entradas.size());
+        for (Entrada<T> entrada : entradas) {
+            nivel.add(new Nodo<>(entrada.xMin(), entrada.yMin(), entrada.xMax(), entrada.yMax(), List.of(), entrada.valor()));
+        }
+        this.tamanio = entradas.size();
+        while (nivel.size() > 1) {
+            nivel = empaquetar(nivel);
+        }
+        this.raiz = nivel.isEmpty() ? null : nivel.get(0);
+    }
+
+    /**
+     * Cantidad de entradas indexadas.
+     */
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Entrega a {@code visitante} el valor de cada rectángulo que contiene el punto.
+     */
+    public void buscar(double x, double y, Consumer<T> visitante) {
+        if (raiz != null && raiz.contiene(x, y)) {
+            buscar(raiz, x, y, visitante);
+        }
+    }
+
+    private void buscar(Nodo<T> nodo, double x, double y, Consumer<T> visitante) {
+        if (nodo.hijos().isEmpty()) {
+            visitante.accept(nodo.valor());
+            return;
+        }
+        for (Nodo<T> hijo : nodo.hijos()) {
+            if (hijo.contiene(x, y)) {
+                buscar(hijo, x, y, visitante);
+            }
+        }
+    }
+
+    /**
+     * Agrupa un nivel de nodos en nodos padre de hasta {@link #CAPACIDAD_NODO} hijos.
+     */
+    private static <T> List<Nodo<T>> empaquetar(List<Nodo<T>> nivel) {
+        int padres = (int) Math.ceil(nivel.size() / (double) CAPACIDAD_NODO);
+        int franjas = (int) Math.ceil(Math.sqrt(padres));
+        int porFranja = franjas * CAPACIDAD_NODO;
+
+        List<Nodo<T>> ordenados = new ArrayList<>(nivel);
+        ordenados.sort(Comparator.comparingDouble(n -> n.xMin() + n.xMax()));
+
+        List<Nodo<T>> resultado = new ArrayList<>(padres);
+        for (int inicio = 0; inicio < ordenados.size(); inicio += porFranja) {
+            List<Nodo<T>> franja = new ArrayList<>(ordenados.subList(inicio, Math.min(inicio + porFranja, ordenados.size())));
+            franja.sort(Comparator.comparingDouble(n -> n.yMin() + n.yMax()));
+            for (int i = 0; i < franja.size(); i += CAPACIDAD_NODO) {
+                resultado.add(padre(List.copyOf(franja.subList(i, Math.min(i + CAPACIDAD_NODO, franja.size())))));
+            }
+        }
+        return resultado;
+    }
+
+    private static <T> Nodo<T> padre(List<Nodo<T>> hijos) {
+        double xMin = Double.POSITIVE_INFINITY, yMin = Double.POSITIVE_INFINITY;
+        double xMax = Double.NEGATIVE_INFINITY, yMax = Double.NEGATIVE_INFINITY;
+        for (Nodo<T> hijo : hijos) {
+            xMin = Math.min(xMin, hijo.xMin());
+            yMin = Math.min(yMin, hijo.yMin());
+            xMax = Math.max(xMax, hijo.xMax());
+            yMax = Math.max(yMax, hijo.yMax());
+        }
+        return new Nodo<>(xMin, yMin, xMax, yMax, hijos, null);
+    }
+}
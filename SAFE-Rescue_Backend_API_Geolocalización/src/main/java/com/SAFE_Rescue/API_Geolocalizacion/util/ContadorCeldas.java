@@ -0,0 +1,153 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+import java.util.Arrays;
+
+/**
+ * Contadores enteros indexados por una clave {@code long}, sin objetos por entrada.
+ * <p>
+ * Es una tabla hash de direccionamiento abierto (sondeo lineal) sobre dos arreglos paralelos: ocupa unos
+ * 12 bytes por celda con la carga máxima de {@value #CARGA_MAXIMA}, frente a los ~70 de un
+ * {@code HashMap<Long, Integer>}. Un contador que vuelve a cero se borra (con desplazamiento hacia atrás, sin
+ * marcas de borrado), así que la tabla solo guarda celdas con algo. Los métodos son sincronizados.
+ * </p>
+ */
+public final class ContadorCeldas {
+
+    private static final double CARGA_MAXIMA = 0.6;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    // Marca de ranura libre; ninguna clave válida la usa
+    private static final long VACIA = Long.MIN_VALUE;
+
+    private long[] claves;
+    private int[] valores;
+    private int tamanio;
+
+    public ContadorCeldas() {
+        reservar(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Cantidad de claves con contador distinto de cero.
+     */
+    public synchronized int getTamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Contador de la clave, o 0 si no tiene.
+     */
+    public synchronized int obtener(long clave) {
+        int ranura = buscar(clave);
+        return claves[ranura] == VACIA ? 0 : valores[ranura];
+    }
+
+    /**
+     * Suma {@code delta} al contador de la clave y devuelve el nuevo valor. Si queda en cero, la clave se borra.
+     *
+     * @throws IllegalArgumentException Si la clave es {@link Long#MIN_VALUE}, reservada para las ranuras libres.
+     */
+    public synchronized int sumar(long clave, int delta) {
+        if (clave == VACIA) {
+            throw new IllegalArgumentException("Clave reservada: " + clave);
+        }
+        int ranura = buscar(clave);
+        if (claves[ranura] == VACIA) {
+            if (delta == 0) {
+                return 0;
+            }
+            claves[ranura] = clave;
+            valores[ranura] = delta;
+            if (++tamanio > claves.length * CARGA_MAXIMA) {
+                crecer();
+            }
+            return delta;
+        }
+        int valor = valores[ranura] + delta;
+        if (valor == 0) {
+            borrar(ranura);
+        } else {
+            valores[ranura] = valor;
+        }
+        return valor;
+    }
+
+    /**
+     * Borra todos los contadores y libera la memoria.
+     */
+    public synchronized void limpiar() {
+        reservar(CAPACIDAD_INICIAL);
+    }
+
+    // -------------------------------------------------------------------------
+    // AUXILIARES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Ranura de la clave o, si no está, la ranura libre donde iría.
+     */
+    private int buscar(long clave) {
+        int mascara = claves.length - 1;
+        int ranura = mezclar(clave) & mascara;
+        while (claves[ranura] != VACIA && claves[ranura] != clave) {
+            ranura = (ranura + 1) & mascara;
+        }
+        return ranura;
+    }
+
+    /**
+     * Libera la ranura y corre hacia atrás las claves siguientes que, sin ella, quedarían fuera de su cadena.
+     */
+    private void borrar(int ranura) {
+        int mascara = claves.length - 1;
+        int libre = ranura;
+        int siguiente = ranura;
+        while (true) {
+            siguiente = (siguiente + 1) & mascara;
+            long clave = claves[siguiente];
+            if (clave == VACIA) {
+                break;
+            }
+            int ideal = mezclar(clave) & mascara;
+            // Se mueve solo si su ranura ideal no está entre la libre (exclusive) y la actual (inclusive)
+            boolean enCadena = libre <= siguiente
+                    ? libre < ideal && ideal <= siguiente
+                    : libre < ideal || ideal <= siguiente;
+            if (!enCadena) {
+                claves[libre] = clave;
+                valores[libre] = valores[siguiente];
+                libre = siguiente;
+            }
+        }
+        claves[libre] = VACIA;
+        valores[libre] = 0;
+        tamanio--;
+    }
+
+    private void crecer() {
+        long[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        reservar(clavesAnteriores.length * 2);
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIA) {
+                int ranura = buscar(clavesAnteriores[i]);
+                claves[ranura] = clavesAnteriores[i];
+                valores[ranura] = valoresAnteriores[i];
+                tamanio++;
+            }
+        }
+    }
+
+    private void reservar(int capacidad) {
+        claves = new long[capacidad];
+        Arrays.fill(claves, VACIA);
+        valores = new int[capacidad];
+        tamanio = 0;
+    }
+
+    // Dispersa los bits de claves correlativas (celdas vecinas) por toda la tabla
+    private static int mezclar(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,66 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+/**
+ * Codificación geohash de un punto en grados decimales.
+ * <p>
+ * Un geohash intercala los bits de longitud y latitud en una cadena base 32: puntos cercanos comparten prefijo,
+ * así que un índice B-tree sobre la columna sirve para buscar por celda ({@code LIKE 'prefijo%'}).
+ * Con {@value #PRECISION} caracteres cada celda mide unos 4,8 × 4,8 m.
+ * </p>
+ */
+public final class GeoHash {
+
+    /** Largo del geohash que se guarda en cada dirección. */
+    public static final int PRECISION = 9;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    /**
+     * Geohash del punto con la precisión indicada.
+     *
+     * @param latitud   Latitud (-90 a 90).
+     * @param longitud  Longitud (-180 a 180).
+     * @param precision Cantidad de caracteres (1 a 12).
+     * @throws IllegalArgumentException Si la precisión está fuera de rango.
+     */
+    public static String codificar(double latitud, double longitud, int precision) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("La precisión del geohash debe estar entre 1 y 12.");
+        }
+        double latMin = -90, latMax = 90, lonMin = -180, lonMax = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean esLongitud = true;
+        int bits = 0, valor = 0;
+        while (hash.length() < precision) {
+            if (esLongitud) {
+                double medio = (lonMin + lonMax) / 2;
+                valor <<= 1;
+                if (longitud >= medio) {
+                    valor |= 1;
+                    lonMin = medio;
+                } else {
+                    lonMax = medio;
+                }
+            } else {
+                double medio = (latMin + latMax) / 2;
+                valor <<= 1;
+                if (latitud >= medio) {
+                    valor |= 1;
+                    latMin = medio;
+                } else {
+                    latMax = medio;
+                }
+            }
+            esLongitud = !esLongitud;
+            if (++bits == 5) {
+                hash.append(BASE32[valor]);
+                bits = 0;
+                valor = 0;
+            }
+        }
+        return hash.toString();
+    }
+}
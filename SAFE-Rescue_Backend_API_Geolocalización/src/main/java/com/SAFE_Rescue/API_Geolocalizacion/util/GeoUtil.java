@@ -0,0 +1,57 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+/**
+ * Cálculos geográficos simples sobre coordenadas en grados decimales (WGS84).
+ */
+public final class GeoUtil {
+
+    /** Radio medio de la Tierra, en metros. */
+    public static final double RADIO_TIERRA_METROS = 6_371_008.8;
+
+    private static final double METROS_POR_GRADO_LATITUD = Math.PI * RADIO_TIERRA_METROS / 180;
+
+    private GeoUtil() {
+    }
+
+    /**
+     * Distancia de círculo máximo entre dos puntos (fórmula del haversine).
+     *
+     * @return La distancia en metros.
+     */
+    public static double distanciaMetros(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_METROS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Grados de latitud que abarcan una distancia dada.
+     */
+    public static double gradosLatitud(double metros) {
+        return metros / METROS_POR_GRADO_LATITUD;
+    }
+
+    /**
+     * Grados de longitud que abarcan una distancia dada a cierta latitud.
+     * Cerca de los polos retorna 360 (cualquier longitud).
+     */
+    public static double gradosLongitud(double metros, double latitud) {
+        double coseno = Math.cos(Math.toRadians(latitud));
+        if (coseno < 1e-6) {
+            return 360;
+        }
+        return Math.min(360, metros / (METROS_POR_GRADO_LATITUD * coseno));
+    }
+
+    /**
+     * Convierte una coordenada guardada como {@code Float} al {@code double} con el mismo valor decimal
+     * (-33.4489f queda como -33.4489 y no como -33.44889831542969).
+     *
+     * @return El valor como double, o {@code null} si es nulo.
+     */
+    public static Double comoDouble(Float valor) {
+        return valor != null ? Double.valueOf(Float.toString(valor)) : null;
+    }
+}
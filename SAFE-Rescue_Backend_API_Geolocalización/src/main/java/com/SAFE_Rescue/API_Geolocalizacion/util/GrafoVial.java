@@ -0,0 +1,345 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+import java.util.Arrays;
+
+/**
+ * Red vial inmutable guardada en arreglos primitivos.
+ * <p>
+ * Los nodos se numeran de 0 a {@code n - 1} y guardan su posición en grados × 10<sup>7</sup> (la precisión de
+ * OpenStreetMap). Los arcos están en formato CSR (compressed sparse row): los que salen del nodo {@code v} ocupan
+ * las posiciones {@code inicio[v]} a {@code inicio[v + 1] - 1} de los arreglos de destino, tiempo y largo. Se
+ * guarda también el grafo inverso (arcos que llegan a cada nodo) para buscar hacia atrás.
+ * </p>
+ * <p>
+ * Al construirlo se conserva solo la componente fuertemente conexa más grande, así que entre dos nodos cualquiera
+ * siempre hay ruta en ambos sentidos. Los nodos se indexan en una grilla de celdas de
+ * {@value #TAMANIO_CELDA_GRADOS}° para encontrar el más cercano a un punto.
+ * </p>
+ */
+public final class GrafoVial {
+
+    /** Lado de cada celda de la grilla de nodos, en grados. */
+    public static final double TAMANIO_CELDA_GRADOS = 0.01;
+
+    private static final double ESCALA = 1e7;
+    private static final int CELDAS_LONGITUD = (int) Math.round(360 / TAMANIO_CELDA_GRADOS);
+
+    private final int cantidadNodos;
+    private final int[] latitudE7;
+    private final int[] longitudE7;
+
+    private final int[] inicio;
+    private final int[] destino;
+    private final int[] tiempoMs;
+    private final int[] metros;
+
+    private final int[] inicioInverso;
+    private final int[] origenInverso;
+    private final int[] tiempoMsInverso;
+    private final int[] metrosInverso;
+
+    // Celdas no vacías ordenadas por clave; los nodos de celdas[i] son nodosPorCelda[inicioCelda[i] .. inicioCelda[i + 1])
+    private final long[] celdas;
+    private final int[] inicioCelda;
+    private final int[] nodosPorCelda;
+
+    /**
+     * Nodo encontrado al buscar el más cercano a un punto.
+     *
+     * @param nodo            Índice del nodo.
+     * @param distanciaMetros Distancia en línea recta del punto al nodo.
+     */
+    public record NodoCercano(int nodo, double distanciaMetros) {
+    }
+
+    private GrafoVial(int[] latitudE7, int[] longitudE7, int[] origen, int[] destino, int[] tiempoMs, int[] metros) {
+        this.cantidadNodos = latitudE7.length;
+        this.latitudE7 = latitudE7;
+        this.longitudE7 = longitudE7;
+
+        int[][] salientes = csr(cantidadNodos, origen, destino, tiempoMs, metros);
+        this.inicio = salientes[0];
+        this.destino = salientes[1];
+        this.tiempoMs = salientes[2];
+        this.metros = salientes[3];
+        int[][] entrantes = csr(cantidadNodos, destino, origen, tiempoMs, metros);
+        this.inicioInverso = entrantes[0];
+        this.origenInverso = entrantes[1];
+        this.tiempoMsInverso = entrantes[2];
+        this.metrosInverso = entrantes[3];
+
+        long[] claves = new long[cantidadNodos];
+        for (int v = 0; v < cantidadNodos; v++) {
+            claves[v] = (celda(getLatitud(v), getLongitud(v)) << 32) | v;
+        }
+        Arrays.sort(claves);
+        this.nodosPorCelda = new int[cantidadNodos];
+        long[] celdasTemporales = new long[cantidadNodos];
+        int[] iniciosTemporales = new int[cantidadNodos + 1];
+        int cantidadCeldas = 0;
+        for (int i = 0; i < cantidadNodos; i++) {
+            long celda = claves[i] >>> 32;
+            nodosPorCelda[i] = (int) claves[i];
+            if (cantidadCeldas == 0 || celdasTemporales[cantidadCeldas - 1] != celda) {
+                celdasTemporales[cantidadCeldas] = celda;
+                iniciosTemporales[cantidadCeldas++] = i;
+            }
+        }
+        iniciosTemporales[cantidadCeldas] = cantidadNodos;
+        this.celdas = Arrays.copyOf(celdasTemporales, cantidadCeldas);
+        this.inicioCelda = Arrays.copyOf(iniciosTemporales, cantidadCeldas + 1);
+    }
+
+    /**
+     * Construye el grafo a partir de la lista de arcos y lo reduce a su componente fuertemente conexa más grande.
+     *
+     * @param latitudE7     Latitud de cada nodo, en grados × 10<sup>7</sup>.
+     * @param longitudE7    Longitud de cada nodo, en grados × 10<sup>7</sup>.
+     * @param origen        Nodo de origen de cada arco.
+     * @param destino       Nodo de destino de cada arco.
+     * @param tiempoMs      Tiempo de viaje de cada arco, en milisegundos.
+     * @param metros        Largo de cada arco, en metros.
+     * @param cantidadArcos Cantidad de arcos usados de los arreglos anteriores.
+     * @return El grafo, con los nodos renumerados por celda.
+     */
+    public static GrafoVial construir(int[] latitudE7, int[] longitudE7, int[] origen, int[] destino,
+                                      int[] tiempoMs, int[] metros, int cantidadArcos) {
+        int n = latitudE7.length;
+        int[] componente = componentePrincipal(n, Arrays.copyOf(origen, cantidadArcos), Arrays.copyOf(destino, cantidadArcos));
+
+        // Los nodos se renumeran por celda: nodos cercanos quedan cerca en memoria y las búsquedas fallan menos en caché
+        long[] porCelda = new long[n];
+        int cantidad = 0;
+        for (int v = 0; v < n; v++) {
+            if (componente[v] == 0) {
+                porCelda[cantidad++] = (celda(latitudE7[v] / ESCALA, longitudE7[v] / ESCALA) << 32) | v;
+            }
+        }
+        Arrays.sort(porCelda, 0, cantidad);
+        int[] nuevoIndice = new int[n];
+        Arrays.fill(nuevoIndice, -1);
+        for (int i = 0; i < cantidad; i++) {
+            nuevoIndice[(int) porCelda[i]] = i;
+        }
+        int[] latitudes = new int[cantidad];
+        int[] longitudes = new int[cantidad];
+        for (int v = 0; v < n; v++) {
+            if (nuevoIndice[v] >= 0) {
+                latitudes[nuevoIndice[v]] = latitudE7[v];
+                longitudes[nuevoIndice[v]] = longitudE7[v];
+            }
+        }
+        int arcos = 0;
+        int[] o = new int[cantidadArcos];
+        int[] d = new int[cantidadArcos];
+        int[] t = new int[cantidadArcos];
+        int[] m = new int[cantidadArcos];
+        for (int a = 0; a < cantidadArcos; a++) {
+            if (nuevoIndice[origen[a]] >= 0 && nuevoIndice[destino[a]] >= 0) {
+                o[arcos] = nuevoIndice[origen[a]];
+                d[arcos] = nuevoIndice[destino[a]];
+                t[arcos] = tiempoMs[a];
+                m[arcos] = metros[a];
+                arcos++;
+            }
+        }
+        return new GrafoVial(latitudes, longitudes, Arrays.copyOf(o, arcos), Arrays.copyOf(d, arcos),
+                Arrays.copyOf(t, arcos), Arrays.copyOf(m, arcos));
+    }
+
+    // -------------------------------------------------------------------------
+    // CONSULTAS
+    // -------------------------------------------------------------------------
+
+    public int getCantidadNodos() {
+        return cantidadNodos;
+    }
+
+    public int getCantidadArcos() {
+        return destino.length;
+    }
+
+    public double getLatitud(int nodo) {
+        return latitudE7[nodo] / ESCALA;
+    }
+
+    public double getLongitud(int nodo) {
+        return longitudE7[nodo] / ESCALA;
+    }
+
+    /** Primer arco del nodo en el sentido pedido; el último es {@code finArcos(nodo) - 1}. */
+    int inicioArcos(int nodo, boolean inverso) {
+        return inverso ? inicioInverso[nodo] : inicio[nodo];
+    }
+
+    int finArcos(int nodo, boolean inverso) {
+        return inverso ? inicioInverso[nodo + 1] : inicio[nodo + 1];
+    }
+
+    /** Nodo del otro extremo del arco: el destino, o el origen si se recorre el grafo inverso. */
+    int vecino(int arco, boolean inverso) {
+        return inverso ? origenInverso[arco] : destino[arco];
+    }
+
+    int tiempoMs(int arco, boolean inverso) {
+        return inverso ? tiempoMsInverso[arco] : tiempoMs[arco];
+    }
+
+    int metros(int arco, boolean inverso) {
+        return inverso ? metrosInverso[arco] : metros[arco];
+    }
+
+    /**
+     * Nodo más cercano a un punto, dentro de una distancia máxima.
+     *
+     * @return El nodo, o {@code null} si no hay ninguno a esa distancia.
+     */
+    public NodoCercano nodoMasCercano(double latitud, double longitud, double distanciaMaximaMetros) {
+        double dLat = GeoUtil.gradosLatitud(distanciaMaximaMetros);
+        double dLon = GeoUtil.gradosLongitud(distanciaMaximaMetros, latitud);
+        int filaMin = fila(latitud - dLat);
+        int filaMax = fila(latitud + dLat);
+        int columnaMin = columna(longitud - dLon);
+        int ancho = Math.min(CELDAS_LONGITUD - 1, columna(longitud + dLon) - columnaMin);
+
+        int mejor = -1;
+        double mejorDistancia = distanciaMaximaMetros;
+        for (int f = filaMin; f <= filaMax; f++) {
+            for (int c = columnaMin; c <= columnaMin + ancho; c++) {
+                int posicion = Arrays.binarySearch(celdas, (long) f * CELDAS_LONGITUD + Math.floorMod(c, CELDAS_LONGITUD));
+                if (posicion < 0) {
+                    continue;
+                }
+                for (int i = inicioCelda[posicion]; i < inicioCelda[posicion + 1]; i++) {
+                    int nodo = nodosPorCelda[i];
+                    double distancia = GeoUtil.distanciaMetros(latitud, longitud, getLatitud(nodo), getLongitud(nodo));
+                    if (distancia <= mejorDistancia) {
+                        mejor = nodo;
+                        mejorDistancia = distancia;
+                    }
+                }
+            }
+        }
+        return mejor >= 0 ? new NodoCercano(mejor, mejorDistancia) : null;
+    }
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCCIÓN
+    // -------------------------------------------------------------------------
+
+    private static long celda(double latitud, double longitud) {
+        return (long) fila(latitud) * CELDAS_LONGITUD + Math.floorMod(columna(longitud), CELDAS_LONGITUD);
+    }
+
+    private static int fila(double latitud) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, latitud)) + 90) / TAMANIO_CELDA_GRADOS);
+    }
+
+    private static int columna(double longitud) {
+        return (int) Math.floor((longitud + 180) / TAMANIO_CELDA_GRADOS);
+    }
+
+    /**
+     * Ordena los arcos por nodo de partida (counting sort) y arma el índice CSR.
+     *
+     * @return {@code [inicio, llegada, tiempo, metros]}.
+     */
+    private static int[][] csr(int n, int[] partida, int[] llegada, int[] tiempoMs, int[] metros) {
+        int[] inicio = new int[n + 1];
+        for (int v : partida) {
+            inicio[v + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inicio[v + 1] += inicio[v];
+        }
+        int[] siguiente = Arrays.copyOf(inicio, n);
+        int[] llegadas = new int[partida.length];
+        int[] tiempos = new int[partida.length];
+        int[] largos = new int[partida.length];
+        for (int a = 0; a < partida.length; a++) {
+            int posicion = siguiente[partida[a]]++;
+            llegadas[posicion] = llegada[a];
+            tiempos[posicion] = tiempoMs[a];
+            largos[posicion] = metros[a];
+        }
+        return new int[][]{inicio, llegadas, tiempos, largos};
+    }
+
+    /**
+     * Componentes fuertemente conexas (algoritmo de Kosaraju, iterativo para no desbordar la pila).
+     *
+     * @return Para cada nodo, 0 si pertenece a la componente más grande y 1 si no.
+     */
+    private static int[] componentePrincipal(int n, int[] origen, int[] destino) {
+        int[] cero = new int[origen.length];
+        int[][] salientes = csr(n, origen, destino, cero, cero);
+        int[][] entrantes = csr(n, destino, origen, cero, cero);
+
+        // 1. Orden de término de un recorrido en profundidad del grafo
+        int[] orden = new int[n];
+        int terminados = 0;
+        boolean[] visitado = new boolean[n];
+        int[] pila = new int[n];
+        int[] siguienteArco = new int[n];
+        for (int raiz = 0; raiz < n; raiz++) {
+            if (visitado[raiz]) {
+                continue;
+            }
+            int tope = 0;
+            pila[tope++] = raiz;
+            visitado[raiz] = true;
+            siguienteArco[raiz] = salientes[0][raiz];
+            while (tope > 0) {
+                int v = pila[tope - 1];
+                if (siguienteArco[v] < salientes[0][v + 1]) {
+                    int w = salientes[1][siguienteArco[v]++];
+                    if (!visitado[w]) {
+                        visitado[w] = true;
+                        siguienteArco[w] = salientes[0][w];
+                        pila[tope++] = w;
+                    }
+                } else {
+                    orden[terminados++] = v;
+                    tope--;
+                }
+            }
+        }
+
+        // 2. Recorrido del grafo inverso en orden de término decreciente: cada árbol es una componente
+        int[] componente = new int[n];
+        Arrays.fill(componente, -1);
+        int cantidadComponentes = 0;
+        int mayor = -1;
+        int tamanioMayor = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int raiz = orden[i];
+            if (componente[raiz] >= 0) {
+                continue;
+            }
+            int actual = cantidadComponentes++;
+            int tamanio = 0;
+            int tope = 0;
+            pila[tope++] = raiz;
+            componente[raiz] = actual;
+            while (tope > 0) {
+                int v = pila[--tope];
+                tamanio++;
+                for (int a = entrantes[0][v]; a < entrantes[0][v + 1]; a++) {
+                    int w = entrantes[1][a];
+                    if (componente[w] < 0) {
+                        componente[w] = actual;
+                        pila[tope++] = w;
+                    }
+                }
+            }
+            if (tamanio > tamanioMayor) {
+                tamanioMayor = tamanio;
+                mayor = actual;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            componente[v] = componente[v] == mayor ? 0 : 1;
+        }
+        return componente;
+    }
+}
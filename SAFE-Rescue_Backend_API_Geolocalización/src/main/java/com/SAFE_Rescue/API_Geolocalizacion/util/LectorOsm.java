@@ -0,0 +1,247 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lee la red vial de un extracto local de OpenStreetMap en formato XML ({@code .osm} u {@code .osm.gz}) y la
+ * convierte en un {@link GrafoVial}.
+ * <p>
+ * El archivo se recorre dos veces en streaming (StAX), sin cargarlo en memoria: la primera guarda las vías
+ * transitables en vehículo ({@code highway=*}) y los IDs de sus nodos; la segunda lee solo la posición de esos
+ * nodos. Cada tramo entre dos nodos consecutivos de una vía es un arco, con un tiempo según la velocidad máxima
+ * de la vía ({@code maxspeed}) o, si no la indica, una velocidad típica por tipo de vía. Las vías de un solo
+ * sentido ({@code oneway}, rotondas y autopistas) generan arcos solo en ese sentido.
+ * </p>
+ * <p>
+ * Un extracto en PBF se convierte antes a XML, por ejemplo con {@code osmium cat region.osm.pbf -o region.osm.gz}.
+ * </p>
+ */
+public final class LectorOsm {
+
+    // Velocidad típica en km/h por tipo de vía; los tipos que no están aquí no son transitables en vehículo
+    private static final Map<String, Integer> VELOCIDADES = Map.ofEntries(
+            Map.entry("motorway", 100),
+            Map.entry("motorway_link", 60),
+            Map.entry("trunk", 80),
+            Map.entry("trunk_link", 50),
+            Map.entry("primary", 60),
+            Map.entry("primary_link", 40),
+            Map.entry("secondary", 50),
+            Map.entry("secondary_link", 40),
+            Map.entry("tertiary", 50),
+            Map.entry("tertiary_link", 30),
+            Map.entry("unclassified", 40),
+            Map.entry("residential", 30),
+            Map.entry("living_street", 10),
+            Map.entry("service", 20),
+            Map.entry("road", 30),
+            Map.entry("track", 15));
+
+    private static final double ESCALA = 1e7;
+
+    private LectorOsm() {
+    }
+
+    /**
+     * Lee el archivo y construye el grafo (solo con su componente fuertemente conexa más grande).
+     *
+     * @param archivo Extracto OSM en XML, opcionalmente comprimido con gzip.
+     * @return La red vial.
+     * @throws IOException Si el archivo no se puede leer o no es XML válido.
+     */
+    public static GrafoVial leer(Path archivo) throws IOException {
+        // 1. Vías transitables: nodos de cada vía (refs[inicioVia[i] .. inicioVia[i + 1])), velocidad y sentido
+        ListaLong refs = new ListaLong();
+        ListaInt inicioVia = new ListaInt();
+        ListaInt velocidadVia = new ListaInt();
+        ListaInt sentidoVia = new ListaInt();
+        try (InputStream entrada = abrir(archivo)) {
+            XMLStreamReader xml = lector(entrada);
+            ListaLong nodosVia = new ListaLong();
+            String highway = null;
+            String oneway = null;
+            String junction = null;
+            String maxspeed = null;
+            while (xml.hasNext()) {
+                int evento = xml.next();
+                if (evento == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "way" -> {
+                            nodosVia.tamanio = 0;
+                            highway = oneway = junction = maxspeed = null;
+                        }
+                        case "nd" -> nodosVia.agregar(Long.parseLong(xml.getAttributeValue(null, "ref")));
+                        case "tag" -> {
+                            String valor = xml.getAttributeValue(null, "v");
+                            switch (String.valueOf(xml.getAttributeValue(null, "k"))) {
+                                case "highway" -> highway = valor;
+                                case "oneway" -> oneway = valor;
+                                case "junction" -> junction = valor;
+                                case "maxspeed" -> maxspeed = valor;
+                                default -> {
+                                }
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (evento == XMLStreamConstants.END_ELEMENT && "way".equals(xml.getLocalName())
+                        && highway != null && VELOCIDADES.containsKey(highway) && nodosVia.tamanio > 1) {
+                    inicioVia.agregar(refs.tamanio);
+                    for (int i = 0; i < nodosVia.tamanio; i++) {
+                        refs.agregar(nodosVia.valores[i]);
+                    }
+                    velocidadVia.agregar(velocidad(highway, maxspeed));
+                    sentidoVia.agregar(sentido(highway, oneway, junction));
+                }
+            }
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("El extracto OSM no es XML válido: " + e.getMessage(), e);
+        }
+        inicioVia.agregar(refs.tamanio);
+
+        // 2. Posición de los nodos usados por alguna vía (IDs ordenados; el índice del nodo es su posición)
+        long[] ids = Arrays.stream(refs.valores, 0, refs.tamanio).sorted().distinct().toArray();
+        int[] latitudE7 = new int[ids.length];
+        int[] longitudE7 = new int[ids.length];
+        boolean[] conPosicion = new boolean[ids.length];
+        try (InputStream entrada = abrir(archivo)) {
+            XMLStreamReader xml = lector(entrada);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "node".equals(xml.getLocalName())) {
+                    int i = Arrays.binarySearch(ids, Long.parseLong(xml.getAttributeValue(null, "id")));
+                    if (i >= 0) {
+                        latitudE7[i] = (int) Math.round(Double.parseDouble(xml.getAttributeValue(null, "lat")) * ESCALA);
+                        longitudE7[i] = (int) Math.round(Double.parseDouble(xml.getAttributeValue(null, "lon")) * ESCALA);
+                        conPosicion[i] = true;
+                    }
+                }
+            }
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("El extracto OSM no es XML válido: " + e.getMessage(), e);
+        }
+
+        // 3. Un arco por tramo y sentido; se omiten los tramos con nodos fuera del extracto
+        ListaInt origen = new ListaInt();
+        ListaInt destino = new ListaInt();
+        ListaInt tiempoMs = new ListaInt();
+        ListaInt metros = new ListaInt();
+        for (int via = 0; via + 1 < inicioVia.tamanio; via++) {
+            double metrosPorMs = velocidadVia.valores[via] / 3600.0;
+            int sentido = sentidoVia.valores[via];
+            for (int r = inicioVia.valores[via]; r + 1 < inicioVia.valores[via + 1]; r++) {
+                int a = Arrays.binarySearch(ids, refs.valores[r]);
+                int b = Arrays.binarySearch(ids, refs.valores[r + 1]);
+                if (a == b || !conPosicion[a] || !conPosicion[b]) {
+                    continue;
+                }
+                double largo = GeoUtil.distanciaMetros(latitudE7[a] / ESCALA, longitudE7[a] / ESCALA,
+                        latitudE7[b] / ESCALA, longitudE7[b] / ESCALA);
+                int tiempo = (int) Math.max(1, Math.round(largo / metrosPorMs));
+                int enteros = (int) Math.round(largo);
+                if (sentido >= 0) {
+                    origen.agregar(a);
+                    destino.agregar(b);
+                    tiempoMs.agregar(tiempo);
+                    metros.agregar(enteros);
+                }
+                if (sentido <= 0) {
+                    origen.agregar(b);
+                    destino.agregar(a);
+                    tiempoMs.agregar(tiempo);
+                    metros.agregar(enteros);
+                }
+            }
+        }
+        return GrafoVial.construir(latitudE7, longitudE7, origen.valores, destino.valores, tiempoMs.valores,
+                metros.valores, origen.tamanio);
+    }
+
+    /**
+     * Velocidad de una vía en km/h: su {@code maxspeed} numérico (en km/h o "mph") o la típica de su tipo.
+     */
+    static int velocidad(String highway, String maxspeed) {
+        if (maxspeed != null) {
+            String valor = maxspeed.trim().toLowerCase(Locale.ROOT);
+            boolean millas = valor.endsWith("mph");
+            String numero = millas ? valor.substring(0, valor.length() - 3).trim() : valor;
+            try {
+                double velocidad = Double.parseDouble(numero) * (millas ? 1.609344 : 1);
+                if (velocidad >= 5 && velocidad <= 150) {
+                    return (int) Math.round(velocidad);
+                }
+            } catch (NumberFormatException e) {
+                // "none", "walk", "CL:urban", etc.: se usa la velocidad típica
+            }
+        }
+        return VELOCIDADES.get(highway);
+    }
+
+    /**
+     * Sentido de circulación: 1 solo hacia adelante, -1 solo hacia atrás, 0 ambos.
+     */
+    static int sentido(String highway, String oneway, String junction) {
+        if ("-1".equals(oneway) || "reverse".equals(oneway)) {
+            return -1;
+        }
+        if ("yes".equals(oneway) || "true".equals(oneway) || "1".equals(oneway)) {
+            return 1;
+        }
+        if ("no".equals(oneway)) {
+            return 0;
+        }
+        return "roundabout".equals(junction) || "motorway".equals(highway) ? 1 : 0;
+    }
+
+    private static InputStream abrir(Path archivo) throws IOException {
+        InputStream entrada = new BufferedInputStream(Files.newInputStream(archivo), 1 << 16);
+        return archivo.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(entrada, 1 << 16) : entrada;
+    }
+
+    private static XMLStreamReader lector(InputStream entrada) throws XMLStreamException {
+        XMLInputFactory fabrica = XMLInputFactory.newFactory();
+        fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        fabrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return fabrica.createXMLStreamReader(entrada);
+    }
+
+    /** Lista creciente de {@code long} sin objetos por elemento. */
+    private static final class ListaLong {
+        long[] valores = new long[1024];
+        int tamanio;
+
+        void agregar(long valor) {
+            if (tamanio == valores.length) {
+                valores = Arrays.copyOf(valores, tamanio * 2);
+            }
+            valores[tamanio++] = valor;
+        }
+    }
+
+    /** Lista creciente de {@code int} sin objetos por elemento. */
+    private static final class ListaInt {
+        int[] valores = new int[1024];
+        int tamanio;
+
+        void agregar(int valor) {
+            if (tamanio == valores.length) {
+                valores = Arrays.copyOf(valores, tamanio * 2);
+            }
+            valores[tamanio++] = valor;
+        }
+    }
+}
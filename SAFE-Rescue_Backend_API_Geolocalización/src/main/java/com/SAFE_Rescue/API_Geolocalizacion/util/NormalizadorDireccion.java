@@ -0,0 +1,146 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Forma canónica de una dirección, para reconocer la misma dirección escrita de distintas maneras.
+ * <p>
+ * La calle, el número y el complemento se pasan a minúsculas sin tildes ni puntuación, y las abreviaturas
+ * habituales se expanden ("Av." y "Avda." quedan como "avenida", "Pje." como "pasaje", etc.). Junto con la
+ * comuna forman la clave canónica, que se guarda como un hash SHA-256 de largo fijo para indexarla.
+ * La villa no forma parte de la clave: es descriptiva y suele venir o no según quién registre la dirección.
+ * </p>
+ */
+public final class NormalizadorDireccion {
+
+    /** Largo de la clave canónica (SHA-256 en hexadecimal). */
+    public static final int LARGO_CLAVE = 64;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern PREFIJO_NUMERO = Pattern.compile("^(n|no|nro|num|numero)(?=\\d)");
+
+    private static final Map<String, String> ABREVIATURAS = Map.ofEntries(
+            Map.entry("av", "avenida"),
+            Map.entry("avd", "avenida"),
+            Map.entry("avda", "avenida"),
+            Map.entry("ave", "avenida"),
+            Map.entry("pje", "pasaje"),
+            Map.entry("psje", "pasaje"),
+            Map.entry("pj", "pasaje"),
+            Map.entry("cjto", "conjunto"),
+            Map.entry("cam", "camino"),
+            Map.entry("carr", "carretera"),
+            Map.entry("gral", "general"),
+            Map.entry("pdte", "presidente"),
+            Map.entry("cap", "capitan"),
+            Map.entry("cmdte", "comandante"),
+            Map.entry("tte", "teniente"),
+            Map.entry("cnel", "coronel"),
+            Map.entry("alm", "almirante"),
+            Map.entry("dr", "doctor"),
+            Map.entry("sta", "santa"),
+            Map.entry("sto", "santo"),
+            Map.entry("depto", "departamento"),
+            Map.entry("dpto", "departamento"),
+            Map.entry("dep", "departamento"),
+            Map.entry("of", "oficina"),
+            Map.entry("blk", "block"),
+            Map.entry("torr", "torre"));
+
+    private NormalizadorDireccion() {
+    }
+
+    /**
+     * Normaliza un texto libre (calle o complemento): minúsculas, sin tildes ni puntuación y con las
+     * abreviaturas expandidas. Devuelve una cadena vacía si el texto es nulo.
+     */
+    public static String normalizarTexto(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String base = NO_ALFANUMERICO.matcher(sinTildes(texto)).replaceAll(" ").trim();
+        if (base.isEmpty()) {
+            return "";
+        }
+        StringBuilder resultado = new StringBuilder(base.length() + 16);
+        for (String palabra : base.split(" ")) {
+            if (!resultado.isEmpty()) {
+                resultado.append(' ');
+            }
+            resultado.append(ABREVIATURAS.getOrDefault(palabra, palabra));
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Normaliza un texto a medio escribir para buscarlo como prefijo de nombres normalizados con
+     * {@link #normalizarTexto(String)}. La última palabra solo se expande como abreviatura si ya se terminó de
+     * escribir (le sigue un espacio o un punto), y en ese caso se deja un espacio al final: "av" puede seguir
+     * siendo "avellanos", pero "av " y "av." solo son "avenida ".
+     */
+    public static String normalizarPrefijo(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String base = sinTildes(texto);
+        boolean terminada = !base.isEmpty() && NO_ALFANUMERICO.matcher(base.substring(base.length() - 1)).matches();
+        String normalizado = normalizarTexto(texto);
+        if (normalizado.isEmpty() || terminada) {
+            return normalizado.isEmpty() ? "" : normalizado + " ";
+        }
+        String[] palabras = NO_ALFANUMERICO.matcher(base).replaceAll(" ").trim().split(" ");
+        int espacio = normalizado.lastIndexOf(' ');
+        return normalizado.substring(0, espacio + 1) + palabras[palabras.length - 1];
+    }
+
+    /**
+     * Normaliza la numeración: sin espacios ni puntuación y sin prefijos como "N°" o "Nro."
+     * ("N° 4.500" y "4500" quedan iguales; "S/N" queda como "sn").
+     */
+    public static String normalizarNumero(String numero) {
+        if (numero == null) {
+            return "";
+        }
+        String base = NO_ALFANUMERICO.matcher(sinTildes(numero)).replaceAll("");
+        return PREFIJO_NUMERO.matcher(base).replaceFirst("");
+    }
+
+    /**
+     * Clave canónica de una dirección: hash de la calle, número y complemento normalizados y el ID de la comuna.
+     *
+     * @return La clave en hexadecimal, o {@code null} si a la dirección le falta la calle, el número o la comuna.
+     */
+    public static String claveCanonica(Direccion direccion) {
+        if (direccion == null || direccion.getComuna() == null || direccion.getComuna().getIdComuna() == null) {
+            return null;
+        }
+        String calle = normalizarTexto(direccion.getCalle());
+        String numero = normalizarNumero(direccion.getNumero());
+        if (calle.isEmpty() || numero.isEmpty()) {
+            return null;
+        }
+        String forma = direccion.getComuna().getIdComuna() + "|" + calle + "|" + numero + "|"
+                + normalizarTexto(direccion.getComplemento());
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(forma.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible.", e);
+        }
+    }
+
+    private static String sinTildes(String texto) {
+        return MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+}
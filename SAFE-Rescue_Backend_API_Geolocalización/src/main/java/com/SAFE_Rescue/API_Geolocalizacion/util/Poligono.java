@@ -0,0 +1,101 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+import java.util.List;
+
+/**
+ * Polígono inmutable en grados decimales, con un anillo exterior y cero o más huecos.
+ * <p>
+ * Cada anillo se guarda como un arreglo {@code [lon0, lat0, lon1, lat1, ...]} (el orden de GeoJSON);
+ * no hace falta repetir el primer vértice al final.
+ * </p>
+ */
+public final class Poligono {
+
+    private final double[] exterior;
+    private final List<double[]> huecos;
+    private final double lonMin;
+    private final double latMin;
+    private final double lonMax;
+    private final double latMax;
+
+    /**
+     * @param exterior Anillo exterior, con al menos 3 vértices.
+     * @param huecos   Anillos interiores (huecos); puede ser una lista vacía.
+     * @throws IllegalArgumentException Si algún anillo tiene menos de 3 vértices.
+     */
+    public Poligono(double[] exterior, List<double[]> huecos) {
+        validarAnillo(exterior);
+        huecos.forEach(Poligono::validarAnillo);
+        this.exterior = exterior.clone();
+        this.huecos = huecos.stream().map(double[]::clone).toList();
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < exterior.length; i += 2) {
+            minX = Math.min(minX, exterior[i]);
+            maxX = Math.max(maxX, exterior[i]);
+            minY = Math.min(minY, exterior[i + 1]);
+            maxY = Math.max(maxY, exterior[i + 1]);
+        }
+        this.lonMin = minX;
+        this.latMin = minY;
+        this.lonMax = maxX;
+        this.latMax = maxY;
+    }
+
+    public double getLonMin() {
+        return lonMin;
+    }
+
+    public double getLatMin() {
+        return latMin;
+    }
+
+    public double getLonMax() {
+        return lonMax;
+    }
+
+    public double getLatMax() {
+        return latMax;
+    }
+
+    /**
+     * Indica si el punto está dentro del polígono (dentro del exterior y fuera de todos los huecos).
+     */
+    public boolean contiene(double latitud, double longitud) {
+        if (longitud < lonMin || longitud > lonMax || latitud < latMin || latitud > latMax) {
+            return false;
+        }
+        if (!dentroDeAnillo(exterior, longitud, latitud)) {
+            return false;
+        }
+        for (double[] hueco : huecos) {
+            if (dentroDeAnillo(hueco, longitud, latitud)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prueba del rayo (regla par-impar): cuenta cuántas aristas cruza un rayo horizontal desde el punto.
+     */
+    private static boolean dentroDeAnillo(double[] anillo, double x, double y) {
+        boolean dentro = false;
+        int n = anillo.length;
+        for (int i = 0, j = n - 2; i < n; j = i, i += 2) {
+            double xi = anillo[i], yi = anillo[i + 1];
+            double xj = anillo[j], yj = anillo[j + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                dentro = !dentro;
+            }
+        }
+        return dentro;
+    }
+
+    private static void validarAnillo(double[] anillo) {
+        if (anillo == null || anillo.length < 6 || anillo.length % 2 != 0) {
+            throw new IllegalArgumentException("Un anillo del polígono debe tener al menos 3 vértices.");
+        }
+    }
+}
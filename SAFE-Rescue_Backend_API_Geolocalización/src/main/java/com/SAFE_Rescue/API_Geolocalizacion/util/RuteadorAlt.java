@@ -0,0 +1,321 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Rutas más rápidas sobre un {@link GrafoVial} con el algoritmo ALT (A*, <i>landmarks</i> y desigualdad
+ * triangular).
+ * <p>
+ * Al construirlo se eligen {@code k} nodos de referencia (landmarks) repartidos por la red, cada uno el más lejano
+ * posible de los ya elegidos, y se guarda el tiempo de cada nodo hacia y desde cada uno. Por la desigualdad
+ * triangular, con esos tiempos se acota por debajo lo que falta para llegar al destino, y A* usa esa cota para
+ * explorar casi solo los nodos que van en la dirección correcta. La ruta de uno a muchos destinos es un Dijkstra
+ * que se detiene al alcanzar el último de ellos.
+ * </p>
+ * <p>
+ * Cada búsqueda usa arreglos de trabajo del tamaño del grafo. Hay tantos juegos como procesadores y se reutilizan
+ * entre búsquedas (sin limpiarlos: cada nodo guarda en qué búsqueda se marcó por última vez), así que una
+ * consulta no reserva memoria proporcional a la red y las consultas en paralelo no se bloquean entre sí.
+ * </p>
+ */
+public final class RuteadorAlt {
+
+    /** Tiempo que se informa para un destino sin ruta. */
+    public static final int SIN_RUTA = Integer.MAX_VALUE;
+
+    private final GrafoVial grafo;
+    private final int[] landmarks;
+    // tiempoDesde[l][v]: del landmark l al nodo v; tiempoHacia[l][v]: del nodo v al landmark l
+    private final int[][] tiempoDesde;
+    private final int[][] tiempoHacia;
+    private final BlockingQueue<Busqueda> busquedas;
+
+    /**
+     * Tiempo y largo de la ruta más rápida.
+     *
+     * @param tiempoMs Tiempo de viaje en milisegundos, o {@link #SIN_RUTA}.
+     * @param metros   Largo de la ruta en metros.
+     */
+    public record Ruta(int tiempoMs, long metros) {
+
+        public boolean existe() {
+            return tiempoMs != SIN_RUTA;
+        }
+    }
+
+    /**
+     * Preprocesa el grafo: elige los landmarks y calcula sus tiempos (dos Dijkstra completos por landmark).
+     *
+     * @param grafo             Red vial.
+     * @param cantidadLandmarks Cantidad de landmarks; más landmarks dan cotas más ajustadas a cambio de
+     *                          {@code 8 × n} bytes de memoria cada uno.
+     */
+    public RuteadorAlt(GrafoVial grafo, int cantidadLandmarks) {
+        this.grafo = grafo;
+        int n = grafo.getCantidadNodos();
+        int k = n == 0 ? 0 : Math.max(1, Math.min(cantidadLandmarks, n));
+        int paralelas = Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.busquedas = new ArrayBlockingQueue<>(paralelas);
+        for (int i = 0; i < paralelas; i++) {
+            busquedas.add(new Busqueda(n));
+        }
+
+        this.landmarks = new int[k];
+        this.tiempoDesde = new int[k][];
+        this.tiempoHacia = new int[k][];
+        if (k == 0) {
+            return;
+        }
+        // El primero es el nodo más lejano de uno cualquiera; cada siguiente, el más lejano de los ya elegidos
+        int[] cercania = completo(0, false);
+        for (int l = 0; l < k; l++) {
+            int elegido = 0;
+            for (int v = 1; v < n; v++) {
+                if (cercania[v] > cercania[elegido]) {
+                    elegido = v;
+                }
+            }
+            landmarks[l] = elegido;
+            tiempoDesde[l] = completo(elegido, false);
+            tiempoHacia[l] = completo(elegido, true);
+            if (l == 0) {
+                cercania = tiempoDesde[0].clone();
+            } else {
+                for (int v = 0; v < n; v++) {
+                    cercania[v] = Math.min(cercania[v], tiempoDesde[l][v]);
+                }
+            }
+        }
+    }
+
+    public GrafoVial getGrafo() {
+        return grafo;
+    }
+
+    public int getCantidadLandmarks() {
+        return landmarks.length;
+    }
+
+    /**
+     * Ruta más rápida entre dos nodos (A* con la cota de los landmarks).
+     */
+    public Ruta ruta(int origen, int destino) {
+        Busqueda busqueda = tomar();
+        try {
+            busqueda.reiniciar();
+            busqueda.alcanzar(origen, 0, 0, cota(origen, destino));
+            while (!busqueda.vacia()) {
+                int v = busqueda.extraer();
+                if (v < 0) {
+                    continue;
+                }
+                if (v == destino) {
+                    return new Ruta(busqueda.tiempo[v], busqueda.metros[v]);
+                }
+                for (int a = grafo.inicioArcos(v, false); a < grafo.finArcos(v, false); a++) {
+                    int w = grafo.vecino(a, false);
+                    int tiempo = busqueda.tiempo[v] + grafo.tiempoMs(a, false);
+                    if (!busqueda.alcanzado(w) || tiempo < busqueda.tiempo[w]) {
+                        busqueda.alcanzar(w, tiempo, busqueda.metros[v] + grafo.metros(a, false), cota(w, destino));
+                    }
+                }
+            }
+            return new Ruta(SIN_RUTA, 0);
+        } finally {
+            busquedas.add(busqueda);
+        }
+    }
+
+    /**
+     * Rutas más rápidas de un nodo a varios (o de varios a uno, con {@code inverso}): un solo Dijkstra que se
+     * detiene al alcanzar todos los destinos.
+     *
+     * @param origen   Nodo de partida (o de llegada, si {@code inverso}).
+     * @param destinos Nodos de llegada (o de partida, si {@code inverso}); pueden repetirse.
+     * @param inverso  {@code true} para calcular el tiempo desde cada destino hasta el origen.
+     * @return Una ruta por destino, en el mismo orden.
+     */
+    public Ruta[] rutas(int origen, int[] destinos, boolean inverso) {
+        Busqueda busqueda = tomar();
+        try {
+            busqueda.reiniciar();
+            int[] pendientes = destinos.clone();
+            Arrays.sort(pendientes);
+            int restantes = (int) Arrays.stream(pendientes).distinct().count();
+
+            busqueda.alcanzar(origen, 0, 0, 0);
+            while (restantes > 0 && !busqueda.vacia()) {
+                int v = busqueda.extraer();
+                if (v < 0) {
+                    continue;
+                }
+                if (Arrays.binarySearch(pendientes, v) >= 0) {
+                    restantes--;
+                }
+                for (int a = grafo.inicioArcos(v, inverso); a < grafo.finArcos(v, inverso); a++) {
+                    int w = grafo.vecino(a, inverso);
+                    int tiempo = busqueda.tiempo[v] + grafo.tiempoMs(a, inverso);
+                    if (!busqueda.alcanzado(w) || tiempo < busqueda.tiempo[w]) {
+                        busqueda.alcanzar(w, tiempo, busqueda.metros[v] + grafo.metros(a, inverso), 0);
+                    }
+                }
+            }
+            Ruta[] rutas = new Ruta[destinos.length];
+            for (int i = 0; i < destinos.length; i++) {
+                int d = destinos[i];
+                rutas[i] = busqueda.cerrado(d) ? new Ruta(busqueda.tiempo[d], busqueda.metros[d]) : new Ruta(SIN_RUTA, 0);
+            }
+            return rutas;
+        } finally {
+            busquedas.add(busqueda);
+        }
+    }
+
+    /**
+     * Cota inferior del tiempo de {@code v} a {@code destino}: para cada landmark L,
+     * {@code d(L, destino) - d(L, v)} y {@code d(v, L) - d(destino, L)}.
+     */
+    private int cota(int v, int destino) {
+        int cota = 0;
+        for (int l = 0; l < landmarks.length; l++) {
+            cota = Math.max(cota, Math.max(tiempoDesde[l][destino] - tiempoDesde[l][v],
+                    tiempoHacia[l][v] - tiempoHacia[l][destino]));
+        }
+        return cota;
+    }
+
+    /**
+     * Tiempo desde (o hacia, con {@code inverso}) un nodo a todos los demás.
+     */
+    private int[] completo(int origen, boolean inverso) {
+        Busqueda busqueda = tomar();
+        try {
+            busqueda.reiniciar();
+            busqueda.alcanzar(origen, 0, 0, 0);
+            while (!busqueda.vacia()) {
+                int v = busqueda.extraer();
+                if (v < 0) {
+                    continue;
+                }
+                for (int a = grafo.inicioArcos(v, inverso); a < grafo.finArcos(v, inverso); a++) {
+                    int w = grafo.vecino(a, inverso);
+                    int tiempo = busqueda.tiempo[v] + grafo.tiempoMs(a, inverso);
+                    if (!busqueda.alcanzado(w) || tiempo < busqueda.tiempo[w]) {
+                        busqueda.alcanzar(w, tiempo, 0, 0);
+                    }
+                }
+            }
+            int[] tiempos = new int[grafo.getCantidadNodos()];
+            for (int v = 0; v < tiempos.length; v++) {
+                tiempos[v] = busqueda.alcanzado(v) ? busqueda.tiempo[v] : SIN_RUTA;
+            }
+            return tiempos;
+        } finally {
+            busquedas.add(busqueda);
+        }
+    }
+
+    private Busqueda tomar() {
+        try {
+            return busquedas.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Búsqueda de ruta interrumpida.", e);
+        }
+    }
+
+    /**
+     * Arreglos de trabajo de una búsqueda, con un montículo binario de prioridades sobre un {@code long[]}
+     * ({@code prioridad << 32 | nodo}). Un nodo mejorado se vuelve a insertar; la entrada antigua se descarta al
+     * extraerla.
+     */
+    private static final class Busqueda {
+        final int[] tiempo;
+        final long[] metros;
+        final int[] marca;
+        final int[] cerradoEn;
+        int generacion;
+        long[] monticulo = new long[1024];
+        int tamanio;
+
+        Busqueda(int n) {
+            tiempo = new int[n];
+            metros = new long[n];
+            marca = new int[n];
+            cerradoEn = new int[n];
+        }
+
+        void reiniciar() {
+            tamanio = 0;
+            if (++generacion == Integer.MAX_VALUE) {
+                Arrays.fill(marca, 0);
+                Arrays.fill(cerradoEn, 0);
+                generacion = 1;
+            }
+        }
+
+        boolean alcanzado(int v) {
+            return marca[v] == generacion;
+        }
+
+        boolean cerrado(int v) {
+            return cerradoEn[v] == generacion;
+        }
+
+        boolean vacia() {
+            return tamanio == 0;
+        }
+
+        void alcanzar(int v, int tiempoV, long metrosV, int cota) {
+            marca[v] = generacion;
+            tiempo[v] = tiempoV;
+            metros[v] = metrosV;
+            long prioridad = Math.min((long) tiempoV + cota, Integer.MAX_VALUE);
+            if (tamanio == monticulo.length) {
+                monticulo = Arrays.copyOf(monticulo, tamanio * 2);
+            }
+            int i = tamanio++;
+            long entrada = (prioridad << 32) | v;
+            while (i > 0 && monticulo[(i - 1) / 2] > entrada) {
+                monticulo[i] = monticulo[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            monticulo[i] = entrada;
+        }
+
+        /**
+         * Extrae el nodo de menor prioridad y lo marca como cerrado.
+         *
+         * @return El nodo, o -1 si la entrada estaba obsoleta (el nodo ya se cerró con un tiempo menor).
+         */
+        int extraer() {
+            long primera = monticulo[0];
+            long ultima = monticulo[--tamanio];
+            int i = 0;
+            while (true) {
+                int hijo = 2 * i + 1;
+                if (hijo >= tamanio) {
+                    break;
+                }
+                if (hijo + 1 < tamanio && monticulo[hijo + 1] < monticulo[hijo]) {
+                    hijo++;
+                }
+                if (monticulo[hijo] >= ultima) {
+                    break;
+                }
+                monticulo[i] = monticulo[hijo];
+                i = hijo;
+            }
+            monticulo[i] = ultima;
+
+            int v = (int) primera;
+            if (cerradoEn[v] == generacion) {
+                return -1;
+            }
+            cerradoEn[v] = generacion;
+            return v;
+        }
+    }
+}
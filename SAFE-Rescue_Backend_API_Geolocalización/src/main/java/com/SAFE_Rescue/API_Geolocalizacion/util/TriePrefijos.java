@@ -0,0 +1,181 @@
+package com.SAFE_Rescue.API_Geolocalizacion.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Árbol de prefijos compacto (radix trie): cada arista guarda una cadena completa en vez de un carácter, así que
+ * una rama sin bifurcaciones ocupa un solo nodo.
+ * <p>
+ * Cada nodo recuerda los mejores valores de su subárbol según el orden dado (hasta {@code maxMejores}); una
+ * búsqueda por prefijo baja hasta el nodo del prefijo y devuelve esa lista, sin recorrer el subárbol. Al insertar
+ * se invalidan solo las listas del camino de la clave, que se recalculan en la próxima búsqueda a partir de las
+ * de los hijos.
+ * </p>
+ * <p>
+ * Un mismo valor puede estar bajo varias claves; en los resultados aparece una sola vez. Si el orden de un valor
+ * cambia (por ejemplo, su peso), hay que volver a llamar a {@link #poner(String, Object)} con cada una de sus
+ * claves para invalidar las listas afectadas. Los métodos son sincronizados.
+ * </p>
+ *
+ * @param <T> Tipo del valor asociado a cada clave.
+ */
+public final class TriePrefijos<T> {
+
+    private final Comparator<? super T> orden;
+    private final int maxMejores;
+    private final Nodo<T> raiz = new Nodo<>("");
+    private int tamanio;
+
+    private static final class Nodo<T> {
+        String etiqueta;
+        final Map<Character, Nodo<T>> hijos = new HashMap<>(4);
+        T valor;
+        List<T> mejores;
+
+        Nodo(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    /**
+     * @param orden      Orden de los resultados (el primero es el mejor).
+     * @param maxMejores Cantidad máxima de resultados por búsqueda.
+     */
+    public TriePrefijos(Comparator<? super T> orden, int maxMejores) {
+        this.orden = orden;
+        this.maxMejores = maxMejores;
+    }
+
+    /**
+     * Cantidad de claves con valor.
+     */
+    public synchronized int getTamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Valor guardado bajo la clave exacta, o {@code null}.
+     */
+    public synchronized T obtener(String clave) {
+        Nodo<T> nodo = raiz;
+        int i = 0;
+        while (i < clave.length()) {
+            Nodo<T> hijo = nodo.hijos.get(clave.charAt(i));
+            if (hijo == null || !clave.startsWith(hijo.etiqueta, i)) {
+                return null;
+            }
+            nodo = hijo;
+            i += hijo.etiqueta.length();
+        }
+        return nodo.valor;
+    }
+
+    /**
+     * Guarda (o vuelve a guardar) el valor bajo la clave e invalida las listas de mejores de su camino.
+     */
+    public synchronized void poner(String clave, T valor) {
+        List<Nodo<T>> camino = new ArrayList<>();
+        Nodo<T> nodo = raiz;
+        camino.add(nodo);
+        int i = 0;
+        while (i < clave.length()) {
+            char c = clave.charAt(i);
+            Nodo<T> hijo = nodo.hijos.get(c);
+            if (hijo == null) {
+                hijo = new Nodo<>(clave.substring(i));
+                nodo.hijos.put(c, hijo);
+                nodo = hijo;
+                camino.add(nodo);
+                break;
+            }
+            int comun = prefijoComun(hijo.etiqueta, clave, i);
+            if (comun < hijo.etiqueta.length()) {
+                // La clave se separa a mitad de la arista: se parte en un nodo intermedio
+                Nodo<T> medio = new Nodo<>(hijo.etiqueta.substring(0, comun));
+                hijo.etiqueta = hijo.etiqueta.substring(comun);
+                medio.hijos.put(hijo.etiqueta.charAt(0), hijo);
+                nodo.hijos.put(c, medio);
+                hijo = medio;
+            }
+            nodo = hijo;
+            camino.add(nodo);
+            i += comun;
+        }
+        if (nodo.valor == null) {
+            tamanio++;
+        }
+        nodo.valor = valor;
+        camino.forEach(n -> n.mejores = null);
+    }
+
+    /**
+     * Los mejores valores cuyas claves empiezan con el prefijo, sin repetir.
+     *
+     * @param prefijo Prefijo buscado (vacío para todos).
+     * @param limite  Cantidad máxima de resultados (se acota a {@code maxMejores}).
+     * @return Valores ordenados del mejor al peor.
+     */
+    public synchronized List<T> buscar(String prefijo, int limite) {
+        Nodo<T> nodo = raiz;
+        int i = 0;
+        while (i < prefijo.length()) {
+            Nodo<T> hijo = nodo.hijos.get(prefijo.charAt(i));
+            if (hijo == null) {
+                return List.of();
+            }
+            int comun = prefijoComun(hijo.etiqueta, prefijo, i);
+            if (i + comun < prefijo.length() && comun < hijo.etiqueta.length()) {
+                return List.of();
+            }
+            nodo = hijo;
+            i += comun;
+        }
+        List<T> mejores = mejores(nodo);
+        return List.copyOf(mejores.subList(0, Math.min(Math.max(limite, 0), mejores.size())));
+    }
+
+    /**
+     * Lista de mejores del subárbol, calculada a partir de las de los hijos si no está vigente.
+     */
+    private List<T> mejores(Nodo<T> nodo) {
+        if (nodo.mejores != null) {
+            return nodo.mejores;
+        }
+        List<T> candidatos = new ArrayList<>();
+        if (nodo.valor != null) {
+            candidatos.add(nodo.valor);
+        }
+        for (Nodo<T> hijo : nodo.hijos.values()) {
+            candidatos.addAll(mejores(hijo));
+        }
+        candidatos.sort(orden);
+        Set<T> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<T> resultado = new ArrayList<>(Math.min(maxMejores, candidatos.size()));
+        for (T candidato : candidatos) {
+            if (resultado.size() == maxMejores) {
+                break;
+            }
+            if (vistos.add(candidato)) {
+                resultado.add(candidato);
+            }
+        }
+        nodo.mejores = resultado;
+        return resultado;
+    }
+
+    private static int prefijoComun(String etiqueta, String clave, int desde) {
+        int max = Math.min(etiqueta.length(), clave.length() - desde);
+        int i = 0;
+        while (i < max && etiqueta.charAt(i) == clave.charAt(desde + i)) {
+            i++;
+        }
+        return i;
+    }
+}
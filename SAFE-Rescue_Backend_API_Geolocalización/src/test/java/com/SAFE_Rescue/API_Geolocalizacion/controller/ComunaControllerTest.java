@@ -84,6 +84,28 @@ public class ComunaControllerTest {
                 .andExpect(jsonPath("$.nombre").value(comuna.getNombre()));
     }
 
+    @Test
+    public void buscarPorPuntoTest_shouldReturnOkAndComuna() throws Exception {
+        // Arrange
+        when(comunaService.buscarPorPunto(-33.41, -70.57)).thenReturn(comuna);
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/por-punto").param("lat", "-33.41").param("lon", "-70.57"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.idComuna").value(comuna.getIdComuna()))
+                .andExpect(jsonPath("$.region.nombre").value("Región Metropolitana"));
+    }
+
+    @Test
+    public void buscarPorPuntoTest_shouldReturnNotFound_whenPointIsOutsideAllComunas() throws Exception {
+        // Arrange
+        when(comunaService.buscarPorPunto(0, 0)).thenThrow(new NoSuchElementException());
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/por-punto").param("lat", "0").param("lon", "0"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void agregarComunaTest_shouldReturnCreatedAndMessage() throws Exception {
         // Arrange
@@ -1,5 +1,7 @@
 package com.SAFE_Rescue.API_Geolocalizacion.controller;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.CeldaMapaCalorDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MapaCalorDTO;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
 import com.SAFE_Rescue.API_Geolocalizacion.service.CoordenadasService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -218,4 +220,37 @@ public class CoordenadasControllerTest { // Cambiado de CordenadasControllerTest
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(errorMessage));
     }
+
+    @Test
+    public void mapaCalorTest_shouldReturnOkAndCeldas() throws Exception {
+        // Arrange
+        MapaCalorDTO mapa = new MapaCalorDTO(15, 18, 40L, List.of(
+                new CeldaMapaCalorDTO(79612, 156943, -33.4492, -70.6689, 37),
+                new CeldaMapaCalorDTO(79650, 156923, -33.4263, -70.6167, 3)));
+        when(coordenadasService.consultarMapaCalor(15, "-70.70,-33.46,-70.64,-33.43")).thenReturn(mapa);
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/heatmap")
+                        .param("zoom", "15")
+                        .param("bbox", "-70.70,-33.46,-70.64,-33.43"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nivel").value(18))
+                .andExpect(jsonPath("$.total").value(40))
+                .andExpect(jsonPath("$.celdas.length()").value(2))
+                .andExpect(jsonPath("$.celdas[0].cantidad").value(37));
+    }
+
+    @Test
+    public void mapaCalorTest_shouldReturnBadRequest_whenAreaIsTooLarge() throws Exception {
+        // Arrange
+        final String errorMessage = "El área abarca 1024 teselas al zoom 5 y el máximo es 256. Acerque el mapa o reduzca el área.";
+        when(coordenadasService.consultarMapaCalor(5, "-180,-85,180,85")).thenThrow(new IllegalArgumentException(errorMessage));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/heatmap")
+                        .param("zoom", "5")
+                        .param("bbox", "-180,-85,180,85"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(errorMessage));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.SAFE_Rescue.API_Geolocalizacion.controller;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionResumenDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionUbicacionDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.PaginaDireccionesDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.SugerenciaCalleDTO;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
@@ -20,6 +24,10 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,7 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class DireccionControllerTest {
 
     // Ruta base definida en el controlador
-    private final String BASE_URL = "/api-cordenadas/v1/direcciones";
+    private final String BASE_URL = "/api-geolocalizacion/v1/direcciones";
 
     @Autowired
     private MockMvc mockMvc;
@@ -75,15 +83,37 @@ public class DireccionControllerTest {
     @Test
     public void listarDireccionesTest_shouldReturnOkAndContent() throws Exception {
         // Arrange
-        when(direccionService.findAll()).thenReturn(List.of(direccion));
+        when(direccionService.findAll(null, 100)).thenReturn(List.of(direccion));
 
-        // Act & Assert
+        // Act & Assert: la página no viene llena, así que no hay cursor siguiente
         mockMvc.perform(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].idDireccion").value(direccion.getIdDireccion()))
-                .andExpect(jsonPath("$[0].calle").value(direccion.getCalle()));
+                .andExpect(jsonPath("$[0].calle").value(direccion.getCalle()))
+                .andExpect(header().doesNotExist(DireccionController.CABECERA_SIGUIENTE_CURSOR));
+
+        verify(direccionService, times(1)).findAll(null, 100);
+    }
+
+    @Test
+    public void listarDireccionesTest_shouldReturnNextCursor_whenPageIsFull() throws Exception {
+        // Arrange
+        when(direccionService.findAll(5, 1)).thenReturn(List.of(direccion));
 
-        verify(direccionService, times(1)).findAll();
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL).param("cursor", "5").param("tamanio", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(DireccionController.CABECERA_SIGUIENTE_CURSOR, String.valueOf(id)));
+    }
+
+    @Test
+    public void listarDireccionesTest_BadRequest_whenTamanioIsOutOfRange() throws Exception {
+        // Arrange
+        when(direccionService.findAll(null, 501)).thenThrow(new IllegalArgumentException("El límite debe estar entre 1 y 500."));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL).param("tamanio", "501"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -160,7 +190,7 @@ public class DireccionControllerTest {
     @Test
     public void listarDireccionesTest_NoContent() throws Exception {
         // Arrange
-        when(direccionService.findAll()).thenReturn(Collections.emptyList());
+        when(direccionService.findAll(null, 100)).thenReturn(Collections.emptyList());
 
         // Act & Assert
         mockMvc.perform(get(BASE_URL))
@@ -231,4 +261,165 @@ public class DireccionControllerTest {
                 .andExpect(status().isNotFound()) // 404 NOT FOUND
                 .andExpect(content().string("Dirección no encontrada"));
     }
-}
\ No newline at end of file
+
+    // --- Pruebas de búsquedas geográficas ---
+
+    @Test
+    public void buscarCercanasTest_shouldReturnOkAndDireccionesWithDistance() throws Exception {
+        // Arrange
+        DireccionUbicacionDTO cercana = new DireccionUbicacionDTO(id, direccion.getCalle(), direccion.getNumero(),
+                null, null, comuna.getIdComuna(), -33.45, -70.65, 150.0);
+        when(direccionService.buscarCercanas(-33.45, -70.65, 2.0, 10)).thenReturn(List.of(cercana));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/cercanas")
+                        .param("lat", "-33.45")
+                        .param("lon", "-70.65")
+                        .param("radioKm", "2")
+                        .param("limite", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idDireccion").value(id))
+                .andExpect(jsonPath("$[0].distanciaMetros").value(150.0));
+    }
+
+    @Test
+    public void buscarCercanasTest_shouldReturnBadRequest_whenRadioIsOutOfRange() throws Exception {
+        // Arrange
+        when(direccionService.buscarCercanas(anyDouble(), anyDouble(), anyDouble(), anyInt()))
+                .thenThrow(new IllegalArgumentException("El radio debe ser mayor que 0 y no exceder 50.0 km."));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/cercanas")
+                        .param("lat", "-33.45")
+                        .param("lon", "-70.65")
+                        .param("radioKm", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void autocompletarTest_shouldReturnOkAndSugerencias() throws Exception {
+        // Arrange
+        when(direccionService.autocompletar("pajar", 3, 10))
+                .thenReturn(List.of(new SugerenciaCalleDTO("Avenida Pajaritos", 42)));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/autocompletar")
+                        .param("q", "pajar")
+                        .param("idComuna", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].calle").value("Avenida Pajaritos"))
+                .andExpect(jsonPath("$[0].cantidad").value(42));
+    }
+
+    @Test
+    public void autocompletarTest_shouldReturnBadRequest_whenLimiteIsOutOfRange() throws Exception {
+        // Arrange
+        when(direccionService.autocompletar(anyString(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("El límite debe estar entre 1 y 20."));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/autocompletar")
+                        .param("q", "pajar")
+                        .param("limite", "100"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void buscarEnRectanguloTest_shouldReturnOk() throws Exception {
+        // Arrange
+        when(direccionService.buscarEnRectangulo(-33.5, -33.3, -70.8, -70.5, 200)).thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/bbox")
+                        .param("latMin", "-33.5")
+                        .param("latMax", "-33.3")
+                        .param("lonMin", "-70.8")
+                        .param("lonMax", "-70.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(direccionService, times(1)).buscarEnRectangulo(-33.5, -33.3, -70.8, -70.5, 200);
+    }
+
+    // --- Pruebas del listado paginado ---
+
+    @Test
+    public void listarResumenTest_shouldReturnOkAndFlatPage() throws Exception {
+        // Arrange
+        DireccionResumenDTO resumen = new DireccionResumenDTO(id, direccion.getCalle(), direccion.getNumero(), null, null,
+                1, "Santiago", 1, "Región Metropolitana", "RM", 101, -33.45f, -70.66f);
+        when(direccionService.listarPagina(null, 50)).thenReturn(new PaginaDireccionesDTO(List.of(resumen), id));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/resumen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.direcciones[0].nombreComuna").value("Santiago"))
+                .andExpect(jsonPath("$.direcciones[0].identificacionRegion").value("RM"))
+                .andExpect(jsonPath("$.siguienteCursor").value(id));
+    }
+
+    @Test
+    public void listarResumenTest_NoContent() throws Exception {
+        // Arrange
+        when(direccionService.listarPagina(120, 50)).thenReturn(new PaginaDireccionesDTO(List.of(), null));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/resumen").param("cursor", "120"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void buscarResumenTest_NotFound() throws Exception {
+        // Arrange
+        when(direccionService.findResumenById(99)).thenThrow(new NoSuchElementException());
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/{id}/resumen", 99))
+                .andExpect(status().isNotFound());
+    }
+
+    // --- Pruebas de operaciones en lote ---
+
+    @Test
+    public void listarPorIdsTest_shouldReturnOkAndDireccionesInRequestedOrder() throws Exception {
+        // Arrange
+        Direccion otra = new Direccion(2, "Los Leones", "100", null, null, comuna, null, null, null, null, null);
+        when(direccionService.findAllById(List.of(2, 1))).thenReturn(List.of(otra, direccion));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL).param("ids", "2,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idDireccion").value(2))
+                .andExpect(jsonPath("$[1].idDireccion").value(id))
+                .andExpect(jsonPath("$[1].comuna.nombre").value("Santiago"));
+
+        verify(direccionService, never()).findAll();
+    }
+
+    @Test
+    public void agregarLoteTest_shouldReturnCreatedAndDirecciones() throws Exception {
+        // Arrange
+        when(direccionService.saveAll(anyList())).thenReturn(List.of(direccion));
+
+        // Act & Assert
+        mockMvc.perform(post(BASE_URL + "/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(direccion))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].idDireccion").value(id));
+    }
+
+    @Test
+    public void agregarLoteTest_BadRequest_DireccionInvalida() throws Exception {
+        // Arrange
+        when(direccionService.saveAll(anyList()))
+                .thenThrow(new IllegalArgumentException("Dirección #1: comuna no encontrada con ID: 99"));
+
+        // Act & Assert
+        mockMvc.perform(post(BASE_URL + "/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(direccion))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Dirección #1: comuna no encontrada con ID: 99"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.SAFE_Rescue.API_Geolocalizacion.controller;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RegionArbolDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Region;
 import com.SAFE_Rescue.API_Geolocalizacion.service.RegionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -221,4 +223,57 @@ public class RegionControllerTest {
                 .andExpect(status().isBadRequest()) // 400 BAD REQUEST
                 .andExpect(content().string(errorMessage));
     }
-}
\ No newline at end of file
+
+    // --- Pruebas del catálogo jerárquico ---
+
+    @Test
+    public void obtenerArbolTest_shouldReturnOkWithETag() throws Exception {
+        // Arrange
+        when(regionService.getVersionCatalogo()).thenReturn("a1b2c3");
+        when(regionService.findArbol()).thenReturn(List.of(new RegionArbolDTO(id, region.getNombre(), "RM",
+                List.of(new RegionArbolDTO.ComunaArbol(1, "Santiago", "8320000")))));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/arbol"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"catalogo-a1b2c3\""))
+                .andExpect(jsonPath("$[0].comunas[0].nombre").value("Santiago"));
+    }
+
+    @Test
+    public void obtenerArbolTest_shouldReturnNotModified_whenETagMatches() throws Exception {
+        // Arrange
+        when(regionService.getVersionCatalogo()).thenReturn("a1b2c3");
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/arbol").header("If-None-Match", "\"catalogo-a1b2c3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(regionService, never()).findArbol();
+    }
+
+    @Test
+    public void listarComunasTest_shouldReturnOkAndComunas() throws Exception {
+        // Arrange
+        when(regionService.getVersionCatalogo()).thenReturn("a1b2c3");
+        when(regionService.findComunas(id)).thenReturn(List.of(new Comuna(1, "Santiago", "8320000", region)));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/{id}/comunas", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"catalogo-a1b2c3\""))
+                .andExpect(jsonPath("$[0].idComuna").value(1));
+    }
+
+    @Test
+    public void listarComunasTest_NotFound() throws Exception {
+        // Arrange
+        when(regionService.getVersionCatalogo()).thenReturn("a1b2c3");
+        when(regionService.findComunas(99)).thenThrow(new NoSuchElementException());
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/{id}/comunas", 99))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,95 @@
+package com.SAFE_Rescue.API_Geolocalizacion.controller;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MatrizRutasDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.PuntoDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RutaDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.service.RutasService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RutaController.class)
+public class RutaControllerTest {
+
+    // Ruta base definida en el controlador
+    private final String BASE_URL = "/api-geolocalizacion/v1/rutas";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RutasService rutasService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void calcularEtaTest_shouldReturnOkAndRuta() throws Exception {
+        // Arrange
+        when(rutasService.calcularEta("-33.4489,-70.6693", "-33.4263,-70.6170"))
+                .thenReturn(new RutaDTO(415.2, 4820L, 12.5, 30.1));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/eta")
+                        .param("origen", "-33.4489,-70.6693")
+                        .param("destino", "-33.4263,-70.6170"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tiempoSegundos").value(415.2))
+                .andExpect(jsonPath("$.distanciaMetros").value(4820));
+    }
+
+    @Test
+    public void calcularEtaTest_shouldReturnBadRequest_whenPointIsInvalid() throws Exception {
+        // Arrange
+        when(rutasService.calcularEta("-33.4489", "-33.4263,-70.6170"))
+                .thenThrow(new IllegalArgumentException("El origen debe tener el formato 'latitud,longitud'."));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/eta")
+                        .param("origen", "-33.4489")
+                        .param("destino", "-33.4263,-70.6170"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void calcularEtaTest_shouldReturnServiceUnavailable_whenNetworkIsNotLoaded() throws Exception {
+        // Arrange
+        when(rutasService.calcularEta(any(), any()))
+                .thenThrow(new IllegalStateException("La red vial no está cargada; el cálculo de rutas no está disponible."));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/eta")
+                        .param("origen", "-33.4489,-70.6693")
+                        .param("destino", "-33.4263,-70.6170"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void calcularMatrizTest_shouldReturnOkAndOneRoutePerDestino() throws Exception {
+        // Arrange
+        MatrizRutasDTO solicitud = new MatrizRutasDTO(new PuntoDTO(-33.4489, -70.6693),
+                List.of(new PuntoDTO(-33.4263, -70.6170), new PuntoDTO(-34.0, -71.0)), true);
+        when(rutasService.calcularMatriz(any(MatrizRutasDTO.class)))
+                .thenReturn(List.of(new RutaDTO(415.2, 4820L, 12.5, 30.1), new RutaDTO(null, null, 12.5, null)));
+
+        // Act & Assert
+        mockMvc.perform(post(BASE_URL + "/matriz")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(solicitud)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tiempoSegundos").value(415.2))
+                .andExpect(jsonPath("$[1].tiempoSegundos").isEmpty());
+        verify(rutasService, times(1)).calcularMatriz(any(MatrizRutasDTO.class));
+    }
+}
@@ -0,0 +1,124 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.SugerenciaCalleDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AutocompletadoServiceTest {
+
+    // Comuna 1: Santiago; comuna 2: Providencia
+    private static final String NOMENCLATOR = """
+            # idComuna;nombre
+            1;Avenida Libertador Bernardo O'Higgins
+            1;Avellanos
+            2;Avenida Providencia
+            sin comuna;Calle Inválida
+            """;
+
+    @Mock
+    private DireccionRepository direccionRepository;
+
+    @InjectMocks
+    private AutocompletadoService autocompletadoService;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path archivo = directorio.resolve("calles.csv");
+        Files.writeString(archivo, NOMENCLATOR);
+        ReflectionTestUtils.setField(autocompletadoService, "archivo", archivo.toString());
+
+        List<Object[]> calles = new ArrayList<>();
+        calles.add(new Object[]{"Av. Pajaritos", 1, 5L});
+        calles.add(new Object[]{"avenida pajaritos", 1, 2L});
+        calles.add(new Object[]{"Pasaje Pájaros", 1, 3L});
+        calles.add(new Object[]{"Av. Providencia", 2, 10L});
+        when(direccionRepository.findCallesPorComuna()).thenReturn(calles);
+        autocompletadoService.cargar();
+    }
+
+    private List<String> nombres(List<SugerenciaCalleDTO> sugerencias) {
+        return sugerencias.stream().map(SugerenciaCalleDTO::getCalle).toList();
+    }
+
+    @Test
+    public void autocompletar_shouldMergeSpellingsAndOrderByCantidad() {
+        // Act
+        List<SugerenciaCalleDTO> sugerencias = autocompletadoService.autocompletar("PAJ", 1, 10);
+
+        // Assert: "Av. Pajaritos" y "avenida pajaritos" son la misma calle; se encuentra sin el tipo de vía
+        assertEquals(List.of("Av. Pajaritos", "Pasaje Pájaros"), nombres(sugerencias));
+        assertEquals(7, sugerencias.get(0).getCantidad());
+    }
+
+    @Test
+    public void autocompletar_shouldExpandAbbreviation_onlyWhenWordIsComplete() {
+        // Act & Assert: "av" todavía puede ser "Avellanos"; "av." ya es "avenida"
+        assertEquals(List.of("Av. Pajaritos", "Avellanos", "Avenida Libertador Bernardo O'Higgins"),
+                nombres(autocompletadoService.autocompletar("av", 1, 10)));
+        assertEquals(List.of("Av. Pajaritos", "Avenida Libertador Bernardo O'Higgins"),
+                nombres(autocompletadoService.autocompletar("Av.", 1, 10)));
+    }
+
+    @Test
+    public void autocompletar_shouldPreferGazetteerName_andSearchAllComunas_whenComunaIsNull() {
+        // Act
+        List<SugerenciaCalleDTO> sugerencias = autocompletadoService.autocompletar("provi", null, 10);
+
+        // Assert
+        assertEquals(1, sugerencias.size());
+        assertEquals("Avenida Providencia", sugerencias.get(0).getCalle());
+        assertEquals(10, sugerencias.get(0).getCantidad());
+        assertTrue(autocompletadoService.autocompletar("provi", 1, 10).isEmpty());
+        assertTrue(autocompletadoService.autocompletar("provi", 99, 10).isEmpty());
+    }
+
+    @Test
+    public void registrar_shouldAddStreetAndReorderSuggestions() {
+        // Act: sin transacción activa el cambio se aplica de inmediato
+        for (int i = 0; i < 5; i++) {
+            autocompletadoService.registrar(1, "Pje. Pájaros");
+        }
+        autocompletadoService.registrar(1, "Pajonal");
+
+        // Assert
+        List<SugerenciaCalleDTO> sugerencias = autocompletadoService.autocompletar("paj", 1, 10);
+        assertEquals(List.of("Pasaje Pájaros", "Av. Pajaritos", "Pajonal"), nombres(sugerencias));
+        assertEquals(8, sugerencias.get(0).getCantidad());
+    }
+
+    @Test
+    public void autocompletar_shouldRespectLimite() {
+        // Act & Assert
+        assertEquals(1, autocompletadoService.autocompletar("a", 1, 1).size());
+    }
+
+    @Test
+    public void autocompletar_shouldThrowException_whenTextoOrLimiteIsInvalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> autocompletadoService.autocompletar("  .. ", 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> autocompletadoService.autocompletar(null, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> autocompletadoService.autocompletar("a".repeat(101), 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> autocompletadoService.autocompletar("paj", 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> autocompletadoService.autocompletar("paj", 1, 21));
+    }
+}
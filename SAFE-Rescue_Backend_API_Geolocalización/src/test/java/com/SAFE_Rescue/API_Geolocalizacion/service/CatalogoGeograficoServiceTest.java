@@ -0,0 +1,112 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RegionArbolDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Region;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.ComunaRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.RegionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogoGeograficoServiceTest {
+
+    @Mock
+    private RegionRepository regionRepository;
+
+    @Mock
+    private ComunaRepository comunaRepository;
+
+    @InjectMocks
+    private CatalogoGeograficoService catalogoGeograficoService;
+
+    private Region metropolitana;
+    private Region valparaiso;
+
+    @BeforeEach
+    public void setUp() {
+        metropolitana = new Region(13, "Metropolitana de Santiago", "RM");
+        valparaiso = new Region(5, "Valparaíso", "V");
+        when(regionRepository.findAll()).thenReturn(List.of(metropolitana, valparaiso));
+        when(comunaRepository.findAll()).thenReturn(List.of(
+                new Comuna(3, "Providencia", "7500000", metropolitana),
+                new Comuna(1, "Santiago", "8320000", metropolitana),
+                new Comuna(2, "Maipú", "9250000", metropolitana)));
+    }
+
+    @Test
+    public void lecturas_shouldBeServedFromSnapshot_withoutQueryingAgain() {
+        // Act
+        catalogoGeograficoService.recargar();
+        catalogoGeograficoService.findRegiones();
+        catalogoGeograficoService.findComuna(1);
+        catalogoGeograficoService.findComunasDeRegion(13);
+        catalogoGeograficoService.getArbol();
+
+        // Assert
+        verify(regionRepository, times(1)).findAll();
+        verify(comunaRepository, times(1)).findAll();
+        verify(comunaRepository, never()).findById(any());
+    }
+
+    @Test
+    public void findComunasDeRegion_shouldReturnComunasSortedByName() {
+        // Act
+        List<Comuna> comunas = catalogoGeograficoService.findComunasDeRegion(13);
+
+        // Assert
+        assertEquals(List.of("Maipú", "Providencia", "Santiago"), comunas.stream().map(Comuna::getNombre).toList());
+        assertTrue(catalogoGeograficoService.findComunasDeRegion(5).isEmpty());
+        assertThrows(NoSuchElementException.class, () -> catalogoGeograficoService.findComunasDeRegion(99));
+    }
+
+    @Test
+    public void getArbol_shouldNestComunasUnderTheirRegion() {
+        // Act
+        List<RegionArbolDTO> arbol = catalogoGeograficoService.getArbol();
+
+        // Assert: regiones por ID
+        assertEquals(List.of(5, 13), arbol.stream().map(RegionArbolDTO::getIdRegion).toList());
+        assertEquals(3, arbol.get(1).getComunas().size());
+        assertEquals("Maipú", arbol.get(1).getComunas().get(0).getNombre());
+    }
+
+    @Test
+    public void findComuna_shouldReturnCopy_soCallersCannotAlterTheSnapshot() {
+        // Act
+        catalogoGeograficoService.findComuna(1).orElseThrow().setNombre("Modificada");
+        catalogoGeograficoService.findComuna(1).orElseThrow().getRegion().setNombre("Modificada");
+
+        // Assert
+        Comuna comuna = catalogoGeograficoService.findComuna(1).orElseThrow();
+        assertEquals("Santiago", comuna.getNombre());
+        assertEquals("Metropolitana de Santiago", comuna.getRegion().getNombre());
+    }
+
+    @Test
+    public void getVersion_shouldChangeOnlyWhenContentChanges() {
+        // Arrange
+        String inicial = catalogoGeograficoService.getVersion();
+
+        // Act: recarga sin cambios y luego con una comuna renombrada
+        catalogoGeograficoService.recargar();
+        String sinCambios = catalogoGeograficoService.getVersion();
+        when(comunaRepository.findAll()).thenReturn(List.of(new Comuna(1, "Santiago Centro", "8320000", metropolitana)));
+        catalogoGeograficoService.recargar();
+
+        // Assert
+        assertEquals(inicial, sinCambios);
+        assertNotEquals(inicial, catalogoGeograficoService.getVersion());
+        assertEquals("Santiago Centro", catalogoGeograficoService.findComuna(1).orElseThrow().getNombre());
+    }
+}
@@ -25,6 +25,12 @@ public class ComunaServiceTest {
     @Mock
     private ComunaRepository comunaRepository;
 
+    @Mock
+    private LimitesComunaService limitesComunaService;
+
+    @Mock
+    private CatalogoGeograficoService catalogoGeograficoService;
+
     @InjectMocks
     private ComunaService comunaService;
 
@@ -56,7 +62,7 @@ public class ComunaServiceTest {
     @Test
     public void findAll_shouldReturnAllComunas() {
         // Arrange
-        when(comunaRepository.findAll()).thenReturn(List.of(comuna));
+        when(catalogoGeograficoService.findComunas()).thenReturn(List.of(comuna));
 
         // Act
         List<Comuna> comunas = comunaService.findAll();
@@ -66,13 +72,13 @@ public class ComunaServiceTest {
         assertFalse(comunas.isEmpty());
         assertEquals(1, comunas.size());
         assertEquals(comuna.getNombre(), comunas.get(0).getNombre());
-        verify(comunaRepository, times(1)).findAll();
+        verifyNoInteractions(comunaRepository);
     }
 
     @Test
     public void findById_shouldReturnComuna_whenFound() {
         // Arrange
-        when(comunaRepository.findById(id)).thenReturn(Optional.of(comuna));
+        when(catalogoGeograficoService.findComuna(id)).thenReturn(Optional.of(comuna));
 
         // Act
         Comuna encontrada = comunaService.findById(id);
@@ -80,7 +86,7 @@ public class ComunaServiceTest {
         // Assert
         assertNotNull(encontrada);
         assertEquals(comuna.getNombre(), encontrada.getNombre());
-        verify(comunaRepository, times(1)).findById(id);
+        verifyNoInteractions(comunaRepository);
     }
 
     @Test
@@ -95,6 +101,7 @@ public class ComunaServiceTest {
         assertNotNull(guardada);
         assertEquals(comuna.getNombre(), guardada.getNombre());
         verify(comunaRepository, times(1)).save(comuna);
+        verify(catalogoGeograficoService, times(1)).recargar();
     }
 
     @Test
@@ -152,11 +159,41 @@ public class ComunaServiceTest {
     @Test
     public void findById_shouldThrowException_whenNotFound() {
         // Arrange
-        when(comunaRepository.findById(id)).thenReturn(Optional.empty());
+        when(catalogoGeograficoService.findComuna(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> comunaService.findById(id));
-        verify(comunaRepository, times(1)).findById(id);
+    }
+
+    @Test
+    public void buscarPorPunto_shouldReturnComuna_whenPointIsInsideAPolygon() {
+        // Arrange
+        when(limitesComunaService.buscarIdComuna(-33.41, -70.57)).thenReturn(Optional.of(id));
+        when(catalogoGeograficoService.findComuna(id)).thenReturn(Optional.of(comuna));
+
+        // Act
+        Comuna encontrada = comunaService.buscarPorPunto(-33.41, -70.57);
+
+        // Assert
+        assertEquals(comuna.getNombre(), encontrada.getNombre());
+        assertEquals(region.getNombre(), encontrada.getRegion().getNombre());
+    }
+
+    @Test
+    public void buscarPorPunto_shouldThrowException_whenPointIsOutsideAllComunas() {
+        // Arrange
+        when(limitesComunaService.buscarIdComuna(0, 0)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> comunaService.buscarPorPunto(0, 0));
+        verifyNoInteractions(catalogoGeograficoService);
+    }
+
+    @Test
+    public void buscarPorPunto_shouldThrowException_whenCoordinatesAreOutOfRange() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> comunaService.buscarPorPunto(-91, -70.57));
+        verifyNoInteractions(limitesComunaService);
     }
 
     // --- Pruebas de Validación en SAVE ---
@@ -24,6 +24,15 @@ public class CoordenadasServiceTest { // Cambiado de CordenadasServiceTest a Coo
     @Mock
     private CoordenadasRepository coordenadasRepository;
 
+    @Mock
+    private IndiceEspacialService indiceEspacialService;
+
+    @Mock
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    @Mock
+    private MapaCalorService mapaCalorService;
+
     @InjectMocks
     private CoordenadasService coordenadasService; // Cambiado de CordenadasService a CoordenadasService
 
@@ -87,6 +96,7 @@ public class CoordenadasServiceTest { // Cambiado de CordenadasServiceTest a Coo
         assertNotNull(guardada);
         assertEquals(coordenadas.getLatitud(), guardada.getLatitud());
         verify(coordenadasRepository, times(1)).save(coordenadas);
+        verify(mapaCalorService, times(1)).registrar(coordenadas);
     }
 
     @Test
@@ -94,6 +104,8 @@ public class CoordenadasServiceTest { // Cambiado de CordenadasServiceTest a Coo
         // Arrange
         float nuevaLatitud = (float) faker.number().randomDouble(6, 10, 20);
         float nuevaLongitud = (float) faker.number().randomDouble(6, -50, -40);
+        Float latitudAnterior = coordenadas.getLatitud();
+        Float longitudAnterior = coordenadas.getLongitud();
 
         Coordenadas coordenadasActualizada = new Coordenadas(); // Variable actualizada
         coordenadasActualizada.setLatitud(nuevaLatitud);
@@ -113,18 +125,22 @@ public class CoordenadasServiceTest { // Cambiado de CordenadasServiceTest a Coo
         // Verifica que se buscó por ID y se guardó la entidad modificada
         verify(coordenadasRepository, times(1)).findById(id);
         verify(coordenadasRepository, times(1)).save(coordenadas);
+        verify(indiceEspacialService, times(1)).actualizarCoordenadas(id, nuevaLatitud, nuevaLongitud);
+        verify(ubicacionEnLineaService, times(1)).actualizarCoordenadas(id, nuevaLatitud, nuevaLongitud);
+        verify(mapaCalorService, times(1)).mover(latitudAnterior, longitudAnterior, nuevaLatitud, nuevaLongitud);
     }
 
     @Test
     public void delete_shouldDeleteCoordenadas_whenExists() { // Nombre del método actualizado
         // Arrange
-        when(coordenadasRepository.existsById(id)).thenReturn(true);
+        when(coordenadasRepository.findById(id)).thenReturn(Optional.of(coordenadas));
         doNothing().when(coordenadasRepository).deleteById(id);
 
         // Act & Assert
         assertDoesNotThrow(() -> coordenadasService.delete(id));
-        verify(coordenadasRepository, times(1)).existsById(id);
+        verify(coordenadasRepository, times(1)).findById(id);
         verify(coordenadasRepository, times(1)).deleteById(id);
+        verify(mapaCalorService, times(1)).quitar(coordenadas);
     }
 
     // --- Pruebas de escenarios de error ---
@@ -200,11 +216,12 @@ public class CoordenadasServiceTest { // Cambiado de CordenadasServiceTest a Coo
     @Test
     public void delete_shouldThrowException_whenNotFound() {
         // Arrange
-        when(coordenadasRepository.existsById(id)).thenReturn(false);
+        when(coordenadasRepository.findById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> coordenadasService.delete(id));
-        verify(coordenadasRepository, times(1)).existsById(id);
+        verify(coordenadasRepository, times(1)).findById(id);
         verify(coordenadasRepository, never()).deleteById(any());
+        verifyNoInteractions(mapaCalorService);
     }
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package com.SAFE_Rescue.API_Geolocalizacion.service;
 
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionResumenDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.DireccionUbicacionDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.PaginaDireccionesDTO;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
 import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.DireccionFusionada;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.ComunaRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.CoordenadasRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionFusionadaRepository;
 import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.NormalizadorDireccion;
 import net.datafaker.Faker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,8 +20,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -26,6 +37,30 @@ public class DireccionServiceTest {
     @Mock
     private DireccionRepository direccionRepository;
 
+    @Mock
+    private DireccionFusionadaRepository direccionFusionadaRepository;
+
+    @Mock
+    private ComunaRepository comunaRepository;
+
+    @Mock
+    private CoordenadasRepository coordenadasRepository;
+
+    @Mock
+    private IndiceEspacialService indiceEspacialService;
+
+    @Mock
+    private LimitesComunaService limitesComunaService;
+
+    @Mock
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    @Mock
+    private AutocompletadoService autocompletadoService;
+
+    @Mock
+    private MapaCalorService mapaCalorService;
+
     @InjectMocks
     private DireccionService direccionService;
 
@@ -138,17 +173,18 @@ public class DireccionServiceTest {
         assertEquals(nuevoNumero, actualizado.getNumero());
         verify(direccionRepository, times(1)).findById(id);
         verify(direccionRepository, times(1)).save(direccion);
+        verify(autocompletadoService, times(1)).registrar(comuna.getIdComuna(), nuevaCalle);
     }
 
     @Test
     public void delete_shouldDeleteDireccion_whenExists() {
         // Arrange
-        when(direccionRepository.existsById(id)).thenReturn(true);
+        when(direccionRepository.findById(id)).thenReturn(Optional.of(direccion));
         doNothing().when(direccionRepository).deleteById(id);
 
         // Act & Assert
         assertDoesNotThrow(() -> direccionService.delete(id));
-        verify(direccionRepository, times(1)).existsById(id);
+        verify(direccionRepository, times(1)).findById(id);
         verify(direccionRepository, times(1)).deleteById(id);
     }
 
@@ -196,6 +232,37 @@ public class DireccionServiceTest {
         verify(direccionRepository, never()).save(any());
     }
 
+    @Test
+    public void save_shouldAssignComunaFromCoordinates_whenComunaIsMissing() {
+        // Arrange
+        direccion.setComuna(null);
+        cordenadas.setIdCoordenadas(null);
+        when(limitesComunaService.buscarIdComuna(cordenadas.getLatitud(), cordenadas.getLongitud()))
+                .thenReturn(Optional.of(comuna.getIdComuna()));
+        when(comunaRepository.findById(comuna.getIdComuna())).thenReturn(Optional.of(comuna));
+        when(direccionRepository.save(direccion)).thenReturn(direccion);
+
+        // Act
+        Direccion guardada = direccionService.save(direccion);
+
+        // Assert
+        assertEquals(comuna, guardada.getComuna());
+        verify(direccionRepository, times(1)).save(direccion);
+    }
+
+    @Test
+    public void save_shouldThrowException_whenComunaIsMissingAndPointIsOutsideAllComunas() {
+        // Arrange
+        direccion.setComuna(null);
+        cordenadas.setIdCoordenadas(null);
+        when(limitesComunaService.buscarIdComuna(cordenadas.getLatitud(), cordenadas.getLongitud()))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> direccionService.save(direccion));
+        verify(direccionRepository, never()).save(any());
+    }
+
     @Test
     public void save_shouldThrowException_whenGeolocalizacionIsNull() {
         // Arrange
@@ -268,11 +335,394 @@ public class DireccionServiceTest {
     @Test
     public void delete_shouldThrowException_whenNotFound() {
         // Arrange
-        when(direccionRepository.existsById(id)).thenReturn(false);
+        when(direccionRepository.findById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> direccionService.delete(id));
-        verify(direccionRepository, times(1)).existsById(id);
+        verify(direccionRepository, times(1)).findById(id);
         verify(direccionRepository, never()).deleteById(any());
     }
-}
\ No newline at end of file
+
+    // --- Pruebas de búsquedas geográficas ---
+
+    @Test
+    public void buscarCercanas_shouldReturnDireccionesInIndexOrder() {
+        // Arrange
+        Direccion otra = new Direccion(id + 1, "Los Leones", "100", null, null, comuna, cordenadas, null, null, null, null);
+        when(indiceEspacialService.buscarCercanas(-33.45, -70.65, 2000.0, 10)).thenReturn(List.of(
+                new IndiceEspacialService.Resultado(id + 1, -33.451, -70.651, 120.0),
+                new IndiceEspacialService.Resultado(id, -33.46, -70.66, 1500.0)));
+        when(direccionRepository.findAllById(List.of(id + 1, id))).thenReturn(List.of(direccion, otra));
+
+        // Act
+        List<DireccionUbicacionDTO> resultado = direccionService.buscarCercanas(-33.45, -70.65, 2, 10);
+
+        // Assert
+        assertEquals(2, resultado.size());
+        assertEquals(id + 1, resultado.get(0).getIdDireccion());
+        assertEquals(120.0, resultado.get(0).getDistanciaMetros());
+        assertEquals(comuna.getIdComuna(), resultado.get(1).getIdComuna());
+    }
+
+    @Test
+    public void buscarCercanas_shouldThrowException_whenRadioIsOutOfRange() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> direccionService.buscarCercanas(-33.45, -70.65, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> direccionService.buscarCercanas(-33.45, -70.65, DireccionService.RADIO_MAXIMO_KM + 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> direccionService.buscarCercanas(-95, -70.65, 1, 10));
+        verifyNoInteractions(indiceEspacialService);
+    }
+
+    @Test
+    public void buscarEnRectangulo_shouldThrowException_whenLatitudesAreInverted() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> direccionService.buscarEnRectangulo(-33.3, -33.5, -70.8, -70.5, 10));
+        verifyNoInteractions(indiceEspacialService);
+    }
+
+    @Test
+    public void delete_shouldRemoveDireccionFromSpatialIndex_andHeatmap() {
+        // Arrange
+        when(direccionRepository.findById(id)).thenReturn(Optional.of(direccion));
+
+        // Act
+        direccionService.delete(id);
+
+        // Assert: las coordenadas se borran en cascada con la dirección
+        verify(indiceEspacialService, times(1)).eliminar(id);
+        verify(mapaCalorService, times(1)).quitar(direccion.getCoordenadas());
+    }
+
+    // --- Pruebas del listado paginado ---
+
+    private static DireccionResumenDTO resumen(int idDireccion) {
+        return new DireccionResumenDTO(idDireccion, "Calle " + idDireccion, "1", null, null,
+                10, "Maipú", 13, "Metropolitana de Santiago", "RM", null, (Double) null, null);
+    }
+
+    @Test
+    public void findAllPaginado_shouldQueryFromCursor_withRequestedSize() {
+        // Arrange
+        when(direccionRepository.findByIdDireccionGreaterThanOrderByIdDireccionAsc(7, PageRequest.of(0, 2)))
+                .thenReturn(List.of(direccion));
+
+        // Act
+        List<Direccion> direcciones = direccionService.findAll(7, 2);
+
+        // Assert
+        assertEquals(List.of(direccion), direcciones);
+        verify(direccionRepository, never()).findAll();
+        assertThrows(IllegalArgumentException.class, () -> direccionService.findAll(null, DireccionService.LIMITE_MAXIMO + 1));
+        assertThrows(IllegalArgumentException.class, () -> direccionService.findAll(-1, 10));
+    }
+
+    @Test
+    public void listarPagina_shouldReturnNextCursor_whenThereAreMoreDirecciones() {
+        // Arrange: se piden 2 y el repositorio entrega 3 (una extra para saber si hay más)
+        when(direccionRepository.findResumenDesde(0, PageRequest.of(0, 3)))
+                .thenReturn(List.of(resumen(4), resumen(7), resumen(9)));
+
+        // Act
+        PaginaDireccionesDTO pagina = direccionService.listarPagina(null, 2);
+
+        // Assert
+        assertEquals(2, pagina.getDirecciones().size());
+        assertEquals(7, pagina.getSiguienteCursor());
+    }
+
+    @Test
+    public void listarPagina_shouldReturnNullCursor_onLastPage() {
+        // Arrange
+        when(direccionRepository.findResumenDesde(7, PageRequest.of(0, 3))).thenReturn(List.of(resumen(9)));
+
+        // Act
+        PaginaDireccionesDTO pagina = direccionService.listarPagina(7, 2);
+
+        // Assert
+        assertEquals(1, pagina.getDirecciones().size());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    public void listarPagina_shouldThrowException_whenTamanioIsOutOfRange() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> direccionService.listarPagina(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> direccionService.listarPagina(-1, 10));
+        verifyNoInteractions(direccionRepository);
+    }
+
+    @Test
+    public void findResumenById_shouldThrowException_whenNotFound() {
+        // Arrange
+        when(direccionRepository.findResumenById(id)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> direccionService.findResumenById(id));
+    }
+
+    // --- Pruebas de operaciones en lote ---
+
+    @Test
+    public void findAllById_shouldReturnDireccionesInRequestedOrder_andSkipMissing() {
+        // Arrange
+        Direccion otra = new Direccion(id + 1, "Los Leones", "100", null, null, comuna, cordenadas, null, null, null, null);
+        when(direccionRepository.findAllConRelacionesByIdIn(Set.of(id + 1, id, 999))).thenReturn(List.of(direccion, otra));
+
+        // Act
+        List<Direccion> resultado = direccionService.findAllById(List.of(id + 1, id, 999, id));
+
+        // Assert
+        assertEquals(List.of(otra, direccion), resultado);
+        verify(direccionRepository, never()).findById(any());
+    }
+
+    @Test
+    public void findAllById_shouldThrowException_whenIdsAreEmpty() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> direccionService.findAllById(List.of()));
+        verifyNoInteractions(direccionRepository);
+    }
+
+    @Test
+    public void saveAll_shouldResolveRelationsOncePerTable_andInsertInBatch() {
+        // Arrange: una dirección con coordenadas existentes y otra con coordenadas nuevas, misma comuna
+        direccion.setIdDireccion(null);
+        Coordenadas nuevas = new Coordenadas(null, -33.42f, -70.60f);
+        Direccion otra = new Direccion(null, "Los Leones", "100", null, null, new Comuna(10, null, null, null), nuevas, null, null, null, null);
+        Coordenadas guardadas = new Coordenadas(cordenadas.getIdCoordenadas(), cordenadas.getLatitud(), cordenadas.getLongitud());
+        when(coordenadasRepository.findAllById(Set.of(cordenadas.getIdCoordenadas()))).thenReturn(List.of(guardadas));
+        when(comunaRepository.findAllById(Set.of(comuna.getIdComuna()))).thenReturn(List.of(comuna));
+
+        // Act
+        List<Direccion> resultado = direccionService.saveAll(List.of(direccion, otra));
+
+        // Assert
+        assertEquals(2, resultado.size());
+        assertSame(guardadas, resultado.get(0).getCoordenadas());
+        assertSame(comuna, resultado.get(1).getComuna());
+        verify(direccionRepository, times(1)).insertarLote(List.of(direccion, otra));
+        verify(direccionRepository, never()).save(any());
+        verify(indiceEspacialService, times(2)).registrar(any(Direccion.class));
+    }
+
+    @Test
+    public void saveAll_shouldThrowException_whenComunaDoesNotExist() {
+        // Arrange
+        direccion.setCoordenadas(new Coordenadas(null, -33.42f, -70.60f));
+        when(comunaRepository.findAllById(Set.of(comuna.getIdComuna()))).thenReturn(List.of());
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> direccionService.saveAll(List.of(direccion)));
+        assertTrue(e.getMessage().startsWith("Dirección #1"));
+        verify(direccionRepository, never()).insertarLote(any());
+    }
+
+    @Test
+    public void saveAll_shouldThrowException_whenLoteIsEmpty() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> direccionService.saveAll(List.of()));
+        verifyNoInteractions(direccionRepository);
+    }
+
+    // --- Pruebas de normalización y duplicados ---
+
+    @Test
+    public void claveCanonica_shouldIgnoreCaseAccentsAndAbbreviations() {
+        // Arrange
+        Direccion abreviada = new Direccion(null, "AV. PAJARÍTOS", "N° 1.234", "Villa Sur", "depto. 501", comuna, null, null, null, null, null);
+
+        // Act & Assert: la villa no es parte de la clave
+        assertEquals(NormalizadorDireccion.claveCanonica(direccion), NormalizadorDireccion.claveCanonica(abreviada));
+        assertEquals(NormalizadorDireccion.LARGO_CLAVE, NormalizadorDireccion.claveCanonica(direccion).length());
+        abreviada.setComplemento("Depto 502");
+        assertNotEquals(NormalizadorDireccion.claveCanonica(direccion), NormalizadorDireccion.claveCanonica(abreviada));
+    }
+
+    @Test
+    public void save_shouldReturnExistingDireccion_whenCanonicalKeyMatches() {
+        // Arrange
+        Direccion nueva = new Direccion(null, "Avda. Pajaritos", "1234", null, "Depto. 501", comuna,
+                new Coordenadas(null, -33.42f, -70.60f), null, null, null, null);
+        when(direccionRepository.findFirstByClaveCanonicaOrderByIdDireccionAsc(NormalizadorDireccion.claveCanonica(direccion)))
+                .thenReturn(Optional.of(direccion));
+
+        // Act
+        Direccion resultado = direccionService.save(nueva);
+
+        // Assert
+        assertSame(direccion, resultado);
+        verify(direccionRepository, never()).save(any());
+        verifyNoInteractions(indiceEspacialService);
+        verifyNoInteractions(autocompletadoService);
+    }
+
+    @Test
+    public void save_shouldStoreCanonicalKey_whenDireccionIsNew() {
+        // Arrange
+        direccion.setIdDireccion(null);
+        when(coordenadasRepository.findById(cordenadas.getIdCoordenadas())).thenReturn(Optional.of(cordenadas));
+        when(comunaRepository.findById(comuna.getIdComuna())).thenReturn(Optional.of(comuna));
+        when(direccionRepository.save(direccion)).thenReturn(direccion);
+
+        // Act
+        direccionService.save(direccion);
+
+        // Assert
+        assertEquals(NormalizadorDireccion.claveCanonica(direccion), direccion.getClaveCanonica());
+        assertNotNull(direccion.getClaveCanonica());
+        verify(autocompletadoService, times(1)).registrar(comuna.getIdComuna(), direccion.getCalle());
+    }
+
+    @Test
+    public void saveAll_shouldNotInsertDuplicates_existingOrWithinLote() {
+        // Arrange: "Av. Pajaritos" ya existe; "Los Leones 100" viene dos veces en el lote
+        Direccion existente = new Direccion(id, "Avenida Pajaritos", "1234", null, "Depto 501", comuna, cordenadas, null, null, null,
+                NormalizadorDireccion.claveCanonica(direccion));
+        Direccion repetida = new Direccion(null, "Av. Pajaritos", "1234", null, "Depto 501", comuna,
+                new Coordenadas(null, -33.42f, -70.60f), null, null, null, null);
+        Direccion otra = new Direccion(null, "Los Leones", "100", null, null, comuna, new Coordenadas(null, -33.42f, -70.60f), null, null, null, null);
+        Direccion otraIgual = new Direccion(null, "los leones", "100", null, null, comuna, new Coordenadas(null, -33.42f, -70.60f), null, null, null, null);
+        when(comunaRepository.findAllById(Set.of(comuna.getIdComuna()))).thenReturn(List.of(comuna));
+        when(direccionRepository.findByClaveCanonicaInOrderByIdDireccionAsc(anyCollection())).thenReturn(List.of(existente));
+
+        // Act
+        List<Direccion> resultado = direccionService.saveAll(List.of(repetida, otra, otraIgual));
+
+        // Assert
+        assertEquals(List.of(existente, otra, otra), resultado);
+        assertSame(otra, resultado.get(2));
+        verify(direccionRepository, times(1)).insertarLote(List.of(otra));
+        verify(indiceEspacialService, times(1)).registrar(otra);
+    }
+
+    @Test
+    public void findById_shouldReturnSurvivor_whenDireccionWasMerged() {
+        // Arrange
+        when(direccionRepository.findById(id + 1)).thenReturn(Optional.empty());
+        when(direccionFusionadaRepository.findById(id + 1))
+                .thenReturn(Optional.of(new DireccionFusionada(id + 1, id, LocalDateTime.now())));
+        when(direccionRepository.findById(id)).thenReturn(Optional.of(direccion));
+
+        // Act
+        Direccion encontrada = direccionService.findById(id + 1);
+
+        // Assert
+        assertSame(direccion, encontrada);
+    }
+
+    @Test
+    public void operacionesPorId_shouldFollowMergeRedirect() {
+        // Arrange: id + 1 se fusionó con id
+        DireccionResumenDTO resumen = resumen(id);
+        when(direccionFusionadaRepository.findById(id + 1))
+                .thenReturn(Optional.of(new DireccionFusionada(id + 1, id, LocalDateTime.now())));
+        when(direccionRepository.findById(id + 1)).thenReturn(Optional.empty());
+        when(direccionRepository.findResumenById(id + 1)).thenReturn(Optional.empty());
+        when(direccionRepository.findById(id)).thenReturn(Optional.of(direccion));
+        when(direccionRepository.findResumenById(id)).thenReturn(Optional.of(resumen));
+        when(comunaRepository.findById(comuna.getIdComuna())).thenReturn(Optional.of(comuna));
+        when(coordenadasRepository.findById(cordenadas.getIdCoordenadas())).thenReturn(Optional.of(cordenadas));
+        when(direccionRepository.save(any(Direccion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DireccionResumenDTO resumenEncontrado = direccionService.findResumenById(id + 1);
+        Direccion actualizada = direccionService.update(direccion, id + 1);
+        direccionService.delete(id + 1);
+
+        // Assert: se opera sobre la dirección que quedó
+        assertSame(resumen, resumenEncontrado);
+        assertSame(direccion, actualizada);
+        verify(direccionRepository, times(1)).deleteById(id);
+        verify(indiceEspacialService, times(1)).eliminar(id);
+        verify(direccionRepository, never()).deleteById(id + 1);
+    }
+
+    @Test
+    public void findAllById_shouldResolveMergedIds_toSurvivorOnce() {
+        // Arrange: id + 1 se fusionó con id
+        when(direccionRepository.findAllConRelacionesByIdIn(Set.of(id + 1, id))).thenReturn(List.of(direccion));
+        when(direccionFusionadaRepository.findAllById(Set.of(id + 1)))
+                .thenReturn(List.of(new DireccionFusionada(id + 1, id, LocalDateTime.now())));
+
+        // Act
+        List<Direccion> resultado = direccionService.findAllById(List.of(id + 1, id));
+
+        // Assert
+        assertEquals(List.of(direccion), resultado);
+        verify(direccionRepository, times(1)).findAllConRelacionesByIdIn(any());
+    }
+
+    // --- Pruebas de ubicación en línea ---
+
+    @Test
+    public void listarPagina_shouldReadInlineLocation_whenModeIsActive() {
+        // Arrange
+        when(ubicacionEnLineaService.isActivo()).thenReturn(true);
+        when(direccionRepository.findResumenEnLineaDesde(0, PageRequest.of(0, 3))).thenReturn(List.of(resumen(4)));
+
+        // Act
+        PaginaDireccionesDTO pagina = direccionService.listarPagina(null, 2);
+
+        // Assert
+        assertEquals(1, pagina.getDirecciones().size());
+        verify(direccionRepository, never()).findResumenDesde(anyInt(), any());
+    }
+
+    @Test
+    public void save_shouldCreateCoordenadasFromInlineLocation_whenOnlyInlineIsSent() {
+        // Arrange
+        Direccion nueva = new Direccion(null, "Los Leones", "100", null, null, comuna, null, -33.448912, -70.669287, null, null);
+        when(comunaRepository.findById(comuna.getIdComuna())).thenReturn(Optional.of(comuna));
+        when(direccionRepository.save(nueva)).thenReturn(nueva);
+
+        // Act
+        Direccion guardada = direccionService.save(nueva);
+
+        // Assert
+        assertNotNull(guardada.getCoordenadas());
+        assertNull(guardada.getCoordenadas().getIdCoordenadas());
+        assertEquals(-33.448912f, guardada.getCoordenadas().getLatitud());
+        assertEquals(-33.448912, guardada.getLatitud());
+        verify(ubicacionEnLineaService, times(1)).completar(nueva);
+    }
+
+    @Test
+    public void save_shouldThrowException_whenInlineLocationIsOutOfRange() {
+        // Arrange
+        direccion.setLatitud(-95.0);
+        direccion.setLongitud(-70.0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> direccionService.save(direccion));
+        verify(direccionRepository, never()).save(any());
+    }
+
+    @Test
+    public void update_shouldMoveLinkedCoordenadas_whenInlineLocationIsSent() {
+        // Arrange: el payload trae la nueva ubicación en línea y sigue ligado a las coordenadas 20
+        Float latitudAnterior = cordenadas.getLatitud();
+        Float longitudAnterior = cordenadas.getLongitud();
+        Direccion cambios = new Direccion(null, "Los Leones", "100", null, null, comuna,
+                new Coordenadas(cordenadas.getIdCoordenadas(), null, null), -33.4263, -70.6170, null, null);
+        when(direccionRepository.findById(id)).thenReturn(Optional.of(direccion));
+        when(comunaRepository.findById(comuna.getIdComuna())).thenReturn(Optional.of(comuna));
+        when(coordenadasRepository.findById(cordenadas.getIdCoordenadas())).thenReturn(Optional.of(cordenadas));
+        when(direccionRepository.save(any(Direccion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(coordenadasRepository.save(cordenadas)).thenReturn(cordenadas);
+
+        // Act
+        Direccion actualizada = direccionService.update(cambios, id);
+
+        // Assert: las dos copias quedan con la misma ubicación y las demás direcciones y el mapa de calor la siguen
+        assertEquals(-33.4263f, cordenadas.getLatitud());
+        assertEquals(-70.6170f, cordenadas.getLongitud());
+        assertEquals(-33.4263, actualizada.getLatitud());
+        assertEquals(-70.617, actualizada.getLongitud());
+        verify(coordenadasRepository, times(1)).save(cordenadas);
+        verify(ubicacionEnLineaService, times(1)).actualizarCoordenadas(cordenadas.getIdCoordenadas(), -33.4263f, -70.6170f);
+        verify(mapaCalorService, times(1)).mover(latitudAnterior, longitudAnterior, -33.4263f, -70.6170f);
+    }
+}
@@ -0,0 +1,163 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.DireccionFusionada;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionFusionadaRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.NormalizadorDireccion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FusionDireccionesServiceTest {
+
+    @Mock
+    private DireccionRepository direccionRepository;
+
+    @Mock
+    private DireccionFusionadaRepository direccionFusionadaRepository;
+
+    @Mock
+    private IndiceEspacialService indiceEspacialService;
+
+    @Mock
+    private MapaCalorService mapaCalorService;
+
+    @Mock
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    @InjectMocks
+    private FusionDireccionesService fusionDireccionesService;
+
+    private Comuna comuna;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(fusionDireccionesService, "tamanioLote", 2);
+        comuna = new Comuna(10, "Maipú", "9250000", null);
+    }
+
+    private Direccion direccion(int id, String calle, Coordenadas coordenadas) {
+        Direccion direccion = new Direccion(id, calle, "1234", null, null, comuna, coordenadas, null, null, null, null);
+        direccion.setClaveCanonica(NormalizadorDireccion.claveCanonica(direccion));
+        return direccion;
+    }
+
+    @Test
+    public void completarClaves_shouldAssignKeys_pageByPage() {
+        // Arrange: lote de 2, así que hay una segunda página desde el ID 2
+        Direccion primera = new Direccion(1, "Av. Pajaritos", "1234", null, null, comuna, null, null, null, null, null);
+        Direccion segunda = new Direccion(2, "Los Leones", "100", null, null, comuna, null, null, null, null, null);
+        Direccion sinNumero = new Direccion(3, "Los Leones", "", null, null, comuna, null, null, null, null, null);
+        when(direccionRepository.findByClaveCanonicaIsNullAndIdDireccionGreaterThanOrderByIdDireccionAsc(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(primera, segunda));
+        when(direccionRepository.findByClaveCanonicaIsNullAndIdDireccionGreaterThanOrderByIdDireccionAsc(eq(2), any(Pageable.class)))
+                .thenReturn(List.of(sinNumero));
+
+        // Act
+        int asignadas = fusionDireccionesService.completarClaves();
+
+        // Assert: la dirección sin número queda sin clave
+        assertEquals(2, asignadas);
+        assertNotNull(primera.getClaveCanonica());
+        assertNotNull(segunda.getClaveCanonica());
+        assertNull(sinNumero.getClaveCanonica());
+        verify(direccionRepository, times(1)).saveAll(any());
+        verify(direccionRepository).saveAll(List.of(primera, segunda));
+    }
+
+    @Test
+    public void fusionarDuplicados_shouldKeepOldest_recordAliases_andDeleteTheRest() {
+        // Arrange: la 7 comparte coordenadas con la 3 (no se deben borrar); la 9 tiene las suyas
+        Coordenadas compartidas = new Coordenadas(30, -33.51f, -70.75f);
+        Direccion original = direccion(3, "Avenida Pajaritos", compartidas);
+        Direccion duplicada = direccion(7, "Av. Pajaritos", new Coordenadas(30, -33.51f, -70.75f));
+        duplicada.setVilla("Villa Sur");
+        Direccion otraDuplicada = direccion(9, "AVDA PAJARITOS", new Coordenadas(31, -33.51f, -70.75f));
+        String clave = original.getClaveCanonica();
+        when(direccionRepository.findClavesDuplicadas(any(Pageable.class))).thenReturn(List.of(clave), List.of());
+        when(direccionRepository.findByClaveCanonicaInOrderByIdDireccionAsc(List.of(clave)))
+                .thenReturn(List.of(original, duplicada, otraDuplicada));
+
+        // Act
+        int eliminadas = fusionDireccionesService.fusionarDuplicados();
+
+        // Assert
+        assertEquals(2, eliminadas);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DireccionFusionada>> fusiones = ArgumentCaptor.forClass(List.class);
+        verify(direccionFusionadaRepository).saveAll(fusiones.capture());
+        assertEquals(List.of(7, 9), fusiones.getValue().stream().map(DireccionFusionada::getIdDireccion).toList());
+        assertTrue(fusiones.getValue().stream().allMatch(fusion -> fusion.getIdDireccionDestino() == 3));
+        verify(direccionFusionadaRepository).redirigir(List.of(7, 9), 3);
+
+        assertEquals("Villa Sur", original.getVilla());
+        verify(direccionRepository).save(original);
+        assertNull(duplicada.getCoordenadas());
+        assertNotNull(otraDuplicada.getCoordenadas());
+        verify(direccionRepository).deleteAll(List.of(duplicada, otraDuplicada));
+        verify(indiceEspacialService).eliminar(7);
+        verify(indiceEspacialService).eliminar(9);
+        verify(indiceEspacialService, never()).eliminar(3);
+        // Solo se descuentan del mapa de calor las coordenadas que se borran de verdad
+        verify(mapaCalorService, times(1)).quitar(otraDuplicada.getCoordenadas());
+        verify(mapaCalorService, never()).quitar(compartidas);
+    }
+
+    @Test
+    public void fusionarDuplicados_shouldMoveCoordenadas_whenSurvivorHasNone() {
+        // Arrange: la 3 no tiene coordenadas; la 7 sí
+        Coordenadas coordenadas = new Coordenadas(31, -33.51f, -70.75f);
+        Direccion original = direccion(3, "Avenida Pajaritos", null);
+        Direccion duplicada = direccion(7, "Av. Pajaritos", coordenadas);
+        String clave = original.getClaveCanonica();
+        when(direccionRepository.findClavesDuplicadas(any(Pageable.class))).thenReturn(List.of(clave), List.of());
+        when(direccionRepository.findByClaveCanonicaInOrderByIdDireccionAsc(List.of(clave)))
+                .thenReturn(List.of(original, duplicada));
+        when(direccionRepository.save(any(Direccion.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        // Act
+        fusionDireccionesService.fusionarDuplicados();
+
+        // Assert: las coordenadas pasan a la que queda, que se guarda y se vuelve a indexar, y no se borran
+        assertSame(coordenadas, original.getCoordenadas());
+        assertNull(duplicada.getCoordenadas());
+        InOrder orden = inOrder(direccionRepository);
+        orden.verify(direccionRepository).save(duplicada);
+        orden.verify(direccionRepository).save(original);
+        orden.verify(direccionRepository).deleteAll(List.of(duplicada));
+        verify(ubicacionEnLineaService).completar(original);
+        verify(indiceEspacialService).registrar(original);
+        verify(indiceEspacialService).eliminar(7);
+        verifyNoInteractions(mapaCalorService);
+    }
+
+    @Test
+    public void fusionarDuplicados_shouldDoNothing_whenThereAreNoDuplicates() {
+        // Arrange
+        when(direccionRepository.findClavesDuplicadas(any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        int eliminadas = fusionDireccionesService.fusionarDuplicados();
+
+        // Assert
+        assertEquals(0, eliminadas);
+        verify(direccionRepository, never()).deleteAll(any());
+        verifyNoInteractions(direccionFusionadaRepository, indiceEspacialService);
+    }
+}
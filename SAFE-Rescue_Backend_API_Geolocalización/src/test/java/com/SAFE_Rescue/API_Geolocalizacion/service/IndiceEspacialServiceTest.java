@@ -0,0 +1,160 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.GeoUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IndiceEspacialServiceTest {
+
+    @Mock
+    private DireccionRepository direccionRepository;
+
+    @Mock
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    @InjectMocks
+    private IndiceEspacialService indiceEspacialService;
+
+    private static Direccion direccion(int id, int idCoordenadas, double latitud, double longitud) {
+        Direccion direccion = new Direccion();
+        direccion.setIdDireccion(id);
+        direccion.setCoordenadas(new Coordenadas(idCoordenadas, (float) latitud, (float) longitud));
+        return direccion;
+    }
+
+    @Test
+    public void cargar_shouldIndexAllPointsFromRepository() {
+        // Arrange
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{1, 11, -33.4489f, -70.6693f});
+        filas.add(new Object[]{2, 12, -33.4263f, -70.6170f});
+        when(direccionRepository.findPuntos()).thenReturn(filas);
+
+        // Act
+        indiceEspacialService.cargar();
+
+        // Assert
+        assertEquals(2, indiceEspacialService.getCantidad());
+        assertEquals(1, indiceEspacialService.buscarCercanas(-33.4489, -70.6693, 100, 10).size());
+    }
+
+    @Test
+    public void cargar_shouldReadInlineLocation_whenModeIsActive() {
+        // Arrange
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{1, null, -33.448912, -70.669287});
+        when(ubicacionEnLineaService.isActivo()).thenReturn(true);
+        when(direccionRepository.findPuntosEnLinea()).thenReturn(filas);
+
+        // Act
+        indiceEspacialService.cargar();
+
+        // Assert
+        assertEquals(1, indiceEspacialService.getCantidad());
+        assertEquals(-33.448912, indiceEspacialService.buscarCercanas(-33.4489, -70.6693, 100, 1).get(0).latitud());
+        verify(direccionRepository, never()).findPuntos();
+    }
+
+    @Test
+    public void registrar_shouldPreferInlineLocation_overCoordenadas() {
+        // Arrange
+        Direccion direccion = direccion(1, 11, -33.40, -70.60);
+        direccion.setLatitud(-33.448912);
+        direccion.setLongitud(-70.669287);
+
+        // Act
+        indiceEspacialService.registrar(direccion);
+
+        // Assert
+        List<IndiceEspacialService.Resultado> resultado = indiceEspacialService.buscarCercanas(-33.4489, -70.6693, 100, 1);
+        assertEquals(1, resultado.size());
+        assertEquals(-70.669287, resultado.get(0).longitud());
+    }
+
+    @Test
+    public void buscarCercanas_shouldMatchLinearScan() {
+        // Arrange: 2.000 direcciones alrededor de Santiago
+        Random random = new Random(42);
+        List<double[]> puntos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            double latitud = -33.6 + random.nextDouble() * 0.4;
+            double longitud = -70.9 + random.nextDouble() * 0.5;
+            puntos.add(new double[]{(float) latitud, (float) longitud});
+            indiceEspacialService.registrar(direccion(i, 10_000 + i, latitud, longitud));
+        }
+
+        // Act
+        List<IndiceEspacialService.Resultado> resultado = indiceEspacialService.buscarCercanas(-33.45, -70.65, 3000, 2000);
+
+        // Assert: mismos resultados que recorrer todo, ordenados por distancia
+        long esperados = puntos.stream()
+                .filter(p -> GeoUtil.distanciaMetros(-33.45, -70.65, p[0], p[1]) <= 3000)
+                .count();
+        assertEquals(esperados, resultado.size());
+        for (int i = 1; i < resultado.size(); i++) {
+            assertTrue(resultado.get(i - 1).distanciaMetros() <= resultado.get(i).distanciaMetros());
+        }
+        assertEquals(5, indiceEspacialService.buscarCercanas(-33.45, -70.65, 3000, 5).size());
+    }
+
+    @Test
+    public void actualizarCoordenadas_shouldMoveTheLinkedDireccion() {
+        // Arrange
+        indiceEspacialService.registrar(direccion(1, 11, -33.45, -70.65));
+
+        // Act: las coordenadas se mueven a Valparaíso
+        indiceEspacialService.actualizarCoordenadas(11, -33.0472, -71.6127);
+
+        // Assert
+        assertTrue(indiceEspacialService.buscarCercanas(-33.45, -70.65, 1000, 10).isEmpty());
+        assertEquals(1, indiceEspacialService.buscarCercanas(-33.0472, -71.6127, 1000, 10).get(0).idDireccion());
+    }
+
+    @Test
+    public void eliminar_shouldRemoveDireccionFromIndex() {
+        // Arrange
+        indiceEspacialService.registrar(direccion(1, 11, -33.45, -70.65));
+        indiceEspacialService.registrar(direccion(2, 12, -33.45, -70.65));
+
+        // Act
+        indiceEspacialService.eliminar(1);
+        indiceEspacialService.eliminarCoordenadas(12);
+
+        // Assert
+        assertEquals(0, indiceEspacialService.getCantidad());
+        assertTrue(indiceEspacialService.buscarCercanas(-33.45, -70.65, 1000, 10).isEmpty());
+    }
+
+    @Test
+    public void buscarEnRectangulo_shouldReturnPointsInsideSortedById_AcrossAntimeridian() {
+        // Arrange
+        indiceEspacialService.registrar(direccion(3, 13, -33.45, -70.65));
+        indiceEspacialService.registrar(direccion(2, 12, -33.40, -70.60));
+        indiceEspacialService.registrar(direccion(1, 11, -33.00, -71.60));
+        indiceEspacialService.registrar(direccion(4, 14, -17.50, 179.90));
+        indiceEspacialService.registrar(direccion(5, 15, -17.50, -179.90));
+
+        // Act
+        List<IndiceEspacialService.Resultado> santiago = indiceEspacialService.buscarEnRectangulo(-33.5, -33.3, -70.7, -70.5, 10);
+        List<IndiceEspacialService.Resultado> antimeridiano = indiceEspacialService.buscarEnRectangulo(-18, -17, 179.5, -179.5, 10);
+
+        // Assert
+        assertEquals(List.of(2, 3), santiago.stream().map(IndiceEspacialService.Resultado::idDireccion).toList());
+        assertNull(santiago.get(0).distanciaMetros());
+        assertEquals(List.of(4, 5), antimeridiano.stream().map(IndiceEspacialService.Resultado::idDireccion).toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Comuna;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.ComunaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LimitesComunaServiceTest {
+
+    // Comuna 1: cuadrado con un hueco al centro; comuna 2 ("Ñuñoa", por nombre): dos islas; "Otra" no existe en la BD
+    private static final String GEOJSON = """
+            {"type": "FeatureCollection", "features": [
+              {"type": "Feature", "properties": {"idComuna": 1},
+               "geometry": {"type": "Polygon", "coordinates": [
+                 [[-70.70, -33.50], [-70.60, -33.50], [-70.60, -33.40], [-70.70, -33.40], [-70.70, -33.50]],
+                 [[-70.66, -33.46], [-70.64, -33.46], [-70.64, -33.44], [-70.66, -33.44], [-70.66, -33.46]]]}},
+              {"type": "Feature", "properties": {"nombre": "NUNOA"},
+               "geometry": {"type": "MultiPolygon", "coordinates": [
+                 [[[-70.60, -33.50], [-70.50, -33.50], [-70.50, -33.40], [-70.60, -33.50]]],
+                 [[[-71.00, -33.00], [-70.90, -33.00], [-70.90, -32.90], [-71.00, -32.90], [-71.00, -33.00]]]]}},
+              {"type": "Feature", "properties": {"nombre": "Otra"},
+               "geometry": {"type": "Polygon", "coordinates": [
+                 [[10, 10], [11, 10], [11, 11], [10, 10]]]}}
+            ]}
+            """;
+
+    @Mock
+    private ComunaRepository comunaRepository;
+
+    @InjectMocks
+    private LimitesComunaService limitesComunaService;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path archivo = directorio.resolve("limites.geojson");
+        Files.writeString(archivo, GEOJSON);
+        ReflectionTestUtils.setField(limitesComunaService, "archivo", archivo.toString());
+        ReflectionTestUtils.setField(limitesComunaService, "propiedadNombre", "nombre");
+    }
+
+    private static Comuna comuna(int id, String nombre) {
+        Comuna comuna = new Comuna();
+        comuna.setIdComuna(id);
+        comuna.setNombre(nombre);
+        return comuna;
+    }
+
+    @Test
+    public void cargar_shouldIndexPolygonsMatchedByIdOrName() {
+        // Arrange
+        when(comunaRepository.findAll()).thenReturn(List.of(comuna(1, "Santiago"), comuna(2, "Ñuñoa")));
+
+        // Act
+        limitesComunaService.cargar();
+
+        // Assert: el feature "Otra" no tiene comuna registrada y se omite
+        assertEquals(3, limitesComunaService.getCantidad());
+    }
+
+    @Test
+    public void buscarIdComuna_shouldResolveComuna_whenPointIsInsidePolygon() {
+        // Arrange
+        when(comunaRepository.findAll()).thenReturn(List.of(comuna(1, "Santiago"), comuna(2, "Ñuñoa")));
+        limitesComunaService.cargar();
+
+        // Act & Assert
+        assertEquals(Optional.of(1), limitesComunaService.buscarIdComuna(-33.48, -70.68));
+        assertEquals(Optional.of(2), limitesComunaService.buscarIdComuna(-33.48, -70.52));
+        assertEquals(Optional.of(2), limitesComunaService.buscarIdComuna(-32.95, -70.95));
+    }
+
+    @Test
+    public void buscarIdComuna_shouldReturnEmpty_whenPointIsInHoleOrOutside() {
+        // Arrange
+        when(comunaRepository.findAll()).thenReturn(List.of(comuna(1, "Santiago"), comuna(2, "Ñuñoa")));
+        limitesComunaService.cargar();
+
+        // Act & Assert
+        assertTrue(limitesComunaService.buscarIdComuna(-33.45, -70.65).isEmpty()); // hueco
+        assertTrue(limitesComunaService.buscarIdComuna(-33.41, -70.52).isEmpty()); // rectángulo, pero fuera del triángulo
+        assertTrue(limitesComunaService.buscarIdComuna(10.2, 10.8).isEmpty());     // comuna no registrada
+        assertTrue(limitesComunaService.buscarIdComuna(0, 0).isEmpty());
+    }
+
+    @Test
+    public void cargar_shouldLeaveIndexEmpty_whenFileDoesNotExist() {
+        // Arrange
+        ReflectionTestUtils.setField(limitesComunaService, "archivo", directorio.resolve("no-existe.geojson").toString());
+
+        // Act
+        limitesComunaService.cargar();
+
+        // Assert
+        assertEquals(0, limitesComunaService.getCantidad());
+        assertTrue(limitesComunaService.buscarIdComuna(-33.48, -70.68).isEmpty());
+        verifyNoInteractions(comunaRepository);
+    }
+}
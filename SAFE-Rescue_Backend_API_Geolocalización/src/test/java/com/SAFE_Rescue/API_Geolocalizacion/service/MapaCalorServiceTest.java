@@ -0,0 +1,136 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.CeldaMapaCalorDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MapaCalorDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.CoordenadasRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MapaCalorServiceTest {
+
+    // Vista de Santiago centro a Providencia
+    private static final String SANTIAGO = "-70.70,-33.46,-70.60,-33.41";
+
+    @Mock
+    private CoordenadasRepository coordenadasRepository;
+
+    @InjectMocks
+    private MapaCalorService mapaCalorService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(mapaCalorService, "tamanioLote", 2);
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    @Test
+    public void cargar_shouldCountAllCoordenadas_batchByBatch() {
+        // Arrange: lote de 2, así que hay una segunda página desde el ID 2
+        when(coordenadasRepository.findPuntosDesde(eq(0), any(Pageable.class))).thenReturn(filas(
+                new Object[]{1, -33.4489f, -70.6693f},
+                new Object[]{2, -33.4489f, -70.6693f}));
+        when(coordenadasRepository.findPuntosDesde(eq(2), any(Pageable.class))).thenReturn(filas(
+                new Object[]{3, -33.4263f, -70.6170f}));
+
+        // Act
+        mapaCalorService.cargar();
+        MapaCalorDTO mundo = mapaCalorService.consultar(0, "-180,-85,180,85");
+
+        // Assert: a zoom 0 los tres puntos caen en la misma celda
+        assertEquals(3L, mundo.getTotal());
+        assertEquals(1, mundo.getCeldas().size());
+        assertEquals(3, mundo.getCeldas().get(0).getCantidad());
+        verify(coordenadasRepository, times(2)).findPuntosDesde(anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    public void consultar_shouldSplitCountsIntoFinerCells_whenZoomingIn() {
+        // Arrange
+        mapaCalorService.registrar(new Coordenadas(1, -33.4489f, -70.6693f));
+        mapaCalorService.registrar(new Coordenadas(2, -33.4489f, -70.6693f));
+        mapaCalorService.registrar(new Coordenadas(3, -33.4263f, -70.6170f));
+
+        // Act
+        MapaCalorDTO lejos = mapaCalorService.consultar(5, SANTIAGO);
+        MapaCalorDTO cerca = mapaCalorService.consultar(15, SANTIAGO);
+
+        // Assert: al zoom 15 se leen celdas del nivel 18 (unos 130 m) y los dos sectores se separan
+        assertEquals(8, lejos.getNivel());
+        assertEquals(1, lejos.getCeldas().size());
+        assertEquals(18, cerca.getNivel());
+        assertEquals(3L, cerca.getTotal());
+        assertEquals(2, cerca.getCeldas().size());
+        CeldaMapaCalorDTO providencia = cerca.getCeldas().get(0);
+        CeldaMapaCalorDTO centro = cerca.getCeldas().get(1);
+        assertEquals(1, providencia.getCantidad());
+        assertEquals(2, centro.getCantidad());
+        assertEquals(-33.4489, centro.getLatitud(), 0.002);
+        assertEquals(-70.6693, centro.getLongitud(), 0.002);
+    }
+
+    @Test
+    public void mover_shouldKeepCountsUpToDate_withoutReloading() {
+        // Arrange
+        Coordenadas coordenadas = new Coordenadas(1, -33.4489f, -70.6693f);
+        mapaCalorService.registrar(coordenadas);
+
+        // Act: se mueve a Providencia y luego se elimina
+        mapaCalorService.mover(-33.4489f, -70.6693f, -33.4263f, -70.6170f);
+        MapaCalorDTO movida = mapaCalorService.consultar(15, SANTIAGO);
+        mapaCalorService.quitar(new Coordenadas(1, -33.4263f, -70.6170f));
+        MapaCalorDTO eliminada = mapaCalorService.consultar(15, SANTIAGO);
+
+        // Assert
+        assertEquals(1, movida.getCeldas().size());
+        assertEquals(-70.6170, movida.getCeldas().get(0).getLongitud(), 0.002);
+        assertEquals(0L, eliminada.getTotal());
+        assertTrue(eliminada.getCeldas().isEmpty());
+        verifyNoInteractions(coordenadasRepository);
+    }
+
+    @Test
+    public void consultar_shouldIncludeBothSides_whenAreaCrossesAntimeridian() {
+        // Arrange
+        mapaCalorService.registrar(new Coordenadas(1, -17.0f, 179.9f));
+        mapaCalorService.registrar(new Coordenadas(2, -17.0f, -179.9f));
+        mapaCalorService.registrar(new Coordenadas(3, -17.0f, 0.0f));
+
+        // Act
+        MapaCalorDTO mapa = mapaCalorService.consultar(6, "179,-20,-179,-10");
+
+        // Assert
+        assertEquals(2L, mapa.getTotal());
+        assertEquals(2, mapa.getCeldas().size());
+    }
+
+    @Test
+    public void consultar_shouldThrowException_whenParametersAreInvalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> mapaCalorService.consultar(MapaCalorService.ZOOM_MAXIMO + 1, SANTIAGO));
+        assertThrows(IllegalArgumentException.class, () -> mapaCalorService.consultar(12, "-70.70,-33.46,-70.60"));
+        assertThrows(IllegalArgumentException.class, () -> mapaCalorService.consultar(12, "oeste,-33.46,-70.60,-33.41"));
+        assertThrows(IllegalArgumentException.class, () -> mapaCalorService.consultar(12, "-70.70,-33.41,-70.60,-33.46"));
+        assertThrows(IllegalArgumentException.class, () -> mapaCalorService.consultar(12, "-70.70,-95,-70.60,-33.41"));
+        // A zoom 5 el mundo entero son 32 × 32 teselas
+        assertThrows(IllegalArgumentException.class, () -> mapaCalorService.consultar(5, "-180,-85,180,85"));
+    }
+}
@@ -24,6 +24,9 @@ public class RegionServiceTest {
     @Mock
     private RegionRepository regionRepository;
 
+    @Mock
+    private CatalogoGeograficoService catalogoGeograficoService;
+
     @InjectMocks
     private RegionService regionService;
 
@@ -48,7 +51,7 @@ public class RegionServiceTest {
     @Test
     public void findAll_shouldReturnAllRegions() {
         // Arrange
-        when(regionRepository.findAll()).thenReturn(List.of(region));
+        when(catalogoGeograficoService.findRegiones()).thenReturn(List.of(region));
 
         // Act
         List<Region> regiones = regionService.findAll();
@@ -58,13 +61,13 @@ public class RegionServiceTest {
         assertFalse(regiones.isEmpty());
         assertEquals(1, regiones.size());
         assertEquals(region.getNombre(), regiones.get(0).getNombre());
-        verify(regionRepository, times(1)).findAll();
+        verifyNoInteractions(regionRepository);
     }
 
     @Test
     public void findById_shouldReturnRegion_whenFound() {
         // Arrange
-        when(regionRepository.findById(id)).thenReturn(Optional.of(region));
+        when(catalogoGeograficoService.findRegion(id)).thenReturn(Optional.of(region));
 
         // Act
         Region encontrada = regionService.findById(id);
@@ -72,7 +75,7 @@ public class RegionServiceTest {
         // Assert
         assertNotNull(encontrada);
         assertEquals(region.getNombre(), encontrada.getNombre());
-        verify(regionRepository, times(1)).findById(id);
+        verifyNoInteractions(regionRepository);
     }
 
     @Test
@@ -87,6 +90,7 @@ public class RegionServiceTest {
         assertNotNull(guardada);
         assertEquals(region.getNombre(), guardada.getNombre());
         verify(regionRepository, times(1)).save(region);
+        verify(catalogoGeograficoService, times(1)).recargar();
     }
 
     @Test
@@ -136,11 +140,19 @@ public class RegionServiceTest {
     @Test
     public void findById_shouldThrowException_whenNotFound() {
         // Arrange
-        when(regionRepository.findById(id)).thenReturn(Optional.empty());
+        when(catalogoGeograficoService.findRegion(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> regionService.findById(id));
-        verify(regionRepository, times(1)).findById(id);
+    }
+
+    @Test
+    public void findComunas_shouldThrowException_whenRegionNotFound() {
+        // Arrange
+        when(catalogoGeograficoService.findComunasDeRegion(id)).thenThrow(new NoSuchElementException());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> regionService.findComunas(id));
     }
 
     // --- Pruebas de Validación en SAVE ---
@@ -0,0 +1,114 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.dto.MatrizRutasDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.PuntoDTO;
+import com.SAFE_Rescue.API_Geolocalizacion.dto.RutaDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RutasServiceTest {
+
+    // Cuadrado de ~930 m × ~1110 m: 1-2, 3-4 y 4-1 residenciales (30 km/h, doble sentido), 2→3 primaria de un
+    // solo sentido (60 km/h). La vereda 1-3 no es transitable y la vía 10-11 queda aislada del resto.
+    private static final String OSM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <osm version="0.6">
+              <node id="1" lat="-33.4500" lon="-70.6500"/>
+              <node id="2" lat="-33.4500" lon="-70.6400"/>
+              <node id="3" lat="-33.4400" lon="-70.6400"/>
+              <node id="4" lat="-33.4400" lon="-70.6500"/>
+              <node id="10" lat="-33.5000" lon="-70.7000"/>
+              <node id="11" lat="-33.5000" lon="-70.7100"/>
+              <way id="100"><nd ref="1"/><nd ref="2"/><tag k="highway" v="residential"/></way>
+              <way id="101"><nd ref="2"/><nd ref="3"/><tag k="highway" v="primary"/><tag k="oneway" v="yes"/></way>
+              <way id="102"><nd ref="3"/><nd ref="4"/><nd ref="1"/><tag k="highway" v="residential"/></way>
+              <way id="103"><nd ref="1"/><nd ref="3"/><tag k="highway" v="footway"/></way>
+              <way id="104"><nd ref="10"/><nd ref="11"/><tag k="highway" v="residential"/></way>
+            </osm>
+            """;
+
+    private RutasService rutasService;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path archivo = directorio.resolve("red-vial.osm");
+        Files.writeString(archivo, OSM);
+        rutasService = new RutasService();
+        ReflectionTestUtils.setField(rutasService, "archivo", archivo.toString());
+        ReflectionTestUtils.setField(rutasService, "cantidadLandmarks", 2);
+        ReflectionTestUtils.setField(rutasService, "distanciaAccesoMaxima", 500.0);
+        rutasService.cargar();
+    }
+
+    @Test
+    public void calcularEta_shouldUseFastestRoute_andRespectOneway() {
+        // Act
+        RutaDTO ida = rutasService.calcularEta("-33.4501,-70.6501", "-33.44,-70.64");
+        RutaDTO vuelta = rutasService.calcularEta("-33.44,-70.64", "-33.45,-70.65");
+
+        // Assert: de ida por la primaria (1-2-3); de vuelta no se puede tomar 3→2, así que va por 3-4-1
+        assertEquals(178.05, ida.getTiempoSegundos(), 0.01);
+        assertEquals(2040L, ida.getDistanciaMetros());
+        assertTrue(ida.getAccesoOrigenMetros() > 0);
+        assertEquals(244.78, vuelta.getTiempoSegundos(), 0.01);
+    }
+
+    @Test
+    public void calcularMatriz_shouldReturnOneRoutePerDestino_inOrder() {
+        // Arrange: del nodo 1 y de un punto fuera de la red, hacia el nodo 3
+        MatrizRutasDTO solicitud = new MatrizRutasDTO(new PuntoDTO(-33.44, -70.64),
+                List.of(new PuntoDTO(-33.45, -70.65), new PuntoDTO(-34.0, -71.0), new PuntoDTO(-33.44, -70.64)), true);
+
+        // Act
+        List<RutaDTO> rutas = rutasService.calcularMatriz(solicitud);
+
+        // Assert
+        assertEquals(3, rutas.size());
+        assertEquals(178.05, rutas.get(0).getTiempoSegundos(), 0.01);
+        assertNull(rutas.get(1).getTiempoSegundos());
+        assertNull(rutas.get(1).getAccesoDestinoMetros());
+        assertEquals(0.0, rutas.get(2).getTiempoSegundos());
+    }
+
+    @Test
+    public void calcularEta_shouldThrowException_whenPointIsInvalidOrOffNetwork() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> rutasService.calcularEta("-33.45", "-33.44,-70.64"));
+        assertThrows(IllegalArgumentException.class, () -> rutasService.calcularEta("abc,-70.65", "-33.44,-70.64"));
+        assertThrows(IllegalArgumentException.class, () -> rutasService.calcularEta("-95,-70.65", "-33.44,-70.64"));
+        // La vía 10-11 no está conectada con el resto, así que no forma parte de la red
+        assertThrows(IllegalArgumentException.class, () -> rutasService.calcularEta("-33.50,-70.70", "-33.44,-70.64"));
+    }
+
+    @Test
+    public void calcularMatriz_shouldThrowException_whenDestinosAreMissing() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> rutasService.calcularMatriz(new MatrizRutasDTO(new PuntoDTO(-33.44, -70.64), List.of(), false)));
+        assertThrows(IllegalArgumentException.class,
+                () -> rutasService.calcularMatriz(new MatrizRutasDTO(null, List.of(new PuntoDTO(-33.45, -70.65)), false)));
+    }
+
+    @Test
+    public void calcularEta_shouldThrowIllegalState_whenNetworkIsNotLoaded() {
+        // Arrange
+        RutasService sinRed = new RutasService();
+        ReflectionTestUtils.setField(sinRed, "archivo", directorio.resolve("no-existe.osm").toString());
+        sinRed.cargar();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> sinRed.calcularEta("-33.45,-70.65", "-33.44,-70.64"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.SAFE_Rescue.API_Geolocalizacion.service;
+
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Coordenadas;
+import com.SAFE_Rescue.API_Geolocalizacion.modelo.Direccion;
+import com.SAFE_Rescue.API_Geolocalizacion.repositoy.DireccionRepository;
+import com.SAFE_Rescue.API_Geolocalizacion.util.GeoHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UbicacionEnLineaServiceTest {
+
+    @Mock
+    private DireccionRepository direccionRepository;
+
+    @InjectMocks
+    private UbicacionEnLineaService ubicacionEnLineaService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(ubicacionEnLineaService, "activo", true);
+        ReflectionTestUtils.setField(ubicacionEnLineaService, "tamanioLote", 2);
+    }
+
+    @Test
+    public void codificar_shouldReturnKnownGeohash() {
+        // Act & Assert: valores de referencia del algoritmo
+        assertEquals("ezs42", GeoHash.codificar(42.6, -5.6, 5));
+        assertEquals("u4pruydqqvj", GeoHash.codificar(57.64911, 10.40744, 11));
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.codificar(0, 0, 13));
+    }
+
+    @Test
+    public void completar_shouldCopyCoordenadasAsDecimalDouble_andComputeGeohash() {
+        // Arrange
+        Direccion direccion = new Direccion();
+        direccion.setCoordenadas(new Coordenadas(1, -33.4489f, -70.6693f));
+
+        // Act
+        ubicacionEnLineaService.completar(direccion);
+
+        // Assert: el Float se convierte a su valor decimal, no a -33.44889831542969
+        assertEquals(-33.4489, direccion.getLatitud());
+        assertEquals(-70.6693, direccion.getLongitud());
+        assertEquals(GeoHash.codificar(-33.4489, -70.6693, GeoHash.PRECISION), direccion.getGeohash());
+    }
+
+    @Test
+    public void completar_shouldKeepInlineLocation_whenAlreadyPresent() {
+        // Arrange
+        Direccion direccion = new Direccion();
+        direccion.setCoordenadas(new Coordenadas(1, -33.4489f, -70.6693f));
+        direccion.setLatitud(-33.448912);
+        direccion.setLongitud(-70.669287);
+
+        // Act
+        ubicacionEnLineaService.completar(direccion);
+
+        // Assert
+        assertEquals(-33.448912, direccion.getLatitud());
+        assertEquals(-70.669287, direccion.getLongitud());
+    }
+
+    @Test
+    public void migrar_shouldCopyPendingLocations_pageByPage() {
+        // Arrange: lote de 2, así que hay una segunda página desde el ID 5
+        List<Object[]> primera = new ArrayList<>();
+        primera.add(new Object[]{3, -33.4489f, -70.6693f});
+        primera.add(new Object[]{5, -33.4263f, -70.6170f});
+        List<Object[]> segunda = new ArrayList<>();
+        segunda.add(new Object[]{8, -33.5000f, -70.7000f});
+        when(direccionRepository.findUbicacionesPendientes(eq(0), any(Pageable.class))).thenReturn(primera);
+        when(direccionRepository.findUbicacionesPendientes(eq(5), any(Pageable.class))).thenReturn(segunda);
+        when(direccionRepository.actualizarUbicaciones(anyList())).thenReturn(2, 1);
+
+        // Act
+        int migradas = ubicacionEnLineaService.migrar();
+
+        // Assert
+        assertEquals(3, migradas);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> filas = ArgumentCaptor.forClass(List.class);
+        verify(direccionRepository, times(2)).actualizarUbicaciones(filas.capture());
+        assertArrayEquals(new Object[]{3, -33.4489, -70.6693}, filas.getAllValues().get(0).get(0));
+        assertArrayEquals(new Object[]{8, -33.5, -70.7}, filas.getAllValues().get(1).get(0));
+    }
+
+    @Test
+    public void alIniciar_shouldNotMigrate_whenModeIsInactive() {
+        // Arrange
+        ReflectionTestUtils.setField(ubicacionEnLineaService, "activo", false);
+
+        // Act
+        ubicacionEnLineaService.alIniciar();
+
+        // Assert
+        verifyNoInteractions(direccionRepository);
+    }
+
+    @Test
+    public void actualizarCoordenadas_shouldPropagateToDirecciones() {
+        // Act
+        ubicacionEnLineaService.actualizarCoordenadas(7, -33.4489f, -70.6693f);
+
+        // Assert
+        verify(direccionRepository, times(1)).actualizarUbicacionPorCoordenadas(7, -33.4489, -70.6693,
+                GeoHash.codificar(-33.4489, -70.6693, GeoHash.PRECISION));
+    }
+}